@@ -0,0 +1,20 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.util.Date;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChangeEvent;
+
+public interface ActiveScheduleChangeDao {
+
+	ActiveScheduleChangeEvent create(ActiveScheduleEntity activeScheduleEntity, String action);
+
+	List<ActiveScheduleChangeEvent> findAfter(long afterSequence, int limit);
+
+	Long findMinSequence();
+
+	Long findMaxSequence();
+
+	Long deleteCreatedBefore(Date createdBefore);
+}
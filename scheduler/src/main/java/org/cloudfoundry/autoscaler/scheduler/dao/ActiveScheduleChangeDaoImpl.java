@@ -0,0 +1,118 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChangeEvent;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The change log of the active schedules, the sequence numbers are given by the database so they
+ * keep increasing across restarts.
+ */
+@Repository("activeScheduleChangeDao")
+public class ActiveScheduleChangeDaoImpl extends JdbcDaoSupport implements ActiveScheduleChangeDao {
+
+	private static final String TABLE_NAME = "app_scaling_active_schedule_change";
+
+	private static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME
+			+ "(app_id, schedule_id, start_job_identifier, action, instance_min_count, instance_max_count, "
+			+ "initial_min_instance_count) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING *";
+
+	private static final String SELECT_AFTER_SQL = "SELECT * FROM " + TABLE_NAME
+			+ " WHERE sequence > ? ORDER BY sequence LIMIT ?";
+
+	private static final String SELECT_MIN_SQL = "SELECT MIN(sequence) FROM " + TABLE_NAME;
+
+	private static final String SELECT_MAX_SQL = "SELECT MAX(sequence) FROM " + TABLE_NAME;
+
+	private static final String DELETE_BEFORE_SQL = "WITH deleted AS (DELETE FROM " + TABLE_NAME
+			+ " WHERE created_at < ? RETURNING sequence) SELECT MAX(sequence) FROM deleted";
+
+	private static final RowMapper<ActiveScheduleChangeEvent> ROW_MAPPER = ActiveScheduleChangeDaoImpl::mapRow;
+
+	@Autowired
+	private void setupDataSource(DataSource dataSource) {
+		setDataSource(dataSource);
+	}
+
+	@Override
+	public ActiveScheduleChangeEvent create(ActiveScheduleEntity activeScheduleEntity, String action) {
+		Object[] objects = new Object[] { activeScheduleEntity.getAppId(), activeScheduleEntity.getId(),
+				activeScheduleEntity.getStartJobIdentifier(), action, activeScheduleEntity.getInstanceMinCount(),
+				activeScheduleEntity.getInstanceMaxCount(), activeScheduleEntity.getInitialMinInstanceCount() };
+		try {
+			return getJdbcTemplate().queryForObject(INSERT_SQL, objects, ROW_MAPPER);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Create active schedule change failed", e);
+		}
+	}
+
+	@Override
+	public List<ActiveScheduleChangeEvent> findAfter(long afterSequence, int limit) {
+		try {
+			return getJdbcTemplate().query(SELECT_AFTER_SQL, new Object[] { afterSequence, limit }, ROW_MAPPER);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Select active schedule changes after:" + afterSequence + " failed",
+					e);
+		}
+	}
+
+	@Override
+	public Long findMinSequence() {
+		try {
+			return getJdbcTemplate().queryForObject(SELECT_MIN_SQL, Long.class);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Select min active schedule change sequence failed", e);
+		}
+	}
+
+	@Override
+	public Long findMaxSequence() {
+		try {
+			return getJdbcTemplate().queryForObject(SELECT_MAX_SQL, Long.class);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Select max active schedule change sequence failed", e);
+		}
+	}
+
+	/**
+	 * Deletes the changes created before the time.
+	 *
+	 * @return - the highest deleted sequence, or null if none was deleted
+	 */
+	@Override
+	public Long deleteCreatedBefore(Date createdBefore) {
+		try {
+			return getJdbcTemplate().queryForObject(DELETE_BEFORE_SQL, Long.class, createdBefore);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Delete active schedule changes failed", e);
+		}
+	}
+
+	private static ActiveScheduleChangeEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+		long startJobIdentifier = rs.getLong("start_job_identifier");
+		Long nullableStartJobIdentifier = rs.wasNull() ? null : startJobIdentifier;
+		int instanceMinCount = rs.getInt("instance_min_count");
+		Integer nullableInstanceMinCount = rs.wasNull() ? null : instanceMinCount;
+		int instanceMaxCount = rs.getInt("instance_max_count");
+		Integer nullableInstanceMaxCount = rs.wasNull() ? null : instanceMaxCount;
+		int initialMinInstanceCount = rs.getInt("initial_min_instance_count");
+		Integer nullableInitialMinInstanceCount = rs.wasNull() ? null : initialMinInstanceCount;
+
+		return new ActiveScheduleChangeEvent(rs.getLong("sequence"), rs.getString("action"), rs.getString("app_id"),
+				rs.getLong("schedule_id"), nullableStartJobIdentifier, nullableInstanceMinCount,
+				nullableInstanceMaxCount, nullableInitialMinInstanceCount,
+				rs.getTimestamp("created_at").toInstant().toString());
+	}
+}
@@ -3,6 +3,7 @@ package org.cloudfoundry.autoscaler.scheduler.dao;
 import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ActiveScheduleDao {
 
@@ -15,4 +16,10 @@ public interface ActiveScheduleDao {
 	int deleteActiveSchedulesByAppId(String appId);
 
 	List<ActiveScheduleEntity> findByAppId(String appId);
+
+	List<ActiveScheduleEntity> findAll();
+
+	void findAll(int fetchSize, Consumer<ActiveScheduleEntity> consumer);
+
+	List<ActiveScheduleEntity> deleteActiveSchedulesByAppIds(List<String> appIds);
 }
@@ -1,6 +1,8 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.sql.DataSource;
 
@@ -9,6 +11,7 @@ import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationExcept
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.support.JdbcDaoSupport;
 import org.springframework.stereotype.Repository;
 
@@ -29,6 +32,10 @@ public class ActiveScheduleDaoImpl extends JdbcDaoSupport implements ActiveSched
 
 	private static final String SELECT_BY_APPID_SQL = "SELECT * FROM " + TABLE_NAME + " WHERE app_id=?";
 
+	private static final String SELECT_ALL_SQL = "SELECT * FROM " + TABLE_NAME;
+
+	private static final String DELETE_BY_APPIDS_SQL = "DELETE FROM " + TABLE_NAME + " WHERE app_id IN (%s) RETURNING *";
+
 	@Autowired
 	private void setupDataSource(DataSource dataSource) {
 		setDataSource(dataSource);
@@ -84,4 +91,42 @@ public class ActiveScheduleDaoImpl extends JdbcDaoSupport implements ActiveSched
 			throw new DatabaseValidationException("Select active schedules by Application Id:" + appId + " failed", e);
 		}
 	}
+
+	@Override
+	public List<ActiveScheduleEntity> findAll() {
+		try {
+			return getJdbcTemplate().query(SELECT_ALL_SQL, new ActiveScheduleEntity());
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Select all active schedules failed", e);
+		}
+	}
+
+	/**
+	 * Passes the active schedules to the consumer as they are read, fetched from the database in
+	 * batches of the fetch size when called within a transaction.
+	 */
+	@Override
+	public void findAll(int fetchSize, Consumer<ActiveScheduleEntity> consumer) {
+		ActiveScheduleEntity rowMapper = new ActiveScheduleEntity();
+		try {
+			getJdbcTemplate().query(SELECT_ALL_SQL, preparedStatement -> preparedStatement.setFetchSize(fetchSize),
+					(RowCallbackHandler) resultSet -> consumer.accept(rowMapper.mapRow(resultSet, 0)));
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Select all active schedules failed", e);
+		}
+	}
+
+	@Override
+	public List<ActiveScheduleEntity> deleteActiveSchedulesByAppIds(List<String> appIds) {
+		if (appIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String placeholders = String.join(", ", Collections.nCopies(appIds.size(), "?"));
+		try {
+			return getJdbcTemplate().query(String.format(DELETE_BY_APPIDS_SQL, placeholders), appIds.toArray(),
+					new ActiveScheduleEntity());
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Delete active schedules by Application Ids failed", e);
+		}
+	}
 }
@@ -1,5 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
+import java.util.List;
+
 /**
  * 
  *
@@ -9,6 +11,11 @@ public interface GenericDao<T> {
 
 	public T create(T entity);
 
+	/**
+	 * Creates the entities with a single flush, so the inserts can be batched.
+	 */
+	public List<T> createAll(List<T> entities);
+
 	public T update(T entity);
 
 	public void delete(T entity);
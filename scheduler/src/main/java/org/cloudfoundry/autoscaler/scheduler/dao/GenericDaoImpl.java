@@ -1,5 +1,9 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
@@ -36,6 +40,44 @@ class GenericDaoImpl<T> implements GenericDao<T> {
 		}
 	}
 
+	@Override
+	public List<T> createAll(List<T> entities) {
+		try {
+			for (T entity : entities) {
+				entityManager.persist(entity);
+			}
+			entityManager.flush();
+			return entities;
+		} catch (Exception exception) {
+			throw new DatabaseValidationException("Create failed", exception);
+		}
+	}
+
+	/**
+	 * Deletes the rows of the applications with a single statement.
+	 *
+	 * @return - the application id of each deleted schedule id
+	 */
+	Map<Long, String> deleteAllByAppIds(String tableName, List<String> appIds) {
+		Map<Long, String> deletedSchedules = new LinkedHashMap<>();
+		if (appIds.isEmpty()) {
+			return deletedSchedules;
+		}
+		try {
+			@SuppressWarnings("unchecked")
+			List<Object[]> rows = entityManager
+					.createNativeQuery("DELETE FROM " + tableName
+							+ " WHERE app_id IN (:appIds) RETURNING schedule_id, app_id")
+					.setParameter("appIds", appIds).getResultList();
+			for (Object[] row : rows) {
+				deletedSchedules.put(((Number) row[0]).longValue(), (String) row[1]);
+			}
+			return deletedSchedules;
+		} catch (Exception exception) {
+			throw new DatabaseValidationException("Delete by Application Ids failed", exception);
+		}
+	}
+
 	@Override
 	public T update(T entity) {
 		try {
@@ -0,0 +1,26 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.util.Set;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.PartitionLeaseEntity;
+
+public interface PartitionLeaseDao {
+
+	void createPartitions(int partitionCount);
+
+	void heartbeatNode(String nodeId, long ttlMillis);
+
+	void deleteNode(String nodeId);
+
+	int countLiveNodes();
+
+	Set<Integer> renewLeases(String nodeId, long ttlMillis);
+
+	PartitionLeaseEntity acquireLease(String nodeId, int partitionCount, long ttlMillis, long takeoverGraceMillis);
+
+	int releaseLease(int partitionId, String nodeId);
+
+	int releaseLeases(String nodeId);
+
+	int resetAcquiredTriggers(String schedulerName, String instanceName);
+}
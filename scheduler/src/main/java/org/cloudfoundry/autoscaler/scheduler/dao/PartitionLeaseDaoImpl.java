@@ -0,0 +1,168 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.PartitionLeaseEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.stereotype.Repository;
+
+@Repository("partitionLeaseDao")
+public class PartitionLeaseDaoImpl extends JdbcDaoSupport implements PartitionLeaseDao {
+
+	private static final String NODE_TABLE_NAME = "app_scaling_scheduler_node";
+
+	private static final String LEASE_TABLE_NAME = "app_scaling_partition_lease";
+
+	private static final String INSERT_PARTITIONS_SQL = "INSERT INTO " + LEASE_TABLE_NAME + "(partition_id) "
+			+ "SELECT p FROM generate_series(0, ?) p WHERE NOT EXISTS "
+			+ "(SELECT 1 FROM " + LEASE_TABLE_NAME + " WHERE partition_id = p)";
+
+	private static final String UPDATE_NODE_SQL = "UPDATE " + NODE_TABLE_NAME
+			+ " SET heartbeat_expires_at = now() + ? * interval '1 millisecond' WHERE node_id=?";
+
+	private static final String INSERT_NODE_SQL = "INSERT INTO " + NODE_TABLE_NAME
+			+ "(node_id, heartbeat_expires_at) VALUES (?, now() + ? * interval '1 millisecond')";
+
+	private static final String DELETE_NODE_SQL = "DELETE FROM " + NODE_TABLE_NAME + " WHERE node_id=?";
+
+	private static final String COUNT_LIVE_NODES_SQL = "SELECT count(*) FROM " + NODE_TABLE_NAME
+			+ " WHERE heartbeat_expires_at > now()";
+
+	private static final String RENEW_LEASES_SQL = "UPDATE " + LEASE_TABLE_NAME
+			+ " SET lease_expires_at = now() + ? * interval '1 millisecond' WHERE owner_node_id=? "
+			+ "RETURNING partition_id";
+
+	// Claims the lowest free partition, or expired one past the takeover grace period, concurrent nodes
+	// skip each other's candidate rows. Returns the owner before the takeover.
+	private static final String ACQUIRE_LEASE_SQL = "UPDATE " + LEASE_TABLE_NAME
+			+ " lease SET owner_node_id = ?, lease_expires_at = now() + ? * interval '1 millisecond' "
+			+ "FROM (SELECT partition_id, owner_node_id FROM " + LEASE_TABLE_NAME
+			+ " WHERE partition_id < ? AND (owner_node_id IS NULL OR lease_expires_at < now() - ? * interval "
+			+ "'1 millisecond') ORDER BY partition_id LIMIT 1 FOR UPDATE SKIP LOCKED) previous "
+			+ "WHERE lease.partition_id = previous.partition_id "
+			+ "RETURNING lease.partition_id, previous.owner_node_id AS previous_owner_node_id";
+
+	private static final String RELEASE_LEASE_SQL = "UPDATE " + LEASE_TABLE_NAME
+			+ " SET owner_node_id = NULL, lease_expires_at = NULL WHERE partition_id=? and owner_node_id=?";
+
+	private static final String RELEASE_LEASES_SQL = "UPDATE " + LEASE_TABLE_NAME
+			+ " SET owner_node_id = NULL, lease_expires_at = NULL WHERE owner_node_id=?";
+
+	// Same recovery as the Quartz JDBC job store does on startup of a non clustered scheduler, limited
+	// to the triggers of the jobs the failed owner of the partition left acquired or executing.
+	private static final String RESET_ACQUIRED_TRIGGERS_SQL = "UPDATE qrtz_triggers SET trigger_state='WAITING' "
+			+ "WHERE sched_name=? AND trigger_state IN ('ACQUIRED', 'BLOCKED') AND (job_name, job_group) IN "
+			+ "(SELECT job_name, job_group FROM qrtz_fired_triggers WHERE sched_name=? AND instance_name=?)";
+
+	private static final String DELETE_FIRED_TRIGGERS_SQL = "DELETE FROM qrtz_fired_triggers "
+			+ "WHERE sched_name=? AND instance_name=?";
+
+	@Autowired
+	private void setupDataSource(DataSource dataSource) {
+		setDataSource(dataSource);
+	}
+
+	@Override
+	public void createPartitions(int partitionCount) {
+		try {
+			getJdbcTemplate().update(INSERT_PARTITIONS_SQL, partitionCount - 1);
+		} catch (DuplicateKeyException dke) {
+			// Another node created the partitions concurrently
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Create partitions failed", e);
+		}
+	}
+
+	@Override
+	public void heartbeatNode(String nodeId, long ttlMillis) {
+		try {
+			if (getJdbcTemplate().update(UPDATE_NODE_SQL, ttlMillis, nodeId) == 0) {
+				getJdbcTemplate().update(INSERT_NODE_SQL, nodeId, ttlMillis);
+			}
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Heartbeat for node:" + nodeId + " failed", e);
+		}
+	}
+
+	@Override
+	public void deleteNode(String nodeId) {
+		try {
+			getJdbcTemplate().update(DELETE_NODE_SQL, nodeId);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Delete node:" + nodeId + " failed", e);
+		}
+	}
+
+	@Override
+	public int countLiveNodes() {
+		try {
+			return getJdbcTemplate().queryForObject(COUNT_LIVE_NODES_SQL, Integer.class);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Count live nodes failed", e);
+		}
+	}
+
+	@Override
+	public Set<Integer> renewLeases(String nodeId, long ttlMillis) {
+		try {
+			List<Integer> partitionIds = getJdbcTemplate().queryForList(RENEW_LEASES_SQL, Integer.class, ttlMillis,
+					nodeId);
+			return new HashSet<>(partitionIds);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Renew leases for node:" + nodeId + " failed", e);
+		}
+	}
+
+	@Override
+	public PartitionLeaseEntity acquireLease(String nodeId, int partitionCount, long ttlMillis,
+			long takeoverGraceMillis) {
+		try {
+			Object[] objects = new Object[] { nodeId, ttlMillis, partitionCount, takeoverGraceMillis };
+			List<PartitionLeaseEntity> partitionLeases = getJdbcTemplate().query(ACQUIRE_LEASE_SQL, objects,
+					new PartitionLeaseEntity());
+			return partitionLeases.isEmpty() ? null : partitionLeases.get(0);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Acquire lease for node:" + nodeId + " failed", e);
+		}
+	}
+
+	@Override
+	public int releaseLease(int partitionId, String nodeId) {
+		try {
+			return getJdbcTemplate().update(RELEASE_LEASE_SQL, partitionId, nodeId);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Release lease:" + partitionId + " for node:" + nodeId + " failed",
+					e);
+		}
+	}
+
+	@Override
+	public int releaseLeases(String nodeId) {
+		try {
+			return getJdbcTemplate().update(RELEASE_LEASES_SQL, nodeId);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Release leases for node:" + nodeId + " failed", e);
+		}
+	}
+
+	@Override
+	public int resetAcquiredTriggers(String schedulerName, String instanceName) {
+		try {
+			int resetTriggerCount = getJdbcTemplate().update(RESET_ACQUIRED_TRIGGERS_SQL, schedulerName,
+					schedulerName, instanceName);
+			getJdbcTemplate().update(DELETE_FIRED_TRIGGERS_SQL, schedulerName, instanceName);
+			return resetTriggerCount;
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Reset acquired triggers for scheduler:" + schedulerName
+					+ " instance:" + instanceName + " failed", e);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.PendingNotificationEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+
+public interface PendingNotificationDao {
+
+	void create(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction);
+
+	List<PendingNotificationEntity> claimOldest(int limit, long claimMillis);
+
+	int releaseClaims(List<Long> ids);
+
+	int delete(Long id);
+
+	int deleteUnclaimed(List<ActiveScheduleEntity> activeScheduleEntities);
+
+	long count();
+
+	boolean tryLockForReplay();
+}
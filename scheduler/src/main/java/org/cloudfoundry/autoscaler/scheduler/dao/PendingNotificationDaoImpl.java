@@ -0,0 +1,148 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.PendingNotificationEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.stereotype.Repository;
+
+@Repository("pendingNotificationDao")
+public class PendingNotificationDaoImpl extends JdbcDaoSupport implements PendingNotificationDao {
+
+	private static final String TABLE_NAME = "app_scaling_pending_notification";
+
+	// Key of the transaction level advisory lock taken by the instance replaying the queue
+	private static final long REPLAY_LOCK_KEY = 0x5343484E4F544946L;
+
+	private static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME
+			+ "(app_id, schedule_id, start_job_identifier, action, instance_min_count, instance_max_count, "
+			+ "initial_min_instance_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+	// Claims nothing while another claim is unexpired, so the notifications are sent in order
+	private static final String CLAIM_OLDEST_SQL = "UPDATE " + TABLE_NAME
+			+ " SET claimed_until = now() + ? * INTERVAL '1 millisecond' WHERE id IN (SELECT id FROM " + TABLE_NAME
+			+ " ORDER BY id LIMIT ?) AND NOT EXISTS (SELECT 1 FROM " + TABLE_NAME
+			+ " WHERE claimed_until > now()) RETURNING *";
+
+	private static final String RELEASE_CLAIMS_SQL = "UPDATE " + TABLE_NAME + " SET claimed_until = NULL WHERE id IN (%s)";
+
+	private static final String DELETE_SQL = "DELETE FROM " + TABLE_NAME + " WHERE id=?";
+
+	// The claimed notifications are being replayed, they are left to the replay
+	private static final String DELETE_UNCLAIMED_SQL = "DELETE FROM " + TABLE_NAME
+			+ " WHERE app_id=? AND schedule_id=? AND (claimed_until IS NULL OR claimed_until <= now())";
+
+	private static final String COUNT_SQL = "SELECT COUNT(*) FROM " + TABLE_NAME;
+
+	private static final String LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?)";
+
+	@Autowired
+	private void setupDataSource(DataSource dataSource) {
+		setDataSource(dataSource);
+	}
+
+	@Override
+	public void create(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+		Object[] objects = new Object[] { activeScheduleEntity.getAppId(), activeScheduleEntity.getId(),
+				activeScheduleEntity.getStartJobIdentifier(), scalingAction.name(),
+				activeScheduleEntity.getInstanceMinCount(), activeScheduleEntity.getInstanceMaxCount(),
+				activeScheduleEntity.getInitialMinInstanceCount() };
+		try {
+			getJdbcTemplate().update(INSERT_SQL, objects);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Create pending notification failed", e);
+		}
+	}
+
+	/**
+	 * Claims the oldest pending notifications until the claim expires, an instance that stops while
+	 * replaying them leaves them to be claimed again once the claim expires.
+	 *
+	 * @return - the claimed notifications in order, empty if an unexpired claim exists
+	 */
+	@Override
+	public List<PendingNotificationEntity> claimOldest(int limit, long claimMillis) {
+		try {
+			List<PendingNotificationEntity> claimed = getJdbcTemplate().query(CLAIM_OLDEST_SQL,
+					new Object[] { claimMillis, limit }, new PendingNotificationEntity());
+			claimed.sort(Comparator.comparing(PendingNotificationEntity::getId));
+			return claimed;
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Claim pending notifications failed", e);
+		}
+	}
+
+	@Override
+	public int releaseClaims(List<Long> ids) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+		try {
+			return getJdbcTemplate().update(String.format(RELEASE_CLAIMS_SQL, placeholders), ids.toArray());
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Release pending notification claims failed", e);
+		}
+	}
+
+	@Override
+	public int delete(Long id) {
+		try {
+			return getJdbcTemplate().update(DELETE_SQL, id);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Delete pending notification failed, id:" + id, e);
+		}
+	}
+
+	@Override
+	public int deleteUnclaimed(List<ActiveScheduleEntity> activeScheduleEntities) {
+		List<Object[]> batchArgs = new ArrayList<>();
+		for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
+			batchArgs.add(new Object[] { activeScheduleEntity.getAppId(), activeScheduleEntity.getId() });
+		}
+		try {
+			int deletedCount = 0;
+			for (int updateCount : getJdbcTemplate().batchUpdate(DELETE_UNCLAIMED_SQL, batchArgs)) {
+				deletedCount += Math.max(0, updateCount);
+			}
+			return deletedCount;
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Delete pending notifications of removed active schedules failed",
+					e);
+		}
+	}
+
+	@Override
+	public long count() {
+		try {
+			return getJdbcTemplate().queryForObject(COUNT_SQL, Long.class);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Count pending notifications failed", e);
+		}
+	}
+
+	/**
+	 * Takes the replay lock until the end of the current transaction, so one instance of a cluster
+	 * replays the queue at a time and the notifications stay in order.
+	 *
+	 * @return - true if the lock is taken, false if another instance holds it
+	 */
+	@Override
+	public boolean tryLockForReplay() {
+		try {
+			return getJdbcTemplate().queryForObject(LOCK_SQL, Boolean.class, REPLAY_LOCK_KEY);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Lock pending notifications failed", e);
+		}
+	}
+}
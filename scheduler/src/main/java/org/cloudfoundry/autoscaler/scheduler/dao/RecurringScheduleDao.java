@@ -1,6 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
 
@@ -8,4 +9,13 @@ public interface RecurringScheduleDao extends GenericDao<RecurringScheduleEntity
 
 	public List<RecurringScheduleEntity> findAllRecurringSchedulesByAppId(String appId);
 
+	public List<RecurringScheduleEntity> findAllRecurringSchedules();
+
+	/**
+	 * Deletes the recurring schedules of the applications with a single statement.
+	 *
+	 * @return - the application id of each deleted schedule id
+	 */
+	public Map<Long, String> deleteAllRecurringSchedulesByAppIds(List<String> appIds);
+
 }
@@ -1,6 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
@@ -22,4 +23,21 @@ public class RecurringScheduleDaoImpl extends GenericDaoImpl<RecurringScheduleEn
 		}
 	}
 
+	@Override
+	public List<RecurringScheduleEntity> findAllRecurringSchedules() {
+		try {
+			return entityManager
+					.createNamedQuery(RecurringScheduleEntity.query_allRecurringSchedules, RecurringScheduleEntity.class)
+					.getResultList();
+
+		} catch (Exception exception) {
+
+			throw new DatabaseValidationException("Find All recurring schedules failed", exception);
+		}
+	}
+
+	@Override
+	public Map<Long, String> deleteAllRecurringSchedulesByAppIds(List<String> appIds) {
+		return deleteAllByAppIds("app_scaling_recurring_schedule", appIds);
+	}
 }
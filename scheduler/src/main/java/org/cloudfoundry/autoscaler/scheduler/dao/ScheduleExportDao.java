@@ -0,0 +1,23 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleExportFilter;
+
+/**
+ * Reads the schedules for an export in keyset pages, so the memory used does not depend on the
+ * size of the tables.
+ */
+public interface ScheduleExportDao {
+
+	List<String> findAppIds(ScheduleExportFilter filter, String afterAppId, int limit);
+
+	List<SpecificDateScheduleEntity> findSpecificDateSchedulesByAppIds(List<String> appIds);
+
+	List<RecurringScheduleEntity> findRecurringSchedulesByAppIds(List<String> appIds);
+
+	List<ActiveScheduleEntity> findActiveSchedules(ScheduleExportFilter filter, long afterId, int limit);
+}
@@ -0,0 +1,183 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.BitsetUserType;
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleExportFilter;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the schedules with plain JDBC instead of loading them as managed entities. The pages are
+ * selected by the last application id or active schedule id of the previous page, so a page is an
+ * index range scan whatever its position in the table, and the rows are fetched from the database
+ * in batches of the fetch size.
+ */
+@Repository("scheduleExportDao")
+public class ScheduleExportDaoImpl extends JdbcDaoSupport implements ScheduleExportDao {
+
+	private static final String SPECIFIC_DATE_TABLE_NAME = "app_scaling_specific_date_schedule";
+
+	private static final String RECURRING_TABLE_NAME = "app_scaling_recurring_schedule";
+
+	private static final String ACTIVE_TABLE_NAME = "app_scaling_active_schedule";
+
+	private static final String SELECT_APP_IDS_SQL = "SELECT app_id FROM (SELECT app_id, timezone, updated_at FROM "
+			+ SPECIFIC_DATE_TABLE_NAME + " UNION ALL SELECT app_id, timezone, updated_at FROM " + RECURRING_TABLE_NAME
+			+ ") schedules WHERE app_id > ?";
+
+	private static final String SELECT_SPECIFIC_DATE_BY_APPIDS_SQL = "SELECT * FROM " + SPECIFIC_DATE_TABLE_NAME
+			+ " WHERE app_id IN (%s) ORDER BY app_id, schedule_id";
+
+	private static final String SELECT_RECURRING_BY_APPIDS_SQL = "SELECT * FROM " + RECURRING_TABLE_NAME
+			+ " WHERE app_id IN (%s) ORDER BY app_id, schedule_id";
+
+	private static final String SELECT_ACTIVE_SQL = "SELECT * FROM " + ACTIVE_TABLE_NAME + " WHERE id > ?";
+
+	private static final String ACTIVE_TIMEZONE_CONDITION = " AND id IN (SELECT schedule_id FROM "
+			+ SPECIFIC_DATE_TABLE_NAME + " WHERE timezone = ? UNION ALL SELECT schedule_id FROM "
+			+ RECURRING_TABLE_NAME + " WHERE timezone = ?)";
+
+	@Autowired
+	private void setupDataSource(DataSource dataSource, @Value("${scheduler.export.fetch.size}") int fetchSize) {
+		setDataSource(dataSource);
+		getJdbcTemplate().setFetchSize(fetchSize);
+	}
+
+	@Override
+	public List<String> findAppIds(ScheduleExportFilter filter, String afterAppId, int limit) {
+		StringBuilder sql = new StringBuilder(SELECT_APP_IDS_SQL);
+		List<Object> arguments = new ArrayList<>();
+		arguments.add(afterAppId);
+		if (filter.getAppIdPrefix() != null) {
+			sql.append(" AND app_id LIKE ?");
+			arguments.add(toLikePrefix(filter.getAppIdPrefix()));
+		}
+		if (filter.getTimeZone() != null) {
+			sql.append(" AND timezone = ?");
+			arguments.add(filter.getTimeZone());
+		}
+		if (filter.getUpdatedSince() != null) {
+			sql.append(" AND updated_at >= ?");
+			arguments.add(filter.getUpdatedSince());
+		}
+		sql.append(" GROUP BY app_id ORDER BY app_id LIMIT ?");
+		arguments.add(limit);
+
+		try {
+			return getJdbcTemplate().queryForList(sql.toString(), String.class, arguments.toArray());
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Find application ids after:" + afterAppId + " failed", e);
+		}
+	}
+
+	@Override
+	public List<SpecificDateScheduleEntity> findSpecificDateSchedulesByAppIds(List<String> appIds) {
+		if (appIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		try {
+			return getJdbcTemplate().query(String.format(SELECT_SPECIFIC_DATE_BY_APPIDS_SQL, placeholders(appIds)),
+					appIds.toArray(), this::mapSpecificDateSchedule);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Find specific date schedules by Application Ids failed", e);
+		}
+	}
+
+	@Override
+	public List<RecurringScheduleEntity> findRecurringSchedulesByAppIds(List<String> appIds) {
+		if (appIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		try {
+			return getJdbcTemplate().query(String.format(SELECT_RECURRING_BY_APPIDS_SQL, placeholders(appIds)),
+					appIds.toArray(), this::mapRecurringSchedule);
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Find recurring schedules by Application Ids failed", e);
+		}
+	}
+
+	@Override
+	public List<ActiveScheduleEntity> findActiveSchedules(ScheduleExportFilter filter, long afterId, int limit) {
+		StringBuilder sql = new StringBuilder(SELECT_ACTIVE_SQL);
+		List<Object> arguments = new ArrayList<>();
+		arguments.add(afterId);
+		if (filter.getAppIdPrefix() != null) {
+			sql.append(" AND app_id LIKE ?");
+			arguments.add(toLikePrefix(filter.getAppIdPrefix()));
+		}
+		if (filter.getTimeZone() != null) {
+			sql.append(ACTIVE_TIMEZONE_CONDITION);
+			arguments.add(filter.getTimeZone());
+			arguments.add(filter.getTimeZone());
+		}
+		if (filter.getUpdatedSince() != null) {
+			sql.append(" AND created_at >= ?");
+			arguments.add(filter.getUpdatedSince());
+		}
+		sql.append(" ORDER BY id LIMIT ?");
+		arguments.add(limit);
+
+		try {
+			return getJdbcTemplate().query(sql.toString(), arguments.toArray(), new ActiveScheduleEntity());
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Select active schedules after id:" + afterId + " failed", e);
+		}
+	}
+
+	private SpecificDateScheduleEntity mapSpecificDateSchedule(ResultSet rs, int rowNum) throws SQLException {
+		SpecificDateScheduleEntity specificDateScheduleEntity = new SpecificDateScheduleEntity();
+		mapScheduleEntity(rs, specificDateScheduleEntity);
+		specificDateScheduleEntity.setStartDateTime(new Date(rs.getTimestamp("start_date_time").getTime()));
+		specificDateScheduleEntity.setEndDateTime(new Date(rs.getTimestamp("end_date_time").getTime()));
+		return specificDateScheduleEntity;
+	}
+
+	private RecurringScheduleEntity mapRecurringSchedule(ResultSet rs, int rowNum) throws SQLException {
+		RecurringScheduleEntity recurringScheduleEntity = new RecurringScheduleEntity();
+		mapScheduleEntity(rs, recurringScheduleEntity);
+		recurringScheduleEntity.setStartTime(rs.getTime("start_time"));
+		recurringScheduleEntity.setEndTime(rs.getTime("end_time"));
+		recurringScheduleEntity.setStartDate(rs.getDate("start_date"));
+		recurringScheduleEntity.setEndDate(rs.getDate("end_date"));
+		recurringScheduleEntity.setDaysOfWeek(BitsetUserType.toArray(rs.getInt("days_of_week")));
+		recurringScheduleEntity.setDaysOfMonth(BitsetUserType.toArray(rs.getInt("days_of_month")));
+		return recurringScheduleEntity;
+	}
+
+	private void mapScheduleEntity(ResultSet rs, ScheduleEntity scheduleEntity) throws SQLException {
+		scheduleEntity.setId(rs.getLong("schedule_id"));
+		scheduleEntity.setAppId(rs.getString("app_id"));
+		scheduleEntity.setTimeZone(rs.getString("timezone"));
+		scheduleEntity.setInstanceMinCount(rs.getInt("instance_min_count"));
+		scheduleEntity.setInstanceMaxCount(rs.getInt("instance_max_count"));
+		scheduleEntity.setDefaultInstanceMinCount(rs.getInt("default_instance_min_count"));
+		scheduleEntity.setDefaultInstanceMaxCount(rs.getInt("default_instance_max_count"));
+
+		int initialMinInstanceCount = rs.getInt("initial_min_instance_count");
+		scheduleEntity.setInitialMinInstanceCount(rs.wasNull() ? null : initialMinInstanceCount);
+	}
+
+	private static String placeholders(List<?> values) {
+		return String.join(", ", Collections.nCopies(values.size(), "?"));
+	}
+
+	private static String toLikePrefix(String prefix) {
+		return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+	}
+}
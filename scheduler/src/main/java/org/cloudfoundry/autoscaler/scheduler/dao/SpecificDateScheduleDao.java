@@ -1,6 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
 
@@ -12,4 +13,13 @@ public interface SpecificDateScheduleDao extends GenericDao<SpecificDateSchedule
 
 	public List<SpecificDateScheduleEntity> findAllSpecificDateSchedulesByAppId(String appId);
 
+	public List<SpecificDateScheduleEntity> findAllSpecificDateSchedules();
+
+	/**
+	 * Deletes the specific date schedules of the applications with a single statement.
+	 *
+	 * @return - the application id of each deleted schedule id
+	 */
+	public Map<Long, String> deleteAllSpecificDateSchedulesByAppIds(List<String> appIds);
+
 }
@@ -1,6 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
@@ -38,4 +39,25 @@ public class SpecificDateScheduleDaoImpl extends GenericDaoImpl<SpecificDateSche
 		}
 	}
 
+	/*
+	 * Gets the specific date schedules of all the applications
+	 * @see org.cloudfoundry.autoscaler.scheduler.dao.SpecificDateScheduleDao#findAllSpecificDateSchedules()
+	 */
+	@Override
+	public List<SpecificDateScheduleEntity> findAllSpecificDateSchedules() {
+		try {
+			return entityManager.createNamedQuery(SpecificDateScheduleEntity.query_allSpecificDateSchedules,
+					SpecificDateScheduleEntity.class).getResultList();
+
+		} catch (Exception exception) {
+
+			throw new DatabaseValidationException("Find All specific date schedules failed", exception);
+		}
+	}
+
+	@Override
+	public Map<Long, String> deleteAllSpecificDateSchedulesByAppIds(List<String> appIds) {
+		return deleteAllByAppIds("app_scaling_specific_date_schedule", appIds);
+	}
+
 }
@@ -0,0 +1,8 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+public interface TimingWheelWatermarkDao {
+
+	Long findWatermark(String engineName);
+
+	void saveWatermark(String engineName, long watermarkMillis);
+}
@@ -0,0 +1,49 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.support.JdbcDaoSupport;
+import org.springframework.stereotype.Repository;
+
+@Repository("timingWheelWatermarkDao")
+public class TimingWheelWatermarkDaoImpl extends JdbcDaoSupport implements TimingWheelWatermarkDao {
+
+	private static final String TABLE_NAME = "app_scaling_timing_wheel_watermark";
+
+	private static final String SELECT_SQL = "SELECT watermark FROM " + TABLE_NAME + " WHERE engine_name=?";
+
+	private static final String UPDATE_SQL = "UPDATE " + TABLE_NAME + " SET watermark=? WHERE engine_name=?";
+
+	private static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME + "(engine_name, watermark) VALUES (?, ?)";
+
+	@Autowired
+	private void setupDataSource(DataSource dataSource) {
+		setDataSource(dataSource);
+	}
+
+	@Override
+	public Long findWatermark(String engineName) {
+		try {
+			return getJdbcTemplate().queryForObject(SELECT_SQL, Long.class, engineName);
+		} catch (EmptyResultDataAccessException ex) {
+			return null;
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Find watermark of engine:" + engineName + " failed", e);
+		}
+	}
+
+	@Override
+	public void saveWatermark(String engineName, long watermarkMillis) {
+		try {
+			if (getJdbcTemplate().update(UPDATE_SQL, watermarkMillis, engineName) == 0) {
+				getJdbcTemplate().update(INSERT_SQL, engineName, watermarkMillis);
+			}
+		} catch (DataAccessException e) {
+			throw new DatabaseValidationException("Save watermark of engine:" + engineName + " failed", e);
+		}
+	}
+}
@@ -25,6 +25,26 @@ public class BitsetUserType implements UserType {
 		String columnName = names[0];
 		int value = rs.getInt(columnName);
 
+		return toArray(value);
+	}
+
+	@Override
+	public void nullSafeSet(final PreparedStatement statement, final Object value, final int index,
+			final SessionImplementor sessionImplementor) throws HibernateException, SQLException {
+		if (value == null) {
+			statement.setNull(index, SQLTYPE);
+		} else {
+			int bitset = toBitset((int[]) value);
+
+			statement.setInt(index, bitset);
+		}
+	}
+
+	/**
+	 * Converts the bitset stored in the database to the array of days, also used by the JDBC
+	 * readers of the schedules.
+	 */
+	public static int[] toArray(int value) {
 		List<Integer> javaArray = new ArrayList<>();
 		if (value == 0) {
 			return null;
@@ -39,22 +59,14 @@ public class BitsetUserType implements UserType {
 		return javaArray.stream().mapToInt(i -> i).toArray();
 	}
 
-	@Override
-	public void nullSafeSet(final PreparedStatement statement, final Object value, final int index,
-			final SessionImplementor sessionImplementor) throws HibernateException, SQLException {
-		if (value == null) {
-			statement.setNull(index, SQLTYPE);
-		} else {
-			int[] castObject = (int[]) value;
-
-			int bitset = 0;
-
-			for (int i = 0; i < castObject.length; i++) {
-				bitset |= 1 << (castObject[i] - 1);
-			}
+	public static int toBitset(int[] castObject) {
+		int bitset = 0;
 
-			statement.setInt(index, bitset);
+		for (int i = 0; i < castObject.length; i++) {
+			bitset |= 1 << (castObject[i] - 1);
 		}
+
+		return bitset;
 	}
 
 	@Override
@@ -0,0 +1,46 @@
+package org.cloudfoundry.autoscaler.scheduler.entity;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A partition lease taken over by a scheduler node, with the node that owned it before, null if the
+ * partition was free.
+ */
+public class PartitionLeaseEntity implements RowMapper<PartitionLeaseEntity> {
+
+	private Integer partitionId;
+
+	private String previousOwnerNodeId;
+
+	public Integer getPartitionId() {
+		return partitionId;
+	}
+
+	public void setPartitionId(Integer partitionId) {
+		this.partitionId = partitionId;
+	}
+
+	public String getPreviousOwnerNodeId() {
+		return previousOwnerNodeId;
+	}
+
+	public void setPreviousOwnerNodeId(String previousOwnerNodeId) {
+		this.previousOwnerNodeId = previousOwnerNodeId;
+	}
+
+	public PartitionLeaseEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+		PartitionLeaseEntity partitionLeaseEntity = new PartitionLeaseEntity();
+		partitionLeaseEntity.setPartitionId(rs.getInt("partition_id"));
+		partitionLeaseEntity.setPreviousOwnerNodeId(rs.getString("previous_owner_node_id"));
+		return partitionLeaseEntity;
+	}
+
+	@Override
+	public String toString() {
+		return "PartitionLeaseEntity{" + "partitionId=" + partitionId + ", previousOwnerNodeId="
+				+ previousOwnerNodeId + '}';
+	}
+}
@@ -0,0 +1,72 @@
+package org.cloudfoundry.autoscaler.scheduler.entity;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A scaling engine notification deferred while the scaling engine circuit breaker is open, replayed
+ * in id order once the scaling engine is reachable again.
+ */
+public class PendingNotificationEntity implements RowMapper<PendingNotificationEntity> {
+
+	private Long id;
+
+	private JobActionEnum scalingAction;
+
+	private ActiveScheduleEntity activeSchedule;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public JobActionEnum getScalingAction() {
+		return scalingAction;
+	}
+
+	public void setScalingAction(JobActionEnum scalingAction) {
+		this.scalingAction = scalingAction;
+	}
+
+	public ActiveScheduleEntity getActiveSchedule() {
+		return activeSchedule;
+	}
+
+	public void setActiveSchedule(ActiveScheduleEntity activeSchedule) {
+		this.activeSchedule = activeSchedule;
+	}
+
+	public PendingNotificationEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+		ActiveScheduleEntity activeScheduleEntity = new ActiveScheduleEntity();
+		activeScheduleEntity.setId(rs.getLong("schedule_id"));
+		activeScheduleEntity.setAppId(rs.getString("app_id"));
+
+		long startJobIdentifier = rs.getLong("start_job_identifier");
+		activeScheduleEntity.setStartJobIdentifier(rs.wasNull() ? null : startJobIdentifier);
+		int instanceMinCount = rs.getInt("instance_min_count");
+		activeScheduleEntity.setInstanceMinCount(rs.wasNull() ? null : instanceMinCount);
+		int instanceMaxCount = rs.getInt("instance_max_count");
+		activeScheduleEntity.setInstanceMaxCount(rs.wasNull() ? null : instanceMaxCount);
+		int initialMinInstanceCount = rs.getInt("initial_min_instance_count");
+		activeScheduleEntity.setInitialMinInstanceCount(rs.wasNull() ? null : initialMinInstanceCount);
+
+		PendingNotificationEntity pendingNotificationEntity = new PendingNotificationEntity();
+		pendingNotificationEntity.setId(rs.getLong("id"));
+		pendingNotificationEntity.setScalingAction(JobActionEnum.valueOf(rs.getString("action")));
+		pendingNotificationEntity.setActiveSchedule(activeScheduleEntity);
+
+		return pendingNotificationEntity;
+	}
+
+	@Override
+	public String toString() {
+		return "PendingNotificationEntity{" + "id=" + id + ", scalingAction=" + scalingAction + ", activeSchedule="
+				+ activeSchedule + '}';
+	}
+}
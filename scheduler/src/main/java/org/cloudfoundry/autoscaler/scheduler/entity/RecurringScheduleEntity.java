@@ -29,7 +29,8 @@ import io.swagger.annotations.ApiModelProperty;
 @Entity
 @Table(name = "app_scaling_recurring_schedule")
 @NamedQueries({
-		@NamedQuery(name = RecurringScheduleEntity.query_recurringSchedulesByAppId, query = RecurringScheduleEntity.jpql_recurringSchedulesByAppId) })
+		@NamedQuery(name = RecurringScheduleEntity.query_recurringSchedulesByAppId, query = RecurringScheduleEntity.jpql_recurringSchedulesByAppId),
+		@NamedQuery(name = RecurringScheduleEntity.query_allRecurringSchedules, query = RecurringScheduleEntity.jpql_allRecurringSchedules) })
 public class RecurringScheduleEntity extends ScheduleEntity {
 
 	@ApiModelProperty(example = DateHelper.TIME_FORMAT, dataType = "java.lang.String", required = true, position = 3)
@@ -128,6 +129,9 @@ public class RecurringScheduleEntity extends ScheduleEntity {
 	static final String jpql_recurringSchedulesByAppId = " FROM RecurringScheduleEntity"
 			+ " WHERE app_id = :appId";
 
+	public static final String query_allRecurringSchedules = "RecurringScheduleEntity.allSchedules";
+	static final String jpql_allRecurringSchedules = " FROM RecurringScheduleEntity";
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o)
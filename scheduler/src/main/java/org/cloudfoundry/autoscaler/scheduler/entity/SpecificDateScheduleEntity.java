@@ -25,7 +25,8 @@ import io.swagger.annotations.ApiModelProperty;
 @Entity
 @Table(name = "app_scaling_specific_date_schedule")
 @NamedQueries({
-		@NamedQuery(name = SpecificDateScheduleEntity.query_specificDateSchedulesByAppId, query = SpecificDateScheduleEntity.jpql_specificDateSchedulesByAppId) })
+		@NamedQuery(name = SpecificDateScheduleEntity.query_specificDateSchedulesByAppId, query = SpecificDateScheduleEntity.jpql_specificDateSchedulesByAppId),
+		@NamedQuery(name = SpecificDateScheduleEntity.query_allSpecificDateSchedules, query = SpecificDateScheduleEntity.jpql_allSpecificDateSchedules) })
 public class SpecificDateScheduleEntity extends ScheduleEntity {
 
 	@ApiModelProperty(example = DateHelper.DATE_TIME_FORMAT, required = true, position = 1)
@@ -66,6 +67,9 @@ public class SpecificDateScheduleEntity extends ScheduleEntity {
 	static final String jpql_specificDateSchedulesByAppId = " FROM SpecificDateScheduleEntity"
 			+ " WHERE app_id = :appId";
 
+	public static final String query_allSpecificDateSchedules = "SpecificDateScheduleEntity.allSchedules";
+	static final String jpql_allSpecificDateSchedules = " FROM SpecificDateScheduleEntity";
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o)
@@ -2,12 +2,11 @@ package org.cloudfoundry.autoscaler.scheduler.quartz;
 
 import java.text.ParseException;
 import java.util.Date;
-import java.util.TimeZone;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.util.CompiledCronExpression;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
-import org.quartz.CronExpression;
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
@@ -24,10 +23,9 @@ public class AppScalingRecurringScheduleStartJob extends AppScalingScheduleStart
 		String timeZone = jobDataMap.getString(ScheduleJobHelper.TIMEZONE);
 		String expression = jobDataMap.getString(ScheduleJobHelper.END_JOB_CRON_EXPRESSION);
 
-		CronExpression cronExpression;
+		CompiledCronExpression cronExpression;
 		try {
-			cronExpression = new CronExpression(expression);
-			cronExpression.setTimeZone(TimeZone.getTimeZone(timeZone));
+			cronExpression = CompiledCronExpression.getInstance(expression, timeZone);
 		} catch (ParseException pe) {
 			JobKey jobKey = jobExecutionContext.getJobDetail().getKey();
 			String appId = jobDataMap.getString(ScheduleJobHelper.APP_ID);
@@ -17,7 +17,12 @@ public class AppScalingScheduleEndJob extends AppScalingScheduleJob {
 	private Logger logger = LogManager.getLogger(this.getClass());
 
 	@Override
-	public void executeInternal(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+	JobActionEnum getJobAction() {
+		return JobActionEnum.END;
+	}
+
+	@Override
+	void executeJob(JobExecutionContext jobExecutionContext) throws JobExecutionException {
 		JobActionEnum jobEnd = JobActionEnum.END;
 
 		JobDataMap jobDataMap = jobExecutionContext.getJobDetail().getJobDataMap();
@@ -25,9 +30,8 @@ public class AppScalingScheduleEndJob extends AppScalingScheduleJob {
 		String appId = jobDataMap.getString(ScheduleJobHelper.APP_ID);
 		long scheduleId = jobDataMap.getLong(ScheduleJobHelper.SCHEDULE_ID);
 
-		String executingMessage = messageBundleResourceHelper.lookupMessage("scheduler.job.start",
-				jobExecutionContext.getJobDetail().getKey(), appId, scheduleId, jobEnd);
-		logger.info(executingMessage);
+		logger.info(messageBundleResourceHelper.logMessage("scheduler.job.start",
+				jobExecutionContext.getJobDetail().getKey(), appId, scheduleId, jobEnd));
 
 		deleteActiveSchedule(jobExecutionContext);
 
@@ -48,11 +52,15 @@ public class AppScalingScheduleEndJob extends AppScalingScheduleJob {
 		if (!activeScheduleTableTaskDone) {
 			try {
 				activeScheduleDao.delete(scheduleId, startJobIdentifier);
+				activeScheduleView.activeScheduleEnded(appId, scheduleId, startJobIdentifier);
+
+				ActiveScheduleEntity activeScheduleEntity = ScheduleJobHelper.setupActiveSchedule(jobDataMap);
+				activeScheduleEntity.setStartJobIdentifier(startJobIdentifier);
+				activeScheduleChangeFeed.publish(activeScheduleEntity, JobActionEnum.END);
 				jobDataMap.put(ScheduleJobHelper.ACTIVE_SCHEDULE_TABLE_TASK_DONE, true);
 			} catch (DatabaseValidationException dve) {
-				String errorMessage = messageBundleResourceHelper.lookupMessage(
-						"database.error.delete.activeschedule.failed", dve.getMessage(), appId, scheduleId);
-				logger.error(errorMessage, dve);
+				logger.error(messageBundleResourceHelper.logMessage("database.error.delete.activeschedule.failed",
+						dve.getMessage(), appId, scheduleId), dve);
 
 				//Reschedule Job
 				handleJobRescheduling(jobExecutionContext, ScheduleJobHelper.RescheduleCount.ACTIVE_SCHEDULE,
@@ -6,12 +6,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
 import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.service.ActiveScheduleChangeFeed;
+import org.cloudfoundry.autoscaler.scheduler.service.ActiveScheduleView;
 import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.ScalingEngineUtil;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobLaneEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
 import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
@@ -48,39 +53,131 @@ public abstract class AppScalingScheduleJob extends QuartzJobBean {
 	@Autowired
 	ActiveScheduleDao activeScheduleDao;
 
+	@Autowired
+	ActiveScheduleView activeScheduleView;
+
+	@Autowired
+	ActiveScheduleChangeFeed activeScheduleChangeFeed;
+
 	@Autowired
 	private RestTemplate restTemplate;
 
 	@Autowired
 	MessageBundleResourceHelper messageBundleResourceHelper;
 
+	@Autowired
+	ScheduleJobLaneExecutor scheduleJobLaneExecutor;
+
+	@Autowired
+	ScalingEngineBatchNotifier scalingEngineBatchNotifier;
+
+	@Autowired
+	ScalingEngineCircuitBreaker scalingEngineCircuitBreaker;
+
+	abstract JobActionEnum getJobAction();
+
+	abstract void executeJob(JobExecutionContext jobExecutionContext) throws JobExecutionException;
+
+	/**
+	 * Runs the job in the execution lane for its action, or directly on the Quartz worker
+	 * thread when the lanes are disabled.
+	 */
+	@Override
+	protected void executeInternal(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+		if (!scheduleJobLaneExecutor.isLaneEnabled()) {
+			executeJob(jobExecutionContext);
+			return;
+		}
+
+		JobDataMap jobDataMap = jobExecutionContext.getJobDetail().getJobDataMap();
+		ScheduleJobLaneEnum lane = ScheduleJobHelper.getJobLane(getJobAction(), jobDataMap);
+		scheduleJobLaneExecutor.execute(lane, () -> {
+			try {
+				executeJob(jobExecutionContext);
+			} catch (JobExecutionException jee) {
+				// The failure has already been logged and the job rescheduled where applicable
+				logger.debug("Job execution failed in " + lane.getDescription() + ", Job Key: "
+						+ jobExecutionContext.getJobDetail().getKey(), jee);
+			} catch (RuntimeException re) {
+				logger.error("Job execution failed in " + lane.getDescription() + ", Job Key: "
+						+ jobExecutionContext.getJobDetail().getKey(), re);
+			}
+		});
+	}
+
 	void notifyScalingEngine(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction,
 			JobExecutionContext jobExecutionContext) {
 		String appId = activeScheduleEntity.getAppId();
 		Long scheduleId = activeScheduleEntity.getId();
 		HttpEntity<ActiveScheduleEntity> requestEntity = new HttpEntity<>(activeScheduleEntity);
 
+		// The notifications wait behind the pending ones so the notifications of an application stay in order
+		boolean guarded = scalingEngineCircuitBreaker.isEnabled();
+		ScalingEngineCircuitBreaker.Permit permit = null;
+		if (guarded && (scalingEngineCircuitBreaker.hasPendingNotifications()
+				|| (permit = scalingEngineCircuitBreaker.tryAcquire()) == null)) {
+			deferNotification(activeScheduleEntity, scalingAction, jobExecutionContext);
+			return;
+		}
+
+		boolean succeeded = true;
+		boolean connectionFailed = false;
 		try {
 			String scalingEnginePathActiveSchedule = ScalingEngineUtil
 					.getScalingEngineActiveSchedulePath(scalingEngineUrl, appId, scheduleId);
 
 			if (scalingAction == JobActionEnum.START) {
-				String message = messageBundleResourceHelper
-						.lookupMessage("scalingengine.notification.activeschedule.start", appId, scheduleId);
-				logger.info(message);
+				logger.info(messageBundleResourceHelper.logMessage("scalingengine.notification.activeschedule.start",
+						appId, scheduleId));
+			} else {
+				logger.info(messageBundleResourceHelper.logMessage("scalingengine.notification.activeschedule.remove",
+						appId, scheduleId));
+			}
+
+			if (scalingEngineBatchNotifier.isEnabled()) {
+				scalingEngineBatchNotifier.notify(activeScheduleEntity, scalingAction);
+			} else if (scalingAction == JobActionEnum.START) {
 				restTemplate.put(scalingEnginePathActiveSchedule, requestEntity);
 			} else {
-				String message = messageBundleResourceHelper
-						.lookupMessage("scalingengine.notification.activeschedule.remove", appId, scheduleId);
-				logger.info(message);
 				restTemplate.delete(scalingEnginePathActiveSchedule, requestEntity);
 			}
 		} catch (HttpStatusCodeException hce) {
+			succeeded = !hce.getStatusCode().is5xxServerError();
 			handleResponse(activeScheduleEntity, scalingAction, hce);
 		} catch (ResourceAccessException rae) {
-			String message = messageBundleResourceHelper.lookupMessage("scalingengine.notification.error",
-					rae.getMessage(), appId, scheduleId, scalingAction);
-			logger.error(message, rae);
+			succeeded = false;
+			connectionFailed = true;
+			logger.error(messageBundleResourceHelper.logMessage("scalingengine.notification.error", rae.getMessage(),
+					appId, scheduleId, scalingAction), rae);
+		} finally {
+			if (guarded) {
+				scalingEngineCircuitBreaker.release(permit, succeeded);
+			}
+		}
+
+		if (connectionFailed) {
+			// Once the circuit is open the notification is deferred instead of using up the retries
+			if (guarded && scalingEngineCircuitBreaker.isOpen()) {
+				deferNotification(activeScheduleEntity, scalingAction, jobExecutionContext);
+			} else {
+				handleJobRescheduling(jobExecutionContext,
+						ScheduleJobHelper.RescheduleCount.SCALING_ENGINE_NOTIFICATION,
+						maxScalingEngineNotificationRescheduleCount);
+			}
+		}
+	}
+
+	private void deferNotification(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction,
+			JobExecutionContext jobExecutionContext) {
+		String appId = activeScheduleEntity.getAppId();
+		Long scheduleId = activeScheduleEntity.getId();
+		try {
+			scalingEngineCircuitBreaker.defer(activeScheduleEntity, scalingAction);
+			logger.warn(messageBundleResourceHelper.logMessage("scalingengine.notification.deferred",
+					scalingEngineCircuitBreaker.getState(), appId, scheduleId, scalingAction));
+		} catch (DatabaseValidationException dve) {
+			logger.error(messageBundleResourceHelper.logMessage("database.error.create.pendingnotification.failed",
+					dve.getMessage(), appId, scheduleId), dve);
 			handleJobRescheduling(jobExecutionContext, ScheduleJobHelper.RescheduleCount.SCALING_ENGINE_NOTIFICATION,
 					maxScalingEngineNotificationRescheduleCount);
 		}
@@ -92,13 +189,11 @@ public abstract class AppScalingScheduleJob extends QuartzJobBean {
 		Long scheduleId = activeScheduleEntity.getId();
 		HttpStatus errorResponseCode = hsce.getStatusCode();
 		if (errorResponseCode.is4xxClientError()) {
-			String message = messageBundleResourceHelper.lookupMessage("scalingengine.notification.client.error",
-					errorResponseCode, hsce.getResponseBodyAsString(), appId, scheduleId, scalingAction);
-			logger.error(message, hsce);
+			logger.error(messageBundleResourceHelper.logMessage("scalingengine.notification.client.error",
+					errorResponseCode, hsce.getResponseBodyAsString(), appId, scheduleId, scalingAction), hsce);
 		} else {
-			String message = messageBundleResourceHelper.lookupMessage("scalingengine.notification.failed",
-					errorResponseCode, hsce.getResponseBodyAsString(), appId, scheduleId, scalingAction);
-			logger.error(message, hsce);
+			logger.error(messageBundleResourceHelper.logMessage("scalingengine.notification.failed", errorResponseCode,
+					hsce.getResponseBodyAsString(), appId, scheduleId, scalingAction), hsce);
 		}
 	}
 
@@ -115,24 +210,41 @@ public abstract class AppScalingScheduleJob extends QuartzJobBean {
 				+ scheduleId);
 
 		if (jobFireCount < maxCount) {
+			jobDataMap.put(retryCounterTask, ++jobFireCount);
+
+			// Rescheduled end jobs keep the end lane priority, rescheduled start jobs go to the retry lane
 			Date newTriggerTime = new Date(System.currentTimeMillis() + jobRescheduleIntervalMilliSecond);
-			Trigger newTrigger = ScheduleJobHelper.buildTrigger(triggerKey, null, newTriggerTime);
+			int priority = scheduleJobLaneExecutor
+					.getTriggerPriority(ScheduleJobHelper.getJobLane(getJobAction(), jobDataMap));
+			Trigger newTrigger = ScheduleJobHelper.buildTrigger(triggerKey, null, newTriggerTime, priority);
+
+			TimingWheelScheduleEngine timingWheelScheduleEngine = (TimingWheelScheduleEngine) jobExecutionContext
+					.get(TimingWheelScheduleEngine.ENGINE_CONTEXT_KEY);
+			if (timingWheelScheduleEngine != null) {
+				timingWheelScheduleEngine.rescheduleJob(jobExecutionContext, newTrigger);
+				return;
+			}
 
 			try {
 				Scheduler scheduler = jobExecutionContext.getScheduler();
-				jobDataMap.put(retryCounterTask, ++jobFireCount);
 				scheduler.addJob(jobExecutionContext.getJobDetail(), true);
-				scheduler.rescheduleJob(triggerKey, newTrigger);
+				if (scheduleJobLaneExecutor.isLaneEnabled()) {
+					// On a lane the Quartz worker has already returned and the fired trigger may be completed
+					// and removed, so the retry is scheduled with a trigger of its own
+					Trigger retryTrigger = ScheduleJobHelper.buildTrigger(
+							ScheduleJobHelper.buildRetryTriggerKey(triggerKey, newTriggerTime.getTime()),
+							jobExecutionContext.getJobDetail().getKey(), newTriggerTime, priority);
+					scheduler.scheduleJob(retryTrigger);
+				} else {
+					scheduler.rescheduleJob(triggerKey, newTrigger);
+				}
 			} catch (SchedulerException se) {
-				String errorMessage = messageBundleResourceHelper.lookupMessage("scheduler.job.reschedule.failed",
-						se.getMessage(), triggerKey, appId, scheduleId, jobFireCount - 1);
-				logger.error(errorMessage, se);
+				logger.error(messageBundleResourceHelper.logMessage("scheduler.job.reschedule.failed", se.getMessage(),
+						triggerKey, appId, scheduleId, jobFireCount - 1), se);
 			}
 		} else {
-			String errorMessage = messageBundleResourceHelper.lookupMessage(
-					"scheduler.job.reschedule.failed.max.reached", triggerKey, appId, scheduleId, maxCount,
-					retryCounterTask);
-			logger.error(errorMessage);
+			logger.error(messageBundleResourceHelper.logMessage("scheduler.job.reschedule.failed.max.reached",
+					triggerKey, appId, scheduleId, maxCount, retryCounterTask));
 		}
 	}
 }
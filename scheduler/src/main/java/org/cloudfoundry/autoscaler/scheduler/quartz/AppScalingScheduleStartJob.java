@@ -5,8 +5,10 @@ import java.util.Date;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.service.UpcomingScheduleEventIndex;
 import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobLaneEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
 import org.quartz.JobBuilder;
 import org.quartz.JobDataMap;
@@ -27,7 +29,10 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 	private Logger logger = LogManager.getLogger(this.getClass());
 
 	@Autowired
-	private Scheduler scheduler;
+	private SchedulerShardManager schedulerShardManager;
+
+	@Autowired
+	private UpcomingScheduleEventIndex upcomingScheduleEventIndex;
 
 	abstract Date calculateEndJobStartTime(JobExecutionContext jobExecutionContext) throws JobExecutionException;
 
@@ -37,7 +42,12 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 	}
 
 	@Override
-	public void executeInternal(JobExecutionContext jobExecutionContext) throws JobExecutionException {
+	JobActionEnum getJobAction() {
+		return JobActionEnum.START;
+	}
+
+	@Override
+	void executeJob(JobExecutionContext jobExecutionContext) throws JobExecutionException {
 		JobActionEnum jobStart = JobActionEnum.START;
 		Date startJobStartTime = jobExecutionContext.getFireTime();
 		Date endJobStartTime = calculateEndJobStartTime(jobExecutionContext);
@@ -47,10 +57,9 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 			ActiveScheduleEntity activeScheduleEntity = ScheduleJobHelper.setupActiveSchedule(jobDataMap);
 			activeScheduleEntity.setStartJobIdentifier(jobExecutionContext.getFireTime().getTime());
 
-			String executingMessage = messageBundleResourceHelper.lookupMessage("scheduler.job.start",
+			logger.info(messageBundleResourceHelper.logMessage("scheduler.job.start",
 					jobExecutionContext.getJobDetail().getKey(), activeScheduleEntity.getAppId(),
-					activeScheduleEntity.getId(), jobStart);
-			logger.info(executingMessage);
+					activeScheduleEntity.getId(), jobStart));
 
 			String appId = activeScheduleEntity.getAppId();
 
@@ -61,6 +70,8 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 			scheduleEndJob(jobExecutionContext, activeScheduleEntity.getStartJobIdentifier(), endJobStartTime);
 
 			notifyScalingEngine(activeScheduleEntity, jobStart, jobExecutionContext);
+
+			upcomingScheduleEventIndex.scheduleFired(appId, activeScheduleEntity.getId());
 		}
 	}
 
@@ -76,9 +87,8 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 				logger.info("Deleted " + activeScheduleDeleted + " existing active schedules for application id :"
 						+ appId + " before creating new active schedule.");
 			} catch (DatabaseValidationException dve) {
-				String errorMessage = messageBundleResourceHelper
-						.lookupMessage("database.error.delete.activeschedule.failed", dve.getMessage(), appId);
-				logger.error(errorMessage, dve);
+				logger.error(messageBundleResourceHelper.logMessage("database.error.delete.activeschedule.failed",
+						dve.getMessage(), appId), dve);
 
 				handleJobRescheduling(jobExecutionContext, ScheduleJobHelper.RescheduleCount.ACTIVE_SCHEDULE,
 						maxJobRescheduleCount);
@@ -96,13 +106,13 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 
 			try {
 				activeScheduleDao.create(activeScheduleEntity);
+				activeScheduleView.activeScheduleStarted(activeScheduleEntity);
+				activeScheduleChangeFeed.publish(activeScheduleEntity, JobActionEnum.START);
 				jobDataMap.put(ScheduleJobHelper.ACTIVE_SCHEDULE_TABLE_TASK_DONE, true);
 			} catch (DatabaseValidationException dve) {
 
-				String errorMessage = messageBundleResourceHelper.lookupMessage(
-						"database.error.create.activeschedule.failed", dve.getMessage(),
-						activeScheduleEntity.getAppId(), activeScheduleEntity.getId());
-				logger.error(errorMessage, dve);
+				logger.error(messageBundleResourceHelper.logMessage("database.error.create.activeschedule.failed",
+						dve.getMessage(), activeScheduleEntity.getAppId(), activeScheduleEntity.getId()), dve);
 
 				handleJobRescheduling(jobExecutionContext, ScheduleJobHelper.RescheduleCount.ACTIVE_SCHEDULE,
 						maxJobRescheduleCount);
@@ -124,16 +134,18 @@ abstract class AppScalingScheduleStartJob extends AppScalingScheduleJob {
 
 			JobDetail jobDetail = JobBuilder.newJob(AppScalingScheduleEndJob.class).withIdentity(jobKey).storeDurably()
 					.setJobData(jobDataMap).build();
-			Trigger trigger = ScheduleJobHelper.buildTrigger(triggerKey, jobKey, endJobStartTime);
+			Trigger trigger = ScheduleJobHelper.buildTrigger(triggerKey, jobKey, endJobStartTime,
+					scheduleJobLaneExecutor.getTriggerPriority(ScheduleJobLaneEnum.END));
 
 			try {
+				String appId = jobDataMap.getString(ScheduleJobHelper.APP_ID);
+				Scheduler scheduler = schedulerShardManager.getScheduler(appId);
 				scheduler.scheduleJob(jobDetail, trigger);
 				jobDataMap.put(ScheduleJobHelper.CREATE_END_JOB_TASK_DONE, true);
 			} catch (SchedulerException se) {
-				String errorMessage = messageBundleResourceHelper.lookupMessage("scheduler.job.end.schedule.failed",
+				logger.error(messageBundleResourceHelper.logMessage("scheduler.job.end.schedule.failed",
 						se.getMessage(), jobKey, jobDataMap.getString(ScheduleJobHelper.APP_ID),
-						jobDataMap.getLong(ScheduleJobHelper.SCHEDULE_ID), startJobIdentifier);
-				logger.error(errorMessage, se);
+						jobDataMap.getLong(ScheduleJobHelper.SCHEDULE_ID), startJobIdentifier), se);
 			}
 		}
 	}
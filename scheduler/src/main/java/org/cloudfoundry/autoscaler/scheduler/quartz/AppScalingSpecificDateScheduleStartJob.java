@@ -1,7 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.quartz;
 
 import java.util.Date;
-import java.util.TimeZone;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,12 +21,10 @@ public class AppScalingSpecificDateScheduleStartJob extends AppScalingScheduleSt
 
 		if (!isStartTimeBeforeEnd) {
 			JobDataMap jobDataMap = jobExecutionContext.getJobDetail().getJobDataMap();
-			String message = messageBundleResourceHelper.lookupMessage(
-					"scheduler.job.start.specificdate.schedule.skipped",
+			logger.warn(messageBundleResourceHelper.logMessage("scheduler.job.start.specificdate.schedule.skipped",
 					new Date(jobDataMap.getLong(ScheduleJobHelper.END_JOB_START_TIME)),
 					jobExecutionContext.getJobDetail().getKey(), jobDataMap.getString(ScheduleJobHelper.APP_ID),
-					jobDataMap.getLong(ScheduleJobHelper.SCHEDULE_ID));
-			logger.warn(message);
+					jobDataMap.getLong(ScheduleJobHelper.SCHEDULE_ID)));
 		}
 
 		return isStartTimeBeforeEnd;
@@ -39,7 +36,7 @@ public class AppScalingSpecificDateScheduleStartJob extends AppScalingScheduleSt
 		long endDateTime = jobExecutionContext.getJobDetail().getJobDataMap()
 				.getLong(ScheduleJobHelper.END_JOB_START_TIME);
 
-		return DateHelper.getDateWithZoneOffset(new Date(endDateTime), TimeZone.getTimeZone(timeZone));
+		return new Date(DateHelper.getTimeInMillisWithZoneOffset(endDateTime, DateHelper.getZoneId(timeZone)));
 	}
 
 }
@@ -0,0 +1,246 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.PartitionLeaseDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.PartitionLeaseEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+
+/**
+ * Leases partitions of applications to the live scheduler nodes through the partition lease table.
+ * Each heartbeat renews the leases of this node, releases partitions above its fair share and acquires
+ * free or expired partitions up to its fair share, so the partitions of a dead node are picked up by
+ * the other nodes once the lease time to live has passed.
+ *
+ * The expired partitions are only taken over after a grace period past their expiry. A lease deadline
+ * watchdog, independent of the heartbeat, stops firing the partitions of this node as soon as their
+ * leases could have expired without a successful renewal, also when the heartbeat hangs, so together
+ * with the grace period a partition is never fired by two nodes at the same time. The partitions
+ * still leased to this node resume firing on the next successful renewal.
+ *
+ */
+public class PartitionLeaseManager {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	/**
+	 * Receives the ownership changes of the partitions of this node.
+	 */
+	public interface PartitionListener {
+		/**
+		 * @param previousOwnerNodeId - the node that owned the partition before, null if it was free
+		 */
+		void partitionAcquired(int partitionId, String previousOwnerNodeId);
+
+		void partitionReleased(int partitionId);
+	}
+
+	private final PartitionLeaseDao partitionLeaseDao;
+	private final String nodeId;
+	private final int partitionCount;
+	private final long leaseTtlMillis;
+	private final long takeoverGraceMillis;
+	private final PartitionListener partitionListener;
+
+	// Modified under the lock of this manager, read by the lease deadline watchdog
+	private final SortedSet<Integer> ownedPartitions = new ConcurrentSkipListSet<>();
+	// Owned partitions stopped by the lease deadline watchdog
+	private final Set<Integer> fencedPartitions = ConcurrentHashMap.newKeySet();
+	private boolean partitionsCreated = false;
+	private volatile long leaseValidUntilNanos;
+	private long heartbeatIntervalMillis = 0;
+
+	private ScheduledExecutorService heartbeatExecutor;
+
+	public PartitionLeaseManager(PartitionLeaseDao partitionLeaseDao, String nodeId, int partitionCount,
+			long leaseTtlMillis, long takeoverGraceMillis, PartitionListener partitionListener) {
+		this.partitionLeaseDao = partitionLeaseDao;
+		this.nodeId = nodeId;
+		this.partitionCount = partitionCount;
+		this.leaseTtlMillis = leaseTtlMillis;
+		this.takeoverGraceMillis = takeoverGraceMillis;
+		this.partitionListener = partitionListener;
+		this.leaseValidUntilNanos = System.nanoTime();
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	public synchronized Set<Integer> getOwnedPartitions() {
+		return Collections.unmodifiableSet(new TreeSet<>(ownedPartitions));
+	}
+
+	/**
+	 * @return - the owned partitions this node is firing, without the ones stopped by the lease deadline
+	 *         watchdog
+	 */
+	public synchronized Set<Integer> getFiringPartitions() {
+		Set<Integer> firingPartitions = new TreeSet<>(ownedPartitions);
+		firingPartitions.removeAll(fencedPartitions);
+		return Collections.unmodifiableSet(firingPartitions);
+	}
+
+	/**
+	 * Starts heart beating with the specified interval, which has to be well below the lease time to live,
+	 * and the lease deadline watchdog on a thread of its own.
+	 */
+	public synchronized void start(long heartbeatIntervalMillis) {
+		this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+		heartbeatExecutor = Executors.newScheduledThreadPool(2, runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-partition-lease-" + nodeId);
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatIntervalMillis,
+				TimeUnit.MILLISECONDS);
+		long watchdogIntervalMillis = Math.max(10, heartbeatIntervalMillis / 10);
+		heartbeatExecutor.scheduleWithFixedDelay(this::checkLeaseDeadline, watchdogIntervalMillis,
+				watchdogIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops heart beating and hands over the partitions of this node to the other nodes.
+	 */
+	public void stop() {
+		ScheduledExecutorService executor;
+		synchronized (this) {
+			executor = heartbeatExecutor;
+			heartbeatExecutor = null;
+		}
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(leaseTtlMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized (this) {
+			releaseAllLocally();
+			try {
+				partitionLeaseDao.releaseLeases(nodeId);
+				partitionLeaseDao.deleteNode(nodeId);
+			} catch (DatabaseValidationException dve) {
+				logger.error("Failed to release the partition leases of node " + nodeId
+						+ ", they will expire after " + leaseTtlMillis + " milliseconds.", dve);
+			}
+		}
+	}
+
+	/**
+	 * Runs one heartbeat round.
+	 */
+	public synchronized void heartbeat() {
+		long heartbeatStartNanos = System.nanoTime();
+		try {
+			if (!partitionsCreated) {
+				partitionLeaseDao.createPartitions(partitionCount);
+				partitionsCreated = true;
+			}
+
+			partitionLeaseDao.heartbeatNode(nodeId, leaseTtlMillis);
+
+			Set<Integer> renewedPartitions = partitionLeaseDao.renewLeases(nodeId, leaseTtlMillis);
+			leaseValidUntilNanos = heartbeatStartNanos + TimeUnit.MILLISECONDS.toNanos(leaseTtlMillis);
+			for (Integer partitionId : new ArrayList<>(ownedPartitions)) {
+				if (!renewedPartitions.contains(partitionId)) {
+					logger.warn("Node " + nodeId + " lost the lease of partition " + partitionId);
+					releaseLocally(partitionId);
+				}
+			}
+			// Nobody took over the partitions stopped by the watchdog, they fire again
+			if (System.nanoTime() - leaseValidUntilNanos < 0) {
+				for (Integer partitionId : new ArrayList<>(fencedPartitions)) {
+					if (fencedPartitions.remove(partitionId) && ownedPartitions.contains(partitionId)) {
+						logger.info("Node " + nodeId + " renewed the lease of partition " + partitionId
+								+ " after its deadline, resuming");
+						partitionListener.partitionAcquired(partitionId, nodeId);
+					}
+				}
+			}
+
+			int liveNodeCount = Math.max(1, partitionLeaseDao.countLiveNodes());
+			int fairShare = (partitionCount + liveNodeCount - 1) / liveNodeCount;
+
+			while (ownedPartitions.size() > fairShare) {
+				Integer partitionId = ownedPartitions.last();
+				releaseLocally(partitionId);
+				partitionLeaseDao.releaseLease(partitionId, nodeId);
+				logger.info("Node " + nodeId + " handed over partition " + partitionId + ", fair share is "
+						+ fairShare + " of " + partitionCount + " partitions for " + liveNodeCount + " nodes");
+			}
+
+			while (ownedPartitions.size() < fairShare) {
+				PartitionLeaseEntity partitionLease = partitionLeaseDao.acquireLease(nodeId, partitionCount,
+						leaseTtlMillis, takeoverGraceMillis);
+				if (partitionLease == null) {
+					break;
+				}
+				Integer partitionId = partitionLease.getPartitionId();
+				ownedPartitions.add(partitionId);
+				logger.info("Node " + nodeId + " acquired partition " + partitionId + " from "
+						+ partitionLease.getPreviousOwnerNodeId());
+				partitionListener.partitionAcquired(partitionId, partitionLease.getPreviousOwnerNodeId());
+			}
+		} catch (DatabaseValidationException dve) {
+			logger.error("Partition lease heartbeat failed for node " + nodeId, dve);
+			// Stop firing before the leases can expire, the next heartbeat may come too late
+			long nextHeartbeatNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(heartbeatIntervalMillis);
+			if (nextHeartbeatNanos - leaseValidUntilNanos >= 0) {
+				releaseAllLocally();
+			}
+		} catch (RuntimeException re) {
+			// Keep the heartbeat running, a failing listener must not stop the lease renewal
+			logger.error("Partition lease heartbeat failed for node " + nodeId, re);
+		}
+	}
+
+	/**
+	 * Stops firing the owned partitions once their lease deadline has passed without a successful
+	 * renewal. It does not take the lock of this manager, which a hanging heartbeat holds.
+	 */
+	void checkLeaseDeadline() {
+		if (System.nanoTime() - leaseValidUntilNanos < 0) {
+			return;
+		}
+		for (Integer partitionId : ownedPartitions) {
+			if (fencedPartitions.add(partitionId)) {
+				logger.warn("The lease of partition " + partitionId + " of node " + nodeId
+						+ " passed its deadline without renewal, standing by");
+				try {
+					partitionListener.partitionReleased(partitionId);
+				} catch (RuntimeException re) {
+					logger.error("Standby of partition " + partitionId + " failed for node " + nodeId, re);
+				}
+			}
+		}
+	}
+
+	private void releaseAllLocally() {
+		List<Integer> partitionIds = new ArrayList<>(ownedPartitions);
+		for (Integer partitionId : partitionIds) {
+			releaseLocally(partitionId);
+		}
+	}
+
+	private void releaseLocally(Integer partitionId) {
+		ownedPartitions.remove(partitionId);
+		// A partition stopped by the watchdog is already released
+		if (!fencedPartitions.remove(partitionId)) {
+			partitionListener.partitionReleased(partitionId);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.quartz.TriggerKey;
+import org.quartz.impl.jdbcjobstore.PostgreSQLDelegate;
+
+/**
+ * PostgreSQL driver delegate which claims the due triggers with <code>FOR UPDATE SKIP LOCKED</code>,
+ * so concurrent acquisitions get disjoint sets of triggers without waiting on each other. It
+ * requires PostgreSQL 9.5 or later.
+ *
+ * The candidate triggers are selected with the same conditions and order as the
+ * {@link PostgreSQLDelegate}, so misfired triggers are still left to the misfire handler.
+ *
+ */
+public class PostgreSQLSkipLockedDelegate extends PostgreSQLDelegate {
+
+	private static final String SELECT_NEXT_TRIGGER_TO_ACQUIRE_SKIP_LOCKED = "SELECT " + COL_TRIGGER_NAME + ", "
+			+ COL_TRIGGER_GROUP + ", " + COL_NEXT_FIRE_TIME + ", " + COL_PRIORITY + " FROM " + TABLE_PREFIX_SUBST
+			+ TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST + " AND "
+			+ COL_TRIGGER_STATE + " = ? AND " + COL_NEXT_FIRE_TIME + " <= ? AND (" + COL_MISFIRE_INSTRUCTION
+			+ " = -1 OR (" + COL_MISFIRE_INSTRUCTION + " != -1 AND " + COL_NEXT_FIRE_TIME + " >= ?)) ORDER BY "
+			+ COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC LIMIT ? FOR UPDATE SKIP LOCKED";
+
+	@Override
+	public List<TriggerKey> selectTriggerToAcquire(Connection conn, long noLaterThan, long noEarlierThan,
+			int maxCount) throws SQLException {
+		PreparedStatement ps = null;
+		ResultSet rs = null;
+		List<TriggerKey> nextTriggers = new ArrayList<>();
+		try {
+			if (maxCount < 1) {
+				maxCount = 1;
+			}
+
+			ps = conn.prepareStatement(rtp(SELECT_NEXT_TRIGGER_TO_ACQUIRE_SKIP_LOCKED));
+			ps.setFetchSize(maxCount);
+			ps.setString(1, STATE_WAITING);
+			ps.setBigDecimal(2, new BigDecimal(String.valueOf(noLaterThan)));
+			ps.setBigDecimal(3, new BigDecimal(String.valueOf(noEarlierThan)));
+			ps.setInt(4, maxCount);
+			rs = ps.executeQuery();
+
+			while (rs.next()) {
+				nextTriggers.add(TriggerKey.triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
+			}
+
+			return nextTriggers;
+		} finally {
+			closeResultSet(rs);
+			closeStatement(ps);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScalingEngineNotification;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScalingEngineNotificationResult;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.ScalingEngineUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Notifies the scaling engine of the starts and ends of the active schedules in batches, so a burst
+ * of transitions costs one request per batch instead of one request per application.
+ *
+ * The jobs hand their notification over and wait for its own result, the notifications of the jobs
+ * running at the same time are collected for up to the linger time and posted together. The result
+ * of each entry is raised as the exception the per application PUT or DELETE request would have
+ * raised, so the jobs handle the failures and reschedule as before. One batch is in flight at a
+ * time, which keeps the notifications of an application in order.
+ *
+ * When the scaling engine does not have the batch endpoint the notifications fall back to the per
+ * application requests, and the batch endpoint is tried again after the fallback retry interval.
+ *
+ */
+@Component
+public class ScalingEngineBatchNotifier {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Value("${autoscaler.scalingengine.url}")
+	private String scalingEngineUrl;
+	@Value("${scalingengine.notification.batch.enabled}")
+	private boolean enabled;
+	@Value("${scalingengine.notification.batch.maxsize}")
+	private int maxBatchSize;
+	@Value("${scalingengine.notification.batch.linger.millisecond}")
+	private long lingerMillis;
+	@Value("${scalingengine.notification.batch.timeout.millisecond}")
+	private long timeoutMillis;
+	@Value("${scalingengine.notification.batch.fallback.retry.interval.seconds}")
+	private long fallbackRetryIntervalSeconds;
+
+	@Autowired
+	private RestTemplate restTemplate;
+
+	private final BlockingQueue<PendingNotification> pendingNotifications = new LinkedBlockingQueue<>();
+
+	// The per application requests are used until then
+	private volatile long batchUnsupportedUntilMillis;
+
+	private volatile boolean running;
+
+	private Thread dispatcher;
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		dispatcher = new Thread(this::dispatch, "scheduler-scalingengine-batch-notifier");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		if (dispatcher == null) {
+			return;
+		}
+		running = false;
+		dispatcher.interrupt();
+		dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+
+		List<PendingNotification> remaining = new ArrayList<>();
+		pendingNotifications.drainTo(remaining);
+		fail(remaining, new ResourceAccessException("Scaling engine batch notifier is shut down"));
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sends the notification with the next batch and waits for its result.
+	 *
+	 * @throws HttpStatusCodeException - when the scaling engine rejected the notification
+	 * @throws ResourceAccessException - when the scaling engine could not be reached in time
+	 */
+	public void notify(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+		if (System.currentTimeMillis() < batchUnsupportedUntilMillis) {
+			sendOne(activeScheduleEntity, scalingAction);
+			return;
+		}
+
+		PendingNotification pendingNotification = new PendingNotification(activeScheduleEntity, scalingAction);
+		pendingNotifications.add(pendingNotification);
+		try {
+			pendingNotification.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException ee) {
+			if (ee.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ee.getCause();
+			}
+			throw new ResourceAccessException(ee.getCause().getMessage());
+		} catch (TimeoutException te) {
+			throw new ResourceAccessException(
+					"Timed out after " + timeoutMillis + " ms waiting for the batched scaling engine notification");
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new ResourceAccessException("Interrupted waiting for the batched scaling engine notification");
+		}
+	}
+
+	/**
+	 * Sends the notification with the next batch, or on its own when the batches are disabled.
+	 */
+	void send(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+		if (enabled) {
+			notify(activeScheduleEntity, scalingAction);
+		} else {
+			sendOne(activeScheduleEntity, scalingAction);
+		}
+	}
+
+	private void dispatch() {
+		while (running) {
+			List<PendingNotification> batch = new ArrayList<>();
+			try {
+				batch.add(pendingNotifications.take());
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+				while (batch.size() < maxBatchSize) {
+					PendingNotification next = pendingNotifications.poll(deadline - System.nanoTime(),
+							TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				fail(batch, new ResourceAccessException("Scaling engine batch notifier is shut down"));
+				return;
+			}
+
+			try {
+				sendBatch(batch);
+			} catch (RuntimeException re) {
+				logger.error("Batched scaling engine notification failed for " + batch.size() + " notifications", re);
+				fail(batch, re);
+			}
+		}
+	}
+
+	private void sendBatch(List<PendingNotification> batch) {
+		List<ScalingEngineNotification> notifications = new ArrayList<>();
+		for (PendingNotification pendingNotification : batch) {
+			notifications.add(pendingNotification.notification);
+		}
+
+		ScalingEngineNotificationResult[] results;
+		try {
+			results = restTemplate.postForObject(ScalingEngineUtil.getScalingEngineActiveScheduleBatchPath(scalingEngineUrl),
+					notifications, ScalingEngineNotificationResult[].class);
+		} catch (HttpStatusCodeException hsce) {
+			if (!isBatchUnsupported(hsce.getStatusCode())) {
+				fail(batch, hsce);
+				return;
+			}
+			logger.warn("Scaling engine answered " + hsce.getStatusCode()
+					+ " to the batched notification, falling back to the per application notifications for "
+					+ fallbackRetryIntervalSeconds + " seconds");
+			batchUnsupportedUntilMillis = System.currentTimeMillis()
+					+ TimeUnit.SECONDS.toMillis(fallbackRetryIntervalSeconds);
+			for (PendingNotification pendingNotification : batch) {
+				try {
+					sendOne(pendingNotification.activeScheduleEntity, pendingNotification.scalingAction);
+					pendingNotification.result.complete(null);
+				} catch (RuntimeException re) {
+					pendingNotification.result.completeExceptionally(re);
+				}
+			}
+			return;
+		}
+
+		if (results == null || results.length != batch.size()) {
+			fail(batch, new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR,
+					"Expected " + batch.size() + " results of the batched notification, got "
+							+ (results == null ? 0 : results.length)));
+			return;
+		}
+		// The results are in the order of the notifications
+		for (int i = 0; i < results.length; i++) {
+			complete(batch.get(i), results[i]);
+		}
+	}
+
+	private void sendOne(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+		String scalingEnginePathActiveSchedule = ScalingEngineUtil.getScalingEngineActiveSchedulePath(scalingEngineUrl,
+				activeScheduleEntity.getAppId(), activeScheduleEntity.getId());
+		HttpEntity<ActiveScheduleEntity> requestEntity = new HttpEntity<>(activeScheduleEntity);
+		if (scalingAction == JobActionEnum.START) {
+			restTemplate.put(scalingEnginePathActiveSchedule, requestEntity);
+		} else {
+			restTemplate.delete(scalingEnginePathActiveSchedule, requestEntity);
+		}
+	}
+
+	private void complete(PendingNotification pendingNotification, ScalingEngineNotificationResult result) {
+		HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+		try {
+			status = HttpStatus.valueOf(result.getStatus());
+		} catch (IllegalArgumentException iae) {
+			// Unknown status codes are handled as server errors
+		}
+
+		if (status.is2xxSuccessful()) {
+			pendingNotification.result.complete(null);
+			return;
+		}
+		byte[] responseBody = result.getMessage() == null ? null : result.getMessage().getBytes(StandardCharsets.UTF_8);
+		if (status.is4xxClientError()) {
+			pendingNotification.result.completeExceptionally(
+					new HttpClientErrorException(status, status.getReasonPhrase(), responseBody, StandardCharsets.UTF_8));
+		} else {
+			pendingNotification.result.completeExceptionally(
+					new HttpServerErrorException(status, status.getReasonPhrase(), responseBody, StandardCharsets.UTF_8));
+		}
+	}
+
+	private static boolean isBatchUnsupported(HttpStatus status) {
+		return status == HttpStatus.NOT_FOUND || status == HttpStatus.METHOD_NOT_ALLOWED
+				|| status == HttpStatus.NOT_IMPLEMENTED;
+	}
+
+	private static void fail(List<PendingNotification> batch, RuntimeException exception) {
+		for (PendingNotification pendingNotification : batch) {
+			pendingNotification.result.completeExceptionally(exception);
+		}
+	}
+
+	private static final class PendingNotification {
+		private final ActiveScheduleEntity activeScheduleEntity;
+		private final JobActionEnum scalingAction;
+		private final ScalingEngineNotification notification;
+		private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+		PendingNotification(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+			this.activeScheduleEntity = activeScheduleEntity;
+			this.scalingAction = scalingAction;
+			this.notification = new ScalingEngineNotification(activeScheduleEntity, scalingAction);
+		}
+	}
+}
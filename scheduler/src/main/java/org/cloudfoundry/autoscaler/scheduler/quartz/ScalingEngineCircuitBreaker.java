@@ -0,0 +1,368 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.PendingNotificationDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.PendingNotificationEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Circuit breaker and bulkhead around the notifications to the scaling engine.
+ *
+ * The bulkhead bounds the calls in flight. The circuit opens after consecutive connection or server
+ * failures, then the notifications are deferred to the pending notification table instead of using
+ * up the retries of their jobs. Once the open interval has passed one call is let through as a
+ * probe, its success closes the circuit and its failure opens it again. Each permit carries the
+ * generation of the circuit it was taken in, the outcome of a call that started before the last
+ * transition is ignored. The pending notifications are claimed in order by one instance of the
+ * cluster at a time and sent outside the claiming transaction, and while any is pending the new
+ * notifications are queued behind them so the notifications of an application stay in order.
+ *
+ * The state (0 closed, 1 half open, 2 open) and the depth of the pending queue are exposed as
+ * metrics and in the health details.
+ *
+ */
+@Component
+public class ScalingEngineCircuitBreaker implements PublicMetrics, HealthIndicator {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	public enum State {
+		CLOSED, HALF_OPEN, OPEN
+	}
+
+	/**
+	 * Permit to call the scaling engine, taken in a generation of the circuit.
+	 */
+	public static final class Permit {
+		private final long generation;
+
+		private Permit(long generation) {
+			this.generation = generation;
+		}
+	}
+
+	@Value("${scalingengine.circuitbreaker.enabled}")
+	private boolean enabled;
+	@Value("${scalingengine.circuitbreaker.failure.threshold}")
+	private int failureThreshold;
+	@Value("${scalingengine.circuitbreaker.open.interval.millisecond}")
+	private long openIntervalMillis;
+	@Value("${scalingengine.bulkhead.maxconcurrent}")
+	private int maxConcurrentCalls;
+	@Value("${scalingengine.bulkhead.wait.millisecond}")
+	private long bulkheadWaitMillis;
+	@Value("${scalingengine.pending.replay.interval.millisecond}")
+	private long replayIntervalMillis;
+	@Value("${scalingengine.pending.replay.batch.size}")
+	private int replayBatchSize;
+	@Value("${scalingengine.pending.replay.claim.timeout.millisecond}")
+	private long replayClaimTimeoutMillis;
+
+	@Autowired
+	private PendingNotificationDao pendingNotificationDao;
+	@Autowired
+	private ScalingEngineBatchNotifier scalingEngineBatchNotifier;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	private final Object stateLock = new Object();
+
+	// Guarded by stateLock
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openUntilMillis;
+	private boolean probeInFlight;
+	// Incremented on every transition of the state
+	private long generation;
+
+	private Semaphore bulkhead;
+
+	private final AtomicLong pendingCount = new AtomicLong();
+	private final AtomicLong openedCount = new AtomicLong();
+	private final AtomicLong deferredCount = new AtomicLong();
+	private final AtomicLong replayedCount = new AtomicLong();
+
+	private ScheduledExecutorService replayExecutor;
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		bulkhead = new Semaphore(maxConcurrentCalls);
+		replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-scalingengine-pending-replay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		replayExecutor.scheduleWithFixedDelay(this::replayPendingNotifications, 0, replayIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		if (replayExecutor != null) {
+			replayExecutor.shutdown();
+			replayExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public boolean isOpen() {
+		synchronized (stateLock) {
+			return state == State.OPEN;
+		}
+	}
+
+	public State getState() {
+		synchronized (stateLock) {
+			return state;
+		}
+	}
+
+	public boolean hasPendingNotifications() {
+		return pendingCount.get() > 0;
+	}
+
+	/**
+	 * Acquires a permit to call the scaling engine, the caller releases it with the outcome of the
+	 * call.
+	 *
+	 * @return - null if the circuit is open, the half open probe is in flight or the bulkhead stays
+	 *         full for the bulkhead wait
+	 */
+	public Permit tryAcquire() {
+		try {
+			if (!bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS)) {
+				return null;
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+
+		synchronized (stateLock) {
+			if (state == State.OPEN && System.currentTimeMillis() >= openUntilMillis) {
+				transitionTo(State.HALF_OPEN);
+			}
+			if (state == State.CLOSED) {
+				return new Permit(generation);
+			}
+			if (state == State.HALF_OPEN && !probeInFlight) {
+				probeInFlight = true;
+				return new Permit(generation);
+			}
+		}
+		bulkhead.release();
+		return null;
+	}
+
+	/**
+	 * Releases the permit of a call. The outcome only counts if the circuit has not changed state
+	 * since the permit was taken, so a call that started before the circuit opened cannot close it.
+	 *
+	 * @param succeeded - false if the scaling engine could not be reached or failed with a server
+	 *            error
+	 */
+	public void release(Permit permit, boolean succeeded) {
+		bulkhead.release();
+		synchronized (stateLock) {
+			if (permit.generation != generation) {
+				return;
+			}
+			if (succeeded) {
+				consecutiveFailures = 0;
+				probeInFlight = false;
+				if (state != State.CLOSED) {
+					transitionTo(State.CLOSED);
+					logger.info(messageBundleResourceHelper.logMessage("scalingengine.circuitbreaker.closed"));
+				}
+				return;
+			}
+
+			consecutiveFailures++;
+			if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+				transitionTo(State.OPEN);
+				probeInFlight = false;
+				openUntilMillis = System.currentTimeMillis() + openIntervalMillis;
+				openedCount.incrementAndGet();
+				logger.warn(messageBundleResourceHelper.logMessage("scalingengine.circuitbreaker.opened",
+						consecutiveFailures, openIntervalMillis));
+			}
+		}
+	}
+
+	// Called with stateLock held
+	private void transitionTo(State newState) {
+		state = newState;
+		generation++;
+	}
+
+	/**
+	 * Defers the notification to the pending notification table, it is replayed once the scaling
+	 * engine is reachable again. It is stored in a transaction of its own, as the removals of active
+	 * schedules are deferred after the commit of the transaction that removed them.
+	 */
+	public void defer(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		transactionTemplate.execute(status -> {
+			pendingNotificationDao.create(activeScheduleEntity, scalingAction);
+			return null;
+		});
+		pendingCount.incrementAndGet();
+		deferredCount.incrementAndGet();
+	}
+
+	/**
+	 * Discards the pending notifications of the removed active schedules in the current transaction,
+	 * the removal notified to the scaling engine supersedes them. The ones claimed by a replay in
+	 * progress are left, the removal is deferred behind them.
+	 */
+	public void discard(List<ActiveScheduleEntity> activeScheduleEntities) {
+		if (!enabled || activeScheduleEntities.isEmpty()) {
+			return;
+		}
+		int discardedCount = pendingNotificationDao.deleteUnclaimed(activeScheduleEntities);
+		if (discardedCount > 0) {
+			logger.info("Discarded " + discardedCount + " pending scaling engine notifications of "
+					+ activeScheduleEntities.size() + " removed active schedules");
+		}
+	}
+
+	/**
+	 * Claims the oldest pending notifications in a short transaction, then sends them in order without
+	 * holding a transaction or lock. The sent ones are deleted one by one, and the claims of the ones
+	 * left after a failure are released for the next replay. The pending count is refreshed from the
+	 * table, so the instances queue behind the notifications deferred by the others.
+	 */
+	void replayPendingNotifications() {
+		try {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			List<PendingNotificationEntity> claimed = transactionTemplate.execute(status -> {
+				if (!pendingNotificationDao.tryLockForReplay()) {
+					return new ArrayList<PendingNotificationEntity>();
+				}
+				return pendingNotificationDao.claimOldest(replayBatchSize, replayClaimTimeoutMillis);
+			});
+
+			List<Long> unsentIds = new ArrayList<>();
+			for (PendingNotificationEntity pendingNotification : claimed) {
+				if (!unsentIds.isEmpty() || !replay(pendingNotification)) {
+					unsentIds.add(pendingNotification.getId());
+					continue;
+				}
+				pendingNotificationDao.delete(pendingNotification.getId());
+				replayedCount.incrementAndGet();
+			}
+			pendingNotificationDao.releaseClaims(unsentIds);
+		} catch (DatabaseValidationException dve) {
+			logger.error("Replay of the pending scaling engine notifications failed", dve);
+		} catch (RuntimeException re) {
+			logger.error("Replay of the pending scaling engine notifications failed", re);
+		}
+
+		try {
+			pendingCount.set(pendingNotificationDao.count());
+		} catch (DatabaseValidationException dve) {
+			logger.error("Count of the pending scaling engine notifications failed", dve);
+		}
+	}
+
+	/**
+	 * Sends the pending notification. A notification the scaling engine answered is done with, even
+	 * when rejected, as the jobs do not retry those either.
+	 *
+	 * @return - false if the notification has to stay pending
+	 */
+	private boolean replay(PendingNotificationEntity pendingNotification) {
+		Permit permit = tryAcquire();
+		if (permit == null) {
+			return false;
+		}
+
+		ActiveScheduleEntity activeScheduleEntity = pendingNotification.getActiveSchedule();
+		JobActionEnum scalingAction = pendingNotification.getScalingAction();
+		boolean succeeded = false;
+		try {
+			scalingEngineBatchNotifier.send(activeScheduleEntity, scalingAction);
+			succeeded = true;
+			return true;
+		} catch (HttpStatusCodeException hsce) {
+			succeeded = !hsce.getStatusCode().is5xxServerError();
+			String messageKey = succeeded ? "scalingengine.notification.client.error"
+					: "scalingengine.notification.failed";
+			logger.error(messageBundleResourceHelper.logMessage(messageKey, hsce.getStatusCode(),
+					hsce.getResponseBodyAsString(), activeScheduleEntity.getAppId(), activeScheduleEntity.getId(),
+					scalingAction), hsce);
+			return true;
+		} catch (ResourceAccessException rae) {
+			logger.error(messageBundleResourceHelper.logMessage("scalingengine.notification.error", rae.getMessage(),
+					activeScheduleEntity.getAppId(), activeScheduleEntity.getId(), scalingAction), rae);
+			return false;
+		} finally {
+			release(permit, succeeded);
+		}
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		if (enabled) {
+			metrics.add(new Metric<Integer>("scheduler.scalingengine.breaker.state", getState().ordinal()));
+			metrics.add(new Metric<Long>("scheduler.scalingengine.breaker.opened", openedCount.get()));
+			metrics.add(new Metric<Integer>("scheduler.scalingengine.bulkhead.active",
+					maxConcurrentCalls - bulkhead.availablePermits()));
+			metrics.add(new Metric<Integer>("scheduler.scalingengine.bulkhead.available", bulkhead.availablePermits()));
+			metrics.add(new Metric<Long>("scheduler.scalingengine.pending", pendingCount.get()));
+			metrics.add(new Metric<Long>("scheduler.scalingengine.pending.deferred", deferredCount.get()));
+			metrics.add(new Metric<Long>("scheduler.scalingengine.pending.replayed", replayedCount.get()));
+		}
+		return metrics;
+	}
+
+	/**
+	 * Reports the state of the circuit without affecting the health of the scheduler, the scheduler
+	 * keeps working while the scaling engine is down.
+	 */
+	@Override
+	public Health health() {
+		if (!enabled) {
+			return Health.up().withDetail("enabled", false).build();
+		}
+		return Health.up().withDetail("state", getState().name()).withDetail("pending", pendingCount.get())
+				.withDetail("bulkheadAvailable", bulkhead.availablePermits()).build();
+	}
+}
@@ -0,0 +1,174 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobLaneEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dispatches the scheduling jobs to dedicated worker pools (lanes) for start, end and retry
+ * work, and exposes the saturation of each lane as public metrics.
+ *
+ * When the lanes are disabled the jobs run on the Quartz worker thread as before. When a lane
+ * is saturated the job runs on the calling Quartz worker thread, so no job is ever dropped.
+ *
+ */
+@Component
+public class ScheduleJobLaneExecutor implements PublicMetrics {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Value("${scheduler.lane.enabled}")
+	private boolean laneEnabled;
+
+	@Value("${scheduler.lane.start.poolsize}")
+	private int startLanePoolSize;
+
+	@Value("${scheduler.lane.end.poolsize}")
+	private int endLanePoolSize;
+
+	@Value("${scheduler.lane.retry.poolsize}")
+	private int retryLanePoolSize;
+
+	@Value("${scheduler.lane.queue.capacity}")
+	private int laneQueueCapacity;
+
+	@Value("${scheduler.lane.start.priority}")
+	private int startLanePriority;
+
+	@Value("${scheduler.lane.end.priority}")
+	private int endLanePriority;
+
+	@Value("${scheduler.lane.retry.priority}")
+	private int retryLanePriority;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	private Map<ScheduleJobLaneEnum, ThreadPoolExecutor> laneExecutors = new EnumMap<>(ScheduleJobLaneEnum.class);
+
+	private Map<ScheduleJobLaneEnum, AtomicLong> laneSaturatedCounts = new EnumMap<>(ScheduleJobLaneEnum.class);
+
+	@PostConstruct
+	void initLanes() {
+		for (ScheduleJobLaneEnum lane : ScheduleJobLaneEnum.values()) {
+			laneSaturatedCounts.put(lane, new AtomicLong());
+		}
+
+		if (laneEnabled) {
+			laneExecutors.put(ScheduleJobLaneEnum.START,
+					createLaneExecutor(ScheduleJobLaneEnum.START, startLanePoolSize));
+			laneExecutors.put(ScheduleJobLaneEnum.END,
+					createLaneExecutor(ScheduleJobLaneEnum.END, endLanePoolSize));
+			laneExecutors.put(ScheduleJobLaneEnum.RETRY,
+					createLaneExecutor(ScheduleJobLaneEnum.RETRY, retryLanePoolSize));
+		}
+	}
+
+	@PreDestroy
+	void shutdownLanes() throws InterruptedException {
+		for (ThreadPoolExecutor executor : laneExecutors.values()) {
+			executor.shutdown();
+		}
+		for (ThreadPoolExecutor executor : laneExecutors.values()) {
+			executor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	public boolean isLaneEnabled() {
+		return laneEnabled;
+	}
+
+	/**
+	 * Returns the Quartz trigger priority for the specified lane, so that the job store hands
+	 * out end triggers ahead of start and retry triggers when they are due at the same time.
+	 */
+	public int getTriggerPriority(ScheduleJobLaneEnum lane) {
+		switch (lane) {
+		case END:
+			return endLanePriority;
+		case RETRY:
+			return retryLanePriority;
+		default:
+			return startLanePriority;
+		}
+	}
+
+	void execute(ScheduleJobLaneEnum lane, Runnable task) {
+		ThreadPoolExecutor executor = laneExecutors.get(lane);
+		if (executor == null) {
+			task.run();
+			return;
+		}
+
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException ree) {
+			laneSaturatedCounts.get(lane).incrementAndGet();
+			logger.warn(messageBundleResourceHelper.logMessage("scheduler.job.lane.saturated", lane.getLaneName(),
+					executor.getQueue().size()));
+			task.run();
+		}
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		for (ScheduleJobLaneEnum lane : ScheduleJobLaneEnum.values()) {
+			String prefix = "scheduler.lane." + lane.getLaneName();
+			ThreadPoolExecutor executor = laneExecutors.get(lane);
+			if (executor != null) {
+				metrics.add(new Metric<Integer>(prefix + ".poolsize", executor.getMaximumPoolSize()));
+				metrics.add(new Metric<Integer>(prefix + ".active", executor.getActiveCount()));
+				metrics.add(new Metric<Integer>(prefix + ".queued", executor.getQueue().size()));
+				metrics.add(new Metric<Integer>(prefix + ".queue.remaining", executor.getQueue().remainingCapacity()));
+				metrics.add(new Metric<Long>(prefix + ".completed", executor.getCompletedTaskCount()));
+			}
+			metrics.add(new Metric<Long>(prefix + ".saturated", laneSaturatedCounts.get(lane).get()));
+		}
+		return metrics;
+	}
+
+	private ThreadPoolExecutor createLaneExecutor(ScheduleJobLaneEnum lane, int poolSize) {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(laneQueueCapacity), new LaneThreadFactory(lane),
+				new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static class LaneThreadFactory implements ThreadFactory {
+		private final String namePrefix;
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		LaneThreadFactory(ScheduleJobLaneEnum lane) {
+			this.namePrefix = "scheduler-lane-" + lane.getLaneName() + "-";
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
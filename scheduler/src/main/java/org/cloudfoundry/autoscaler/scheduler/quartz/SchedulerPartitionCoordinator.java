@@ -0,0 +1,157 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.PartitionLeaseDao;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the scheduler shards in clustered mode. Every shard is a partition of applications leased to
+ * one live scheduler node at a time, and a node only starts the shards of the partitions it owns. The
+ * other shards stay in standby, so jobs can still be created and deleted in them.
+ *
+ * The node id is the Quartz instance id of the shards, so the triggers a failed node left acquired or
+ * executing are told apart in the fired triggers of the shard.
+ *
+ */
+@Component
+public class SchedulerPartitionCoordinator
+		implements ApplicationListener<ContextRefreshedEvent>, PartitionLeaseManager.PartitionListener {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Value("${scheduler.cluster.enabled}")
+	private boolean clusterEnabled;
+
+	@Value("${scheduler.cluster.lease.ttl.millisecond}")
+	private long leaseTtlMillis;
+
+	@Value("${scheduler.cluster.lease.takeover.grace.millisecond}")
+	private long takeoverGraceMillis;
+
+	@Value("${scheduler.cluster.heartbeat.interval.millisecond}")
+	private long heartbeatIntervalMillis;
+
+	@Autowired
+	private SchedulerShardManager schedulerShardManager;
+
+	@Autowired
+	private PartitionLeaseDao partitionLeaseDao;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	private String nodeId;
+
+	private PartitionLeaseManager partitionLeaseManager;
+
+	public SchedulerPartitionCoordinator() {
+	}
+
+	/**
+	 * Creates a coordinator of the specified node outside of the application context, the caller
+	 * drives its partition lease manager.
+	 */
+	SchedulerPartitionCoordinator(SchedulerShardManager schedulerShardManager, PartitionLeaseDao partitionLeaseDao,
+			MessageBundleResourceHelper messageBundleResourceHelper, String nodeId) {
+		this.schedulerShardManager = schedulerShardManager;
+		this.partitionLeaseDao = partitionLeaseDao;
+		this.messageBundleResourceHelper = messageBundleResourceHelper;
+		this.nodeId = nodeId;
+	}
+
+	@Override
+	public synchronized void onApplicationEvent(ContextRefreshedEvent event) {
+		if (!clusterEnabled || partitionLeaseManager != null || event.getApplicationContext() != applicationContext) {
+			return;
+		}
+
+		try {
+			nodeId = schedulerShardManager.getScheduler(0).getSchedulerInstanceId();
+		} catch (SchedulerException se) {
+			throw new IllegalStateException("Failed to read the scheduler instance id", se);
+		}
+
+		logger.info("Starting clustered scheduler node " + nodeId + " for " + schedulerShardManager.getShardCount()
+				+ " partitions.");
+		partitionLeaseManager = new PartitionLeaseManager(partitionLeaseDao, nodeId,
+				schedulerShardManager.getShardCount(), leaseTtlMillis, takeoverGraceMillis, this);
+		partitionLeaseManager.start(heartbeatIntervalMillis);
+	}
+
+	@PreDestroy
+	synchronized void stop() {
+		if (partitionLeaseManager != null) {
+			partitionLeaseManager.stop();
+			partitionLeaseManager = null;
+		}
+	}
+
+	@Override
+	public void partitionAcquired(int partitionId, String previousOwnerNodeId) {
+		Scheduler scheduler = schedulerShardManager.getScheduler(partitionId);
+		try {
+			// Only the triggers of the node the partition was taken over from, a node that handed it over
+			// completes its running jobs itself. The job store does not recover any on start in clustered
+			// mode, so the triggers this node left before a restart with the same node id are reset too.
+			if (previousOwnerNodeId != null && (!previousOwnerNodeId.equals(nodeId) || !scheduler.isStarted())) {
+				int resetTriggerCount = partitionLeaseDao.resetAcquiredTriggers(scheduler.getSchedulerName(),
+						previousOwnerNodeId);
+				logger.info("Reset " + resetTriggerCount + " triggers node " + previousOwnerNodeId
+						+ " left acquired in partition " + partitionId);
+			}
+			scheduler.start();
+		} catch (SchedulerException | DatabaseValidationException e) {
+			logger.error(messageBundleResourceHelper.logMessage("scheduler.cluster.partition.start.failed", partitionId,
+					nodeId, e.getMessage()), e);
+		}
+	}
+
+	@Override
+	public void partitionReleased(int partitionId) {
+		Scheduler scheduler = schedulerShardManager.getScheduler(partitionId);
+		try {
+			scheduler.standby();
+		} catch (SchedulerException se) {
+			logger.error(messageBundleResourceHelper.logMessage("scheduler.cluster.partition.standby.failed",
+					partitionId, nodeId, se.getMessage()), se);
+		}
+	}
+
+	/**
+	 * Resolves the node id the shards are created with, the configured one or a generated unique one.
+	 */
+	public static String resolveNodeId(String configuredNodeId) {
+		if (configuredNodeId != null && !configuredNodeId.trim().isEmpty()) {
+			return configuredNodeId.trim();
+		}
+		return generateNodeId();
+	}
+
+	private static String generateNodeId() {
+		String hostName;
+		try {
+			hostName = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException uhe) {
+			hostName = "scheduler";
+		}
+		return hostName + "_" + UUID.randomUUID();
+	}
+}
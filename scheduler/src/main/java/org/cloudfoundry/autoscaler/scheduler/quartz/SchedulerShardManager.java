@@ -0,0 +1,300 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.quartz.CronTrigger;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Manages the logical Quartz schedulers (shards) of the scheduler service. Each shard has its own
+ * scheduler name, and thereby its own rows in the Quartz tables including the lock rows, and its
+ * own thread pool. Applications are routed to a shard by a consistent hash of the application id.
+ *
+ * Shard 0 is the <code>quartzScheduler</code> bean, so a single shard behaves exactly as before.
+ *
+ */
+@Component
+public class SchedulerShardManager implements ApplicationListener<ContextRefreshedEvent> {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	static final String SHARD_SCHEDULER_NAME_PREFIX = "quartzScheduler_shard";
+
+	@Value("${scheduler.shard.count}")
+	private int shardCount;
+
+	@Value("${scheduler.shard.rebalance.fromcount}")
+	private int rebalanceFromShardCount;
+
+	@Value("${scheduler.shard.rebalance.onstartup}")
+	private boolean rebalanceOnStartup;
+
+	@Value("${scheduler.cluster.enabled}")
+	private boolean clusterEnabled;
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("quartzProperties")
+	private Properties quartzProperties;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	private List<SchedulerFactoryBean> shardSchedulerFactoryBeans = new ArrayList<>();
+
+	private List<Scheduler> shards = new ArrayList<>();
+
+	public SchedulerShardManager() {
+	}
+
+	/**
+	 * Creates a shard manager of the specified shards outside of the application context.
+	 */
+	SchedulerShardManager(List<Scheduler> shards) {
+		this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+	}
+
+	@PostConstruct
+	void initShards() throws Exception {
+		if (shardCount < 1) {
+			throw new IllegalStateException("Invalid scheduler shard count: " + shardCount);
+		}
+
+		shards.add(scheduler);
+		for (int shardIndex = 1; shardIndex < shardCount; shardIndex++) {
+			shards.add(createShardScheduler(shardIndex));
+		}
+		shards = Collections.unmodifiableList(shards);
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != applicationContext) {
+			return;
+		}
+
+		if (rebalanceOnStartup) {
+			rebalance();
+		}
+
+		// In clustered mode the shards are started by the SchedulerPartitionCoordinator
+		if (!clusterEnabled) {
+			startShards();
+		}
+	}
+
+	@PreDestroy
+	void destroyShards() throws SchedulerException {
+		for (SchedulerFactoryBean schedulerFactoryBean : shardSchedulerFactoryBeans) {
+			schedulerFactoryBean.destroy();
+		}
+	}
+
+	public int getShardCount() {
+		return shards.size();
+	}
+
+	public List<Scheduler> getSchedulers() {
+		return shards;
+	}
+
+	public Scheduler getScheduler(int shardIndex) {
+		return shards.get(shardIndex);
+	}
+
+	/**
+	 * Returns the scheduler owning the jobs of the specified application.
+	 */
+	public Scheduler getScheduler(String appId) {
+		return shards.get(getShardIndex(appId, shards.size()));
+	}
+
+	/**
+	 * Starts the shard schedulers other than shard 0, which is started by its factory bean.
+	 */
+	void startShards() {
+		for (int shardIndex = 1; shardIndex < shards.size(); shardIndex++) {
+			try {
+				shards.get(shardIndex).start();
+			} catch (SchedulerException se) {
+				throw new IllegalStateException("Failed to start scheduler shard " + shardIndex, se);
+			}
+		}
+	}
+
+	/**
+	 * Moves all jobs, along with their triggers, which are not stored in the shard their application
+	 * is routed to. Shards left over from a larger previous shard count are drained as well.
+	 *
+	 * @return - the number of jobs moved
+	 */
+	public synchronized int rebalance() {
+		int movedJobCount = 0;
+		int sourceShardCount = Math.max(shards.size(), rebalanceFromShardCount);
+
+		for (int shardIndex = 0; shardIndex < sourceShardCount; shardIndex++) {
+			SchedulerFactoryBean drainedSchedulerFactoryBean = null;
+			try {
+				Scheduler sourceScheduler;
+				if (shardIndex < shards.size()) {
+					sourceScheduler = shards.get(shardIndex);
+				} else {
+					drainedSchedulerFactoryBean = createShardSchedulerFactoryBean(shardIndex);
+					sourceScheduler = drainedSchedulerFactoryBean.getScheduler();
+				}
+				movedJobCount += moveJobs(sourceScheduler, shardIndex);
+			} catch (Exception e) {
+				logger.error(messageBundleResourceHelper.logMessage("scheduler.shard.rebalance.failed", shardIndex,
+						e.getMessage()), e);
+			} finally {
+				if (drainedSchedulerFactoryBean != null) {
+					try {
+						drainedSchedulerFactoryBean.destroy();
+					} catch (SchedulerException se) {
+						logger.error("Failed to shutdown drained scheduler shard " + shardIndex, se);
+					}
+				}
+			}
+		}
+
+		logger.info("Scheduler shard rebalancing moved " + movedJobCount + " jobs across " + shards.size()
+				+ " shards.");
+		return movedJobCount;
+	}
+
+	private int moveJobs(Scheduler sourceScheduler, int sourceShardIndex) throws SchedulerException {
+		int movedJobCount = 0;
+		Date now = new Date();
+
+		for (String jobGroup : sourceScheduler.getJobGroupNames()) {
+			for (JobKey jobKey : sourceScheduler.getJobKeys(GroupMatcher.jobGroupEquals(jobGroup))) {
+				JobDetail jobDetail = sourceScheduler.getJobDetail(jobKey);
+				if (jobDetail == null) {
+					continue;
+				}
+
+				String appId = jobDetail.getJobDataMap().getString(ScheduleJobHelper.APP_ID);
+				int targetShardIndex = getShardIndex(appId, shards.size());
+				if (appId == null || targetShardIndex == sourceShardIndex) {
+					continue;
+				}
+
+				Set<Trigger> triggers = new HashSet<>();
+				for (Trigger trigger : sourceScheduler.getTriggersOfJob(jobKey)) {
+					// Cron triggers get their first fire time recomputed from the start time, so
+					// start them now to avoid firing the occurrences which have already passed.
+					if (trigger instanceof CronTrigger && trigger.getStartTime().before(now)) {
+						trigger = trigger.getTriggerBuilder().startAt(now).build();
+					}
+					triggers.add(trigger);
+				}
+
+				shards.get(targetShardIndex).scheduleJob(jobDetail, triggers, true);
+				sourceScheduler.deleteJob(jobKey);
+				movedJobCount++;
+
+				logger.info("Moved job " + jobKey + " for application id: " + appId + " from scheduler shard "
+						+ sourceShardIndex + " to scheduler shard " + targetShardIndex);
+			}
+		}
+		return movedJobCount;
+	}
+
+	private Scheduler createShardScheduler(int shardIndex) throws Exception {
+		SchedulerFactoryBean schedulerFactoryBean = createShardSchedulerFactoryBean(shardIndex);
+		shardSchedulerFactoryBeans.add(schedulerFactoryBean);
+		return schedulerFactoryBean.getScheduler();
+	}
+
+	private SchedulerFactoryBean createShardSchedulerFactoryBean(int shardIndex) throws Exception {
+		QuartzJobFactory jobFactory = new QuartzJobFactory();
+		jobFactory.setApplicationContext(applicationContext);
+
+		Properties shardQuartzProperties = new Properties();
+		shardQuartzProperties.putAll(quartzProperties);
+
+		SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
+		schedulerFactoryBean.setSchedulerName(SHARD_SCHEDULER_NAME_PREFIX + shardIndex);
+		schedulerFactoryBean.setSchedulerFactoryClass(SkipLockedSchedulerFactory.class);
+		schedulerFactoryBean.setApplicationContext(applicationContext);
+		schedulerFactoryBean.setApplicationContextSchedulerContextKey("applicationContext");
+		schedulerFactoryBean.setWaitForJobsToCompleteOnShutdown(true);
+		schedulerFactoryBean.setOverwriteExistingJobs(true);
+		schedulerFactoryBean.setDataSource(dataSource);
+		schedulerFactoryBean.setTransactionManager(transactionManager);
+		schedulerFactoryBean.setJobFactory(jobFactory);
+		schedulerFactoryBean.setQuartzProperties(shardQuartzProperties);
+		schedulerFactoryBean.setAutoStartup(false);
+		schedulerFactoryBean.afterPropertiesSet();
+		return schedulerFactoryBean;
+	}
+
+	/**
+	 * Maps an application id to a shard with the jump consistent hash, so that changing the shard
+	 * count from n to n+1 only moves about 1/(n+1) of the applications.
+	 */
+	static int getShardIndex(String appId, int shardCount) {
+		if (shardCount <= 1 || appId == null) {
+			return 0;
+		}
+
+		long key = hash(appId);
+		long bucket = -1;
+		long jump = 0;
+		while (jump < shardCount) {
+			bucket = jump;
+			key = key * 2862933555777941757L + 1;
+			jump = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+		}
+		return (int) bucket;
+	}
+
+	// 64 bit FNV-1a hash, stable across JVMs and restarts
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= (b & 0xff);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,34 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.quartz.JobPersistenceException;
+import org.springframework.scheduling.quartz.LocalDataSourceJobStore;
+
+/**
+ * Job store of the scheduler shards. In clustered mode the recovery a non clustered job store runs on
+ * the first start of its scheduler is skipped: it would reset the triggers and delete the fired
+ * triggers of the whole shard, including the ones of a node that handed the partition over and is
+ * still completing its running jobs. The {@link SchedulerPartitionCoordinator} resets the triggers of
+ * the node a partition is taken over from instead.
+ *
+ */
+public class ShardJobStore extends LocalDataSourceJobStore {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	private boolean recoverJobsOnStart = true;
+
+	public void setRecoverJobsOnStart(boolean recoverJobsOnStart) {
+		this.recoverJobsOnStart = recoverJobsOnStart;
+	}
+
+	@Override
+	protected void recoverJobs() throws JobPersistenceException {
+		if (recoverJobsOnStart) {
+			super.recoverJobs();
+		} else {
+			logger.info("Skipped the recovery of the jobs of scheduler " + getInstanceName()
+					+ ", the partition coordinator recovers them.");
+		}
+	}
+}
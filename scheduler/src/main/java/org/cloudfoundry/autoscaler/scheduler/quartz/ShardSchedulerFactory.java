@@ -0,0 +1,41 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.util.Properties;
+
+import org.quartz.SchedulerException;
+import org.quartz.impl.StdSchedulerFactory;
+import org.springframework.scheduling.quartz.LocalDataSourceJobStore;
+
+/**
+ * Scheduler factory which swaps in the {@link ShardJobStore}, and turns off its recovery on start
+ * when the <code>scheduler.cluster.enabled</code> Quartz property is true. The SchedulerFactoryBean
+ * always configures its {@link LocalDataSourceJobStore} when it has a data source, so the job store
+ * can not be replaced through the Quartz properties alone.
+ *
+ */
+public class ShardSchedulerFactory extends StdSchedulerFactory {
+
+	public static final String PROP_CLUSTER_ENABLED = "scheduler.cluster.enabled";
+
+	@Override
+	public void initialize(Properties props) throws SchedulerException {
+		Properties properties = new Properties();
+		properties.putAll(props);
+
+		boolean clusterEnabled = Boolean.parseBoolean((String) properties.remove(PROP_CLUSTER_ENABLED));
+		if (LocalDataSourceJobStore.class.getName().equals(properties.getProperty(PROP_JOB_STORE_CLASS))) {
+			configureJobStore(properties);
+			properties.put(PROP_JOB_STORE_PREFIX + ".recoverJobsOnStart", String.valueOf(!clusterEnabled));
+		}
+
+		super.initialize(properties);
+	}
+
+	/**
+	 * Selects the job store class, a {@link ShardJobStore}, in place of the
+	 * {@link LocalDataSourceJobStore}.
+	 */
+	protected void configureJobStore(Properties properties) {
+		properties.put(PROP_JOB_STORE_CLASS, ShardJobStore.class.getName());
+	}
+}
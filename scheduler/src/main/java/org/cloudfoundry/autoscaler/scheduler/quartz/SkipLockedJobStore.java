@@ -0,0 +1,57 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.quartz.JobPersistenceException;
+import org.quartz.impl.jdbcjobstore.FiredTriggerRecord;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * Job store which acquires the due triggers without the global <code>TRIGGER_ACCESS</code> lock.
+ *
+ * It is used together with the {@link PostgreSQLSkipLockedDelegate}: the candidate triggers are
+ * row locked with <code>FOR UPDATE SKIP LOCKED</code> in the acquiring transaction and moved from
+ * WAITING to ACQUIRED with a conditional update, so a trigger is only ever acquired once while other
+ * threads or nodes acquire the remaining due triggers concurrently. Firing, completion and misfire
+ * handling keep using the locks of the {@link ShardJobStore}. When the commit of the acquisition
+ * fails, the same validation as the Quartz job store checks whether it was committed after all
+ * before the acquisition is retried.
+ *
+ */
+public class SkipLockedJobStore extends ShardJobStore {
+
+	@Override
+	public List<OperableTrigger> acquireNextTriggers(final long noLaterThan, final int maxCount,
+			final long timeWindow) throws JobPersistenceException {
+		return executeInNonManagedTXLock(null, new TransactionCallback<List<OperableTrigger>>() {
+			@Override
+			public List<OperableTrigger> execute(Connection conn) throws JobPersistenceException {
+				return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow);
+			}
+		}, new TransactionValidator<List<OperableTrigger>>() {
+			@Override
+			public Boolean validate(Connection conn, List<OperableTrigger> result) throws JobPersistenceException {
+				try {
+					List<FiredTriggerRecord> acquired = getDelegate().selectInstancesFiredTriggerRecords(conn,
+							getInstanceId());
+					Set<String> fireInstanceIds = new HashSet<>();
+					for (FiredTriggerRecord ft : acquired) {
+						fireInstanceIds.add(ft.getFireInstanceId());
+					}
+					for (OperableTrigger tr : result) {
+						if (fireInstanceIds.contains(tr.getFireInstanceId())) {
+							return true;
+						}
+					}
+					return false;
+				} catch (SQLException e) {
+					throw new JobPersistenceException("error validating trigger acquisition", e);
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,39 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.util.Properties;
+
+import org.quartz.SchedulerException;
+import org.springframework.scheduling.quartz.LocalDataSourceJobStore;
+
+/**
+ * Scheduler factory which swaps in the {@link SkipLockedJobStore} and the
+ * {@link PostgreSQLSkipLockedDelegate} in place of the {@link LocalDataSourceJobStore} when the
+ * <code>scheduler.quartz.skiplocked.enabled</code> Quartz property is true, and the
+ * {@link ShardJobStore} otherwise.
+ *
+ */
+public class SkipLockedSchedulerFactory extends ShardSchedulerFactory {
+
+	public static final String PROP_SKIP_LOCKED_ENABLED = "scheduler.quartz.skiplocked.enabled";
+
+	private boolean skipLockedEnabled;
+
+	@Override
+	public void initialize(Properties props) throws SchedulerException {
+		Properties properties = new Properties();
+		properties.putAll(props);
+
+		skipLockedEnabled = Boolean.parseBoolean((String) properties.remove(PROP_SKIP_LOCKED_ENABLED));
+		super.initialize(properties);
+	}
+
+	@Override
+	protected void configureJobStore(Properties properties) {
+		if (skipLockedEnabled) {
+			properties.put(PROP_JOB_STORE_CLASS, SkipLockedJobStore.class.getName());
+			properties.put("org.quartz.jobStore.driverDelegateClass", PostgreSQLSkipLockedDelegate.class.getName());
+		} else {
+			super.configureJobStore(properties);
+		}
+	}
+}
@@ -0,0 +1,571 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.TimingWheelWatermarkDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.CompiledCronExpression;
+import org.cloudfoundry.autoscaler.scheduler.util.HierarchicalTimingWheel;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobLaneEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.quartz.CronTrigger;
+import org.quartz.JobBuilder;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobKey;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory alternative to the Quartz JDBC job store for firing the schedules. The start jobs and
+ * their triggers are kept in a hierarchical timing wheel instead of the Quartz tables, the end and
+ * retry events of each firing are added to the wheel as well. The jobs themselves are the same
+ * start and end jobs the Quartz scheduler runs.
+ *
+ * Only a watermark, the time up to which all events have been fired, is persisted. It is kept below
+ * the fire time of the events which are due but have not finished firing yet. On startup the wheel
+ * is rebuilt from the schedule tables, the boundaries which passed since the watermark are fired
+ * once and the end events of the active schedules are armed again.
+ *
+ * The engine fires all the schedules in the process, it does not support the clustered mode.
+ *
+ */
+@Component
+public class TimingWheelScheduleEngine implements PublicMetrics {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	public static final String ENGINE_NAME = "timingwheel";
+
+	static final String ENGINE_CONTEXT_KEY = "timingWheelScheduleEngine";
+
+	static final String EVENT_CONTEXT_KEY = "timingWheelEvent";
+
+	@Value("${scheduler.engine}")
+	private String engineName;
+
+	@Value("${scheduler.timingwheel.tick.millisecond}")
+	private long tickMillis;
+
+	@Value("${scheduler.timingwheel.wheelsize}")
+	private int wheelSize;
+
+	@Value("${scheduler.timingwheel.worker.poolsize}")
+	private int workerPoolSize;
+
+	@Value("${scheduler.timingwheel.watermark.interval.millisecond}")
+	private long watermarkIntervalMillis;
+
+	@Value("${scheduler.cluster.enabled}")
+	private boolean clusterEnabled;
+
+	@Autowired
+	private TimingWheelWatermarkDao timingWheelWatermarkDao;
+
+	@Autowired
+	private SchedulerShardManager schedulerShardManager;
+
+	@Autowired
+	private ScheduleJobLaneExecutor scheduleJobLaneExecutor;
+
+	@Autowired
+	private AutowireCapableBeanFactory beanFactory;
+
+	private final Object wheelLock = new Object();
+
+	private HierarchicalTimingWheel<TimingWheelEvent> timingWheel;
+
+	private Map<JobKey, Registration> registrations = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService tickExecutor;
+
+	private ThreadPoolExecutor workerExecutor;
+
+	// Set while the wheel is rebuilt from the schedule tables on startup
+	private volatile Long restoreWatermark;
+
+	// Events found due while restoring, they are fired in time order once the engine starts
+	private List<TimingWheelEvent> restoredDueEvents = new ArrayList<>();
+
+	// Guarded by wheelLock, the number of events due but not fired yet by their unfinished since time
+	private TreeMap<Long, Integer> unfinishedEventCounts = new TreeMap<>();
+
+	private AtomicLong firedCount = new AtomicLong();
+
+	private AtomicLong maxFiringLagMillis = new AtomicLong();
+
+	private volatile long lastFiringLagMillis = 0;
+
+	@PostConstruct
+	void initEngine() {
+		if (!isEnabled()) {
+			return;
+		}
+		if (clusterEnabled) {
+			throw new IllegalStateException("The timing wheel schedule engine does not support the clustered mode");
+		}
+
+		timingWheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		workerExecutor = new ThreadPoolExecutor(workerPoolSize, workerPoolSize, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "scheduler-timingwheel-worker-" + threadNumber.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				});
+		workerExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	@PreDestroy
+	void shutdownEngine() throws InterruptedException {
+		if (!isEnabled()) {
+			return;
+		}
+
+		if (tickExecutor != null) {
+			tickExecutor.shutdown();
+			tickExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+		workerExecutor.shutdown();
+		workerExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		if (tickExecutor != null) {
+			saveWatermark();
+		}
+	}
+
+	public boolean isEnabled() {
+		return ENGINE_NAME.equalsIgnoreCase(engineName);
+	}
+
+	/**
+	 * Starts rebuilding the wheel from the schedule tables. Until {@link #start()} is called the
+	 * triggers get their first fire time after the persisted watermark, so the boundaries missed
+	 * while the engine was down are fired once.
+	 */
+	public void beginRestore() {
+		Long watermark = timingWheelWatermarkDao.findWatermark(ENGINE_NAME);
+		restoreWatermark = watermark != null ? watermark : System.currentTimeMillis();
+		logger.info("Restoring the timing wheel schedule engine from watermark " + new Date(restoreWatermark));
+	}
+
+	/**
+	 * Fires the events found due while restoring, and starts ticking the wheel and persisting the
+	 * watermark if not started yet.
+	 */
+	public void start() {
+		List<TimingWheelEvent> dueEvents;
+		synchronized (wheelLock) {
+			restoreWatermark = null;
+			dueEvents = restoredDueEvents;
+			restoredDueEvents = new ArrayList<>();
+		}
+		dueEvents.sort(Comparator.comparingLong(event -> event.fireTimeMillis));
+		for (TimingWheelEvent event : dueEvents) {
+			dispatch(event);
+		}
+
+		if (tickExecutor != null) {
+			return;
+		}
+		tickExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-timingwheel-tick");
+			thread.setDaemon(true);
+			return thread;
+		});
+		tickExecutor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+		tickExecutor.scheduleWithFixedDelay(this::saveWatermark, watermarkIntervalMillis, watermarkIntervalMillis,
+				TimeUnit.MILLISECONDS);
+		logger.info("Started the timing wheel schedule engine with " + registrations.size() + " schedules and "
+				+ getPendingEventCount() + " pending events");
+	}
+
+	/**
+	 * Registers a start job with its trigger, replacing the job with the same key.
+	 */
+	public void scheduleJob(JobDetail jobDetail, Trigger trigger) {
+		Registration registration = new Registration(jobDetail, trigger);
+		Registration previousRegistration = registrations.put(jobDetail.getKey(), registration);
+		if (previousRegistration != null) {
+			previousRegistration.cancelled = true;
+		}
+
+		Date firstFireTime;
+		Long watermark = restoreWatermark;
+		if (watermark != null) {
+			firstFireTime = getFireTimeAfter(trigger, new Date(watermark));
+		} else if (trigger instanceof SimpleTrigger) {
+			// A one-off trigger which is already due fires right away, the same as a misfire in Quartz
+			firstFireTime = trigger.getStartTime();
+		} else {
+			firstFireTime = getFireTimeAfter(trigger, new Date());
+		}
+
+		if (firstFireTime != null) {
+			arm(new TimingWheelEvent(registration, jobDetail, trigger, firstFireTime, true));
+		}
+	}
+
+	/**
+	 * Removes a start job, its pending start and start retry events are dropped when they expire. The
+	 * pending end and end retry events of its active schedule still fire, the same as the end jobs in
+	 * Quartz outlive their start job.
+	 */
+	public void deleteJob(JobKey jobKey) {
+		Registration registration = registrations.remove(jobKey);
+		if (registration != null) {
+			registration.cancelled = true;
+		}
+	}
+
+	/**
+	 * Arms the end event of an active schedule again, used on startup since the end events are only
+	 * kept in memory.
+	 */
+	public void restoreActiveSchedule(ActiveScheduleEntity activeScheduleEntity) {
+		Registration registration = null;
+		for (ScheduleTypeEnum scheduleType : ScheduleTypeEnum.values()) {
+			registration = registrations.get(new JobKey(
+					activeScheduleEntity.getId() + JobActionEnum.START.getJobIdSuffix(),
+					scheduleType.getScheduleIdentifier()));
+			if (registration != null) {
+				break;
+			}
+		}
+		if (registration == null) {
+			logger.warn("No schedule found for the active schedule of application id: "
+					+ activeScheduleEntity.getAppId() + ", Schedule Id: " + activeScheduleEntity.getId());
+			return;
+		}
+
+		Date startFireTime = new Date(activeScheduleEntity.getStartJobIdentifier());
+		JobDetail startJobDetail = registration.jobDetail.getJobBuilder().build();
+		startJobDetail.getJobDataMap().put(ScheduleJobHelper.START_JOB_IDENTIFIER,
+				activeScheduleEntity.getStartJobIdentifier());
+		try {
+			AppScalingScheduleStartJob startJob = (AppScalingScheduleStartJob) createJobInstance(startJobDetail);
+			Date endFireTime = startJob.calculateEndJobStartTime(
+					createJobExecutionContext(startJob, startJobDetail, registration.trigger, startFireTime, null));
+			armEndEvent(registration, startJobDetail, endFireTime);
+		} catch (JobExecutionException jee) {
+			logger.error("Failed to restore the end event of application id: " + activeScheduleEntity.getAppId()
+					+ ", Schedule Id: " + activeScheduleEntity.getId(), jee);
+		}
+	}
+
+	/**
+	 * Fires the job of the execution context once more at the specified time, the counterpart of
+	 * rescheduling the trigger in Quartz.
+	 */
+	void rescheduleJob(JobExecutionContext jobExecutionContext, Trigger newTrigger) {
+		TimingWheelEvent event = (TimingWheelEvent) jobExecutionContext.get(EVENT_CONTEXT_KEY);
+		arm(new TimingWheelEvent(event.registration, jobExecutionContext.getJobDetail(), newTrigger,
+				newTrigger.getStartTime(), false));
+	}
+
+	public int getPendingEventCount() {
+		if (timingWheel == null) {
+			return 0;
+		}
+		synchronized (wheelLock) {
+			return timingWheel.size();
+		}
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		Collection<Metric<?>> metrics = new ArrayList<>();
+		if (isEnabled()) {
+			metrics.add(new Metric<Integer>("scheduler.timingwheel.schedules", registrations.size()));
+			metrics.add(new Metric<Integer>("scheduler.timingwheel.pending", getPendingEventCount()));
+			metrics.add(new Metric<Integer>("scheduler.timingwheel.queued", workerExecutor.getQueue().size()));
+			metrics.add(new Metric<Long>("scheduler.timingwheel.fired", firedCount.get()));
+			metrics.add(new Metric<Long>("scheduler.timingwheel.lag.last", lastFiringLagMillis));
+			metrics.add(new Metric<Long>("scheduler.timingwheel.lag.max", maxFiringLagMillis.get()));
+		}
+		return metrics;
+	}
+
+	private void arm(TimingWheelEvent event) {
+		synchronized (wheelLock) {
+			if (timingWheel.add(event.fireTimeMillis, event)) {
+				return;
+			}
+			if (restoreWatermark != null) {
+				// Fired again on the next restart unless it finishes before the watermark is saved
+				addUnfinished(event, event.fireTimeMillis);
+				restoredDueEvents.add(event);
+				return;
+			}
+			// An event already overdue does not hold the watermark back below the current time
+			addUnfinished(event, Math.max(event.fireTimeMillis, timingWheel.getCurrentTime()));
+		}
+		dispatch(event);
+	}
+
+	private void armEndEvent(Registration registration, JobDetail startJobDetail, Date endFireTime) {
+		JobDataMap endJobDataMap = new JobDataMap(startJobDetail.getJobDataMap());
+		endJobDataMap.put(ScheduleJobHelper.ACTIVE_SCHEDULE_TABLE_TASK_DONE, false);
+		endJobDataMap.put(ScheduleJobHelper.RescheduleCount.ACTIVE_SCHEDULE.name(), 1);
+		endJobDataMap.put(ScheduleJobHelper.RescheduleCount.SCALING_ENGINE_NOTIFICATION.name(), 1);
+
+		String keyName = endJobDataMap.getLong(ScheduleJobHelper.SCHEDULE_ID) + JobActionEnum.END.getJobIdSuffix()
+				+ "_" + endJobDataMap.getLong(ScheduleJobHelper.START_JOB_IDENTIFIER);
+		JobKey endJobKey = new JobKey(keyName, "Schedule");
+		JobDetail endJobDetail = JobBuilder.newJob(AppScalingScheduleEndJob.class).withIdentity(endJobKey)
+				.usingJobData(endJobDataMap).build();
+		Trigger endTrigger = ScheduleJobHelper.buildTrigger(new TriggerKey(keyName, "Schedule"), endJobKey,
+				endFireTime, scheduleJobLaneExecutor.getTriggerPriority(ScheduleJobLaneEnum.END));
+
+		arm(new TimingWheelEvent(registration, endJobDetail, endTrigger, endFireTime, false));
+	}
+
+	private void tick() {
+		try {
+			List<TimingWheelEvent> expiredEvents;
+			long now = System.currentTimeMillis();
+			synchronized (wheelLock) {
+				expiredEvents = timingWheel.advanceClock(now);
+				for (TimingWheelEvent event : expiredEvents) {
+					addUnfinished(event, event.fireTimeMillis);
+				}
+			}
+			for (TimingWheelEvent event : expiredEvents) {
+				dispatch(event);
+			}
+		} catch (RuntimeException re) {
+			// Keep the wheel turning
+			logger.error("Timing wheel tick failed", re);
+		}
+	}
+
+	void saveWatermark() {
+		long watermark;
+		synchronized (wheelLock) {
+			watermark = timingWheel.getCurrentTime();
+			if (!unfinishedEventCounts.isEmpty()) {
+				// The boundaries of the events not fired yet are fired again after a restart
+				watermark = Math.min(watermark, unfinishedEventCounts.firstKey() - 1);
+			}
+		}
+		try {
+			timingWheelWatermarkDao.saveWatermark(ENGINE_NAME, watermark);
+		} catch (DatabaseValidationException dve) {
+			logger.error("Failed to save the timing wheel watermark " + new Date(watermark), dve);
+		}
+	}
+
+	// Called with wheelLock held
+	private void addUnfinished(TimingWheelEvent event, long unfinishedSinceMillis) {
+		event.unfinishedSinceMillis = unfinishedSinceMillis;
+		unfinishedEventCounts.merge(unfinishedSinceMillis, 1, Integer::sum);
+	}
+
+	private void removeUnfinished(TimingWheelEvent event) {
+		synchronized (wheelLock) {
+			unfinishedEventCounts.computeIfPresent(event.unfinishedSinceMillis,
+					(unfinishedSinceMillis, count) -> count == 1 ? null : count - 1);
+		}
+	}
+
+	private void dispatch(TimingWheelEvent event) {
+		if (event.isCancelled()) {
+			removeUnfinished(event);
+			return;
+		}
+		try {
+			workerExecutor.execute(() -> {
+				try {
+					fire(event);
+				} finally {
+					removeUnfinished(event);
+				}
+			});
+		} catch (RejectedExecutionException ree) {
+			// Stays unfinished, so it is fired again after the restart
+			logger.error("Timing wheel event not fired as the engine is shut down, Job Key: " + event.jobDetail.getKey(),
+					ree);
+		}
+	}
+
+	private void fire(TimingWheelEvent event) {
+		Registration registration = event.registration;
+		if (event.isCancelled()) {
+			return;
+		}
+
+		Date scheduledFireTime = new Date(event.fireTimeMillis);
+		Date fireTime = new Date();
+		long firingLagMillis = Math.max(0, fireTime.getTime() - scheduledFireTime.getTime());
+		lastFiringLagMillis = firingLagMillis;
+		maxFiringLagMillis.accumulateAndGet(firingLagMillis, Math::max);
+		firedCount.incrementAndGet();
+
+		JobDetail jobDetail = event.jobDetail;
+		try {
+			if (event.boundary) {
+				// Next occurrence of the schedule, the occurrences missed in the meantime are skipped
+				Date nextFireTime = getFireTimeAfter(registration.trigger, fireTime);
+				if (nextFireTime != null) {
+					arm(new TimingWheelEvent(registration, registration.jobDetail, registration.trigger, nextFireTime,
+							true));
+				}
+
+				// Every firing gets its own job data, the end event is armed by the engine
+				jobDetail = registration.jobDetail.getJobBuilder().build();
+				jobDetail.getJobDataMap().put(ScheduleJobHelper.START_JOB_IDENTIFIER, fireTime.getTime());
+				jobDetail.getJobDataMap().put(ScheduleJobHelper.CREATE_END_JOB_TASK_DONE, true);
+			} else if (jobDetail.getJobDataMap().containsKey(ScheduleJobHelper.START_JOB_IDENTIFIER)
+					&& AppScalingScheduleStartJob.class.isAssignableFrom(jobDetail.getJobClass())) {
+				// A retried start job keeps the fire time of the boundary, so that the end job finds its
+				// active schedule
+				fireTime = new Date(jobDetail.getJobDataMap().getLong(ScheduleJobHelper.START_JOB_IDENTIFIER));
+			}
+
+			AppScalingScheduleJob job = createJobInstance(jobDetail);
+			JobExecutionContextImpl jobExecutionContext = createJobExecutionContext(job, jobDetail, event.trigger,
+					fireTime, scheduledFireTime);
+			jobExecutionContext.put(EVENT_CONTEXT_KEY, event);
+
+			if (event.boundary) {
+				AppScalingScheduleStartJob startJob = (AppScalingScheduleStartJob) job;
+				Date endFireTime = startJob.calculateEndJobStartTime(jobExecutionContext);
+				if (startJob.shouldExecuteStartJob(jobExecutionContext, fireTime, endFireTime)) {
+					armEndEvent(registration, jobDetail, endFireTime);
+				}
+			}
+
+			job.execute(jobExecutionContext);
+		} catch (JobExecutionException jee) {
+			// The failure has already been logged and the job rescheduled where applicable
+			logger.debug("Job execution failed, Job Key: " + jobDetail.getKey(), jee);
+		} catch (RuntimeException re) {
+			logger.error("Job execution failed, Job Key: " + jobDetail.getKey(), re);
+		}
+	}
+
+	/**
+	 * Same as {@link Trigger#getFireTimeAfter(Date)}, with the compiled form of the cron expression
+	 * for the recurring schedules.
+	 */
+	private Date getFireTimeAfter(Trigger trigger, Date afterTime) {
+		if (!(trigger instanceof CronTrigger)) {
+			return trigger.getFireTimeAfter(afterTime);
+		}
+
+		CronTrigger cronTrigger = (CronTrigger) trigger;
+		long afterTimeMillis = afterTime.getTime();
+		if (cronTrigger.getStartTime().getTime() > afterTimeMillis) {
+			afterTimeMillis = cronTrigger.getStartTime().getTime() - 1000L;
+		}
+		Date endTime = cronTrigger.getEndTime();
+		if (endTime != null && afterTimeMillis >= endTime.getTime()) {
+			return null;
+		}
+
+		long fireTimeMillis;
+		try {
+			CompiledCronExpression cronExpression = CompiledCronExpression
+					.getInstance(cronTrigger.getCronExpression(), cronTrigger.getTimeZone());
+			fireTimeMillis = cronExpression.nextFireAfter(afterTimeMillis);
+		} catch (ParseException pe) {
+			return trigger.getFireTimeAfter(afterTime);
+		}
+		if (fireTimeMillis < 0 || (endTime != null && fireTimeMillis > endTime.getTime())) {
+			return null;
+		}
+		return new Date(fireTimeMillis);
+	}
+
+	private AppScalingScheduleJob createJobInstance(JobDetail jobDetail) {
+		// Same as the QuartzJobFactory does for the Quartz scheduler
+		AppScalingScheduleJob job = (AppScalingScheduleJob) BeanUtils.instantiateClass(jobDetail.getJobClass());
+		beanFactory.autowireBean(job);
+		return job;
+	}
+
+	private JobExecutionContextImpl createJobExecutionContext(AppScalingScheduleJob job, JobDetail jobDetail,
+			Trigger trigger, Date fireTime, Date scheduledFireTime) {
+		String appId = jobDetail.getJobDataMap().getString(ScheduleJobHelper.APP_ID);
+		TriggerFiredBundle triggerFiredBundle = new TriggerFiredBundle(jobDetail, (OperableTrigger) trigger, null,
+				false, fireTime, scheduledFireTime, null, null);
+		JobExecutionContextImpl jobExecutionContext = new JobExecutionContextImpl(
+				schedulerShardManager.getScheduler(appId), triggerFiredBundle, job);
+		jobExecutionContext.put(ENGINE_CONTEXT_KEY, this);
+		return jobExecutionContext;
+	}
+
+	private static class Registration {
+		private final JobDetail jobDetail;
+		private final Trigger trigger;
+		private volatile boolean cancelled = false;
+
+		Registration(JobDetail jobDetail, Trigger trigger) {
+			this.jobDetail = jobDetail;
+			this.trigger = trigger;
+		}
+	}
+
+	private static class TimingWheelEvent {
+		private final Registration registration;
+		private final JobDetail jobDetail;
+		private final Trigger trigger;
+		private final long fireTimeMillis;
+		// Start boundaries of the schedule, as opposed to the end and retry events
+		private final boolean boundary;
+		// Guarded by wheelLock, set once the event is due
+		private long unfinishedSinceMillis;
+
+		TimingWheelEvent(Registration registration, JobDetail jobDetail, Trigger trigger, Date fireTime,
+				boolean boundary) {
+			this.registration = registration;
+			this.jobDetail = jobDetail;
+			this.trigger = trigger;
+			this.fireTimeMillis = fireTime.getTime();
+			this.boundary = boundary;
+		}
+
+		/**
+		 * Only the start side of a removed or replaced schedule is cancelled, the end of its active
+		 * schedule still fires.
+		 */
+		boolean isCancelled() {
+			return registration.cancelled && AppScalingScheduleStartJob.class.isAssignableFrom(jobDetail.getJobClass());
+		}
+	}
+}
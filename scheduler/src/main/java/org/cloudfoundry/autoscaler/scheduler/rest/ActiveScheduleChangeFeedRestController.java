@@ -0,0 +1,68 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import org.cloudfoundry.autoscaler.scheduler.service.ActiveScheduleChangeFeed;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for streaming the active schedule change feed as Server-Sent Events.
+ */
+@RestController
+@RequestMapping(value = "/v2/active_schedule_changes")
+public class ActiveScheduleChangeFeedRestController {
+
+	@Autowired
+	ActiveScheduleChangeFeed activeScheduleChangeFeed;
+
+	@RequestMapping(method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ApiOperation(value = "Stream the starts and ends of the active schedules after a sequence, as Server-Sent Events named start, end or reset.", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The events in sequence order, the id of each event is its sequence."),
+			@ApiResponse(code = 400, message = "Validation error encountered."),
+			@ApiResponse(code = 404, message = "The change feed is not enabled.") })
+	public ResponseEntity<SseEmitter> getActiveScheduleChanges(
+			@ApiParam(name = "after_sequence", value = "The sequence of the last event received, the events from now on if not specified") @RequestParam(value = "after_sequence", required = false) String afterSequence,
+			@ApiParam(name = "Last-Event-ID", value = "Sent by the event source on reconnection, used when after_sequence is not specified") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+		if (!activeScheduleChangeFeed.isEnabled()) {
+			return new ResponseEntity<>(null, null, HttpStatus.NOT_FOUND);
+		}
+
+		Long startSequence = null;
+		if (afterSequence != null) {
+			startSequence = parseSequence("after_sequence", afterSequence);
+		} else if (lastEventId != null) {
+			startSequence = parseSequence("Last-Event-ID", lastEventId);
+		}
+
+		return new ResponseEntity<>(activeScheduleChangeFeed.subscribe(startSequence), null, HttpStatus.OK);
+	}
+
+	private Long parseSequence(String name, String value) {
+		try {
+			long sequence = Long.parseLong(value);
+			if (sequence >= 0) {
+				return sequence;
+			}
+		} catch (NumberFormatException nfe) {
+			// Reported below
+		}
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		validationErrorResult.addFieldError(null, "data.query.invalid", name, value);
+		throw new InvalidDataException("Validation error", validationErrorResult);
+	}
+}
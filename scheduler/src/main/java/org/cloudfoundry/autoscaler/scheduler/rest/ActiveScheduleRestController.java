@@ -0,0 +1,99 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChanges;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleState;
+import org.cloudfoundry.autoscaler.scheduler.service.ActiveScheduleView;
+import org.cloudfoundry.autoscaler.scheduler.util.DataValidationHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for reading the active schedules from the in memory view. Without the app_ids or
+ * since_version parameters GET /v2/active_schedules stays the NDJSON export of the active schedules
+ * read from the database.
+ */
+@RestController
+@RequestMapping(value = "/v2/active_schedules")
+public class ActiveScheduleRestController {
+
+	@Autowired
+	ActiveScheduleView activeScheduleView;
+
+	@Value("${scheduler.activeschedule.view.maxcount}")
+	private int maxAppIdCount;
+
+	@RequestMapping(value = "/{app_id}", method = RequestMethod.GET)
+	@ApiOperation(value = "Get the active schedule of the specified application id, with an ETag of the version of its last change.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Active schedule found for the specified application id.", response = ActiveScheduleState.class),
+			@ApiResponse(code = 304, message = "The active schedule has not changed since the version of the If-None-Match header."),
+			@ApiResponse(code = 404, message = "No active schedule for the specified application id.") })
+	public ResponseEntity<ActiveScheduleState> getActiveSchedule(
+			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId,
+			WebRequest webRequest) {
+		ActiveScheduleState activeSchedule = activeScheduleView.getActiveSchedule(appId);
+		if (activeSchedule == null) {
+			return new ResponseEntity<>(null, null, HttpStatus.NOT_FOUND);
+		}
+		if (webRequest.checkNotModified("\"" + activeSchedule.getVersion() + "\"")) {
+			return null;
+		}
+		return new ResponseEntity<>(activeSchedule, null, HttpStatus.OK);
+	}
+
+	@RequestMapping(method = RequestMethod.GET, params = { "app_ids", "!since_version" })
+	@ApiOperation(value = "Get the active schedules of the specified application ids.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The active schedules of the application ids which have one.", response = ActiveScheduleChanges.class),
+			@ApiResponse(code = 400, message = "Validation error encountered.") })
+	public ResponseEntity<ActiveScheduleChanges> getActiveSchedules(
+			@ApiParam(name = "app_ids", value = "The comma separated application ids", required = true) @RequestParam("app_ids") List<String> rawAppIds) {
+		Set<String> appIds = new LinkedHashSet<>();
+		for (String appId : rawAppIds) {
+			if (DataValidationHelper.isNotEmpty(appId)) {
+				appIds.add(appId);
+			}
+		}
+
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		if (appIds.isEmpty()) {
+			validationErrorResult.addFieldError(rawAppIds, "data.value.not.specified", "app_ids");
+		} else if (appIds.size() > maxAppIdCount) {
+			validationErrorResult.addFieldError(rawAppIds, "data.appids.limit.exceeded", appIds.size(),
+					maxAppIdCount);
+		}
+		if (validationErrorResult.hasErrors()) {
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+
+		return new ResponseEntity<>(activeScheduleView.getActiveSchedules(appIds), null, HttpStatus.OK);
+	}
+
+	@RequestMapping(method = RequestMethod.GET, params = "since_version")
+	@ApiOperation(value = "Get the active schedules changed or removed since a version of the view.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The changes in version order, or all the active schedules when the changes are no longer known.", response = ActiveScheduleChanges.class) })
+	public ResponseEntity<ActiveScheduleChanges> getActiveScheduleChanges(
+			@ApiParam(name = "since_version", value = "The version of the previous response, 0 for all the active schedules", required = true) @RequestParam("since_version") long sinceVersion) {
+		return new ResponseEntity<>(activeScheduleView.getChanges(sinceVersion), null, HttpStatus.OK);
+	}
+}
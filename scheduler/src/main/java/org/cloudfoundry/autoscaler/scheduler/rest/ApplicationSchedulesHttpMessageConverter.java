@@ -0,0 +1,300 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.PayloadTooLargeException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Reads the schedules of a request body as a stream. The size of the body, the number of schedules
+ * of each type and the length of the days of week and days of month arrays are checked while the
+ * body is read, so an oversized policy is rejected before its entities are built. Each schedule is
+ * bound on its own with the application ObjectMapper, the responses are still written by the
+ * default Jackson converter.
+ */
+@Component
+public class ApplicationSchedulesHttpMessageConverter extends AbstractHttpMessageConverter<ApplicationSchedules> {
+
+	private static final String SCHEDULES = "schedules";
+	private static final String SPECIFIC_DATE = "specific_date";
+	private static final String RECURRING_SCHEDULE = "recurring_schedule";
+	private static final String DAYS_OF_WEEK = "days_of_week";
+	private static final String DAYS_OF_MONTH = "days_of_month";
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${scheduler.request.body.maxsize}")
+	private long maxBodySize;
+	@Value("${scheduler.request.days.maxcount}")
+	private int maxDayCount;
+	@Value("${scheduler.validation.specificdate.maxcount}")
+	private int maxSpecificDateScheduleCount;
+	@Value("${scheduler.validation.recurring.maxcount}")
+	private int maxRecurringScheduleCount;
+
+	public ApplicationSchedulesHttpMessageConverter() {
+		super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return ApplicationSchedules.class == clazz;
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	protected ApplicationSchedules readInternal(Class<? extends ApplicationSchedules> clazz,
+			HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+		// Reject a declared oversized body before reading it, a chunked body is counted while it is read
+		long contentLength = inputMessage.getHeaders().getContentLength();
+		if (maxBodySize > 0 && contentLength > maxBodySize) {
+			throw payloadTooLarge(maxBodySize);
+		}
+
+		InputStream body = inputMessage.getBody();
+		if (maxBodySize > 0) {
+			body = new BodySizeLimitInputStream(body, maxBodySize);
+		}
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "Expected the schedules as a JSON object");
+			}
+			return readApplicationSchedules(parser);
+		} catch (JsonProcessingException e) {
+			throw new HttpMessageNotReadableException("Could not read the schedules: " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	protected void writeInternal(ApplicationSchedules applicationSchedules, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		throw new HttpMessageNotWritableException("The schedules are written by the Jackson converter");
+	}
+
+	/**
+	 * Reads a policy object with the same limits as a request body, the parser is positioned on the
+	 * start of the object. Also used for the policies of the bulk import records.
+	 */
+	ApplicationSchedules readApplicationSchedules(JsonParser parser) throws IOException {
+		// The other fields are bound together once the schedules are read
+		TokenBuffer fields = new TokenBuffer(parser);
+		fields.writeStartObject();
+		Schedules schedules = null;
+
+		while (nextToken(parser) == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = nextToken(parser);
+			if (SCHEDULES.equals(fieldName) && token == JsonToken.START_OBJECT) {
+				schedules = readSchedules(parser);
+			} else {
+				fields.writeFieldName(fieldName);
+				fields.copyCurrentStructure(parser);
+			}
+		}
+		fields.writeEndObject();
+
+		ApplicationSchedules applicationSchedules = objectMapper.readValue(fields.asParser(objectMapper),
+				ApplicationSchedules.class);
+		if (schedules != null) {
+			applicationSchedules.setSchedules(schedules);
+		}
+		return applicationSchedules;
+	}
+
+	private Schedules readSchedules(JsonParser parser) throws IOException {
+		TokenBuffer fields = new TokenBuffer(parser);
+		fields.writeStartObject();
+		List<SpecificDateScheduleEntity> specificDateSchedules = null;
+		List<RecurringScheduleEntity> recurringSchedules = null;
+
+		while (nextToken(parser) == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken token = nextToken(parser);
+			if (SPECIFIC_DATE.equals(fieldName) && token == JsonToken.START_ARRAY) {
+				specificDateSchedules = readScheduleArray(parser, SpecificDateScheduleEntity.class,
+						ScheduleTypeEnum.SPECIFIC_DATE, maxSpecificDateScheduleCount);
+			} else if (RECURRING_SCHEDULE.equals(fieldName) && token == JsonToken.START_ARRAY) {
+				recurringSchedules = readScheduleArray(parser, RecurringScheduleEntity.class,
+						ScheduleTypeEnum.RECURRING, maxRecurringScheduleCount);
+			} else {
+				fields.writeFieldName(fieldName);
+				fields.copyCurrentStructure(parser);
+			}
+		}
+		fields.writeEndObject();
+
+		Schedules schedules = objectMapper.readValue(fields.asParser(objectMapper), Schedules.class);
+		if (specificDateSchedules != null) {
+			schedules.setSpecificDate(specificDateSchedules);
+		}
+		if (recurringSchedules != null) {
+			schedules.setRecurringSchedule(recurringSchedules);
+		}
+		return schedules;
+	}
+
+	private <T extends ScheduleEntity> List<T> readScheduleArray(JsonParser parser, Class<T> scheduleClass,
+			ScheduleTypeEnum scheduleType, int maxScheduleCount) throws IOException {
+		List<T> scheduleEntities = new ArrayList<>();
+
+		while (nextToken(parser) != JsonToken.END_ARRAY) {
+			if (maxScheduleCount > 0 && scheduleEntities.size() >= maxScheduleCount) {
+				int scheduleCount = scheduleEntities.size() + skipRemainingSchedules(parser);
+				throw invalidData("data.schedules.limit.exceeded", scheduleType.getDescription(), scheduleCount,
+						maxScheduleCount);
+			}
+			String scheduleBeingProcessed = scheduleType.getDescription() + " " + scheduleEntities.size();
+			TokenBuffer schedule = readSchedule(parser, scheduleBeingProcessed,
+					scheduleType == ScheduleTypeEnum.RECURRING);
+			scheduleEntities.add(objectMapper.readValue(schedule.asParser(objectMapper), scheduleClass));
+		}
+		return scheduleEntities;
+	}
+
+	/**
+	 * Copies a single schedule into a buffer, counting the values of the days of week and days of
+	 * month arrays of a recurring schedule on the way.
+	 */
+	private TokenBuffer readSchedule(JsonParser parser, String scheduleBeingProcessed, boolean hasDays)
+			throws IOException {
+		TokenBuffer schedule = new TokenBuffer(parser);
+		String daysFieldName = null;
+		int dayCount = 0;
+		int depth = 0;
+
+		JsonToken token = parser.getCurrentToken();
+		while (true) {
+			schedule.copyCurrentEvent(parser);
+			if (token.isStructStart()) {
+				String fieldName = parser.getCurrentName();
+				if (hasDays && depth == 1 && token == JsonToken.START_ARRAY
+						&& (DAYS_OF_WEEK.equals(fieldName) || DAYS_OF_MONTH.equals(fieldName))) {
+					daysFieldName = fieldName;
+					dayCount = 0;
+				}
+				++depth;
+			} else if (token.isStructEnd()) {
+				--depth;
+				if (depth == 1) {
+					daysFieldName = null;
+				}
+			} else if (daysFieldName != null && depth == 2 && token.isScalarValue()) {
+				if (maxDayCount > 0 && ++dayCount > maxDayCount) {
+					throw invalidData("schedule.data.days.limit.exceeded", scheduleBeingProcessed, daysFieldName,
+							maxDayCount);
+				}
+			}
+
+			if (depth == 0) {
+				return schedule;
+			}
+			token = nextToken(parser);
+		}
+	}
+
+	/**
+	 * Skips the schedules left in the array without buffering them, only to report their count.
+	 *
+	 * @return - the number of skipped schedules, including the current one
+	 */
+	private int skipRemainingSchedules(JsonParser parser) throws IOException {
+		int skippedCount = 0;
+		for (JsonToken token = parser.getCurrentToken(); token != JsonToken.END_ARRAY; token = nextToken(parser)) {
+			parser.skipChildren();
+			skippedCount++;
+		}
+		return skippedCount;
+	}
+
+	private JsonToken nextToken(JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == null) {
+			throw new JsonParseException(parser, "Unexpected end of the schedules");
+		}
+		return token;
+	}
+
+	private static InvalidDataException invalidData(String messageCode, Object... arguments) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		validationErrorResult.addFieldError(null, messageCode, arguments);
+		return new InvalidDataException("Request body rejected", validationErrorResult);
+	}
+
+	private static PayloadTooLargeException payloadTooLarge(long maxBodySize) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		validationErrorResult.addFieldError(null, "data.request.too.large", maxBodySize);
+		return new PayloadTooLargeException("Request body rejected", validationErrorResult);
+	}
+
+	/**
+	 * Fails the read once more than the maximum number of bytes are read from the body.
+	 */
+	private static class BodySizeLimitInputStream extends FilterInputStream {
+		private long maxBodySize;
+		private long bytesRead;
+
+		private BodySizeLimitInputStream(InputStream in, long maxBodySize) {
+			super(in);
+			this.maxBodySize = maxBodySize;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count(n);
+			}
+			return n;
+		}
+
+		private void count(long n) {
+			bytesRead += n;
+			if (bytesRead > maxBodySize) {
+				throw payloadTooLarge(maxBodySize);
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.CapacityForecast;
+import org.cloudfoundry.autoscaler.scheduler.service.CapacityForecaster;
+import org.cloudfoundry.autoscaler.scheduler.service.UpcomingScheduleEventIndex;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for forecasting the minimum instance demand of all the applications with
+ * schedules, for planning the capacity of the foundation.
+ */
+@RestController
+@RequestMapping(value = "/v2/capacity_forecast")
+public class CapacityForecastRestController {
+
+	private static final String GROUP_BY_TIME_ZONE = "timezone";
+
+	private static final Duration DEFAULT_STEP = Duration.ofHours(1);
+
+	private static final Duration MIN_STEP = Duration.ofMinutes(1);
+
+	@Autowired
+	CapacityForecaster capacityForecaster;
+	@Autowired
+	UpcomingScheduleEventIndex upcomingScheduleEventIndex;
+
+	@Value("${scheduler.capacity.forecast.max.steps}")
+	private int maxStepCount;
+
+	@RequestMapping(method = RequestMethod.GET)
+	@ApiOperation(value = "Get the sum of the minimum instance counts in effect for all the applications with schedules, per step of a time window.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The demand at the start of each step and at its peak within the step.", response = CapacityForecast.class),
+			@ApiResponse(code = 400, message = "Validation error encountered.") })
+	public ResponseEntity<CapacityForecast> getCapacityForecast(
+			@ApiParam(value = "The start of the time window, ISO-8601, defaults to now") @RequestParam(value = "from", required = false) String from,
+			@ApiParam(value = "The end of the time window, ISO-8601, defaults to the end of the upcoming horizon") @RequestParam(value = "to", required = false) String to,
+			@ApiParam(value = "The length of the steps, ISO-8601 duration, defaults to PT1H") @RequestParam(value = "step", required = false) String step,
+			@ApiParam(value = "Also forecast the demand per time zone of the policies", allowableValues = GROUP_BY_TIME_ZONE) @RequestParam(value = "group_by", required = false) String groupBy) {
+		long now = System.currentTimeMillis();
+		long horizonMillis = upcomingScheduleEventIndex.getHorizonMillis();
+		long fromMillis = from == null ? now : parseInstant("from", from);
+		long toMillis = to == null ? now + horizonMillis : parseInstant("to", to);
+		Duration stepDuration = step == null ? DEFAULT_STEP : parseDuration("step", step);
+		if (groupBy != null && !groupBy.equals(GROUP_BY_TIME_ZONE)) {
+			throwValidationError("data.query.invalid", "group_by", groupBy);
+		}
+
+		if (toMillis <= fromMillis || fromMillis < now - horizonMillis || toMillis > now + horizonMillis) {
+			throwValidationError("data.capacity.forecast.window.invalid", Instant.ofEpochMilli(fromMillis),
+					Instant.ofEpochMilli(toMillis), TimeUnit.MILLISECONDS.toHours(horizonMillis));
+		}
+		if (stepDuration.compareTo(MIN_STEP) < 0
+				|| (toMillis - fromMillis + stepDuration.toMillis() - 1) / stepDuration.toMillis() > maxStepCount) {
+			throwValidationError("data.capacity.forecast.step.invalid", stepDuration, maxStepCount);
+		}
+
+		return new ResponseEntity<>(capacityForecaster.getCapacityForecast(fromMillis, toMillis, stepDuration,
+				GROUP_BY_TIME_ZONE.equals(groupBy)), null, HttpStatus.OK);
+	}
+
+	private long parseInstant(String name, String value) {
+		try {
+			return Instant.parse(value).toEpochMilli();
+		} catch (DateTimeParseException dtpe) {
+			throwValidationError("data.query.invalid", name, value);
+			return 0;
+		}
+	}
+
+	private Duration parseDuration(String name, String value) {
+		try {
+			return Duration.parse(value);
+		} catch (DateTimeParseException dtpe) {
+			throwValidationError("data.query.invalid", name, value);
+			return null;
+		}
+	}
+
+	private void throwValidationError(String key, Object... arguments) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		validationErrorResult.addFieldError(null, key, arguments);
+		throw new InvalidDataException("Validation error", validationErrorResult);
+	}
+}
@@ -1,5 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.rest;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -7,11 +8,14 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.PayloadTooLargeException;
 import org.cloudfoundry.autoscaler.scheduler.util.error.SchedulerInternalException;
 import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -21,7 +25,7 @@ public class ControllerExceptionHandler {
 	private Logger logger = LogManager.getLogger(this.getClass());
 
 	@Autowired
-	private ValidationErrorResult validationErrorResult;
+	private MessageBundleResourceHelper messageBundleResourceHelper;
 
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<List<String>> handleException(HttpServletRequest req, Exception e) {
@@ -36,18 +40,42 @@ public class ControllerExceptionHandler {
 		return new ResponseEntity<>(null, null, HttpStatus.BAD_REQUEST);
 	}
 
+	@ExceptionHandler(HttpMessageNotReadableException.class)
+	public ResponseEntity<List<String>> handleHttpMessageNotReadableException(HttpServletRequest req,
+			HttpMessageNotReadableException e) {
+		logger.debug("Unreadable request body", e);
+
+		return new ResponseEntity<>(null, null, HttpStatus.BAD_REQUEST);
+	}
+
+	@ExceptionHandler(PayloadTooLargeException.class)
+	public ResponseEntity<List<String>> handlePayloadTooLargeException(HttpServletRequest req,
+			PayloadTooLargeException e) {
+
+		List<String> errors = getAllErrorMessages(e.getValidationErrorResult());
+		return new ResponseEntity<>(errors, null, HttpStatus.PAYLOAD_TOO_LARGE);
+	}
+
 	@ExceptionHandler(InvalidDataException.class)
-	public ResponseEntity<List<String>> handleValidationException(HttpServletRequest req, Exception e) {
+	public ResponseEntity<List<String>> handleValidationException(HttpServletRequest req, InvalidDataException e) {
 
-		List<String> errors = validationErrorResult.getAllErrorMessages();
+		List<String> errors = getAllErrorMessages(e.getValidationErrorResult());
 		return new ResponseEntity<>(errors, null, HttpStatus.BAD_REQUEST);
 	}
 
 	@ExceptionHandler(SchedulerInternalException.class)
-	public ResponseEntity<List<String>> handleDatabaseValidationException(HttpServletRequest req, Exception e) {
+	public ResponseEntity<List<String>> handleDatabaseValidationException(HttpServletRequest req,
+			SchedulerInternalException e) {
 		logger.error("Internal Server Error", e);
 
-		List<String> errors = validationErrorResult.getAllErrorMessages();
+		List<String> errors = getAllErrorMessages(e.getValidationErrorResult());
 		return new ResponseEntity<>(errors, null, HttpStatus.INTERNAL_SERVER_ERROR);
 	}
+
+	private List<String> getAllErrorMessages(ValidationErrorResult validationErrorResult) {
+		if (validationErrorResult == null) {
+			return new ArrayList<>();
+		}
+		return validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
+	}
 }
@@ -0,0 +1,111 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleOperationManager;
+import org.cloudfoundry.autoscaler.scheduler.util.DataValidationHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for deleting the schedules of many applications at once, for example when the
+ * service broker unbinds all the applications of a deleted org.
+ */
+@RestController
+@RequestMapping(value = "/v2/schedules/delete")
+public class ScheduleBulkDeleteRestController {
+
+	@Autowired
+	ScheduleManager scheduleManager;
+	@Autowired
+	ScheduleOperationManager scheduleOperationManager;
+
+	@Value("${scheduler.delete.maxcount}")
+	private int maxAppIdCount;
+	@Value("${scheduler.delete.chunk.size}")
+	private int chunkSize;
+
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@RequestMapping(method = RequestMethod.POST)
+	@ApiOperation(value = "Delete all schedules (specific dates and recurring) for the specified application ids.", consumes = "application/json", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Schedules deleted, the application ids that had schedules are returned.", response = String.class, responseContainer = "List"),
+			@ApiResponse(code = 400, message = "Validation error encountered.") })
+	public ResponseEntity<List<String>> deleteSchedules(
+			@ApiParam(name = "app_ids", value = "The application ids", required = true) @RequestBody List<String> rawAppIds) {
+		Set<String> appIds = validateAppIds(rawAppIds);
+
+		// Each chunk is deleted in its own transaction, deleting again the applications of a failed
+		// request is harmless
+		List<String> deletedAppIds = new ArrayList<>();
+		List<String> chunk = new ArrayList<>(Math.min(chunkSize, appIds.size()));
+		for (String appId : appIds) {
+			// A queued asynchronous PUT would otherwise recreate the deleted schedules
+			scheduleOperationManager.supersedeQueuedOperation(appId);
+			chunk.add(appId);
+			if (chunk.size() >= chunkSize) {
+				deleteChunk(chunk, deletedAppIds);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			deleteChunk(chunk, deletedAppIds);
+		}
+
+		return new ResponseEntity<>(deletedAppIds, null, HttpStatus.OK);
+	}
+
+	private Set<String> validateAppIds(List<String> rawAppIds) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		Set<String> appIds = new LinkedHashSet<>();
+		if (rawAppIds != null) {
+			for (String appId : rawAppIds) {
+				if (DataValidationHelper.isNotEmpty(appId)) {
+					appIds.add(appId);
+				}
+			}
+		}
+
+		if (appIds.isEmpty()) {
+			validationErrorResult.addFieldError(rawAppIds, "data.value.not.specified", "app_ids");
+		} else if (maxAppIdCount > 0 && appIds.size() > maxAppIdCount) {
+			validationErrorResult.addFieldError(rawAppIds, "data.appids.limit.exceeded", appIds.size(),
+					maxAppIdCount);
+		}
+
+		if (validationErrorResult.hasErrors()) {
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+		return appIds;
+	}
+
+	private void deleteChunk(List<String> chunk, List<String> deletedAppIds) {
+		logger.info("Delete schedules for " + chunk.size() + " applications");
+		Set<String> deletedChunkAppIds = scheduleManager.deleteSchedules(chunk);
+		for (String appId : chunk) {
+			if (deletedChunkAppIds.contains(appId)) {
+				deletedAppIds.add(appId);
+			}
+		}
+		chunk.clear();
+	}
+}
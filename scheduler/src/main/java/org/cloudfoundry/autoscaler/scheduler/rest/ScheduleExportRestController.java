@@ -0,0 +1,125 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleExportRecord;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleExportRecord;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleExportManager;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleExportFilter;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for the export of the schedules and active schedules of all the applications.
+ * The records are written page by page as they are read, one JSON object per line, and the
+ * schedule records can be imported again with PUT /v2/schedules.
+ */
+@RestController
+public class ScheduleExportRestController {
+
+	@Autowired
+	ScheduleExportManager scheduleExportManager;
+	@Autowired
+	private ObjectMapper objectMapper;
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@RequestMapping(value = "/v2/schedules", method = RequestMethod.GET)
+	@ApiOperation(value = "Export the schedules of all the applications as app_id and policy records.", produces = ScheduleImportRestController.NDJSON_CONTENT_TYPE)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The schedules of each application are streamed in the response.", response = ScheduleExportRecord.class),
+			@ApiResponse(code = 400, message = "Invalid filter.") })
+	public void exportSchedules(
+			@ApiParam(name = "app_id_prefix", value = "Only the applications whose id starts with the prefix") @RequestParam(name = "app_id_prefix", required = false) String appIdPrefix,
+			@ApiParam(name = "timezone", value = "Only the applications with schedules in the time zone") @RequestParam(name = "timezone", required = false) String timeZone,
+			@ApiParam(name = "updated_since", value = "Only the applications with schedules updated since the ISO-8601 instant") @RequestParam(name = "updated_since", required = false) String updatedSince,
+			HttpServletResponse response) throws IOException {
+		ScheduleExportFilter filter = new ScheduleExportFilter(appIdPrefix, timeZone, parseUpdatedSince(updatedSince));
+		logger.info("Export schedules with " + filter);
+
+		// The first page is read before the response is committed, so a database error is answered
+		// with an error status
+		List<ScheduleExportRecord> records = scheduleExportManager.getSchedulesPage(filter, "");
+		OutputStream out = startResponse(response);
+		ObjectWriter recordWriter = objectMapper.writerFor(ScheduleExportRecord.class);
+		while (!records.isEmpty()) {
+			for (ScheduleExportRecord record : records) {
+				writeRecord(out, recordWriter, record);
+			}
+			out.flush();
+			records = scheduleExportManager.getSchedulesPage(filter, records.get(records.size() - 1).getAppId());
+		}
+	}
+
+	@RequestMapping(value = "/v2/active_schedules", method = RequestMethod.GET)
+	@ApiOperation(value = "Export the active schedules of all the applications.", produces = ScheduleImportRestController.NDJSON_CONTENT_TYPE)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The active schedules are streamed in the response.", response = ActiveScheduleExportRecord.class),
+			@ApiResponse(code = 400, message = "Invalid filter.") })
+	public void exportActiveSchedules(
+			@ApiParam(name = "app_id_prefix", value = "Only the applications whose id starts with the prefix") @RequestParam(name = "app_id_prefix", required = false) String appIdPrefix,
+			@ApiParam(name = "timezone", value = "Only the active schedules of schedules in the time zone") @RequestParam(name = "timezone", required = false) String timeZone,
+			@ApiParam(name = "updated_since", value = "Only the active schedules started since the ISO-8601 instant") @RequestParam(name = "updated_since", required = false) String updatedSince,
+			HttpServletResponse response) throws IOException {
+		ScheduleExportFilter filter = new ScheduleExportFilter(appIdPrefix, timeZone, parseUpdatedSince(updatedSince));
+		logger.info("Export active schedules with " + filter);
+
+		List<ActiveScheduleExportRecord> records = scheduleExportManager.getActiveSchedulesPage(filter, 0);
+		OutputStream out = startResponse(response);
+		ObjectWriter recordWriter = objectMapper.writerFor(ActiveScheduleExportRecord.class);
+		while (!records.isEmpty()) {
+			for (ActiveScheduleExportRecord record : records) {
+				writeRecord(out, recordWriter, record);
+			}
+			out.flush();
+			records = scheduleExportManager.getActiveSchedulesPage(filter,
+					records.get(records.size() - 1).getScheduleId());
+		}
+	}
+
+	private Date parseUpdatedSince(String updatedSince) {
+		if (updatedSince == null) {
+			return null;
+		}
+		try {
+			return Date.from(Instant.parse(updatedSince));
+		} catch (DateTimeParseException dtpe) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addFieldError(null, "data.query.invalid", "updated_since", updatedSince);
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+	}
+
+	private OutputStream startResponse(HttpServletResponse response) throws IOException {
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(ScheduleImportRestController.NDJSON_CONTENT_TYPE);
+		return response.getOutputStream();
+	}
+
+	private void writeRecord(OutputStream out, ObjectWriter recordWriter, Object record) throws IOException {
+		out.write(recordWriter.writeValueAsBytes(record));
+		out.write('\n');
+	}
+}
@@ -0,0 +1,287 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleImportResult;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleOperationManager;
+import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.SchedulerInternalException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for the bulk import of the schedules of many applications. The request body is
+ * a stream of {"app_id": ..., "policy": ...} records, one JSON object per record. Each record is
+ * validated like the PUT request of its application, the valid records are written in chunks and
+ * the result of each record is streamed back as soon as its chunk is written.
+ */
+@RestController
+@RequestMapping(value = "/v2/schedules")
+public class ScheduleImportRestController {
+
+	static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
+	private static final String APP_ID = "app_id";
+	private static final String POLICY = "policy";
+
+	@Autowired
+	ScheduleManager scheduleManager;
+	@Autowired
+	ScheduleOperationManager scheduleOperationManager;
+	@Autowired
+	private ApplicationSchedulesHttpMessageConverter applicationSchedulesConverter;
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${scheduler.import.chunk.size}")
+	private int chunkSize;
+
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@RequestMapping(method = RequestMethod.PUT)
+	@ApiOperation(value = "Create/Modify the schedules of many applications from a stream of app_id and policy records.", consumes = NDJSON_CONTENT_TYPE, produces = NDJSON_CONTENT_TYPE)
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Records read, the result of each record is streamed in the response.", response = ScheduleImportResult.class) })
+	public void importSchedules(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(NDJSON_CONTENT_TYPE);
+
+		ObjectWriter resultWriter = objectMapper.writerFor(ScheduleImportResult.class);
+		OutputStream out = response.getOutputStream();
+		ScheduleImportChunk chunk = new ScheduleImportChunk();
+		int record = 0;
+
+		try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+			for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+				if (token != JsonToken.START_OBJECT) {
+					throw new JsonParseException(parser, "Expected an import record as a JSON object");
+				}
+				ScheduleImportResult invalidResult = readRecord(parser, record, chunk, out, resultWriter);
+				if (invalidResult != null) {
+					writeResult(out, resultWriter, invalidResult);
+				}
+				++record;
+			}
+		} catch (JsonProcessingException e) {
+			// The stream can not be resynchronized after a syntax error, the records read so far are
+			// still imported
+			logger.debug("Unreadable import record", e);
+			writeResult(out, resultWriter, new ScheduleImportResult(record, null, HttpStatus.BAD_REQUEST.value(),
+					Collections.singletonList(messageBundleResourceHelper.lookupMessage("data.import.stopped",
+							record, e.getOriginalMessage()))));
+		}
+
+		importChunk(chunk, out, resultWriter);
+		logger.info("Imported schedules of " + record + " records");
+	}
+
+	/**
+	 * Reads a record and adds it to the chunk if it is valid, writing the chunk first when it is full
+	 * or already holds the application.
+	 *
+	 * @return - the result of an invalid record, null if the record is added to the chunk
+	 */
+	private ScheduleImportResult readRecord(JsonParser parser, int record, ScheduleImportChunk chunk,
+			OutputStream out, ObjectWriter resultWriter) throws IOException {
+		String appId = null;
+		ApplicationSchedules applicationPolicy = null;
+
+		try {
+			while (nextToken(parser) == JsonToken.FIELD_NAME) {
+				String fieldName = parser.getCurrentName();
+				JsonToken token = nextToken(parser);
+				if (APP_ID.equals(fieldName) && token == JsonToken.VALUE_STRING) {
+					appId = parser.getText();
+				} else if (POLICY.equals(fieldName) && token == JsonToken.START_OBJECT) {
+					applicationPolicy = applicationSchedulesConverter.readApplicationSchedules(parser);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		} catch (InvalidDataException ide) {
+			skipRecord(parser);
+			return invalidResult(record, appId, ide.getValidationErrorResult());
+		} catch (JsonMappingException jme) {
+			skipRecord(parser);
+			return new ScheduleImportResult(record, appId, HttpStatus.BAD_REQUEST.value(),
+					Collections.singletonList(messageBundleResourceHelper.lookupMessage("data.import.record.invalid",
+							record, jme.getOriginalMessage())));
+		}
+
+		ValidationErrorResult validationErrorResult;
+		if (applicationPolicy == null || applicationPolicy.getSchedules() == null) {
+			validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addFieldError(null, "data.value.not.specified",
+					applicationPolicy == null ? POLICY : "schedules");
+		} else {
+			scheduleManager.setUpSchedules(appId, applicationPolicy);
+			validationErrorResult = scheduleManager.validateSchedules(appId, applicationPolicy);
+		}
+		if (validationErrorResult.hasErrors()) {
+			return invalidResult(record, appId, validationErrorResult);
+		}
+
+		// The schedule ids of an exported policy are assigned again
+		clearScheduleIds(applicationPolicy.getSchedules());
+
+		// A later record of an application replaces the schedules of an earlier one
+		if (chunk.schedulesByAppId.containsKey(appId) || chunk.schedulesByAppId.size() >= chunkSize) {
+			importChunk(chunk, out, resultWriter);
+		}
+		chunk.add(record, appId, applicationPolicy.getSchedules());
+		return null;
+	}
+
+	private void importChunk(ScheduleImportChunk chunk, OutputStream out, ObjectWriter resultWriter)
+			throws IOException {
+		if (chunk.schedulesByAppId.isEmpty()) {
+			return;
+		}
+
+		for (String appId : chunk.schedulesByAppId.keySet()) {
+			// A queued asynchronous PUT would otherwise overwrite the imported schedules
+			scheduleOperationManager.supersedeQueuedOperation(appId);
+		}
+
+		try {
+			Set<String> updatedAppIds = scheduleManager.importSchedules(chunk.schedulesByAppId);
+			for (Map.Entry<String, Integer> entry : chunk.recordByAppId.entrySet()) {
+				HttpStatus status = updatedAppIds.contains(entry.getKey()) ? HttpStatus.NO_CONTENT : HttpStatus.OK;
+				writeResult(out, resultWriter,
+						new ScheduleImportResult(entry.getValue(), entry.getKey(), status.value(), null));
+			}
+		} catch (RuntimeException re) {
+			logger.error("Failed to import schedules of " + chunk.schedulesByAppId.size() + " applications", re);
+			if (chunk.schedulesByAppId.size() == 1) {
+				String appId = chunk.schedulesByAppId.keySet().iterator().next();
+				writeResult(out, resultWriter, new ScheduleImportResult(chunk.recordByAppId.get(appId), appId,
+						HttpStatus.INTERNAL_SERVER_ERROR.value(), getAllErrorMessages(re)));
+			} else {
+				// Import the applications of the failed chunk one by one, so only the failing ones are reported
+				for (Map.Entry<String, Schedules> entry : chunk.schedulesByAppId.entrySet()) {
+					ScheduleImportChunk single = new ScheduleImportChunk();
+					single.add(chunk.recordByAppId.get(entry.getKey()), entry.getKey(),
+							clearScheduleIds(entry.getValue()));
+					importChunk(single, out, resultWriter);
+				}
+			}
+		}
+
+		out.flush();
+		chunk.clear();
+	}
+
+	private ScheduleImportResult invalidResult(int record, String appId,
+			ValidationErrorResult validationErrorResult) {
+		return new ScheduleImportResult(record, appId, HttpStatus.BAD_REQUEST.value(),
+				getAllErrorMessages(validationErrorResult));
+	}
+
+	private List<String> getAllErrorMessages(RuntimeException re) {
+		if (re instanceof SchedulerInternalException) {
+			return getAllErrorMessages(((SchedulerInternalException) re).getValidationErrorResult());
+		}
+		return Collections.emptyList();
+	}
+
+	private List<String> getAllErrorMessages(ValidationErrorResult validationErrorResult) {
+		if (validationErrorResult == null) {
+			return Collections.emptyList();
+		}
+		return validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
+	}
+
+	private void writeResult(OutputStream out, ObjectWriter resultWriter, ScheduleImportResult result)
+			throws IOException {
+		out.write(resultWriter.writeValueAsBytes(result));
+		out.write('\n');
+	}
+
+	/**
+	 * The ids are assigned when the schedules are persisted, they are kept by the entities even if
+	 * the transaction is rolled back, and an exported policy carries the ids of the exported schedules.
+	 */
+	private Schedules clearScheduleIds(Schedules schedules) {
+		if (schedules.getSpecificDate() != null) {
+			schedules.getSpecificDate().forEach(this::clearScheduleId);
+		}
+		if (schedules.getRecurringSchedule() != null) {
+			schedules.getRecurringSchedule().forEach(this::clearScheduleId);
+		}
+		return schedules;
+	}
+
+	private void clearScheduleId(ScheduleEntity scheduleEntity) {
+		scheduleEntity.setId(null);
+	}
+
+	/**
+	 * Skips the rest of a rejected record, so the next record can be read.
+	 */
+	private void skipRecord(JsonParser parser) throws IOException {
+		while (!parser.getParsingContext().inRoot()) {
+			nextToken(parser);
+		}
+	}
+
+	private JsonToken nextToken(JsonParser parser) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (token == null) {
+			throw new JsonParseException(parser, "Unexpected end of the import record");
+		}
+		return token;
+	}
+
+	/**
+	 * The valid records waiting to be written, in the order they were read.
+	 */
+	private static class ScheduleImportChunk {
+		private Map<String, Schedules> schedulesByAppId = new LinkedHashMap<>();
+		private Map<String, Integer> recordByAppId = new LinkedHashMap<>();
+
+		private void add(int record, String appId, Schedules schedules) {
+			schedulesByAppId.put(appId, schedules);
+			recordByAppId.put(appId, record);
+		}
+
+		private void clear() {
+			schedulesByAppId.clear();
+			recordByAppId.clear();
+		}
+	}
+}
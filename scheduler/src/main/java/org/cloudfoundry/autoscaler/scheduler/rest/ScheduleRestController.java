@@ -1,23 +1,35 @@
 package org.cloudfoundry.autoscaler.scheduler.rest;
 
+import java.net.URI;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.EffectiveLimits;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleOperation;
 import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.UpcomingScheduleEvent;
 import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleOperationManager;
+import org.cloudfoundry.autoscaler.scheduler.service.UpcomingScheduleEventIndex;
 import org.cloudfoundry.autoscaler.scheduler.util.error.InvalidDataException;
 import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -32,10 +44,14 @@ import io.swagger.annotations.ApiResponses;
 @RequestMapping(value = "/v2/schedules/{app_id}")
 public class ScheduleRestController {
 
-	@Autowired
-	private ValidationErrorResult validationErrorResult;
+	private static final long UPCOMING_DEFAULT_WINDOW_MILLIS = TimeUnit.HOURS.toMillis(24);
+
 	@Autowired
 	ScheduleManager scheduleManager;
+	@Autowired
+	ScheduleOperationManager scheduleOperationManager;
+	@Autowired
+	UpcomingScheduleEventIndex upcomingScheduleEventIndex;
 	private Logger logger = LogManager.getLogger(this.getClass());
 
 	@RequestMapping(method = RequestMethod.GET)
@@ -63,9 +79,11 @@ public class ScheduleRestController {
 	@ApiOperation(value = "Create/Modify schedules for the specified application id.", consumes = "application/json")
 	@ApiResponses(value = {
 			@ApiResponse(code = 200, message = "Schedules created for the specified application id."),
+			@ApiResponse(code = 202, message = "Schedules accepted to be created/modified asynchronously for the specified application id.", response = ScheduleOperation.class),
 			@ApiResponse(code = 204, message = "Schedules modified for the specified application id."),
-			@ApiResponse(code = 400, message = "Validation error encountered.") })
-	public ResponseEntity<List<String>> createSchedules(
+			@ApiResponse(code = 400, message = "Validation error encountered."),
+			@ApiResponse(code = 503, message = "Too many schedule operations queued.", response = ScheduleOperation.class) })
+	public ResponseEntity<?> createSchedules(
 			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId,
 			@RequestBody ApplicationSchedules rawApplicationPolicy) {
 		// Note: Request could be to update existing schedules or create new schedules.
@@ -76,10 +94,25 @@ public class ScheduleRestController {
 		scheduleManager.setUpSchedules(appId, rawApplicationPolicy);
 
 		logger.info("Validate schedules for application: " + appId);
-		scheduleManager.validateSchedules(appId, rawApplicationPolicy);
+		ValidationErrorResult validationErrorResult = scheduleManager.validateSchedules(appId, rawApplicationPolicy);
 
 		if (validationErrorResult.hasErrors()) {
-			throw new InvalidDataException();
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+
+		if (scheduleOperationManager.isAsyncEnabled()) {
+			// The schedules are replaced by the operation executor, a later request supersedes this one
+			// while it is queued.
+			logger.info("Queue schedules for application: " + appId);
+			ScheduleOperation operation = scheduleOperationManager.submitOperation(appId,
+					rawApplicationPolicy.getSchedules());
+			if (operation.isFinished()) {
+				return new ResponseEntity<>(operation, null, HttpStatus.SERVICE_UNAVAILABLE);
+			}
+
+			HttpHeaders headers = new HttpHeaders();
+			headers.setLocation(getOperationUri(operation));
+			return new ResponseEntity<>(operation, headers, HttpStatus.ACCEPTED);
 		}
 
 		Schedules existingSchedules = scheduleManager.getAllSchedules(appId).getSchedules();
@@ -102,6 +135,99 @@ public class ScheduleRestController {
 		return new ResponseEntity<>(null, null, HttpStatus.OK);
 	}
 
+	@RequestMapping(value = "/validate", method = RequestMethod.POST)
+	@ResponseStatus(HttpStatus.OK)
+	@ApiOperation(value = "Validate schedules for the specified application id without creating them.", consumes = "application/json")
+	@ApiResponses(value = { @ApiResponse(code = 200, message = "Schedules are valid."),
+			@ApiResponse(code = 400, message = "Validation error encountered.") })
+	public ResponseEntity<List<String>> validateSchedules(
+			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId,
+			@RequestBody ApplicationSchedules rawApplicationPolicy) {
+		// Dry run of the validation done for create, the schedules are not looked up or saved
+		// in the database and no jobs are scheduled.
+		scheduleManager.setUpSchedules(appId, rawApplicationPolicy);
+
+		logger.debug("Dry run validate schedules for application: {}", appId);
+		ValidationErrorResult validationErrorResult = scheduleManager.validateSchedules(appId, rawApplicationPolicy);
+
+		if (validationErrorResult.hasErrors()) {
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+
+		return new ResponseEntity<>(null, null, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/operations/{operation_id}", method = RequestMethod.GET)
+	@ApiOperation(value = "Get the progress of an asynchronous schedule operation for the specified application id.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Schedule operation found.", response = ScheduleOperation.class),
+			@ApiResponse(code = 404, message = "No such schedule operation for the specified application id.") })
+	public ResponseEntity<ScheduleOperation> getOperation(
+			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId,
+			@ApiParam(name = "operation_id", value = "The operation id", required = true) @PathVariable("operation_id") String operationId) {
+		ScheduleOperation operation = scheduleOperationManager.getOperation(appId, operationId);
+		if (operation == null) {
+			return new ResponseEntity<>(null, null, HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(operation, null, HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/upcoming", method = RequestMethod.GET)
+	@ApiOperation(value = "Get the start and end boundaries of the schedules for the specified application id within a time window, with the instance limits applying from each boundary on.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Boundaries found for the specified application id, in time order.", response = UpcomingScheduleEvent.class, responseContainer = "List"),
+			@ApiResponse(code = 400, message = "Invalid time window."),
+			@ApiResponse(code = 404, message = "No schedules found for the specified application id.") })
+	public ResponseEntity<List<UpcomingScheduleEvent>> getUpcomingEvents(
+			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId,
+			@ApiParam(name = "from", value = "The ISO-8601 instant the window starts at, now by default") @RequestParam(name = "from", required = false) String from,
+			@ApiParam(name = "to", value = "The ISO-8601 instant the window ends at, 24 hours after the start by default") @RequestParam(name = "to", required = false) String to) {
+		long now = System.currentTimeMillis();
+		long fromMillis = from == null ? now : parseInstant("from", from);
+		long toMillis = to == null ? fromMillis + UPCOMING_DEFAULT_WINDOW_MILLIS : parseInstant("to", to);
+
+		long horizonMillis = upcomingScheduleEventIndex.getHorizonMillis();
+		if (toMillis <= fromMillis || toMillis > now + horizonMillis) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addFieldError(null, "data.upcoming.window.invalid", Instant.ofEpochMilli(fromMillis),
+					Instant.ofEpochMilli(toMillis), TimeUnit.MILLISECONDS.toHours(horizonMillis));
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+
+		if (!upcomingScheduleEventIndex.hasSchedules(appId)) {
+			return new ResponseEntity<>(null, null, HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(upcomingScheduleEventIndex.getUpcomingEvents(appId, fromMillis, toMillis), null,
+				HttpStatus.OK);
+	}
+
+	@RequestMapping(value = "/effective", method = RequestMethod.GET)
+	@ApiOperation(value = "Get the instance limits in effect at a time for the specified application id, from the active schedule or the policy defaults.", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "The limits in effect and the period they apply to.", response = EffectiveLimits.class),
+			@ApiResponse(code = 400, message = "Invalid time."),
+			@ApiResponse(code = 404, message = "No schedules found for the specified application id.") })
+	public ResponseEntity<EffectiveLimits> getEffectiveLimits(
+			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId,
+			@ApiParam(name = "at", value = "The ISO-8601 instant, now by default") @RequestParam(name = "at", required = false) String at) {
+		long now = System.currentTimeMillis();
+		long atMillis = at == null ? now : parseInstant("at", at);
+
+		long horizonMillis = upcomingScheduleEventIndex.getHorizonMillis();
+		if (Math.abs(atMillis - now) > horizonMillis) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addFieldError(null, "data.effective.time.invalid", Instant.ofEpochMilli(atMillis),
+					TimeUnit.MILLISECONDS.toHours(horizonMillis));
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+
+		EffectiveLimits effectiveLimits = upcomingScheduleEventIndex.getEffectiveLimits(appId, atMillis);
+		if (effectiveLimits == null) {
+			return new ResponseEntity<>(null, null, HttpStatus.NOT_FOUND);
+		}
+		return new ResponseEntity<>(effectiveLimits, null, HttpStatus.OK);
+	}
+
 	@RequestMapping(method = RequestMethod.DELETE)
 	@ResponseStatus(HttpStatus.NO_CONTENT)
 	@ApiOperation(value = "Delete all schedules (specific dates and recurring) for the specified application id.")
@@ -110,6 +236,8 @@ public class ScheduleRestController {
 			@ApiResponse(code = 404, message = "No schedules found for deletion for the specified application id.") })
 	public ResponseEntity<List<String>> deleteSchedules(
 			@ApiParam(name = "app_id", value = "The application id", required = true) @PathVariable("app_id") String appId) {
+		// A queued asynchronous PUT would otherwise recreate the deleted schedules
+		scheduleOperationManager.supersedeQueuedOperation(appId);
 
 		Schedules existingSchedules = scheduleManager.getAllSchedules(appId).getSchedules();
 		if (!existingSchedules.hasSchedules()) {
@@ -122,4 +250,19 @@ public class ScheduleRestController {
 		return new ResponseEntity<>(null, null, HttpStatus.NO_CONTENT);
 	}
 
+	private long parseInstant(String name, String value) {
+		try {
+			return Instant.parse(value).toEpochMilli();
+		} catch (DateTimeParseException dtpe) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addFieldError(null, "data.query.invalid", name, value);
+			throw new InvalidDataException("Validation error", validationErrorResult);
+		}
+	}
+
+	private URI getOperationUri(ScheduleOperation operation) {
+		return ServletUriComponentsBuilder.fromCurrentRequest().path("/operations/{operation_id}")
+				.buildAndExpand(operation.getId()).toUri();
+	}
+
 }
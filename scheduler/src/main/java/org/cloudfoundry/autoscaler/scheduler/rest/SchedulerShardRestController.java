@@ -0,0 +1,45 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.quartz.SchedulerShardManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+/**
+ * Controller class for the scheduler shard maintenance REST api calls.
+ *
+ */
+@RestController
+@RequestMapping(value = "/v2/scheduler_shards")
+public class SchedulerShardRestController {
+
+	@Autowired
+	private SchedulerShardManager schedulerShardManager;
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@RequestMapping(value = "/rebalance", method = RequestMethod.POST)
+	@ApiOperation(value = "Move the jobs of all applications to the scheduler shard they are routed to with the current shard count.", produces = "application/json")
+	@ApiResponses(value = { @ApiResponse(code = 200, message = "Scheduler shards rebalanced.") })
+	public ResponseEntity<Map<String, Integer>> rebalanceShards() {
+		logger.info("Rebalance scheduler shards");
+
+		int movedJobCount = schedulerShardManager.rebalance();
+
+		Map<String, Integer> result = new LinkedHashMap<>();
+		result.put("shard_count", schedulerShardManager.getShardCount());
+		result.put("moved_job_count", movedJobCount);
+		return new ResponseEntity<>(result, null, HttpStatus.OK);
+	}
+}
@@ -0,0 +1,111 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * A start or end of an active schedule, in the order of its sequence number in the change feed.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ActiveScheduleChangeEvent {
+	@ApiModelProperty(position = 1, notes = "Increases with every change, with gaps")
+	@JsonProperty(value = "sequence")
+	private long sequence;
+
+	@ApiModelProperty(position = 2, allowableValues = "start, end")
+	@JsonProperty(value = "action")
+	private String action;
+
+	@ApiModelProperty(position = 3)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "schedule_id")
+	private Long scheduleId;
+
+	@ApiModelProperty(position = 5)
+	@JsonProperty(value = "start_job_identifier")
+	private Long startJobIdentifier;
+
+	@ApiModelProperty(position = 6)
+	@JsonProperty(value = "instance_min_count")
+	private Integer instanceMinCount;
+
+	@ApiModelProperty(position = 7)
+	@JsonProperty(value = "instance_max_count")
+	private Integer instanceMaxCount;
+
+	@ApiModelProperty(position = 8)
+	@JsonProperty(value = "initial_min_instance_count")
+	private Integer initialMinInstanceCount;
+
+	@ApiModelProperty(position = 9, example = "2017-01-31T10:00:00Z")
+	@JsonProperty(value = "time")
+	private String time;
+
+	public ActiveScheduleChangeEvent() {
+	}
+
+	public ActiveScheduleChangeEvent(long sequence, String action, String appId, Long scheduleId,
+			Long startJobIdentifier, Integer instanceMinCount, Integer instanceMaxCount,
+			Integer initialMinInstanceCount, String time) {
+		this.sequence = sequence;
+		this.action = action;
+		this.appId = appId;
+		this.scheduleId = scheduleId;
+		this.startJobIdentifier = startJobIdentifier;
+		this.instanceMinCount = instanceMinCount;
+		this.instanceMaxCount = instanceMaxCount;
+		this.initialMinInstanceCount = initialMinInstanceCount;
+		this.time = time;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public String getAction() {
+		return action;
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public Long getScheduleId() {
+		return scheduleId;
+	}
+
+	public Long getStartJobIdentifier() {
+		return startJobIdentifier;
+	}
+
+	public Integer getInstanceMinCount() {
+		return instanceMinCount;
+	}
+
+	public Integer getInstanceMaxCount() {
+		return instanceMaxCount;
+	}
+
+	public Integer getInitialMinInstanceCount() {
+		return initialMinInstanceCount;
+	}
+
+	public String getTime() {
+		return time;
+	}
+
+	@Override
+	public String toString() {
+		return "ActiveScheduleChangeEvent [sequence=" + sequence + ", action=" + action + ", appId=" + appId
+				+ ", scheduleId=" + scheduleId + ", startJobIdentifier=" + startJobIdentifier + ", instanceMinCount="
+				+ instanceMinCount + ", instanceMaxCount=" + instanceMaxCount + ", initialMinInstanceCount="
+				+ initialMinInstanceCount + ", time=" + time + "]";
+	}
+}
@@ -0,0 +1,64 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Active schedules read from the view, either the ones of the requested applications or the ones
+ * changed since a version of the view.
+ */
+@ApiModel
+public class ActiveScheduleChanges {
+	@ApiModelProperty(position = 1, notes = "The version of the view the active schedules were read at, to ask for the next changes")
+	@JsonProperty(value = "version")
+	private long version;
+
+	@ApiModelProperty(position = 2, notes = "Set when all the active schedules are returned instead of the changes, as the changes since the requested version are no longer known")
+	@JsonProperty(value = "full")
+	private boolean full;
+
+	@ApiModelProperty(position = 3)
+	@JsonProperty(value = "active_schedules")
+	private List<ActiveScheduleState> activeSchedules;
+
+	@ApiModelProperty(position = 4, notes = "The applications whose active schedule has been removed")
+	@JsonProperty(value = "removed_app_ids")
+	private List<String> removedAppIds;
+
+	public ActiveScheduleChanges() {
+	}
+
+	public ActiveScheduleChanges(long version, boolean full, List<ActiveScheduleState> activeSchedules,
+			List<String> removedAppIds) {
+		this.version = version;
+		this.full = full;
+		this.activeSchedules = activeSchedules;
+		this.removedAppIds = removedAppIds;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	public boolean isFull() {
+		return full;
+	}
+
+	public List<ActiveScheduleState> getActiveSchedules() {
+		return activeSchedules;
+	}
+
+	public List<String> getRemovedAppIds() {
+		return removedAppIds;
+	}
+
+	@Override
+	public String toString() {
+		return "ActiveScheduleChanges [version=" + version + ", full=" + full + ", activeSchedules="
+				+ activeSchedules + ", removedAppIds=" + removedAppIds + "]";
+	}
+}
@@ -0,0 +1,93 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The active schedule of an application, with the version of the view it was last changed in.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ActiveScheduleState {
+	@ApiModelProperty(position = 1)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(position = 2)
+	@JsonProperty(value = "schedule_id")
+	private Long scheduleId;
+
+	@ApiModelProperty(position = 3)
+	@JsonProperty(value = "start_job_identifier")
+	private Long startJobIdentifier;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "instance_min_count")
+	private Integer instanceMinCount;
+
+	@ApiModelProperty(position = 5)
+	@JsonProperty(value = "instance_max_count")
+	private Integer instanceMaxCount;
+
+	@ApiModelProperty(position = 6)
+	@JsonProperty(value = "initial_min_instance_count")
+	private Integer initialMinInstanceCount;
+
+	@ApiModelProperty(position = 7, notes = "Increases with every change of the active schedules of all the applications")
+	@JsonProperty(value = "version")
+	private long version;
+
+	public ActiveScheduleState() {
+	}
+
+	public ActiveScheduleState(ActiveScheduleEntity activeScheduleEntity, long version) {
+		this.appId = activeScheduleEntity.getAppId();
+		this.scheduleId = activeScheduleEntity.getId();
+		this.startJobIdentifier = activeScheduleEntity.getStartJobIdentifier();
+		this.instanceMinCount = activeScheduleEntity.getInstanceMinCount();
+		this.instanceMaxCount = activeScheduleEntity.getInstanceMaxCount();
+		this.initialMinInstanceCount = activeScheduleEntity.getInitialMinInstanceCount();
+		this.version = version;
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public Long getScheduleId() {
+		return scheduleId;
+	}
+
+	public Long getStartJobIdentifier() {
+		return startJobIdentifier;
+	}
+
+	public Integer getInstanceMinCount() {
+		return instanceMinCount;
+	}
+
+	public Integer getInstanceMaxCount() {
+		return instanceMaxCount;
+	}
+
+	public Integer getInitialMinInstanceCount() {
+		return initialMinInstanceCount;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+
+	@Override
+	public String toString() {
+		return "ActiveScheduleState [appId=" + appId + ", scheduleId=" + scheduleId + ", startJobIdentifier="
+				+ startJobIdentifier + ", instanceMinCount=" + instanceMinCount + ", instanceMaxCount="
+				+ instanceMaxCount + ", initialMinInstanceCount=" + initialMinInstanceCount + ", version=" + version
+				+ "]";
+	}
+}
@@ -0,0 +1,85 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The minimum instance demand of all the applications with schedules over a time window, split in
+ * steps, optionally also per time zone of the policies.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CapacityForecast {
+	@ApiModelProperty(position = 1, example = "2017-01-31T00:00:00Z")
+	@JsonProperty(value = "from")
+	private String from;
+
+	@ApiModelProperty(position = 2, example = "2017-02-07T00:00:00Z")
+	@JsonProperty(value = "to")
+	private String to;
+
+	@ApiModelProperty(position = 3, example = "PT1H")
+	@JsonProperty(value = "step")
+	private String step;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "app_count")
+	private int appCount;
+
+	@ApiModelProperty(position = 5)
+	@JsonProperty(value = "steps")
+	private List<CapacityForecastStep> steps;
+
+	@ApiModelProperty(position = 6, notes = "Only set when grouped by time zone")
+	@JsonProperty(value = "time_zones")
+	private Map<String, List<CapacityForecastStep>> timeZones;
+
+	public CapacityForecast() {
+	}
+
+	public CapacityForecast(String from, String to, String step, int appCount, List<CapacityForecastStep> steps,
+			Map<String, List<CapacityForecastStep>> timeZones) {
+		this.from = from;
+		this.to = to;
+		this.step = step;
+		this.appCount = appCount;
+		this.steps = steps;
+		this.timeZones = timeZones;
+	}
+
+	public String getFrom() {
+		return from;
+	}
+
+	public String getTo() {
+		return to;
+	}
+
+	public String getStep() {
+		return step;
+	}
+
+	public int getAppCount() {
+		return appCount;
+	}
+
+	public List<CapacityForecastStep> getSteps() {
+		return steps;
+	}
+
+	public Map<String, List<CapacityForecastStep>> getTimeZones() {
+		return timeZones;
+	}
+
+	@Override
+	public String toString() {
+		return "CapacityForecast [from=" + from + ", to=" + to + ", step=" + step + ", appCount=" + appCount
+				+ ", steps=" + steps + ", timeZones=" + timeZones + "]";
+	}
+}
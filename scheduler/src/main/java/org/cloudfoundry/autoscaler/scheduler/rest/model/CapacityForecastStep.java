@@ -0,0 +1,52 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The minimum instance demand of a step of a capacity forecast, at the start of the step and at its
+ * peak within the step.
+ */
+@ApiModel
+public class CapacityForecastStep {
+	@ApiModelProperty(position = 1, example = "2017-01-31T10:00:00Z")
+	@JsonProperty(value = "time")
+	private String time;
+
+	@ApiModelProperty(position = 2, notes = "Sum of the minimum instance counts in effect at the start of the step")
+	@JsonProperty(value = "instance_min_count")
+	private long instanceMinCount;
+
+	@ApiModelProperty(position = 3, notes = "Highest sum of the minimum instance counts in effect within the step")
+	@JsonProperty(value = "peak_instance_min_count")
+	private long peakInstanceMinCount;
+
+	public CapacityForecastStep() {
+	}
+
+	public CapacityForecastStep(String time, long instanceMinCount, long peakInstanceMinCount) {
+		this.time = time;
+		this.instanceMinCount = instanceMinCount;
+		this.peakInstanceMinCount = peakInstanceMinCount;
+	}
+
+	public String getTime() {
+		return time;
+	}
+
+	public long getInstanceMinCount() {
+		return instanceMinCount;
+	}
+
+	public long getPeakInstanceMinCount() {
+		return peakInstanceMinCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CapacityForecastStep [time=" + time + ", instanceMinCount=" + instanceMinCount
+				+ ", peakInstanceMinCount=" + peakInstanceMinCount + "]";
+	}
+}
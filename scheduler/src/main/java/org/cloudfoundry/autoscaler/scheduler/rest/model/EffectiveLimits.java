@@ -0,0 +1,92 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The instance limits of an application during a period of time, either from the schedule active
+ * during that period or the default limits of the policy when no schedule is active.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EffectiveLimits {
+	@ApiModelProperty(position = 1, example = "2017-01-31T10:00:00Z")
+	@JsonProperty(value = "from")
+	private String from;
+
+	@ApiModelProperty(position = 2, example = "2017-01-31T11:00:00Z", notes = "Not set when the limits do not change until the end of the timeline")
+	@JsonProperty(value = "until")
+	private String until;
+
+	@ApiModelProperty(position = 3)
+	@JsonProperty(value = "instance_min_count")
+	private Integer instanceMinCount;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "instance_max_count")
+	private Integer instanceMaxCount;
+
+	@ApiModelProperty(position = 5)
+	@JsonProperty(value = "initial_min_instance_count")
+	private Integer initialMinInstanceCount;
+
+	@ApiModelProperty(position = 6, notes = "Not set for the default limits")
+	@JsonProperty(value = "schedule_id")
+	private Long scheduleId;
+
+	@ApiModelProperty(position = 7, allowableValues = "specific_date, recurring_schedule")
+	@JsonProperty(value = "schedule_type")
+	private String scheduleType;
+
+	public EffectiveLimits() {
+	}
+
+	public EffectiveLimits(String from, String until, Integer instanceMinCount, Integer instanceMaxCount,
+			Integer initialMinInstanceCount, Long scheduleId, String scheduleType) {
+		this.from = from;
+		this.until = until;
+		this.instanceMinCount = instanceMinCount;
+		this.instanceMaxCount = instanceMaxCount;
+		this.initialMinInstanceCount = initialMinInstanceCount;
+		this.scheduleId = scheduleId;
+		this.scheduleType = scheduleType;
+	}
+
+	public String getFrom() {
+		return from;
+	}
+
+	public String getUntil() {
+		return until;
+	}
+
+	public Integer getInstanceMinCount() {
+		return instanceMinCount;
+	}
+
+	public Integer getInstanceMaxCount() {
+		return instanceMaxCount;
+	}
+
+	public Integer getInitialMinInstanceCount() {
+		return initialMinInstanceCount;
+	}
+
+	public Long getScheduleId() {
+		return scheduleId;
+	}
+
+	public String getScheduleType() {
+		return scheduleType;
+	}
+
+	@Override
+	public String toString() {
+		return "EffectiveLimits [from=" + from + ", until=" + until + ", instanceMinCount=" + instanceMinCount
+				+ ", instanceMaxCount=" + instanceMaxCount + ", initialMinInstanceCount=" + initialMinInstanceCount
+				+ ", scheduleId=" + scheduleId + ", scheduleType=" + scheduleType + "]";
+	}
+}
@@ -0,0 +1,88 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * One entry of a batched notification to the scaling engine, the start or the end of an active
+ * schedule with the limits the per application PUT request would have carried.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScalingEngineNotification {
+	public static final String START = "start";
+	public static final String END = "end";
+
+	@ApiModelProperty(required = true, position = 1)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(required = true, position = 2)
+	@JsonProperty(value = "schedule_id")
+	private Long scheduleId;
+
+	@ApiModelProperty(required = true, position = 3, allowableValues = "start, end")
+	@JsonProperty(value = "action")
+	private String action;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "instance_min_count")
+	private Integer instanceMinCount;
+
+	@ApiModelProperty(position = 5)
+	@JsonProperty(value = "instance_max_count")
+	private Integer instanceMaxCount;
+
+	@ApiModelProperty(position = 6)
+	@JsonProperty(value = "initial_min_instance_count")
+	private Integer initialMinInstanceCount;
+
+	public ScalingEngineNotification() {
+	}
+
+	public ScalingEngineNotification(ActiveScheduleEntity activeScheduleEntity, JobActionEnum scalingAction) {
+		this.appId = activeScheduleEntity.getAppId();
+		this.scheduleId = activeScheduleEntity.getId();
+		this.action = scalingAction == JobActionEnum.START ? START : END;
+		this.instanceMinCount = activeScheduleEntity.getInstanceMinCount();
+		this.instanceMaxCount = activeScheduleEntity.getInstanceMaxCount();
+		this.initialMinInstanceCount = activeScheduleEntity.getInitialMinInstanceCount();
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public Long getScheduleId() {
+		return scheduleId;
+	}
+
+	public String getAction() {
+		return action;
+	}
+
+	public Integer getInstanceMinCount() {
+		return instanceMinCount;
+	}
+
+	public Integer getInstanceMaxCount() {
+		return instanceMaxCount;
+	}
+
+	public Integer getInitialMinInstanceCount() {
+		return initialMinInstanceCount;
+	}
+
+	@Override
+	public String toString() {
+		return "ScalingEngineNotification [appId=" + appId + ", scheduleId=" + scheduleId + ", action=" + action
+				+ ", instanceMinCount=" + instanceMinCount + ", instanceMaxCount=" + instanceMaxCount
+				+ ", initialMinInstanceCount=" + initialMinInstanceCount + "]";
+	}
+}
@@ -0,0 +1,63 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The outcome of one entry of a batched notification to the scaling engine, the status is the one
+ * the per application PUT or DELETE request would have answered.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScalingEngineNotificationResult {
+	@ApiModelProperty(position = 1)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(position = 2)
+	@JsonProperty(value = "schedule_id")
+	private Long scheduleId;
+
+	@ApiModelProperty(position = 3)
+	@JsonProperty(value = "status")
+	private int status;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "message")
+	private String message;
+
+	public ScalingEngineNotificationResult() {
+	}
+
+	public ScalingEngineNotificationResult(String appId, Long scheduleId, int status, String message) {
+		this.appId = appId;
+		this.scheduleId = scheduleId;
+		this.status = status;
+		this.message = message;
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public Long getScheduleId() {
+		return scheduleId;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return "ScalingEngineNotificationResult [appId=" + appId + ", scheduleId=" + scheduleId + ", status=" + status
+				+ ", message=" + message + "]";
+	}
+}
@@ -0,0 +1,42 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The schedules of an application as exported, in the record format of the bulk import.
+ */
+@ApiModel
+public class ScheduleExportRecord {
+	@ApiModelProperty(position = 1)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(position = 2)
+	@JsonProperty(value = "policy")
+	private ApplicationSchedules policy;
+
+	public ScheduleExportRecord() {
+	}
+
+	public ScheduleExportRecord(String appId, ApplicationSchedules policy) {
+		this.appId = appId;
+		this.policy = policy;
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public ApplicationSchedules getPolicy() {
+		return policy;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleExportRecord [appId=" + appId + ", policy=" + policy + "]";
+	}
+
+}
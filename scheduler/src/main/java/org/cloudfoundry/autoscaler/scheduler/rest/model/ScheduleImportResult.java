@@ -0,0 +1,66 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * The outcome of a single record of a bulk schedule import, the status is the one the PUT request
+ * of the application would have answered.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduleImportResult {
+	@ApiModelProperty(position = 1)
+	@JsonProperty(value = "record")
+	private int record;
+
+	@ApiModelProperty(position = 2)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(position = 3, allowableValues = "200, 204, 400, 500")
+	@JsonProperty(value = "status")
+	private int status;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "errors")
+	private List<String> errors;
+
+	public ScheduleImportResult() {
+	}
+
+	public ScheduleImportResult(int record, String appId, int status, List<String> errors) {
+		this.record = record;
+		this.appId = appId;
+		this.status = status;
+		this.errors = errors;
+	}
+
+	public int getRecord() {
+		return record;
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleImportResult [record=" + record + ", appId=" + appId + ", status=" + status + ", errors="
+				+ errors + "]";
+	}
+
+}
@@ -0,0 +1,96 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleOperationStatusEnum;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * An asynchronous replacement of the schedules of an application, accepted by a PUT request and
+ * applied later by the schedule operation executor.
+ */
+@ApiModel
+public class ScheduleOperation {
+	@ApiModelProperty(position = 1)
+	@JsonProperty(value = "id")
+	private String id;
+
+	@ApiModelProperty(position = 2)
+	@JsonProperty(value = "app_id")
+	private String appId;
+
+	@ApiModelProperty(position = 3, allowableValues = "queued, deleting, creating, succeeded, failed, superseded")
+	@JsonProperty(value = "status")
+	private volatile String status;
+
+	@ApiModelProperty(position = 4)
+	@JsonProperty(value = "errors")
+	private volatile List<String> errors;
+
+	@JsonIgnore
+	private Schedules schedules;
+
+	@JsonIgnore
+	private volatile long finishedTime;
+
+	public ScheduleOperation(String id, String appId, Schedules schedules) {
+		this.id = id;
+		this.appId = appId;
+		this.schedules = schedules;
+		this.status = ScheduleOperationStatusEnum.QUEUED.getStatus();
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getAppId() {
+		return appId;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(ScheduleOperationStatusEnum status) {
+		this.status = status.getStatus();
+		if (status.isFinished()) {
+			// The schedules are not needed any more, keep only the outcome
+			this.schedules = null;
+			this.finishedTime = System.currentTimeMillis();
+		}
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<String> errors) {
+		this.errors = errors;
+	}
+
+	public Schedules getSchedules() {
+		return schedules;
+	}
+
+	@JsonIgnore
+	public boolean isFinished() {
+		return finishedTime > 0;
+	}
+
+	public long getFinishedTime() {
+		return finishedTime;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleOperation [id=" + id + ", appId=" + appId + ", status=" + status + ", errors=" + errors
+				+ "]";
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.cloudfoundry.autoscaler.scheduler.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * A start or end boundary of a schedule of an application, with the instance limits which apply
+ * from that time on. At the end of a schedule the default limits of the policy apply again.
+ */
+@ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UpcomingScheduleEvent {
+	@ApiModelProperty(position = 1, example = "2017-01-31T10:00:00Z")
+	@JsonProperty(value = "time")
+	private String time;
+
+	@ApiModelProperty(position = 2, allowableValues = "start, end")
+	@JsonProperty(value = "action")
+	private String action;
+
+	@ApiModelProperty(position = 3)
+	@JsonProperty(value = "schedule_id")
+	private Long scheduleId;
+
+	@ApiModelProperty(position = 4, allowableValues = "specific_date, recurring_schedule")
+	@JsonProperty(value = "schedule_type")
+	private String scheduleType;
+
+	@ApiModelProperty(position = 5)
+	@JsonProperty(value = "instance_min_count")
+	private Integer instanceMinCount;
+
+	@ApiModelProperty(position = 6)
+	@JsonProperty(value = "instance_max_count")
+	private Integer instanceMaxCount;
+
+	@ApiModelProperty(position = 7)
+	@JsonProperty(value = "initial_min_instance_count")
+	private Integer initialMinInstanceCount;
+
+	public UpcomingScheduleEvent() {
+	}
+
+	public UpcomingScheduleEvent(String time, String action, Long scheduleId, String scheduleType,
+			Integer instanceMinCount, Integer instanceMaxCount, Integer initialMinInstanceCount) {
+		this.time = time;
+		this.action = action;
+		this.scheduleId = scheduleId;
+		this.scheduleType = scheduleType;
+		this.instanceMinCount = instanceMinCount;
+		this.instanceMaxCount = instanceMaxCount;
+		this.initialMinInstanceCount = initialMinInstanceCount;
+	}
+
+	public String getTime() {
+		return time;
+	}
+
+	public String getAction() {
+		return action;
+	}
+
+	public Long getScheduleId() {
+		return scheduleId;
+	}
+
+	public String getScheduleType() {
+		return scheduleType;
+	}
+
+	public Integer getInstanceMinCount() {
+		return instanceMinCount;
+	}
+
+	public Integer getInstanceMaxCount() {
+		return instanceMaxCount;
+	}
+
+	public Integer getInitialMinInstanceCount() {
+		return initialMinInstanceCount;
+	}
+
+	@Override
+	public String toString() {
+		return "UpcomingScheduleEvent [time=" + time + ", action=" + action + ", scheduleId=" + scheduleId
+				+ ", scheduleType=" + scheduleType + ", instanceMinCount=" + instanceMinCount + ", instanceMaxCount="
+				+ instanceMaxCount + ", initialMinInstanceCount=" + initialMinInstanceCount + "]";
+	}
+}
@@ -0,0 +1,460 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleChangeDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChangeEvent;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Feed of the starts and ends of the active schedules, streamed to the subscribers as Server-Sent
+ * Events so one connection carries all the transitions.
+ *
+ * Each transition is written to the change log table, which gives it its sequence number, and
+ * inserted in sequence order in a ring buffer of the recent events. The transitions are written
+ * concurrently and can be numbered in another order than they are recorded, so an event is only
+ * delivered once all the events with a lower sequence are recorded or have failed. A subscriber
+ * resumes after a sequence number: the events still in the ring buffer are read from memory, the
+ * older ones from the change log. When the changes after the sequence are no longer in the change
+ * log, the subscriber receives a reset event and has to read the active schedules again before
+ * applying the next changes.
+ *
+ * Once caught up, a subscriber is handed the new events in its own bounded queue, which is
+ * drained by at most one task at a time on the feed executor, a page of events per turn. A
+ * subscriber that falls behind by more than its queue is disconnected, and resumes from the last
+ * event it received when it reconnects. The transitions are the ones of the jobs of this scheduler
+ * instance, the feed does not support the clustered mode.
+ *
+ */
+@Service
+public class ActiveScheduleChangeFeed {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	public static final String RESET_EVENT_NAME = "reset";
+
+	@Autowired
+	private ActiveScheduleChangeDao activeScheduleChangeDao;
+
+	@Value("${scheduler.changefeed.enabled}")
+	private boolean enabled;
+	@Value("${scheduler.cluster.enabled}")
+	private boolean clusterEnabled;
+	@Value("${scheduler.changefeed.buffer.size}")
+	private int bufferSize;
+	@Value("${scheduler.changefeed.page.size}")
+	private int pageSize;
+	@Value("${scheduler.changefeed.subscriber.queue.capacity}")
+	private int subscriberQueueCapacity;
+	@Value("${scheduler.changefeed.poolsize}")
+	private int poolSize;
+	@Value("${scheduler.changefeed.retention.hours}")
+	private long retentionHours;
+	@Value("${scheduler.changefeed.emitter.timeout.millisecond}")
+	private long emitterTimeoutMillis;
+
+	private final Object bufferLock = new Object();
+
+	// Guarded by bufferLock, the events are in sequence order from head on
+	private ActiveScheduleChangeEvent[] buffer;
+	private int head;
+	private int count;
+	// The highest sequence recorded
+	private long lastSequence;
+	// The events after this sequence are all in the buffer once recorded
+	private long bufferFloorSequence;
+	// The events up to this sequence are all recorded, the ones after it are not delivered yet
+	private long stableSequence;
+	// The highest sequence recorded when each of the transitions being recorded started, in start order
+	private final Deque<Long> publishesInFlight = new ArrayDeque<>();
+
+	// The events up to this sequence have been deleted from the change log
+	private volatile long prunedSequence;
+
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+	private ExecutorService feedExecutor;
+
+	private ScheduledExecutorService cleanupExecutor;
+
+	@PostConstruct
+	void start() {
+		if (!enabled) {
+			return;
+		}
+		if (clusterEnabled) {
+			throw new IllegalStateException("The active schedule change feed does not support the clustered mode");
+		}
+
+		buffer = new ActiveScheduleChangeEvent[bufferSize];
+		Long maxSequence = activeScheduleChangeDao.findMaxSequence();
+		Long minSequence = activeScheduleChangeDao.findMinSequence();
+		lastSequence = maxSequence == null ? 0 : maxSequence;
+		bufferFloorSequence = lastSequence;
+		stableSequence = lastSequence;
+		prunedSequence = minSequence == null ? lastSequence : minSequence - 1;
+
+		AtomicInteger threadNumber = new AtomicInteger(1);
+		feedExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-changefeed-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-changefeed-cleanup");
+			thread.setDaemon(true);
+			return thread;
+		});
+		cleanupExecutor.scheduleWithFixedDelay(this::deleteExpiredChanges, 0, 1, TimeUnit.HOURS);
+	}
+
+	@PreDestroy
+	void shutdown() throws InterruptedException {
+		if (feedExecutor == null) {
+			return;
+		}
+		cleanupExecutor.shutdown();
+		for (Subscriber subscriber : subscribers) {
+			subscriber.emitter.complete();
+		}
+		feedExecutor.shutdown();
+		feedExecutor.awaitTermination(30, TimeUnit.SECONDS);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Records the transition in the change log and the ring buffer and wakes up the subscribers.
+	 * A failure to write the change log is logged, the subscribers can read the active schedules
+	 * again to catch up.
+	 */
+	public void publish(ActiveScheduleEntity activeScheduleEntity, JobActionEnum action) {
+		if (!enabled) {
+			return;
+		}
+		String actionName = action == JobActionEnum.START ? "start" : "end";
+
+		// The sequence given by the change log is higher than any recorded before the insert starts
+		Long publishStartSequence;
+		synchronized (bufferLock) {
+			publishStartSequence = lastSequence;
+			publishesInFlight.addLast(publishStartSequence);
+		}
+
+		ActiveScheduleChangeEvent event = null;
+		try {
+			event = activeScheduleChangeDao.create(activeScheduleEntity, actionName);
+		} catch (DatabaseValidationException dve) {
+			logger.error("Failed to record the " + actionName + " of active schedule " + activeScheduleEntity.getId()
+					+ " of application " + activeScheduleEntity.getAppId() + " in the change feed", dve);
+		} finally {
+			synchronized (bufferLock) {
+				publishesInFlight.removeFirstOccurrence(publishStartSequence);
+				if (event != null) {
+					insert(event);
+				}
+				advanceStableSequence();
+			}
+		}
+
+		for (Subscriber subscriber : subscribers) {
+			schedule(subscriber);
+		}
+	}
+
+	/**
+	 * Subscribes the emitter to the events after the sequence.
+	 *
+	 * @param afterSequence - the sequence of the last event received, or null for the events from now on
+	 * @return
+	 */
+	public SseEmitter subscribe(Long afterSequence) {
+		SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+		Subscriber subscriber;
+		synchronized (bufferLock) {
+			subscriber = new Subscriber(emitter, subscriberQueueCapacity,
+					afterSequence == null ? stableSequence : afterSequence);
+		}
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		subscribers.add(subscriber);
+		schedule(subscriber);
+		return emitter;
+	}
+
+	void deleteExpiredChanges() {
+		try {
+			Long deletedSequence = activeScheduleChangeDao
+					.deleteCreatedBefore(new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours)));
+			if (deletedSequence != null && deletedSequence > prunedSequence) {
+				prunedSequence = deletedSequence;
+			}
+		} catch (DatabaseValidationException dve) {
+			logger.error("Failed to delete the expired changes of the active schedule change feed", dve);
+		}
+	}
+
+	// Called with bufferLock held, inserts the event in sequence order
+	private void insert(ActiveScheduleChangeEvent event) {
+		long sequence = event.getSequence();
+		lastSequence = Math.max(lastSequence, sequence);
+		if (count == buffer.length) {
+			bufferFloorSequence = buffer[head].getSequence();
+			buffer[head] = null;
+			head = (head + 1) % buffer.length;
+			count--;
+		}
+		if (sequence <= bufferFloorSequence) {
+			// Older than the buffer, it is read from the change log
+			return;
+		}
+		int position = count;
+		while (position > 0 && buffer[(head + position - 1) % buffer.length].getSequence() > sequence) {
+			buffer[(head + position) % buffer.length] = buffer[(head + position - 1) % buffer.length];
+			position--;
+		}
+		buffer[(head + position) % buffer.length] = event;
+		count++;
+	}
+
+	// Called with bufferLock held, hands the events that can now be delivered to the caught up subscribers
+	private void advanceStableSequence() {
+		long newStableSequence = publishesInFlight.isEmpty() ? lastSequence : publishesInFlight.peekFirst();
+		if (newStableSequence <= stableSequence) {
+			return;
+		}
+		boolean inBuffer = stableSequence >= bufferFloorSequence;
+		int first = findFirstAfter(stableSequence);
+		for (Subscriber subscriber : subscribers) {
+			if (!subscriber.live) {
+				continue;
+			}
+			if (!inBuffer) {
+				// The events are read from the change log
+				subscriber.live = false;
+				continue;
+			}
+			for (int i = first; i < count; i++) {
+				ActiveScheduleChangeEvent event = buffer[(head + i) % buffer.length];
+				if (event.getSequence() > newStableSequence) {
+					break;
+				}
+				if (event.getSequence() <= subscriber.queuedSequence) {
+					continue;
+				}
+				if (!subscriber.queue.offer(buildEvent(event))) {
+					subscriber.live = false;
+					subscriber.overflowed = true;
+					break;
+				}
+				subscriber.queuedSequence = event.getSequence();
+			}
+		}
+		stableSequence = newStableSequence;
+	}
+
+	private void schedule(Subscriber subscriber) {
+		if (subscriber.draining.compareAndSet(false, true)) {
+			try {
+				feedExecutor.execute(() -> drain(subscriber));
+			} catch (RejectedExecutionException ree) {
+				subscriber.draining.set(false);
+			}
+		}
+	}
+
+	private void drain(Subscriber subscriber) {
+		try {
+			int sent = 0;
+			while (true) {
+				if (subscriber.overflowed) {
+					logger.warn("Active schedule change feed subscriber disconnected, it fell behind by more than "
+							+ subscriberQueueCapacity + " events");
+					subscribers.remove(subscriber);
+					subscriber.emitter.complete();
+					return;
+				}
+				if (sent == pageSize) {
+					// Lets the other subscribers have the thread
+					subscriber.draining.set(false);
+					schedule(subscriber);
+					return;
+				}
+
+				fill(subscriber);
+				SseEventBuilder event = subscriber.queue.poll();
+				if (event == null) {
+					subscriber.draining.set(false);
+					// An event could have been queued before the flag was cleared
+					if (!hasWork(subscriber) || !subscriber.draining.compareAndSet(false, true)) {
+						return;
+					}
+					continue;
+				}
+				subscriber.emitter.send(event);
+				sent++;
+			}
+		} catch (IOException | IllegalStateException e) {
+			// The client has gone away or the emitter has completed
+			logger.debug("Active schedule change feed subscriber removed", e);
+			subscribers.remove(subscriber);
+			subscriber.draining.set(false);
+		} catch (DatabaseValidationException dve) {
+			logger.error("Failed to read the active schedule change log", dve);
+			subscribers.remove(subscriber);
+			subscriber.emitter.completeWithError(dve);
+		}
+	}
+
+	/**
+	 * Queues the events a subscriber that is not caught up is missing, as far as its queue has room.
+	 * The subscriber is caught up once it has queued all the events that can be delivered.
+	 */
+	private void fill(Subscriber subscriber) {
+		long queuedSequence;
+		synchronized (bufferLock) {
+			if (subscriber.live) {
+				return;
+			}
+			if (subscriber.queuedSequence < prunedSequence) {
+				// The changes since the last event of the subscriber are lost
+				if (!subscriber.queue.offer(SseEmitter.event().id(String.valueOf(prunedSequence))
+						.name(RESET_EVENT_NAME)
+						.data(Collections.singletonMap("sequence", prunedSequence), MediaType.APPLICATION_JSON))) {
+					return;
+				}
+				subscriber.queuedSequence = prunedSequence;
+			}
+			queuedSequence = subscriber.queuedSequence;
+		}
+
+		int limit = Math.min(pageSize, subscriber.queue.remainingCapacity());
+		if (limit == 0) {
+			return;
+		}
+		Page page = readAfter(queuedSequence, limit);
+
+		synchronized (bufferLock) {
+			for (ActiveScheduleChangeEvent event : page.events) {
+				subscriber.queue.offer(buildEvent(event));
+				subscriber.queuedSequence = event.getSequence();
+			}
+			// Nothing else can be delivered yet, unless more events became deliverable during the read
+			if (page.events.size() < limit && page.stableSequence == stableSequence) {
+				subscriber.queuedSequence = Math.max(subscriber.queuedSequence, stableSequence);
+				subscriber.live = true;
+			}
+		}
+	}
+
+	private Page readAfter(long afterSequence, int limit) {
+		long stable;
+		synchronized (bufferLock) {
+			stable = stableSequence;
+			if (afterSequence >= bufferFloorSequence) {
+				List<ActiveScheduleChangeEvent> events = new ArrayList<>();
+				for (int i = findFirstAfter(afterSequence); i < count && events.size() < limit; i++) {
+					ActiveScheduleChangeEvent event = buffer[(head + i) % buffer.length];
+					if (event.getSequence() > stable) {
+						break;
+					}
+					events.add(event);
+				}
+				return new Page(events, stable);
+			}
+		}
+
+		List<ActiveScheduleChangeEvent> events = new ArrayList<>();
+		for (ActiveScheduleChangeEvent event : activeScheduleChangeDao.findAfter(afterSequence, limit)) {
+			if (event.getSequence() > stable) {
+				break;
+			}
+			events.add(event);
+		}
+		return new Page(events, stable);
+	}
+
+	// Called with bufferLock held, binary search of the position of the first event after the sequence
+	private int findFirstAfter(long afterSequence) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (buffer[(head + middle) % buffer.length].getSequence() <= afterSequence) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private boolean hasWork(Subscriber subscriber) {
+		synchronized (bufferLock) {
+			return !subscriber.queue.isEmpty() || subscriber.overflowed || !subscriber.live;
+		}
+	}
+
+	private static SseEventBuilder buildEvent(ActiveScheduleChangeEvent event) {
+		return SseEmitter.event().id(String.valueOf(event.getSequence())).name(event.getAction()).data(event,
+				MediaType.APPLICATION_JSON);
+	}
+
+	private static final class Page {
+		private final List<ActiveScheduleChangeEvent> events;
+		// The events up to this sequence could be delivered when the page was read
+		private final long stableSequence;
+
+		Page(List<ActiveScheduleChangeEvent> events, long stableSequence) {
+			this.events = events;
+			this.stableSequence = stableSequence;
+		}
+	}
+
+	private static final class Subscriber {
+		private final SseEmitter emitter;
+		private final BlockingQueue<SseEventBuilder> queue;
+		private final AtomicBoolean draining = new AtomicBoolean(false);
+		// Guarded by bufferLock, the sequence of the last event queued
+		private long queuedSequence;
+		// Guarded by bufferLock, true once the new events are queued as they can be delivered
+		private boolean live;
+		private volatile boolean overflowed;
+
+		Subscriber(SseEmitter emitter, int queueCapacity, long queuedSequence) {
+			this.emitter = emitter;
+			this.queue = new ArrayBlockingQueue<>(queueCapacity);
+			this.queuedSequence = queuedSequence;
+		}
+	}
+}
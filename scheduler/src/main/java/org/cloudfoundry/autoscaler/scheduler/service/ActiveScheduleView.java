@@ -0,0 +1,313 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChanges;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleState;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In memory view of the active schedule of each application, so the active schedules are read
+ * without a database query.
+ *
+ * The view is loaded on startup with one query streaming the active schedules, and updated by the
+ * start and end jobs right after they change the active schedule table and by the schedule manager
+ * once the deletion of the schedules of an application is committed. Every change increases the
+ * version of the view. A removed active schedule is kept as a tombstone for the retention period,
+ * so the changes since a version can be listed including the removals.
+ *
+ * Reads are lock free map lookups. Changes are serialized and published by the version once they
+ * are visible, so a reader never sees a version before the changes up to that version.
+ *
+ * The jobs of the other instances of a cluster are not seen, a periodic resync with the database
+ * picks up their changes.
+ *
+ */
+@Service
+public class ActiveScheduleView implements ApplicationListener<ContextRefreshedEvent> {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Autowired
+	private ActiveScheduleDao activeScheduleDao;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Value("${scheduler.activeschedule.view.fetch.size}")
+	private int fetchSize;
+	@Value("${scheduler.activeschedule.view.resync.interval.seconds}")
+	private long resyncIntervalSeconds;
+	@Value("${scheduler.activeschedule.view.tombstone.retention.seconds}")
+	private long tombstoneRetentionSeconds;
+
+	private final Map<String, Entry> entriesByAppId = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<Entry> tombstones = new ConcurrentLinkedQueue<>();
+
+	private final Object writeLock = new Object();
+
+	// Guarded by writeLock
+	private long lastVersion = 0;
+
+	// The changes up to this version are visible in the map
+	private volatile long publishedVersion = 0;
+
+	// The removals up to this version are no longer known
+	private volatile long prunedVersion = 0;
+
+	private ScheduledExecutorService resyncExecutor;
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != applicationContext || resyncExecutor != null) {
+			return;
+		}
+
+		resync();
+		logger.info("Loaded " + entriesByAppId.size() + " active schedules in the view");
+
+		resyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-active-schedule-view");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (resyncIntervalSeconds > 0) {
+			resyncExecutor.scheduleWithFixedDelay(this::resyncSafely, resyncIntervalSeconds, resyncIntervalSeconds,
+					TimeUnit.SECONDS);
+		}
+	}
+
+	@PreDestroy
+	void shutdownResync() throws InterruptedException {
+		if (resyncExecutor != null) {
+			resyncExecutor.shutdown();
+			resyncExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	public long getVersion() {
+		return publishedVersion;
+	}
+
+	/**
+	 * Gets the active schedule of the application.
+	 *
+	 * @param appId
+	 * @return - the active schedule, or null if the application has no active schedule
+	 */
+	public ActiveScheduleState getActiveSchedule(String appId) {
+		Entry entry = entriesByAppId.get(appId);
+		return entry == null ? null : entry.state;
+	}
+
+	/**
+	 * Gets the active schedules of the applications which have one.
+	 */
+	public ActiveScheduleChanges getActiveSchedules(Collection<String> appIds) {
+		long version = publishedVersion;
+		List<ActiveScheduleState> activeSchedules = new ArrayList<>();
+		for (String appId : appIds) {
+			ActiveScheduleState activeSchedule = getActiveSchedule(appId);
+			if (activeSchedule != null) {
+				activeSchedules.add(activeSchedule);
+			}
+		}
+		return new ActiveScheduleChanges(version, true, activeSchedules, new ArrayList<>());
+	}
+
+	/**
+	 * Gets the active schedules changed and removed after the version, in version order. All the
+	 * active schedules are returned instead when the removals since the version are no longer known.
+	 *
+	 * @param sinceVersion - the version of the previous call, 0 for all the active schedules
+	 * @return
+	 */
+	public ActiveScheduleChanges getChanges(long sinceVersion) {
+		long version = publishedVersion;
+		boolean full = sinceVersion < prunedVersion || sinceVersion <= 0;
+
+		List<Entry> changedEntries = new ArrayList<>();
+		for (Entry entry : entriesByAppId.values()) {
+			if (full ? entry.state != null : entry.version > sinceVersion) {
+				changedEntries.add(entry);
+			}
+		}
+		changedEntries.sort(Comparator.comparingLong(entry -> entry.version));
+
+		List<ActiveScheduleState> activeSchedules = new ArrayList<>();
+		List<String> removedAppIds = new ArrayList<>();
+		for (Entry entry : changedEntries) {
+			if (entry.state != null) {
+				activeSchedules.add(entry.state);
+			} else {
+				removedAppIds.add(entry.appId);
+			}
+		}
+		return new ActiveScheduleChanges(version, full, activeSchedules, removedAppIds);
+	}
+
+	/**
+	 * Replaces the active schedule of the application, called when a start job has saved the
+	 * active schedule.
+	 */
+	public void activeScheduleStarted(ActiveScheduleEntity activeScheduleEntity) {
+		synchronized (writeLock) {
+			put(activeScheduleEntity, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Removes the active schedule of the application if it is still the one started by the start
+	 * job, called when the end job has deleted it.
+	 */
+	public void activeScheduleEnded(String appId, Long scheduleId, Long startJobIdentifier) {
+		synchronized (writeLock) {
+			Entry entry = entriesByAppId.get(appId);
+			if (entry != null && entry.state != null && Objects.equals(entry.state.getScheduleId(), scheduleId)
+					&& Objects.equals(entry.state.getStartJobIdentifier(), startJobIdentifier)) {
+				remove(appId, System.currentTimeMillis());
+			}
+		}
+	}
+
+	/**
+	 * Removes the active schedule of the application, called once the deletion of its schedules is
+	 * committed.
+	 */
+	public void activeSchedulesRemoved(String appId) {
+		synchronized (writeLock) {
+			Entry entry = entriesByAppId.get(appId);
+			if (entry != null && entry.state != null) {
+				remove(appId, System.currentTimeMillis());
+			}
+		}
+	}
+
+	void resyncSafely() {
+		try {
+			resync();
+		} catch (DatabaseValidationException dve) {
+			logger.error("Resync of the active schedule view failed", dve);
+		} catch (RuntimeException re) {
+			logger.error("Resync of the active schedule view failed", re);
+		}
+	}
+
+	/**
+	 * Reconciles the view with the active schedule table. The entries changed since the resync
+	 * started are left alone, as the table could have been read before their change.
+	 */
+	void resync() {
+		long resyncStartMillis = System.currentTimeMillis();
+		Set<String> appIds = new HashSet<>();
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.execute(status -> {
+			activeScheduleDao.findAll(fetchSize, activeScheduleEntity -> {
+				appIds.add(activeScheduleEntity.getAppId());
+				synchronized (writeLock) {
+					Entry entry = entriesByAppId.get(activeScheduleEntity.getAppId());
+					if (entry == null || (entry.updatedMillis < resyncStartMillis && !entry.isSameAs(activeScheduleEntity))) {
+						put(activeScheduleEntity, resyncStartMillis);
+					}
+				}
+			});
+			return null;
+		});
+
+		synchronized (writeLock) {
+			for (Entry entry : entriesByAppId.values()) {
+				if (entry.state != null && entry.updatedMillis < resyncStartMillis && !appIds.contains(entry.appId)) {
+					remove(entry.appId, resyncStartMillis);
+				}
+			}
+			pruneTombstones(System.currentTimeMillis());
+		}
+	}
+
+	// Called with writeLock held
+	private void put(ActiveScheduleEntity activeScheduleEntity, long updatedMillis) {
+		long version = ++lastVersion;
+		entriesByAppId.put(activeScheduleEntity.getAppId(), new Entry(activeScheduleEntity.getAppId(),
+				new ActiveScheduleState(activeScheduleEntity, version), version, updatedMillis));
+		publishedVersion = version;
+	}
+
+	// Called with writeLock held
+	private void remove(String appId, long updatedMillis) {
+		long version = ++lastVersion;
+		Entry tombstone = new Entry(appId, null, version, updatedMillis);
+		entriesByAppId.put(appId, tombstone);
+		tombstones.add(tombstone);
+		publishedVersion = version;
+		pruneTombstones(System.currentTimeMillis());
+	}
+
+	// Called with writeLock held
+	private void pruneTombstones(long now) {
+		long expiredMillis = now - TimeUnit.SECONDS.toMillis(tombstoneRetentionSeconds);
+		Entry tombstone = tombstones.peek();
+		while (tombstone != null && tombstone.updatedMillis < expiredMillis) {
+			tombstones.poll();
+			// The application could have a new active schedule since
+			entriesByAppId.remove(tombstone.appId, tombstone);
+			prunedVersion = tombstone.version;
+			tombstone = tombstones.peek();
+		}
+	}
+
+	/**
+	 * The active schedule of an application, or its tombstone once removed, with the version and
+	 * time of its last change.
+	 */
+	private static final class Entry {
+		private final String appId;
+		private final ActiveScheduleState state;
+		private final long version;
+		private final long updatedMillis;
+
+		Entry(String appId, ActiveScheduleState state, long version, long updatedMillis) {
+			this.appId = appId;
+			this.state = state;
+			this.version = version;
+			this.updatedMillis = updatedMillis;
+		}
+
+		boolean isSameAs(ActiveScheduleEntity activeScheduleEntity) {
+			return state != null && Objects.equals(state.getScheduleId(), activeScheduleEntity.getId())
+					&& Objects.equals(state.getStartJobIdentifier(), activeScheduleEntity.getStartJobIdentifier())
+					&& Objects.equals(state.getInstanceMinCount(), activeScheduleEntity.getInstanceMinCount())
+					&& Objects.equals(state.getInstanceMaxCount(), activeScheduleEntity.getInstanceMaxCount())
+					&& Objects.equals(state.getInitialMinInstanceCount(),
+							activeScheduleEntity.getInitialMinInstanceCount());
+		}
+	}
+}
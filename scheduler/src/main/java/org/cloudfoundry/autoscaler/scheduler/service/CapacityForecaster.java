@@ -0,0 +1,203 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.CapacityForecast;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.CapacityForecastStep;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Forecasts the minimum instance demand of all the applications with schedules, from their
+ * effective limits timelines.
+ *
+ * The timelines are swept in time order with a priority queue holding one cursor per application,
+ * positioned on the next change of its limits, so only the pending change of each application is
+ * held at a time instead of all the changes of the window. The changes at the same time are applied
+ * together before the peak of the step is updated.
+ *
+ */
+@Service
+public class CapacityForecaster {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Autowired
+	private UpcomingScheduleEventIndex upcomingScheduleEventIndex;
+
+	/**
+	 * Forecasts the demand within the time window, which has to be within the horizon of the upcoming
+	 * event index before or after now.
+	 *
+	 * @param fromMillis - inclusive
+	 * @param toMillis - exclusive
+	 * @param step
+	 * @param groupByTimeZone - whether to also forecast the demand per time zone of the policies
+	 * @return
+	 */
+	public CapacityForecast getCapacityForecast(long fromMillis, long toMillis, Duration step,
+			boolean groupByTimeZone) {
+		long startTime = System.currentTimeMillis();
+		long stepMillis = step.toMillis();
+		int stepCount = (int) ((toMillis - fromMillis + stepMillis - 1) / stepMillis);
+
+		Demand totalDemand = new Demand(stepCount);
+		Map<String, Demand> demandsByTimeZone = groupByTimeZone ? new TreeMap<>() : null;
+		PriorityQueue<TimelineCursor> cursors = new PriorityQueue<>();
+		int[] appCount = new int[1];
+		upcomingScheduleEventIndex.forEachTimeline(fromMillis, toMillis, (timeZone, timeline) -> {
+			appCount[0]++;
+			Demand timeZoneDemand = null;
+			if (demandsByTimeZone != null) {
+				timeZoneDemand = demandsByTimeZone.computeIfAbsent(timeZone, key -> new Demand(stepCount));
+			}
+			TimelineCursor cursor = new TimelineCursor(timeline, timeline.segmentIndexAt(fromMillis), timeZoneDemand);
+			totalDemand.current += cursor.instanceMinCount;
+			if (timeZoneDemand != null) {
+				timeZoneDemand.current += cursor.instanceMinCount;
+			}
+			if (cursor.nextChangeMillis < toMillis) {
+				cursors.add(cursor);
+			}
+		});
+
+		List<Demand> changedDemands = new ArrayList<>();
+		for (int stepIndex = 0; stepIndex < stepCount; stepIndex++) {
+			long stepStartMillis = fromMillis + stepIndex * stepMillis;
+			long stepEndMillis = Math.min(stepStartMillis + stepMillis, toMillis);
+
+			// The changes at the start of the step are part of the demand the step starts with
+			while (!cursors.isEmpty() && cursors.peek().nextChangeMillis <= stepStartMillis) {
+				applyNextChange(cursors.poll(), totalDemand, cursors, toMillis, changedDemands);
+			}
+			changedDemands.clear();
+			totalDemand.startStep(stepIndex);
+			if (demandsByTimeZone != null) {
+				for (Demand timeZoneDemand : demandsByTimeZone.values()) {
+					timeZoneDemand.startStep(stepIndex);
+				}
+			}
+
+			while (!cursors.isEmpty() && cursors.peek().nextChangeMillis < stepEndMillis) {
+				long changeMillis = cursors.peek().nextChangeMillis;
+				while (!cursors.isEmpty() && cursors.peek().nextChangeMillis == changeMillis) {
+					applyNextChange(cursors.poll(), totalDemand, cursors, toMillis, changedDemands);
+				}
+				totalDemand.updatePeak(stepIndex);
+				for (Demand changedDemand : changedDemands) {
+					changedDemand.updatePeak(stepIndex);
+				}
+				changedDemands.clear();
+			}
+		}
+
+		Map<String, List<CapacityForecastStep>> timeZoneSteps = null;
+		if (demandsByTimeZone != null) {
+			timeZoneSteps = new TreeMap<>();
+			for (Map.Entry<String, Demand> entry : demandsByTimeZone.entrySet()) {
+				timeZoneSteps.put(entry.getKey(), entry.getValue().toSteps(fromMillis, stepMillis));
+			}
+		}
+
+		logger.info("Forecasted the capacity of " + appCount[0] + " applications over " + stepCount + " steps in "
+				+ (System.currentTimeMillis() - startTime) + " ms");
+		return new CapacityForecast(Instant.ofEpochMilli(fromMillis).toString(),
+				Instant.ofEpochMilli(toMillis).toString(), step.toString(), appCount[0],
+				totalDemand.toSteps(fromMillis, stepMillis), timeZoneSteps);
+	}
+
+	private void applyNextChange(TimelineCursor cursor, Demand totalDemand, PriorityQueue<TimelineCursor> cursors,
+			long toMillis, List<Demand> changedDemands) {
+		int delta = cursor.advance();
+		totalDemand.current += delta;
+		if (cursor.timeZoneDemand != null) {
+			cursor.timeZoneDemand.current += delta;
+			if (!changedDemands.contains(cursor.timeZoneDemand)) {
+				changedDemands.add(cursor.timeZoneDemand);
+			}
+		}
+		if (cursor.nextChangeMillis < toMillis) {
+			cursors.add(cursor);
+		}
+	}
+
+	/**
+	 * The demand of a group of applications, at the start of each step and at its peak within the step.
+	 */
+	private static final class Demand {
+		private long current;
+		private final long[] startInstanceMinCounts;
+		private final long[] peakInstanceMinCounts;
+
+		Demand(int stepCount) {
+			startInstanceMinCounts = new long[stepCount];
+			peakInstanceMinCounts = new long[stepCount];
+		}
+
+		void startStep(int stepIndex) {
+			startInstanceMinCounts[stepIndex] = current;
+			peakInstanceMinCounts[stepIndex] = current;
+		}
+
+		void updatePeak(int stepIndex) {
+			peakInstanceMinCounts[stepIndex] = Math.max(peakInstanceMinCounts[stepIndex], current);
+		}
+
+		List<CapacityForecastStep> toSteps(long fromMillis, long stepMillis) {
+			List<CapacityForecastStep> steps = new ArrayList<>(startInstanceMinCounts.length);
+			for (int i = 0; i < startInstanceMinCounts.length; i++) {
+				steps.add(new CapacityForecastStep(Instant.ofEpochMilli(fromMillis + i * stepMillis).toString(),
+						startInstanceMinCounts[i], peakInstanceMinCounts[i]));
+			}
+			return steps;
+		}
+	}
+
+	/**
+	 * The position of the sweep in the timeline of an application, ordered by the time of the next
+	 * change of its limits.
+	 */
+	private static final class TimelineCursor implements Comparable<TimelineCursor> {
+		private final EffectiveLimitsTimeline timeline;
+		private final Demand timeZoneDemand;
+		private int segmentIndex;
+		private int instanceMinCount;
+		private long nextChangeMillis;
+
+		TimelineCursor(EffectiveLimitsTimeline timeline, int segmentIndex, Demand timeZoneDemand) {
+			this.timeline = timeline;
+			this.timeZoneDemand = timeZoneDemand;
+			moveTo(segmentIndex);
+		}
+
+		/**
+		 * Moves to the next segment.
+		 *
+		 * @return - the change of the minimum instance count
+		 */
+		int advance() {
+			int previousInstanceMinCount = instanceMinCount;
+			moveTo(segmentIndex + 1);
+			return instanceMinCount - previousInstanceMinCount;
+		}
+
+		private void moveTo(int segmentIndex) {
+			this.segmentIndex = segmentIndex;
+			instanceMinCount = timeline.getInstanceMinCount(segmentIndex);
+			nextChangeMillis = segmentIndex + 1 < timeline.size() ? timeline.getSegmentStartMillis(segmentIndex + 1)
+					: Long.MAX_VALUE;
+		}
+
+		@Override
+		public int compareTo(TimelineCursor other) {
+			return Long.compare(nextChangeMillis, other.nextChangeMillis);
+		}
+	}
+}
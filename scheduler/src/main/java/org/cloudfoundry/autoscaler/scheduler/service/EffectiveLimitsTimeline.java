@@ -0,0 +1,190 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.EffectiveLimits;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+
+/**
+ * Immutable, compiled timeline of the instance limits of an application over a period of time. The
+ * period is split into consecutive segments, each with the limits of the schedule active during
+ * the segment or the default limits of the policy, and held in sorted arrays so the limits at a
+ * point in time are found by binary search in O(log n) and the limits within a range in
+ * O(log n + k).
+ *
+ */
+final class EffectiveLimitsTimeline {
+
+	private static final long NO_SCHEDULE_ID = 0;
+
+	private final long validFromMillis;
+	private final long validUntilMillis;
+
+	// The segment i starts at segmentStartMillis[i] and ends where the next segment starts
+	private final long[] segmentStartMillis;
+	private final int[] instanceMinCounts;
+	private final int[] instanceMaxCounts;
+	private final Integer[] initialMinInstanceCounts;
+	private final long[] scheduleIds;
+	private final ScheduleTypeEnum[] scheduleTypes;
+
+	private EffectiveLimitsTimeline(long validFromMillis, long validUntilMillis, List<Segment> segments) {
+		this.validFromMillis = validFromMillis;
+		this.validUntilMillis = validUntilMillis;
+
+		int size = segments.size();
+		segmentStartMillis = new long[size];
+		instanceMinCounts = new int[size];
+		instanceMaxCounts = new int[size];
+		initialMinInstanceCounts = new Integer[size];
+		scheduleIds = new long[size];
+		scheduleTypes = new ScheduleTypeEnum[size];
+		for (int i = 0; i < size; i++) {
+			Segment segment = segments.get(i);
+			segmentStartMillis[i] = segment.startMillis;
+			instanceMinCounts[i] = segment.instanceMinCount;
+			instanceMaxCounts[i] = segment.instanceMaxCount;
+			initialMinInstanceCounts[i] = segment.initialMinInstanceCount;
+			scheduleIds[i] = segment.scheduleId;
+			scheduleTypes[i] = segment.scheduleType;
+		}
+	}
+
+	/**
+	 * Checks if the time is within the period of the timeline.
+	 */
+	boolean covers(long timeMillis) {
+		return timeMillis >= validFromMillis && timeMillis <= validUntilMillis;
+	}
+
+	int size() {
+		return segmentStartMillis.length;
+	}
+
+	/**
+	 * Gets the limits at the time, which has to be covered by the timeline.
+	 */
+	EffectiveLimits getLimitsAt(long timeMillis) {
+		return toEffectiveLimits(segmentIndexAt(timeMillis));
+	}
+
+	/**
+	 * Gets the limits of the segments overlapping the range, which has to be covered by the timeline.
+	 */
+	List<EffectiveLimits> getLimitsBetween(long fromMillis, long toMillis) {
+		List<EffectiveLimits> limits = new ArrayList<>();
+		for (int i = segmentIndexAt(fromMillis); i < segmentStartMillis.length
+				&& segmentStartMillis[i] <= toMillis; i++) {
+			limits.add(toEffectiveLimits(i));
+		}
+		return limits;
+	}
+
+	/**
+	 * Gets the index of the segment the time belongs to, which has to be covered by the timeline.
+	 */
+	int segmentIndexAt(long timeMillis) {
+		int index = Arrays.binarySearch(segmentStartMillis, timeMillis);
+		// The segment starting before the time when the time is not a segment start
+		return index >= 0 ? index : -index - 2;
+	}
+
+	long getSegmentStartMillis(int index) {
+		return segmentStartMillis[index];
+	}
+
+	int getInstanceMinCount(int index) {
+		return instanceMinCounts[index];
+	}
+
+	private EffectiveLimits toEffectiveLimits(int index) {
+		String from = Instant.ofEpochMilli(segmentStartMillis[index]).toString();
+		String until = index + 1 < segmentStartMillis.length
+				? Instant.ofEpochMilli(segmentStartMillis[index + 1]).toString() : null;
+		if (scheduleIds[index] == NO_SCHEDULE_ID) {
+			return new EffectiveLimits(from, until, instanceMinCounts[index], instanceMaxCounts[index], null, null,
+					null);
+		}
+		String scheduleType = scheduleTypes[index] == ScheduleTypeEnum.SPECIFIC_DATE ? "specific_date"
+				: "recurring_schedule";
+		return new EffectiveLimits(from, until, instanceMinCounts[index], instanceMaxCounts[index],
+				initialMinInstanceCounts[index], scheduleIds[index], scheduleType);
+	}
+
+	/**
+	 * Builds the timeline from the changes of the limits in time order. A change before the start
+	 * of the period sets the limits the period starts with.
+	 */
+	static final class Builder {
+		private final long validFromMillis;
+		private final long validUntilMillis;
+		private final int defaultInstanceMinCount;
+		private final int defaultInstanceMaxCount;
+		private final List<Segment> segments = new ArrayList<>();
+
+		Builder(long validFromMillis, long validUntilMillis, int defaultInstanceMinCount,
+				int defaultInstanceMaxCount) {
+			this.validFromMillis = validFromMillis;
+			this.validUntilMillis = validUntilMillis;
+			this.defaultInstanceMinCount = defaultInstanceMinCount;
+			this.defaultInstanceMaxCount = defaultInstanceMaxCount;
+			segments.add(new Segment(validFromMillis, defaultInstanceMinCount, defaultInstanceMaxCount, null,
+					NO_SCHEDULE_ID, null));
+		}
+
+		Builder setScheduleLimits(long timeMillis, int instanceMinCount, int instanceMaxCount,
+				Integer initialMinInstanceCount, long scheduleId, ScheduleTypeEnum scheduleType) {
+			return add(new Segment(Math.max(timeMillis, validFromMillis), instanceMinCount, instanceMaxCount,
+					initialMinInstanceCount, scheduleId, scheduleType));
+		}
+
+		Builder setDefaultLimits(long timeMillis) {
+			return add(new Segment(Math.max(timeMillis, validFromMillis), defaultInstanceMinCount,
+					defaultInstanceMaxCount, null, NO_SCHEDULE_ID, null));
+		}
+
+		EffectiveLimitsTimeline build() {
+			return new EffectiveLimitsTimeline(validFromMillis, validUntilMillis, segments);
+		}
+
+		private Builder add(Segment segment) {
+			if (segment.startMillis > validUntilMillis) {
+				return this;
+			}
+			Segment last = segments.get(segments.size() - 1);
+			if (last.startMillis == segment.startMillis) {
+				// Only the last change at a time counts
+				segments.remove(segments.size() - 1);
+				if (!segments.isEmpty() && segments.get(segments.size() - 1).scheduleId == segment.scheduleId) {
+					return this;
+				}
+			} else if (last.scheduleId == segment.scheduleId) {
+				return this;
+			}
+			segments.add(segment);
+			return this;
+		}
+	}
+
+	private static final class Segment {
+		private final long startMillis;
+		private final int instanceMinCount;
+		private final int instanceMaxCount;
+		private final Integer initialMinInstanceCount;
+		private final long scheduleId;
+		private final ScheduleTypeEnum scheduleType;
+
+		Segment(long startMillis, int instanceMinCount, int instanceMaxCount, Integer initialMinInstanceCount,
+				long scheduleId, ScheduleTypeEnum scheduleType) {
+			this.startMillis = startMillis;
+			this.instanceMinCount = instanceMinCount;
+			this.instanceMaxCount = instanceMaxCount;
+			this.initialMinInstanceCount = initialMinInstanceCount;
+			this.scheduleId = scheduleId;
+			this.scheduleType = scheduleType;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ScheduleExportDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleExportRecord;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleExportRecord;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleExportFilter;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.SchedulerInternalException;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class to read the schedules of all the applications page by page for an export. The
+ * caller asks for the page after the last application id or active schedule id it received, and
+ * an empty page ends the export.
+ */
+@Service
+public class ScheduleExportManager {
+
+	@Autowired
+	private ScheduleExportDao scheduleExportDao;
+
+	@Value("${scheduler.export.page.size}")
+	private int pageSize;
+
+	/**
+	 * Gets the schedules of the next page of applications matching the filter.
+	 *
+	 * @param filter
+	 * @param afterAppId - the last application id of the previous page, empty for the first page
+	 * @return - the schedules of each application in application id order
+	 */
+	public List<ScheduleExportRecord> getSchedulesPage(ScheduleExportFilter filter, String afterAppId) {
+		try {
+			List<String> appIds = scheduleExportDao.findAppIds(filter, afterAppId, pageSize);
+
+			Map<String, ApplicationSchedules> policiesByAppId = new LinkedHashMap<>();
+			for (String appId : appIds) {
+				ApplicationSchedules policy = new ApplicationSchedules();
+				policy.setSchedules(new Schedules());
+				policiesByAppId.put(appId, policy);
+			}
+
+			for (SpecificDateScheduleEntity specificDateScheduleEntity : scheduleExportDao
+					.findSpecificDateSchedulesByAppIds(appIds)) {
+				Schedules schedules = setUpPolicy(policiesByAppId, specificDateScheduleEntity);
+				if (schedules.getSpecificDate() == null) {
+					schedules.setSpecificDate(new ArrayList<>());
+				}
+				schedules.getSpecificDate().add(specificDateScheduleEntity);
+			}
+
+			for (RecurringScheduleEntity recurringScheduleEntity : scheduleExportDao
+					.findRecurringSchedulesByAppIds(appIds)) {
+				Schedules schedules = setUpPolicy(policiesByAppId, recurringScheduleEntity);
+				if (schedules.getRecurringSchedule() == null) {
+					schedules.setRecurringSchedule(new ArrayList<>());
+				}
+				schedules.getRecurringSchedule().add(recurringScheduleEntity);
+			}
+
+			List<ScheduleExportRecord> records = new ArrayList<>(appIds.size());
+			for (Map.Entry<String, ApplicationSchedules> entry : policiesByAppId.entrySet()) {
+				// The schedules could have been deleted since the application ids were read
+				if (entry.getValue().getSchedules().hasSchedules()) {
+					records.add(new ScheduleExportRecord(entry.getKey(), entry.getValue()));
+				}
+			}
+			return records;
+
+		} catch (DatabaseValidationException dve) {
+
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.get.failed",
+					"app_id>" + afterAppId);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
+		}
+	}
+
+	/**
+	 * Gets the next page of active schedules matching the filter.
+	 *
+	 * @param filter
+	 * @param afterId - the last active schedule id of the previous page, 0 for the first page
+	 * @return - the active schedules in id order
+	 */
+	public List<ActiveScheduleExportRecord> getActiveSchedulesPage(ScheduleExportFilter filter, long afterId) {
+		try {
+			List<ActiveScheduleEntity> activeScheduleEntities = scheduleExportDao.findActiveSchedules(filter,
+					afterId, pageSize);
+
+			List<ActiveScheduleExportRecord> records = new ArrayList<>(activeScheduleEntities.size());
+			for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
+				records.add(new ActiveScheduleExportRecord(activeScheduleEntity));
+			}
+			return records;
+
+		} catch (DatabaseValidationException dve) {
+
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.get.failed",
+					"id>" + afterId);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
+		}
+	}
+
+	/**
+	 * The policy defaults and the time zone are kept by every schedule of the application.
+	 */
+	private Schedules setUpPolicy(Map<String, ApplicationSchedules> policiesByAppId, ScheduleEntity scheduleEntity) {
+		ApplicationSchedules policy = policiesByAppId.get(scheduleEntity.getAppId());
+		policy.setInstanceMinCount(scheduleEntity.getDefaultInstanceMinCount());
+		policy.setInstanceMaxCount(scheduleEntity.getDefaultInstanceMaxCount());
+		policy.getSchedules().setTimeZone(scheduleEntity.getTimeZone());
+		return policy.getSchedules();
+	}
+}
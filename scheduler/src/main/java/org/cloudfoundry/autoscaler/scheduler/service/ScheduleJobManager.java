@@ -1,16 +1,27 @@
 package org.cloudfoundry.autoscaler.scheduler.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.TimeZone;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.quartz.AppScalingRecurringScheduleStartJob;
 import org.cloudfoundry.autoscaler.scheduler.quartz.AppScalingSpecificDateScheduleStartJob;
+import org.cloudfoundry.autoscaler.scheduler.quartz.ScheduleJobLaneExecutor;
+import org.cloudfoundry.autoscaler.scheduler.quartz.SchedulerShardManager;
+import org.cloudfoundry.autoscaler.scheduler.quartz.TimingWheelScheduleEngine;
 import org.cloudfoundry.autoscaler.scheduler.util.DateHelper;
 import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobLaneEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
 import org.quartz.JobDataMap;
@@ -31,9 +42,11 @@ import org.springframework.stereotype.Service;
 @Service
 class ScheduleJobManager {
 	@Autowired
-	private Scheduler scheduler;
+	private SchedulerShardManager schedulerShardManager;
 	@Autowired
-	private ValidationErrorResult validationErrorResult;
+	private ScheduleJobLaneExecutor scheduleJobLaneExecutor;
+	@Autowired
+	private TimingWheelScheduleEngine timingWheelScheduleEngine;
 
 	/**
 	 * Creates simple job for specific date schedule for the application scaling using helper 
@@ -41,8 +54,89 @@ class ScheduleJobManager {
 	 * scaling action needs to initiated Second job to tell the scaling decision maker scaling
 	 * action needs to be ended.
 	 */
-	void createSimpleJob(SpecificDateScheduleEntity specificDateScheduleEntity) {
+	void createSimpleJob(SpecificDateScheduleEntity specificDateScheduleEntity,
+			ValidationErrorResult validationErrorResult) {
+		JobDetail startJobDetail = buildSimpleJob(specificDateScheduleEntity);
+		Trigger jobStartTrigger = buildSimpleJobTrigger(specificDateScheduleEntity, startJobDetail);
+
+		// Schedule the job
+		try {
+			scheduleJob(specificDateScheduleEntity.getAppId(), startJobDetail, jobStartTrigger);
+
+		} catch (SchedulerException se) {
+
+			validationErrorResult.addErrorForQuartzSchedulerException(se, "scheduler.error.create.failed",
+					"app_id=" + specificDateScheduleEntity.getAppId(), se.getMessage());
+		}
 
+	}
+
+	void createCronJob(RecurringScheduleEntity recurringScheduleEntity, ValidationErrorResult validationErrorResult) {
+		JobDetail jobStartDetail = buildCronJob(recurringScheduleEntity);
+		Trigger jobStartTrigger = buildCronJobTrigger(recurringScheduleEntity, jobStartDetail);
+
+		// Schedule the job
+		try {
+			scheduleJob(recurringScheduleEntity.getAppId(), jobStartDetail, jobStartTrigger);
+		} catch (SchedulerException se) {
+
+			validationErrorResult.addErrorForQuartzSchedulerException(se, "scheduler.error.create.failed",
+					"app_id=" + recurringScheduleEntity.getAppId(), se.getMessage());
+		}
+
+	}
+
+	/**
+	 * Creates the jobs of the schedules of several applications. The jobs of the applications
+	 * assigned to the same scheduler shard are stored with a single call, so the jobs of a chunk
+	 * of imported schedules take one round of the Quartz locks per shard.
+	 */
+	void createJobs(List<SpecificDateScheduleEntity> specificDateSchedules,
+			List<RecurringScheduleEntity> recurringSchedules, ValidationErrorResult validationErrorResult) {
+		if (timingWheelScheduleEngine.isEnabled()) {
+			// The timing wheel keeps the jobs in memory, there is nothing to batch
+			for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateSchedules) {
+				createSimpleJob(specificDateScheduleEntity, validationErrorResult);
+			}
+			for (RecurringScheduleEntity recurringScheduleEntity : recurringSchedules) {
+				createCronJob(recurringScheduleEntity, validationErrorResult);
+			}
+			return;
+		}
+
+		Map<Scheduler, Map<JobDetail, Set<? extends Trigger>>> jobsByScheduler = new LinkedHashMap<>();
+		Map<Scheduler, Set<String>> appIdsByScheduler = new HashMap<>();
+		for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateSchedules) {
+			JobDetail startJobDetail = buildSimpleJob(specificDateScheduleEntity);
+			addJob(jobsByScheduler, appIdsByScheduler, specificDateScheduleEntity.getAppId(), startJobDetail,
+					buildSimpleJobTrigger(specificDateScheduleEntity, startJobDetail));
+		}
+		for (RecurringScheduleEntity recurringScheduleEntity : recurringSchedules) {
+			JobDetail jobStartDetail = buildCronJob(recurringScheduleEntity);
+			addJob(jobsByScheduler, appIdsByScheduler, recurringScheduleEntity.getAppId(), jobStartDetail,
+					buildCronJobTrigger(recurringScheduleEntity, jobStartDetail));
+		}
+
+		for (Map.Entry<Scheduler, Map<JobDetail, Set<? extends Trigger>>> jobs : jobsByScheduler.entrySet()) {
+			try {
+				jobs.getKey().scheduleJobs(jobs.getValue(), false);
+			} catch (SchedulerException se) {
+
+				validationErrorResult.addErrorForQuartzSchedulerException(se, "scheduler.error.create.failed",
+						"app_id=" + String.join(",", appIdsByScheduler.get(jobs.getKey())), se.getMessage());
+			}
+		}
+	}
+
+	private void addJob(Map<Scheduler, Map<JobDetail, Set<? extends Trigger>>> jobsByScheduler,
+			Map<Scheduler, Set<String>> appIdsByScheduler, String appId, JobDetail jobDetail, Trigger trigger) {
+		Scheduler scheduler = schedulerShardManager.getScheduler(appId);
+		jobsByScheduler.computeIfAbsent(scheduler, key -> new LinkedHashMap<>()).put(jobDetail,
+				Collections.singleton(trigger));
+		appIdsByScheduler.computeIfAbsent(scheduler, key -> new LinkedHashSet<>()).add(appId);
+	}
+
+	private JobDetail buildSimpleJob(SpecificDateScheduleEntity specificDateScheduleEntity) {
 		Long scheduleId = specificDateScheduleEntity.getId();
 		String keyName = scheduleId + JobActionEnum.START.getJobIdSuffix();
 
@@ -55,29 +149,22 @@ class ScheduleJobManager {
 		// Set the data in JobDetail for informing the scaling engine that scaling job needs to be started
 		setupCommonScalingData(startJobDetail, specificDateScheduleEntity);
 		setupSpecificDateScheduleScalingData(startJobDetail, specificDateScheduleEntity.getEndDateTime());
+		return startJobDetail;
+	}
 
+	private Trigger buildSimpleJobTrigger(SpecificDateScheduleEntity specificDateScheduleEntity,
+			JobDetail startJobDetail) {
 		// Build the trigger
-		TimeZone policyTimeZone = TimeZone.getTimeZone(specificDateScheduleEntity.getTimeZone());
-
 		Date triggerStartDateTime = DateHelper.getDateWithZoneOffset(specificDateScheduleEntity.getStartDateTime(),
-				policyTimeZone);
-
-		TriggerKey startTriggerKey = new TriggerKey(keyName, ScheduleTypeEnum.SPECIFIC_DATE.getScheduleIdentifier());
-		Trigger jobStartTrigger = ScheduleJobHelper.buildTrigger(startTriggerKey, startJobKey, triggerStartDateTime);
-
-		// Schedule the job
-		try {
-			scheduler.scheduleJob(startJobDetail, jobStartTrigger);
-
-		} catch (SchedulerException se) {
-
-			validationErrorResult.addErrorForQuartzSchedulerException(se, "scheduler.error.create.failed",
-					"app_id=" + specificDateScheduleEntity.getAppId(), se.getMessage());
-		}
+				specificDateScheduleEntity.getTimeZone());
 
+		TriggerKey startTriggerKey = new TriggerKey(startJobDetail.getKey().getName(),
+				ScheduleTypeEnum.SPECIFIC_DATE.getScheduleIdentifier());
+		return ScheduleJobHelper.buildTrigger(startTriggerKey, startJobDetail.getKey(), triggerStartDateTime,
+				scheduleJobLaneExecutor.getTriggerPriority(ScheduleJobLaneEnum.START));
 	}
 
-	void createCronJob(RecurringScheduleEntity recurringScheduleEntity) {
+	private JobDetail buildCronJob(RecurringScheduleEntity recurringScheduleEntity) {
 		Long scheduleId = recurringScheduleEntity.getId();
 		String keyName = scheduleId + JobActionEnum.START.getJobIdSuffix();
 
@@ -86,28 +173,32 @@ class ScheduleJobManager {
 		// Build the job
 		JobDetail jobStartDetail = ScheduleJobHelper.buildJob(startJobKey, AppScalingRecurringScheduleStartJob.class);
 
-		// Build the trigger
-		Date triggerStartTime = recurringScheduleEntity.getStartTime();
-
 		// Set the data in JobDetail for informing the scaling engine that scaling job needs to be started
 		String cronExpression = ScheduleJobHelper.convertRecurringScheduleToCronExpression(
 				recurringScheduleEntity.getEndTime(), recurringScheduleEntity);
 		setupCommonScalingData(jobStartDetail, recurringScheduleEntity);
 		setupRecurringScheduleScalingData(jobStartDetail, cronExpression);
+		return jobStartDetail;
+	}
 
-		TriggerKey startTriggerKey = new TriggerKey(keyName, ScheduleTypeEnum.RECURRING.getScheduleIdentifier());
+	private Trigger buildCronJobTrigger(RecurringScheduleEntity recurringScheduleEntity, JobDetail jobStartDetail) {
+		// Build the trigger
+		Date triggerStartTime = recurringScheduleEntity.getStartTime();
 
-		Trigger jobStartTrigger = ScheduleJobHelper.buildCronTrigger(startTriggerKey, jobStartDetail.getKey(),
-				recurringScheduleEntity, triggerStartTime);
-		// Schedule the job
-		try {
-			scheduler.scheduleJob(jobStartDetail, jobStartTrigger);
-		} catch (SchedulerException se) {
+		TriggerKey startTriggerKey = new TriggerKey(jobStartDetail.getKey().getName(),
+				ScheduleTypeEnum.RECURRING.getScheduleIdentifier());
 
-			validationErrorResult.addErrorForQuartzSchedulerException(se, "scheduler.error.create.failed",
-					"app_id=" + recurringScheduleEntity.getAppId(), se.getMessage());
-		}
+		return ScheduleJobHelper.buildCronTrigger(startTriggerKey, jobStartDetail.getKey(), recurringScheduleEntity,
+				triggerStartTime, scheduleJobLaneExecutor.getTriggerPriority(ScheduleJobLaneEnum.START));
+	}
 
+	private void scheduleJob(String appId, JobDetail jobDetail, Trigger trigger) throws SchedulerException {
+		if (timingWheelScheduleEngine.isEnabled()) {
+			timingWheelScheduleEngine.scheduleJob(jobDetail, trigger);
+		} else {
+			Scheduler scheduler = schedulerShardManager.getScheduler(appId);
+			scheduler.scheduleJob(jobDetail, trigger);
+		}
 	}
 
 	/**
@@ -142,13 +233,21 @@ class ScheduleJobManager {
 		jobDataMap.put(ScheduleJobHelper.END_JOB_CRON_EXPRESSION, cronExpression);
 	}
 
-	void deleteJob(String appId, Long scheduleId, ScheduleTypeEnum scheduleTypeEnum) {
+	void deleteJob(String appId, Long scheduleId, ScheduleTypeEnum scheduleTypeEnum,
+			ValidationErrorResult validationErrorResult) {
 		JobKey startJobKey = new JobKey(scheduleId + JobActionEnum.START.getJobIdSuffix(),
 				scheduleTypeEnum.getScheduleIdentifier());
 		JobKey endJobKey = new JobKey(scheduleId + JobActionEnum.END.getJobIdSuffix(),
 				scheduleTypeEnum.getScheduleIdentifier());
 
+		if (timingWheelScheduleEngine.isEnabled()) {
+			// The engine drops the start job, the end of its active schedule still fires
+			timingWheelScheduleEngine.deleteJob(startJobKey);
+			return;
+		}
+
 		try {
+			Scheduler scheduler = schedulerShardManager.getScheduler(appId);
 			scheduler.deleteJob(startJobKey);
 			scheduler.deleteJob(endJobKey);
 		} catch (SchedulerException se) {
@@ -157,4 +256,45 @@ class ScheduleJobManager {
 					"app_id=" + appId, se.getMessage());
 		}
 	}
+
+	/**
+	 * Deletes the jobs of the schedules of several applications, grouping the jobs of the
+	 * applications assigned to the same scheduler shard in a single call.
+	 *
+	 * @param appIdsByScheduleId - the application id of each deleted schedule id, by schedule type
+	 * @param validationErrorResult
+	 */
+	void deleteJobs(Map<ScheduleTypeEnum, Map<Long, String>> appIdsByScheduleId,
+			ValidationErrorResult validationErrorResult) {
+		Map<Scheduler, List<JobKey>> jobKeysByScheduler = new LinkedHashMap<>();
+		Map<Scheduler, Set<String>> appIdsByScheduler = new HashMap<>();
+		for (Map.Entry<ScheduleTypeEnum, Map<Long, String>> schedules : appIdsByScheduleId.entrySet()) {
+			String scheduleIdentifier = schedules.getKey().getScheduleIdentifier();
+			for (Map.Entry<Long, String> schedule : schedules.getValue().entrySet()) {
+				JobKey startJobKey = new JobKey(schedule.getKey() + JobActionEnum.START.getJobIdSuffix(),
+						scheduleIdentifier);
+				if (timingWheelScheduleEngine.isEnabled()) {
+					// The engine drops the start job, the end of its active schedule still fires
+					timingWheelScheduleEngine.deleteJob(startJobKey);
+					continue;
+				}
+
+				Scheduler scheduler = schedulerShardManager.getScheduler(schedule.getValue());
+				List<JobKey> jobKeys = jobKeysByScheduler.computeIfAbsent(scheduler, key -> new ArrayList<>());
+				jobKeys.add(startJobKey);
+				jobKeys.add(new JobKey(schedule.getKey() + JobActionEnum.END.getJobIdSuffix(), scheduleIdentifier));
+				appIdsByScheduler.computeIfAbsent(scheduler, key -> new LinkedHashSet<>()).add(schedule.getValue());
+			}
+		}
+
+		for (Map.Entry<Scheduler, List<JobKey>> jobKeys : jobKeysByScheduler.entrySet()) {
+			try {
+				jobKeys.getKey().deleteJobs(jobKeys.getValue());
+			} catch (SchedulerException se) {
+
+				validationErrorResult.addErrorForQuartzSchedulerException(se, "scheduler.error.delete.failed",
+						"app_id=" + String.join(",", appIdsByScheduler.get(jobKeys.getKey())), se.getMessage());
+			}
+		}
+	}
 }
@@ -2,8 +2,21 @@ package org.cloudfoundry.autoscaler.scheduler.service;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.TimeZone;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -14,10 +27,13 @@ import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.quartz.ScalingEngineBatchNotifier;
+import org.cloudfoundry.autoscaler.scheduler.quartz.ScalingEngineCircuitBreaker;
 import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
 import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
 import org.cloudfoundry.autoscaler.scheduler.util.DataValidationHelper;
 import org.cloudfoundry.autoscaler.scheduler.util.DateHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.RecurringScheduleTime;
 import org.cloudfoundry.autoscaler.scheduler.util.ScalingEngineUtil;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
@@ -28,8 +44,11 @@ import org.cloudfoundry.autoscaler.scheduler.util.error.SchedulerInternalExcepti
 import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
@@ -52,15 +71,77 @@ public class ScheduleManager {
 	@Autowired
 	private RestTemplate restTemplate;
 	@Autowired
-	private ValidationErrorResult validationErrorResult;
-	@Autowired
 	private MessageBundleResourceHelper messageBundleResourceHelper;
+	@Autowired
+	private UpcomingScheduleEventIndex upcomingScheduleEventIndex;
+	@Autowired
+	private ActiveScheduleView activeScheduleView;
+	@Autowired
+	private ActiveScheduleChangeFeed activeScheduleChangeFeed;
+	@Autowired
+	private ScalingEngineCircuitBreaker scalingEngineCircuitBreaker;
+	@Autowired
+	private ScalingEngineBatchNotifier scalingEngineBatchNotifier;
 
 	@Value("${autoscaler.scalingengine.url}")
 	private String scalingEngineUrl;
+	@Value("${scheduler.validation.overlap.crosstype.enabled}")
+	private boolean crossTypeOverlapValidationEnabled;
+	@Value("${scheduler.validation.specificdate.maxcount}")
+	private int maxSpecificDateScheduleCount;
+	@Value("${scheduler.validation.recurring.maxcount}")
+	private int maxRecurringScheduleCount;
+	@Value("${scheduler.validation.error.maxcount}")
+	private int maxValidationErrorCount;
+	@Value("${scheduler.validation.parallel.enabled}")
+	private boolean parallelValidationEnabled;
+	@Value("${scheduler.validation.parallel.threshold}")
+	private int parallelValidationThreshold;
+	@Value("${scheduler.validation.parallel.poolsize}")
+	private int parallelValidationPoolSize;
+	@Value("${scheduler.delete.notification.poolsize}")
+	private int notificationPoolSize;
+	@Value("${scheduler.delete.notification.queue.capacity}")
+	private int notificationQueueCapacity;
+
+	private ForkJoinPool validationPool;
+
+	private ThreadPoolExecutor notificationExecutor;
 
 	private Logger logger = LogManager.getLogger(this.getClass());
 
+	@PostConstruct
+	void initValidationPool() {
+		if (parallelValidationEnabled) {
+			validationPool = new ForkJoinPool(parallelValidationPoolSize);
+		}
+	}
+
+	@PreDestroy
+	void shutdownValidationPool() throws InterruptedException {
+		if (validationPool != null) {
+			validationPool.shutdown();
+			validationPool.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	@PostConstruct
+	void initNotificationExecutor() {
+		// A saturated executor has the caller notify, so no removal notification is dropped
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("scalingengine-notification-");
+		threadFactory.setDaemon(true);
+		notificationExecutor = new ThreadPoolExecutor(notificationPoolSize, notificationPoolSize, 60L,
+				TimeUnit.SECONDS, new ArrayBlockingQueue<>(notificationQueueCapacity), threadFactory,
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		notificationExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	@PreDestroy
+	void shutdownNotificationExecutor() throws InterruptedException {
+		notificationExecutor.shutdown();
+		notificationExecutor.awaitTermination(30, TimeUnit.SECONDS);
+	}
+
 	/**
 	 * Calls dao and fetch all the schedules for the specified application id.
 	 *
@@ -89,9 +170,10 @@ public class ScheduleManager {
 
 		} catch (DatabaseValidationException dve) {
 
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.get.failed",
 					"app_id=" + appId);
-			throw new SchedulerInternalException("Database error", dve);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
 		}
 
 		return applicationSchedules;
@@ -144,9 +226,15 @@ public class ScheduleManager {
 	 *
 	 * @param appId
 	 * @param applicationPolicy
+	 * @return - the validation errors
 	 */
-	public void validateSchedules(String appId, ApplicationSchedules applicationPolicy) {
-		logger.info("Validate schedules for application: " + appId);
+	public ValidationErrorResult validateSchedules(String appId, ApplicationSchedules applicationPolicy) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult(maxValidationErrorCount);
+
+		// Reject too many schedules before validating any of them
+		if (!validateScheduleCount(applicationPolicy.getSchedules(), validationErrorResult)) {
+			return validationErrorResult;
+		}
 
 		// Validate the application id
 		if (!DataValidationHelper.isNotEmpty(appId)) {
@@ -169,20 +257,36 @@ public class ScheduleManager {
 
 		// Validate the default minimum and maximum instance count
 		validateDefaultInstanceMinMaxCount(applicationPolicy.getInstanceMinCount(),
-				applicationPolicy.getInstanceMaxCount());
+				applicationPolicy.getInstanceMaxCount(), validationErrorResult);
 
 		// Validate schedules.
 		if (applicationPolicy.getSchedules().hasSchedules()) {
+			List<SpecificDateScheduleDateTime> scheduleStartEndTimeList = null;
+			List<RecurringScheduleTime> recurringScheduleTimes = null;
+
 			List<SpecificDateScheduleEntity> specificDateSchedules = applicationPolicy.getSchedules().getSpecificDate();
 			// Validate specific date schedules.
 			if (specificDateSchedules != null) {
-				validateSpecificDateSchedules(specificDateSchedules, isValidTimeZone);
+				scheduleStartEndTimeList = validateSpecificDateSchedules(specificDateSchedules, isValidTimeZone,
+						validationErrorResult);
 			}
 
 			List<RecurringScheduleEntity> recurringSchedules = applicationPolicy.getSchedules().getRecurringSchedule();
 			// Validate recurring schedules.
 			if (recurringSchedules != null) {
-				validateRecurringSchedules(recurringSchedules, isValidTimeZone);
+				recurringScheduleTimes = validateRecurringSchedules(recurringSchedules, isValidTimeZone,
+						validationErrorResult);
+			}
+
+			// Validate the specific date schedules against the recurring schedules.
+			if (crossTypeOverlapValidationEnabled && isValidTimeZone) {
+				List<String[]> overlapDateTimeValidationErrorMsgList = DataValidationHelper
+						.isNotOverlapSpecificDateAndRecurringSchedules(scheduleStartEndTimeList,
+								recurringScheduleTimes);
+				for (String[] arguments : overlapDateTimeValidationErrorMsgList) {
+					validationErrorResult.addFieldError(applicationPolicy, "schedule.date.overlap",
+							(Object[]) arguments);
+				}
 			}
 		} else {// No schedules found
 
@@ -190,53 +294,60 @@ public class ScheduleManager {
 
 		}
 
+		return validationErrorResult;
 	}
 
 	/**
-	 * This method traverses through the list and calls helper methods to perform validations on
-	 * the specific date schedule entity.
+	 * This method checks the number of schedules of each type against the per application limits.
 	 *
-	 * @param specificDateSchedules
-	 * @param isValidTimeZone
+	 * @param schedules
+	 * @param validationErrorResult
+	 * @return - false if there are too many schedules
 	 */
-	private void validateSpecificDateSchedules(List<SpecificDateScheduleEntity> specificDateSchedules,
-			boolean isValidTimeZone) {
-		List<SpecificDateScheduleDateTime> scheduleStartEndTimeList = new ArrayList<>();
-
-		// Identifier to tell which schedule is being validated, will be used in the validation messages
-		// convenience to identify the schedule that has an issue. First schedule identified as 0
-		int scheduleIdentifier = 0;
-		for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateSchedules) {
-
-			String scheduleBeingProcessed = ScheduleTypeEnum.SPECIFIC_DATE.getDescription() + " " + scheduleIdentifier; // Specific date/Recurring and the index of schedule being processed
-
-			// Validate the dates and times only if the time zone is valid
-			if (isValidTimeZone) {
-				// Call helper method to validate the start date time and end date time.
-				SpecificDateScheduleDateTime validScheduleDateTime = validateStartEndDateTime(scheduleBeingProcessed,
-						specificDateScheduleEntity);
+	private boolean validateScheduleCount(Schedules schedules, ValidationErrorResult validationErrorResult) {
+		boolean isValidCount = true;
+		if (schedules == null) {
+			return isValidCount;
+		}
 
-				if (validScheduleDateTime != null) {
-					scheduleStartEndTimeList.add(validScheduleDateTime);
+		List<SpecificDateScheduleEntity> specificDateSchedules = schedules.getSpecificDate();
+		if (specificDateSchedules != null && maxSpecificDateScheduleCount > 0
+				&& specificDateSchedules.size() > maxSpecificDateScheduleCount) {
+			validationErrorResult.addFieldError(schedules, "data.schedules.limit.exceeded",
+					ScheduleTypeEnum.SPECIFIC_DATE.getDescription(), specificDateSchedules.size(),
+					maxSpecificDateScheduleCount);
+			isValidCount = false;
+		}
 
-				}
-			}
+		List<RecurringScheduleEntity> recurringSchedules = schedules.getRecurringSchedule();
+		if (recurringSchedules != null && maxRecurringScheduleCount > 0
+				&& recurringSchedules.size() > maxRecurringScheduleCount) {
+			validationErrorResult.addFieldError(schedules, "data.schedules.limit.exceeded",
+					ScheduleTypeEnum.RECURRING.getDescription(), recurringSchedules.size(), maxRecurringScheduleCount);
+			isValidCount = false;
+		}
 
-			Integer initialMinInstanceCount = specificDateScheduleEntity.getInitialMinInstanceCount();
-			// The initial minimum instance count cannot be negative.
-			if (DataValidationHelper.isNotNull(initialMinInstanceCount) && initialMinInstanceCount < 0) {
-				validationErrorResult.addFieldError(null, "schedule.data.value.invalid", scheduleBeingProcessed,
-						"initial_min_instance_count", initialMinInstanceCount);
-			}
+		return isValidCount;
+	}
 
-			// Validate instance minimum count and maximum count.
-			validateInstanceMinMaxCount(scheduleBeingProcessed, specificDateScheduleEntity.getInstanceMinCount(),
-					specificDateScheduleEntity.getInstanceMaxCount());
-			++scheduleIdentifier;
-		}
+	/**
+	 * This method traverses through the list and calls helper methods to perform validations on
+	 * the specific date schedule entity.
+	 *
+	 * @param specificDateSchedules
+	 * @param isValidTimeZone
+	 * @param validationErrorResult
+	 * @return - the start and end date times of the valid schedules
+	 */
+	private List<SpecificDateScheduleDateTime> validateSpecificDateSchedules(List<SpecificDateScheduleEntity> specificDateSchedules,
+			boolean isValidTimeZone, ValidationErrorResult validationErrorResult) {
+		List<SpecificDateScheduleDateTime> scheduleStartEndTimeList = validateEachSchedule(specificDateSchedules,
+				(scheduleIdentifier, specificDateScheduleEntity, errorResult) -> validateSpecificDateSchedule(
+						scheduleIdentifier, specificDateScheduleEntity, isValidTimeZone, errorResult),
+				validationErrorResult);
 
 		// Validate the dates for overlap
-		if (!scheduleStartEndTimeList.isEmpty()) {
+		if (!scheduleStartEndTimeList.isEmpty() && !validationErrorResult.isErrorLimitReached()) {
 			List<String[]> overlapDateTimeValidationErrorMsgList = DataValidationHelper
 					.isNotOverlapForSpecificDate(scheduleStartEndTimeList);
 			for (String[] arguments : overlapDateTimeValidationErrorMsgList) {
@@ -245,6 +356,7 @@ public class ScheduleManager {
 			}
 		}
 
+		return scheduleStartEndTimeList;
 	}
 
 	/**
@@ -253,58 +365,178 @@ public class ScheduleManager {
 	 *
 	 * @param recurringSchedules
 	 * @param isValidTimeZone
+	 * @param validationErrorResult
+	 * @return - the times of the valid schedules
 	 */
-	private void validateRecurringSchedules(List<RecurringScheduleEntity> recurringSchedules, boolean isValidTimeZone) {
-		int scheduleIdentifier = 0;
+	private List<RecurringScheduleTime> validateRecurringSchedules(List<RecurringScheduleEntity> recurringSchedules, boolean isValidTimeZone,
+			ValidationErrorResult validationErrorResult) {
+		List<RecurringScheduleTime> recurringScheduleTimes = validateEachSchedule(recurringSchedules,
+				(scheduleIdentifier, recurringScheduleEntity, errorResult) -> validateRecurringSchedule(
+						scheduleIdentifier, recurringScheduleEntity, isValidTimeZone, errorResult),
+				validationErrorResult);
+
+		if (isValidTimeZone && !validationErrorResult.isErrorLimitReached()) {
+			// Call helper method to validate the start date time and end date time.
+			List<String[]> messages = DataValidationHelper.isNotOverlapRecurringSchedules(recurringScheduleTimes);
+			for (String[] arguments : messages) {
+				validationErrorResult.addFieldError(recurringScheduleTimes, "schedule.date.overlap",
+						(Object[]) arguments);
+			}
+		}
 
-		List<RecurringScheduleTime> recurringScheduleTimes = new ArrayList<>();
+		return recurringScheduleTimes;
+	}
 
-		for (RecurringScheduleEntity recurringScheduleEntity : recurringSchedules) {
-			String scheduleBeingProcessed = ScheduleTypeEnum.RECURRING.getDescription() + " " + scheduleIdentifier; // Recurring
+	/**
+	 * Validates the fields of a single schedule
+	 *
+	 * @param <S> - the schedule entity type
+	 * @param <T> - the validated schedule time type
+	 */
+	@FunctionalInterface
+	private interface ScheduleValidator<S, T> {
+		T validate(int scheduleIdentifier, S schedule, ValidationErrorResult validationErrorResult);
+	}
 
-			if (isValidTimeZone) {
-				RecurringScheduleTime scheduleTime = validateRecurringScheduleTime(scheduleBeingProcessed,
-						recurringScheduleEntity);
+	/**
+	 * The validated time and the errors of a single schedule validated on the validation pool
+	 */
+	private static class ScheduleValidation<T> {
+		private T scheduleTime;
+		private ValidationErrorResult validationErrorResult;
+
+		private ScheduleValidation(T scheduleTime, ValidationErrorResult validationErrorResult) {
+			this.scheduleTime = scheduleTime;
+			this.validationErrorResult = validationErrorResult;
+		}
+	}
+
+	/**
+	 * This method validates the fields of each schedule in the list. The schedules are validated in
+	 * order and the validation stops once an error is dropped because of the error limit. Lists of
+	 * at least the parallel threshold are validated on the validation pool instead, in batches of the
+	 * parallel threshold with each schedule in its own error result. The results of a batch are added
+	 * in the order of the schedules, so the errors are the same as the sequential validation reports,
+	 * and no further batch is started once an error is dropped.
+	 *
+	 * @param schedules
+	 * @param scheduleValidator
+	 * @param validationErrorResult
+	 * @return - the times of the valid schedules, in the order of the schedules
+	 */
+	private <S, T> List<T> validateEachSchedule(List<S> schedules, ScheduleValidator<S, T> scheduleValidator,
+			ValidationErrorResult validationErrorResult) {
+		List<T> scheduleTimes = new ArrayList<>();
+
+		if (validationPool == null || schedules.size() < parallelValidationThreshold) {
+			// Identifier to tell which schedule is being validated, will be used in the validation messages
+			// convenience to identify the schedule that has an issue. First schedule identified as 0
+			int scheduleIdentifier = 0;
+			for (S schedule : schedules) {
+				if (validationErrorResult.isErrorDropped()) {
+					break;
+				}
+				T scheduleTime = scheduleValidator.validate(scheduleIdentifier, schedule, validationErrorResult);
 				if (scheduleTime != null) {
-					recurringScheduleTimes.add(scheduleTime);
+					scheduleTimes.add(scheduleTime);
 				}
+				++scheduleIdentifier;
 			}
+			return scheduleTimes;
+		}
 
-			Integer initialMinInstanceCount = recurringScheduleEntity.getInitialMinInstanceCount();
-			// The initial minimum instance count cannot be negative.
-			if (DataValidationHelper.isNotNull(initialMinInstanceCount) && initialMinInstanceCount < 0) {
-				validationErrorResult.addFieldError(null, "schedule.data.value.invalid", scheduleBeingProcessed,
-						"initial_min_instance_count", initialMinInstanceCount);
+		List<S> scheduleList = new ArrayList<>(schedules);
+		int batchStart = 0;
+		while (batchStart < scheduleList.size() && !validationErrorResult.isErrorDropped()) {
+			IntStream batch = IntStream.range(batchStart,
+					Math.min(batchStart + parallelValidationThreshold, scheduleList.size()));
+			List<ScheduleValidation<T>> scheduleValidations = validationPool
+					.invoke(ForkJoinTask.adapt(() -> batch.parallel().mapToObj(index -> {
+						ValidationErrorResult scheduleErrorResult = new ValidationErrorResult(maxValidationErrorCount);
+						T scheduleTime = scheduleValidator.validate(index, scheduleList.get(index), scheduleErrorResult);
+						return new ScheduleValidation<>(scheduleTime, scheduleErrorResult);
+					}).collect(Collectors.toList())));
+			batchStart += parallelValidationThreshold;
+
+			for (ScheduleValidation<T> scheduleValidation : scheduleValidations) {
+				if (validationErrorResult.isErrorDropped()) {
+					break;
+				}
+				validationErrorResult.addAll(scheduleValidation.validationErrorResult);
+				if (scheduleValidation.scheduleTime != null) {
+					scheduleTimes.add(scheduleValidation.scheduleTime);
+				}
 			}
-
-			// Validate instance minimum count and maximum count.
-			validateInstanceMinMaxCount(scheduleBeingProcessed, recurringScheduleEntity.getInstanceMinCount(),
-					recurringScheduleEntity.getInstanceMaxCount());
-			++scheduleIdentifier;
 		}
+		return scheduleTimes;
+	}
+
+	private SpecificDateScheduleDateTime validateSpecificDateSchedule(int scheduleIdentifier,
+			SpecificDateScheduleEntity specificDateScheduleEntity, boolean isValidTimeZone,
+			ValidationErrorResult validationErrorResult) {
+		SpecificDateScheduleDateTime validScheduleDateTime = null;
+		String scheduleBeingProcessed = ScheduleTypeEnum.SPECIFIC_DATE.getDescription() + " " + scheduleIdentifier; // Specific date/Recurring and the index of schedule being processed
+
+		// Validate the dates and times only if the time zone is valid
 		if (isValidTimeZone) {
 			// Call helper method to validate the start date time and end date time.
-			List<String[]> messages = DataValidationHelper.isNotOverlapRecurringSchedules(recurringScheduleTimes);
-			for (String[] arguments : messages) {
-				validationErrorResult.addFieldError(recurringScheduleTimes, "schedule.date.overlap",
-						(Object[]) arguments);
-			}
+			validScheduleDateTime = validateStartEndDateTime(scheduleBeingProcessed, specificDateScheduleEntity,
+					validationErrorResult);
+		}
+
+		validateInitialMinInstanceCount(scheduleBeingProcessed, specificDateScheduleEntity.getInitialMinInstanceCount(),
+				validationErrorResult);
+
+		// Validate instance minimum count and maximum count.
+		validateInstanceMinMaxCount(scheduleBeingProcessed, specificDateScheduleEntity.getInstanceMinCount(),
+				specificDateScheduleEntity.getInstanceMaxCount(), validationErrorResult);
+
+		return validScheduleDateTime;
+	}
+
+	private RecurringScheduleTime validateRecurringSchedule(int scheduleIdentifier,
+			RecurringScheduleEntity recurringScheduleEntity, boolean isValidTimeZone,
+			ValidationErrorResult validationErrorResult) {
+		RecurringScheduleTime scheduleTime = null;
+		String scheduleBeingProcessed = ScheduleTypeEnum.RECURRING.getDescription() + " " + scheduleIdentifier; // Recurring
+
+		if (isValidTimeZone) {
+			scheduleTime = validateRecurringScheduleTime(scheduleBeingProcessed, recurringScheduleEntity,
+					validationErrorResult);
+		}
+
+		validateInitialMinInstanceCount(scheduleBeingProcessed, recurringScheduleEntity.getInitialMinInstanceCount(),
+				validationErrorResult);
+
+		// Validate instance minimum count and maximum count.
+		validateInstanceMinMaxCount(scheduleBeingProcessed, recurringScheduleEntity.getInstanceMinCount(),
+				recurringScheduleEntity.getInstanceMaxCount(), validationErrorResult);
+
+		return scheduleTime;
+	}
+
+	private void validateInitialMinInstanceCount(String scheduleBeingProcessed, Integer initialMinInstanceCount,
+			ValidationErrorResult validationErrorResult) {
+		// The initial minimum instance count cannot be negative.
+		if (DataValidationHelper.isNotNull(initialMinInstanceCount) && initialMinInstanceCount < 0) {
+			validationErrorResult.addFieldError(null, "schedule.data.value.invalid", scheduleBeingProcessed,
+					"initial_min_instance_count", initialMinInstanceCount);
 		}
 	}
 
 	private RecurringScheduleTime validateRecurringScheduleTime(String scheduleBeingProcessed,
-			RecurringScheduleEntity recurringSchedule) {
+			RecurringScheduleEntity recurringSchedule, ValidationErrorResult validationErrorResult) {
 		boolean isValid = true;
 
-		if (!validateDayOfWeekOrMonth(scheduleBeingProcessed, recurringSchedule)) {
+		if (!validateDayOfWeekOrMonth(scheduleBeingProcessed, recurringSchedule, validationErrorResult)) {
 			isValid = false;
 		}
 
-		if (!validateStartEndDate(scheduleBeingProcessed, recurringSchedule)) {
+		if (!validateStartEndDate(scheduleBeingProcessed, recurringSchedule, validationErrorResult)) {
 			isValid = false;
 		}
 
-		if (!validateStartEndTime(scheduleBeingProcessed, recurringSchedule)) {
+		if (!validateStartEndTime(scheduleBeingProcessed, recurringSchedule, validationErrorResult)) {
 			isValid = false;
 		}
 
@@ -316,7 +548,8 @@ public class ScheduleManager {
 		return time;
 	}
 
-	private boolean validateStartEndTime(String scheduleBeingProcessed, RecurringScheduleEntity recurringSchedule) {
+	private boolean validateStartEndTime(String scheduleBeingProcessed, RecurringScheduleEntity recurringSchedule,
+			ValidationErrorResult validationErrorResult) {
 		boolean isValid = true;
 		Date startTime = recurringSchedule.getStartTime();
 		Date endTime = recurringSchedule.getEndTime();
@@ -345,12 +578,13 @@ public class ScheduleManager {
 		return isValid;
 	}
 
-	private boolean validateStartEndDate(String scheduleBeingProcessed, RecurringScheduleEntity recurringSchedule) {
+	private boolean validateStartEndDate(String scheduleBeingProcessed, RecurringScheduleEntity recurringSchedule,
+			ValidationErrorResult validationErrorResult) {
 		// Note: For recurring schedule, start and end date are optional so not checking for null
 		boolean isValid = true;
 		Date startDate = recurringSchedule.getStartDate();
 		Date endDate = recurringSchedule.getEndDate();
-		TimeZone timeZone = TimeZone.getTimeZone(recurringSchedule.getTimeZone());
+		String timeZone = recurringSchedule.getTimeZone();
 
 		if (startDate != null) {
 			// it should be after current date.
@@ -382,7 +616,8 @@ public class ScheduleManager {
 		return isValid;
 	}
 
-	private boolean validateDayOfWeekOrMonth(String scheduleBeingProcessed, RecurringScheduleEntity recurringSchedule) {
+	private boolean validateDayOfWeekOrMonth(String scheduleBeingProcessed, RecurringScheduleEntity recurringSchedule,
+			ValidationErrorResult validationErrorResult) {
 		boolean isValid = true;
 		int[] dayOfMonth = recurringSchedule.getDaysOfMonth();
 		int[] dayOfWeek = recurringSchedule.getDaysOfWeek();
@@ -438,8 +673,10 @@ public class ScheduleManager {
 	 *
 	 * @param defaultInstanceMinCount
 	 * @param defaultInstanceMaxCount
+	 * @param validationErrorResult
 	 */
-	private void validateDefaultInstanceMinMaxCount(Integer defaultInstanceMinCount, Integer defaultInstanceMaxCount) {
+	private void validateDefaultInstanceMinMaxCount(Integer defaultInstanceMinCount, Integer defaultInstanceMaxCount,
+			ValidationErrorResult validationErrorResult) {
 
 		boolean isValid = true;
 
@@ -486,9 +723,10 @@ public class ScheduleManager {
 	 * @param scheduleBeingProcessed
 	 * @param instanceMinCount
 	 * @param instanceMaxCount
+	 * @param validationErrorResult
 	 */
 	private void validateInstanceMinMaxCount(String scheduleBeingProcessed, Integer instanceMinCount,
-			Integer instanceMaxCount) {
+			Integer instanceMaxCount, ValidationErrorResult validationErrorResult) {
 
 		boolean isValid = true;
 
@@ -537,17 +775,18 @@ public class ScheduleManager {
 	 * specified specific schedule.
 	 *
 	 * @param specificDateSchedule
+	 * @param validationErrorResult
 	 * @return
 	 */
 	private SpecificDateScheduleDateTime validateStartEndDateTime(String scheduleBeingProcessed,
-			SpecificDateScheduleEntity specificDateSchedule) {
+			SpecificDateScheduleEntity specificDateSchedule, ValidationErrorResult validationErrorResult) {
 		boolean isValid = true;
 		SpecificDateScheduleDateTime validScheduleDateTime = null;
 
 		Date startDateTime = specificDateSchedule.getStartDateTime();
 		Date endDateTime = specificDateSchedule.getEndDateTime();
 
-		TimeZone timeZone = TimeZone.getTimeZone(specificDateSchedule.getTimeZone());
+		String timeZone = specificDateSchedule.getTimeZone();
 
 		boolean isValidDtTm = DataValidationHelper.isNotNull(startDateTime);
 		if (!isValidDtTm) {
@@ -607,8 +846,10 @@ public class ScheduleManager {
 	 */
 	@Transactional
 	public void createSchedules(Schedules schedules) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 
 		List<SpecificDateScheduleEntity> specificDateSchedules = schedules.getSpecificDate();
+		List<SpecificDateScheduleEntity> savedSpecificDateSchedules = new ArrayList<>();
 		if (specificDateSchedules != null) {
 			for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateSchedules) {
 				// Persist the schedule in database
@@ -617,12 +858,14 @@ public class ScheduleManager {
 
 				// Ask ScalingJobManager to create scaling job
 				if (savedScheduleEntity != null) {
-					scheduleJobManager.createSimpleJob(savedScheduleEntity);
+					scheduleJobManager.createSimpleJob(savedScheduleEntity, validationErrorResult);
+					savedSpecificDateSchedules.add(savedScheduleEntity);
 				}
 			}
 		}
 
 		List<RecurringScheduleEntity> recurringSchedules = schedules.getRecurringSchedule();
+		List<RecurringScheduleEntity> savedRecurringSchedules = new ArrayList<>();
 		if (recurringSchedules != null) {
 			for (RecurringScheduleEntity recurringScheduleEntity : recurringSchedules) {
 				// Persist the schedule in database
@@ -630,10 +873,17 @@ public class ScheduleManager {
 
 				// Ask ScalingJobManager to create scaling job
 				if (savedScheduleEntity != null) {
-					scheduleJobManager.createCronJob(savedScheduleEntity);
+					scheduleJobManager.createCronJob(savedScheduleEntity, validationErrorResult);
+					savedRecurringSchedules.add(savedScheduleEntity);
 				}
 			}
 		}
+
+		if (validationErrorResult.hasErrors()) {
+			throw new SchedulerInternalException("Scheduler error", validationErrorResult);
+		}
+
+		afterCommit(() -> upcomingScheduleEventIndex.addSchedules(savedSpecificDateSchedules, savedRecurringSchedules));
 	}
 
 	/**
@@ -650,9 +900,10 @@ public class ScheduleManager {
 
 		} catch (DatabaseValidationException dve) {
 
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.create.failed",
 					"app_id=" + specificDateScheduleEntity.getAppId());
-			throw new SchedulerInternalException("Database error", dve);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
 		}
 		return savedScheduleEntity;
 	}
@@ -662,9 +913,10 @@ public class ScheduleManager {
 		try {
 			savedScheduleEntity = recurringScheduleDao.create(recurringScheduleEntity);
 		} catch (DatabaseValidationException dve) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.create.failed",
 					"app_id=" + recurringScheduleEntity.getAppId());
-			throw new SchedulerInternalException("Database error", dve);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
 		}
 		return savedScheduleEntity;
 	}
@@ -677,7 +929,171 @@ public class ScheduleManager {
 	 */
 	@Transactional
 	public void deleteSchedules(String appId) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+
+		deleteSchedules(appId, validationErrorResult);
+
+		if (validationErrorResult.hasErrors()) {
+			throw new SchedulerInternalException("Scheduler error", validationErrorResult);
+		}
+
+		// Delete all the active schedules for the application, the scaling engine is notified once committed
+		List<ActiveScheduleEntity> activeScheduleEntities = deleteActiveSchedules(appId);
+
+		afterCommit(() -> {
+			upcomingScheduleEventIndex.removeSchedules(appId);
+			for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
+				notifyScalingEngine(activeScheduleEntity);
+			}
+		});
+	}
+
+	/**
+	 * Replaces the schedules of several applications in one transaction. The schedules are
+	 * persisted with a single flush per schedule type, so the inserts are sent to the database
+	 * in JDBC batches, and the jobs are created in bulk per scheduler shard.
+	 *
+	 * @param schedulesByAppId - the set up and validated schedules of each application
+	 * @return - the ids of the applications whose existing schedules were replaced
+	 */
+	@Transactional
+	public Set<String> importSchedules(Map<String, Schedules> schedulesByAppId) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		Set<String> updatedAppIds = new HashSet<>();
+
+		for (String appId : schedulesByAppId.keySet()) {
+			if (deleteSchedules(appId, validationErrorResult)) {
+				updatedAppIds.add(appId);
+			}
+		}
+		if (validationErrorResult.hasErrors()) {
+			throw new SchedulerInternalException("Scheduler error", validationErrorResult);
+		}
+		// The scaling engine is notified once committed, not while the import holds its locks
+		List<ActiveScheduleEntity> activeScheduleEntities = new ArrayList<>();
+		for (String appId : updatedAppIds) {
+			activeScheduleEntities.addAll(deleteActiveSchedules(appId));
+		}
+		afterCommit(() -> {
+			for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
+				notificationExecutor.execute(() -> notifyScalingEngine(activeScheduleEntity));
+			}
+		});
+
+		List<SpecificDateScheduleEntity> specificDateSchedules = new ArrayList<>();
+		List<RecurringScheduleEntity> recurringSchedules = new ArrayList<>();
+		for (Schedules schedules : schedulesByAppId.values()) {
+			if (schedules.getSpecificDate() != null) {
+				specificDateSchedules.addAll(schedules.getSpecificDate());
+			}
+			if (schedules.getRecurringSchedule() != null) {
+				recurringSchedules.addAll(schedules.getRecurringSchedule());
+			}
+		}
+
+		try {
+			specificDateScheduleDao.createAll(specificDateSchedules);
+			recurringScheduleDao.createAll(recurringSchedules);
+		} catch (DatabaseValidationException dve) {
+			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.create.failed",
+					"app_id=" + String.join(",", schedulesByAppId.keySet()));
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
+		}
+
+		// Ask ScalingJobManager to create the scaling jobs
+		scheduleJobManager.createJobs(specificDateSchedules, recurringSchedules, validationErrorResult);
+
+		if (validationErrorResult.hasErrors()) {
+			throw new SchedulerInternalException("Scheduler error", validationErrorResult);
+		}
+
+		afterCommit(() -> {
+			for (String appId : updatedAppIds) {
+				upcomingScheduleEventIndex.removeSchedules(appId);
+			}
+			upcomingScheduleEventIndex.addSchedules(specificDateSchedules, recurringSchedules);
+		});
+		return updatedAppIds;
+	}
+
+	/**
+	 * Deletes the schedules, scaling jobs and active schedules of several applications with one
+	 * statement per table and one job deletion per scheduler shard. The scaling engine is notified
+	 * of the removed active schedules in the background once the transaction is committed.
+	 *
+	 * @param appIds
+	 * @return - the ids of the applications that had schedules
+	 */
+	@Transactional
+	public Set<String> deleteSchedules(List<String> appIds) {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		Map<ScheduleTypeEnum, Map<Long, String>> appIdsByScheduleId = new EnumMap<>(ScheduleTypeEnum.class);
+		List<ActiveScheduleEntity> activeScheduleEntities;
+
+		try {
+			appIdsByScheduleId.put(ScheduleTypeEnum.SPECIFIC_DATE,
+					specificDateScheduleDao.deleteAllSpecificDateSchedulesByAppIds(appIds));
+			appIdsByScheduleId.put(ScheduleTypeEnum.RECURRING,
+					recurringScheduleDao.deleteAllRecurringSchedulesByAppIds(appIds));
+			logger.info("Delete active schedules for " + appIds.size() + " applications");
+			activeScheduleEntities = activeScheduleDao.deleteActiveSchedulesByAppIds(appIds);
+			scalingEngineCircuitBreaker.discard(activeScheduleEntities);
+		} catch (DatabaseValidationException dve) {
+			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.delete.failed",
+					"app_id=" + String.join(",", appIds));
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
+		}
+
+		// Ask ScalingJobManager to delete the scaling jobs
+		scheduleJobManager.deleteJobs(appIdsByScheduleId, validationErrorResult);
+
+		if (validationErrorResult.hasErrors()) {
+			throw new SchedulerInternalException("Scheduler error", validationErrorResult);
+		}
+
+		Set<String> deletedAppIds = new HashSet<>();
+		for (Map<Long, String> schedules : appIdsByScheduleId.values()) {
+			deletedAppIds.addAll(schedules.values());
+		}
+
+		afterCommit(() -> {
+			for (String appId : deletedAppIds) {
+				upcomingScheduleEventIndex.removeSchedules(appId);
+			}
+			for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
+				activeScheduleView.activeSchedulesRemoved(activeScheduleEntity.getAppId());
+				activeScheduleChangeFeed.publish(activeScheduleEntity, JobActionEnum.END);
+				notificationExecutor.execute(() -> notifyScalingEngine(activeScheduleEntity));
+			}
+		});
+		return deletedAppIds;
+	}
 
+	/**
+	 * Runs the action once the current transaction is committed, or right away outside of a
+	 * transaction, so the in memory state never gets ahead of the database.
+	 */
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	/**
+	 * Deletes the schedules of the application from the database along with their scaling jobs.
+	 *
+	 * @param appId
+	 * @param validationErrorResult
+	 * @return - true if the application had schedules
+	 */
+	private boolean deleteSchedules(String appId, ValidationErrorResult validationErrorResult) {
 		// Get all the specific date schedules for the specifies application id and delete them.
 		List<SpecificDateScheduleEntity> specificDateSchedules = specificDateScheduleDao
 				.findAllSpecificDateSchedulesByAppId(appId);
@@ -686,7 +1102,8 @@ public class ScheduleManager {
 			deleteSpecificDateSchedule(specificDateScheduleEntity);
 
 			// Ask ScalingJobManager to delete scaling job
-			scheduleJobManager.deleteJob(appId, specificDateScheduleEntity.getId(), ScheduleTypeEnum.SPECIFIC_DATE);
+			scheduleJobManager.deleteJob(appId, specificDateScheduleEntity.getId(), ScheduleTypeEnum.SPECIFIC_DATE,
+					validationErrorResult);
 		}
 
 		// Get all the recurring schedules for the specifies application id and delete them.
@@ -696,11 +1113,11 @@ public class ScheduleManager {
 			deleteRecurringSchedule(recurringScheduleEntity);
 
 			// Ask ScalingJobManager to delete scaling job
-			scheduleJobManager.deleteJob(appId, recurringScheduleEntity.getId(), ScheduleTypeEnum.RECURRING);
+			scheduleJobManager.deleteJob(appId, recurringScheduleEntity.getId(), ScheduleTypeEnum.RECURRING,
+					validationErrorResult);
 		}
 
-		// Delete all the active schedules for the application
-		deleteActiveSchedules(appId);
+		return !specificDateSchedules.isEmpty() || !recurringSchedules.isEmpty();
 	}
 
 	private void deleteSpecificDateSchedule(SpecificDateScheduleEntity specificDateScheduleEntity) {
@@ -708,9 +1125,10 @@ public class ScheduleManager {
 
 			specificDateScheduleDao.delete(specificDateScheduleEntity);
 		} catch (DatabaseValidationException dve) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.delete.failed",
 					"app_id=" + specificDateScheduleEntity.getAppId());
-			throw new SchedulerInternalException("Database error", dve);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
 		}
 	}
 
@@ -718,50 +1136,103 @@ public class ScheduleManager {
 		try {
 			recurringScheduleDao.delete(recurringScheduleEntity);
 		} catch (DatabaseValidationException dve) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.delete.failed",
 					"app_id=" + recurringScheduleEntity.getAppId());
-			throw new SchedulerInternalException("Database error", dve);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
 		}
 	}
 
-	private void deleteActiveSchedules(String appId) {
+	/**
+	 * Deletes the active schedules of the application along with their pending notifications, the
+	 * caller notifies the scaling engine.
+	 *
+	 * @param appId
+	 * @return - the deleted active schedules
+	 */
+	private List<ActiveScheduleEntity> deleteActiveSchedules(String appId) {
 		try {
 			List<ActiveScheduleEntity> activeScheduleEntities = activeScheduleDao.findByAppId(appId);
 			logger.info("Delete active schedules for application: " + appId);
 			activeScheduleDao.deleteActiveSchedulesByAppId(appId);
-			for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
-
-				notifyScalingEngine(activeScheduleEntity);
-
-			}
+			scalingEngineCircuitBreaker.discard(activeScheduleEntities);
+			afterCommit(() -> {
+				activeScheduleView.activeSchedulesRemoved(appId);
+				for (ActiveScheduleEntity activeScheduleEntity : activeScheduleEntities) {
+					activeScheduleChangeFeed.publish(activeScheduleEntity, JobActionEnum.END);
+				}
+			});
+			return activeScheduleEntities;
 		} catch (DatabaseValidationException dve) {
+			ValidationErrorResult validationErrorResult = new ValidationErrorResult();
 			validationErrorResult.addErrorForDatabaseValidationException(dve, "database.error.delete.failed",
 					"app_id=" + appId);
-			throw new SchedulerInternalException("Database error", dve);
+			throw new SchedulerInternalException("Database error", dve, validationErrorResult);
 
 		}
 	}
 
+	/**
+	 * Notifies the scaling engine of the removed active schedule through the circuit breaker. The
+	 * notification is deferred while the circuit is open or other notifications are pending, so it is
+	 * never sent ahead of an earlier notification of the application.
+	 */
 	private void notifyScalingEngine(ActiveScheduleEntity activeScheduleEntity) {
 		String appId = activeScheduleEntity.getAppId();
 		long scheduleId = activeScheduleEntity.getId();
+
+		boolean guarded = scalingEngineCircuitBreaker.isEnabled();
+		ScalingEngineCircuitBreaker.Permit permit = null;
+		if (guarded && (scalingEngineCircuitBreaker.hasPendingNotifications()
+				|| (permit = scalingEngineCircuitBreaker.tryAcquire()) == null)) {
+			deferNotification(activeScheduleEntity);
+			return;
+		}
+
 		String scalingEnginePathActiveSchedule = ScalingEngineUtil.getScalingEngineActiveSchedulePath(scalingEngineUrl,
 				appId, scheduleId);
-		String message = messageBundleResourceHelper.lookupMessage("scalingengine.notification.activeschedule.remove",
-				appId, scheduleId);
-		logger.info(message);
+		logger.info(messageBundleResourceHelper.logMessage("scalingengine.notification.activeschedule.remove", appId,
+				scheduleId));
+		boolean succeeded = true;
+		boolean connectionFailed = false;
 		try {
-			restTemplate.delete(scalingEnginePathActiveSchedule, activeScheduleEntity);
+			if (scalingEngineBatchNotifier.isEnabled()) {
+				scalingEngineBatchNotifier.notify(activeScheduleEntity, JobActionEnum.END);
+			} else {
+				restTemplate.delete(scalingEnginePathActiveSchedule, activeScheduleEntity);
+			}
 		} catch (HttpStatusCodeException hce) {
-			String errorMessage = messageBundleResourceHelper.lookupMessage(
+			succeeded = !hce.getStatusCode().is5xxServerError();
+			logger.error(messageBundleResourceHelper.logMessage(
 					"scalingengine.notification.activeschedule.delete.failed", hce.getStatusCode(),
-					hce.getResponseBodyAsString(), appId, scheduleId);
-			logger.error(errorMessage, hce);
+					hce.getResponseBodyAsString(), appId, scheduleId), hce);
 		} catch (ResourceAccessException rae) {
-			String errorMessage = messageBundleResourceHelper.lookupMessage("scalingengine.notification.error",
-					rae.getMessage(), appId, scheduleId, "delete");
-			logger.error(errorMessage, rae);
+			succeeded = false;
+			connectionFailed = true;
+			logger.error(messageBundleResourceHelper.logMessage("scalingengine.notification.error", rae.getMessage(),
+					appId, scheduleId, "delete"), rae);
+		} finally {
+			if (guarded) {
+				scalingEngineCircuitBreaker.release(permit, succeeded);
+			}
+		}
 
+		// Replayed with the pending notifications once the scaling engine is reachable again
+		if (connectionFailed && guarded) {
+			deferNotification(activeScheduleEntity);
+		}
+	}
+
+	private void deferNotification(ActiveScheduleEntity activeScheduleEntity) {
+		String appId = activeScheduleEntity.getAppId();
+		Long scheduleId = activeScheduleEntity.getId();
+		try {
+			scalingEngineCircuitBreaker.defer(activeScheduleEntity, JobActionEnum.END);
+			logger.warn(messageBundleResourceHelper.logMessage("scalingengine.notification.deferred",
+					scalingEngineCircuitBreaker.getState(), appId, scheduleId, JobActionEnum.END));
+		} catch (DatabaseValidationException dve) {
+			logger.error(messageBundleResourceHelper.logMessage("database.error.create.pendingnotification.failed",
+					dve.getMessage(), appId, scheduleId), dve);
 		}
 	}
 
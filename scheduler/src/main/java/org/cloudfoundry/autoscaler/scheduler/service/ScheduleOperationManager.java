@@ -0,0 +1,238 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleOperation;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleOperationStatusEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.SchedulerInternalException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies the schedules accepted by an asynchronous PUT on a bounded executor. An application
+ * has at most one queued operation, a later PUT supersedes the queued one, and the operations of an
+ * application are applied one at a time by a single executor task, which applies the queued
+ * operations until none is left. Finished operations are kept for the retention period so their
+ * outcome can be looked up.
+ */
+@Service
+public class ScheduleOperationManager {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Value("${scheduler.async.enabled}")
+	private boolean asyncEnabled;
+
+	@Value("${scheduler.async.poolsize}")
+	private int poolSize;
+
+	@Value("${scheduler.async.queue.capacity}")
+	private int queueCapacity;
+
+	@Value("${scheduler.async.operation.retention.millisecond}")
+	private long operationRetentionMillis;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	private ThreadPoolExecutor executor;
+
+	private Map<String, ScheduleOperation> operations = new ConcurrentHashMap<>();
+
+	// Guarded by itself, along with the applications having an executor task and the running operations
+	private Map<String, ScheduleOperation> queuedOperations = new HashMap<>();
+	private Set<String> scheduledAppIds = new HashSet<>();
+	private Map<String, ScheduleOperation> runningOperations = new HashMap<>();
+
+	@PostConstruct
+	void initExecutor() {
+		if (asyncEnabled) {
+			executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(queueCapacity), new OperationThreadFactory(),
+					new ThreadPoolExecutor.AbortPolicy());
+			executor.allowCoreThreadTimeOut(true);
+		}
+	}
+
+	@PreDestroy
+	void shutdownExecutor() throws InterruptedException {
+		if (executor != null) {
+			executor.shutdown();
+			executor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	public boolean isAsyncEnabled() {
+		return asyncEnabled;
+	}
+
+	/**
+	 * Queues the replacement of the schedules of an application, superseding the queued operation
+	 * of the application if there is one. An executor task is only submitted if the application has
+	 * none, and the queued operation is left as it is if the executor rejects the task.
+	 *
+	 * @param appId
+	 * @param schedules - the validated schedules
+	 * @return - the queued operation, or a failed operation if the executor is saturated
+	 */
+	public ScheduleOperation submitOperation(String appId, Schedules schedules) {
+		removeExpiredOperations();
+
+		ScheduleOperation operation = new ScheduleOperation(UUID.randomUUID().toString(), appId, schedules);
+		operations.put(operation.getId(), operation);
+
+		synchronized (queuedOperations) {
+			if (!scheduledAppIds.contains(appId)) {
+				try {
+					executor.execute(() -> applyQueuedOperations(appId));
+				} catch (RejectedExecutionException ree) {
+					String message = messageBundleResourceHelper.lookupMessage("scheduler.async.operation.rejected",
+							operation.getId(), appId, executor.getQueue().size());
+					logger.warn(message);
+					operation.setErrors(Collections.singletonList(message));
+					operation.setStatus(ScheduleOperationStatusEnum.FAILED);
+					return operation;
+				}
+				scheduledAppIds.add(appId);
+			}
+			supersede(queuedOperations.put(appId, operation));
+		}
+		return operation;
+	}
+
+	/**
+	 * Supersedes the queued operation of an application and waits for its running operation to
+	 * finish, so no operation applies schedules after the schedules of the application are deleted.
+	 *
+	 * @param appId
+	 */
+	public void supersedeQueuedOperation(String appId) {
+		synchronized (queuedOperations) {
+			supersede(queuedOperations.remove(appId));
+			while (runningOperations.containsKey(appId)) {
+				logger.info("Waiting for the running schedule operation of application: " + appId);
+				try {
+					queuedOperations.wait();
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new SchedulerInternalException(
+							"Interrupted waiting for the running schedule operation of application: " + appId, ie);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param appId
+	 * @param operationId
+	 * @return - the operation, or null if there is no such operation for the application
+	 */
+	public ScheduleOperation getOperation(String appId, String operationId) {
+		ScheduleOperation operation = operations.get(operationId);
+		if (operation == null || !operation.getAppId().equals(appId)) {
+			return null;
+		}
+		return operation;
+	}
+
+	private void supersede(ScheduleOperation operation) {
+		if (operation != null) {
+			operation.setStatus(ScheduleOperationStatusEnum.SUPERSEDED);
+		}
+	}
+
+	private void applyQueuedOperations(String appId) {
+		while (true) {
+			ScheduleOperation operation;
+			synchronized (queuedOperations) {
+				operation = queuedOperations.remove(appId);
+				if (operation == null) {
+					scheduledAppIds.remove(appId);
+					return;
+				}
+				runningOperations.put(appId, operation);
+			}
+
+			try {
+				applyOperation(operation);
+			} finally {
+				synchronized (queuedOperations) {
+					runningOperations.remove(appId);
+					queuedOperations.notifyAll();
+				}
+			}
+		}
+	}
+
+	private void applyOperation(ScheduleOperation operation) {
+		String appId = operation.getAppId();
+		try {
+			boolean isUpdateScheduleRequest = scheduleManager.getAllSchedules(appId).getSchedules().hasSchedules();
+			if (isUpdateScheduleRequest) {
+				operation.setStatus(ScheduleOperationStatusEnum.DELETING);
+				logger.info("Delete schedules for application: " + appId + ", operation: " + operation.getId());
+				scheduleManager.deleteSchedules(appId);
+			}
+
+			operation.setStatus(ScheduleOperationStatusEnum.CREATING);
+			logger.info("Create schedules for application: " + appId + ", operation: " + operation.getId());
+			scheduleManager.createSchedules(operation.getSchedules());
+
+			operation.setStatus(ScheduleOperationStatusEnum.SUCCEEDED);
+		} catch (SchedulerInternalException sie) {
+			logger.error("Failed to apply schedule operation: " + operation, sie);
+			if (sie.getValidationErrorResult() != null) {
+				operation.setErrors(sie.getValidationErrorResult().getAllErrorMessages(messageBundleResourceHelper));
+			}
+			operation.setStatus(ScheduleOperationStatusEnum.FAILED);
+		} catch (RuntimeException re) {
+			logger.error("Failed to apply schedule operation: " + operation, re);
+			operation.setStatus(ScheduleOperationStatusEnum.FAILED);
+		}
+	}
+
+	private void removeExpiredOperations() {
+		long expiryTime = System.currentTimeMillis() - operationRetentionMillis;
+		Iterator<ScheduleOperation> iterator = operations.values().iterator();
+		while (iterator.hasNext()) {
+			ScheduleOperation operation = iterator.next();
+			if (operation.isFinished() && operation.getFinishedTime() < expiryTime) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private static class OperationThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "scheduler-operation-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.dao.RecurringScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.dao.SpecificDateScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.quartz.TimingWheelScheduleEngine;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * Populates the timing wheel schedule engine from the schedule tables on startup, with the same
+ * jobs and triggers the Quartz scheduler would hold.
+ *
+ */
+@Service
+class TimingWheelScheduleLoader implements ApplicationListener<ContextRefreshedEvent> {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	@Autowired
+	private SpecificDateScheduleDao specificDateScheduleDao;
+	@Autowired
+	private RecurringScheduleDao recurringScheduleDao;
+	@Autowired
+	private ActiveScheduleDao activeScheduleDao;
+	@Autowired
+	private ScheduleJobManager scheduleJobManager;
+	@Autowired
+	private TimingWheelScheduleEngine timingWheelScheduleEngine;
+	@Autowired
+	private ApplicationContext applicationContext;
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != applicationContext || !timingWheelScheduleEngine.isEnabled()) {
+			return;
+		}
+
+		timingWheelScheduleEngine.beginRestore();
+
+		// Read before any missed boundary fires and replaces an active schedule
+		List<ActiveScheduleEntity> activeSchedules = activeScheduleDao.findAll();
+
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+
+		List<SpecificDateScheduleEntity> specificDateSchedules = specificDateScheduleDao.findAllSpecificDateSchedules();
+		for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateSchedules) {
+			scheduleJobManager.createSimpleJob(specificDateScheduleEntity, validationErrorResult);
+		}
+
+		List<RecurringScheduleEntity> recurringSchedules = recurringScheduleDao.findAllRecurringSchedules();
+		for (RecurringScheduleEntity recurringScheduleEntity : recurringSchedules) {
+			scheduleJobManager.createCronJob(recurringScheduleEntity, validationErrorResult);
+		}
+
+		for (String errorMessage : validationErrorResult.getAllErrorMessages(messageBundleResourceHelper)) {
+			logger.error(errorMessage);
+		}
+
+		for (ActiveScheduleEntity activeScheduleEntity : activeSchedules) {
+			timingWheelScheduleEngine.restoreActiveSchedule(activeScheduleEntity);
+		}
+
+		logger.info("Loaded " + specificDateSchedules.size() + " specific date schedules, "
+				+ recurringSchedules.size() + " recurring schedules and " + activeSchedules.size()
+				+ " active schedules into the timing wheel schedule engine");
+
+		timingWheelScheduleEngine.start();
+	}
+}
@@ -0,0 +1,592 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.cloudfoundry.autoscaler.scheduler.dao.RecurringScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.dao.SpecificDateScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.ScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.EffectiveLimits;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.UpcomingScheduleEvent;
+import org.cloudfoundry.autoscaler.scheduler.util.CompiledCronExpression;
+import org.cloudfoundry.autoscaler.scheduler.util.DateHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Service;
+
+/**
+ * In memory index of the upcoming start and end boundaries of the schedules of all the
+ * applications, computed from the schedules the same way as the Quartz triggers fire them.
+ *
+ * The boundaries are kept up to the horizon in one skip list ordered by application id and time,
+ * so the boundaries of an application within a time window are found in O(log n + k). The index is
+ * loaded on startup, updated by the schedule manager once the changes of the schedules are
+ * committed and refreshed when a schedule fires. A periodic refresh drops the past boundaries and
+ * extends the recurring schedules up to the moving horizon.
+ *
+ * The index also compiles the effective limits timeline of an application on demand, from the
+ * boundaries of its schedules over the horizon before and after now. The timeline is kept until the
+ * schedules of the application change or the requested times move out of its period.
+ *
+ * Only the changes made through this scheduler instance are seen, the other instances of a cluster
+ * keep their own index.
+ *
+ */
+@Service
+public class UpcomingScheduleEventIndex implements ApplicationListener<ContextRefreshedEvent> {
+	private Logger logger = LogManager.getLogger(this.getClass());
+
+	private static final long MILLIS_PER_HOUR = 60 * 60 * 1000L;
+
+	// Recurring schedules start and end on the same day, so an occurrence which has started less
+	// than a day ago can still have its end boundary ahead
+	private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+	// Quartz computes the first fire time of a trigger from one second before its start time
+	private static final long TRIGGER_START_OFFSET_MILLIS = 1000L;
+
+	@Autowired
+	private SpecificDateScheduleDao specificDateScheduleDao;
+	@Autowired
+	private RecurringScheduleDao recurringScheduleDao;
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Value("${scheduler.upcoming.horizon.hours}")
+	private long horizonHours;
+	@Value("${scheduler.upcoming.refresh.interval.seconds}")
+	private long refreshIntervalSeconds;
+
+	private final ConcurrentSkipListMap<EventKey, IndexedSchedule> events = new ConcurrentSkipListMap<>();
+
+	private final Map<String, List<IndexedSchedule>> schedulesByAppId = new ConcurrentHashMap<>();
+
+	private final Map<String, EffectiveLimitsTimeline> timelinesByAppId = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService refreshExecutor;
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext() != applicationContext || refreshExecutor != null) {
+			return;
+		}
+
+		List<SpecificDateScheduleEntity> specificDateSchedules = specificDateScheduleDao.findAllSpecificDateSchedules();
+		List<RecurringScheduleEntity> recurringSchedules = recurringScheduleDao.findAllRecurringSchedules();
+		addSchedules(specificDateSchedules, recurringSchedules);
+		logger.info("Indexed the upcoming events of " + specificDateSchedules.size() + " specific date schedules and "
+				+ recurringSchedules.size() + " recurring schedules");
+
+		refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scheduler-upcoming-event-index");
+			thread.setDaemon(true);
+			return thread;
+		});
+		refreshExecutor.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	@PreDestroy
+	void shutdownRefresh() throws InterruptedException {
+		if (refreshExecutor != null) {
+			refreshExecutor.shutdown();
+			refreshExecutor.awaitTermination(30, TimeUnit.SECONDS);
+		}
+	}
+
+	public long getHorizonMillis() {
+		return horizonHours * MILLIS_PER_HOUR;
+	}
+
+	public boolean hasSchedules(String appId) {
+		return schedulesByAppId.containsKey(appId);
+	}
+
+	/**
+	 * Gets the boundaries of the schedules of the application within the time window, in time order.
+	 *
+	 * @param appId
+	 * @param fromMillis - inclusive
+	 * @param toMillis - inclusive, boundaries beyond the horizon are not indexed
+	 * @return
+	 */
+	public List<UpcomingScheduleEvent> getUpcomingEvents(String appId, long fromMillis, long toMillis) {
+		Collection<Map.Entry<EventKey, IndexedSchedule>> window = events
+				.subMap(new EventKey(appId, fromMillis, Long.MIN_VALUE, JobActionEnum.START), true,
+						new EventKey(appId, toMillis, Long.MAX_VALUE, JobActionEnum.END), true)
+				.entrySet();
+
+		List<UpcomingScheduleEvent> upcomingEvents = new ArrayList<>();
+		for (Map.Entry<EventKey, IndexedSchedule> entry : window) {
+			upcomingEvents.add(entry.getValue().toEvent(entry.getKey()));
+		}
+		return upcomingEvents;
+	}
+
+	/**
+	 * Gets the limits of the application at the time, which has to be within the horizon before or
+	 * after now.
+	 *
+	 * @param appId
+	 * @param atMillis
+	 * @return - the limits, or null if the application has no schedules
+	 */
+	public EffectiveLimits getEffectiveLimits(String appId, long atMillis) {
+		EffectiveLimitsTimeline timeline = getTimeline(appId, atMillis, atMillis);
+		return timeline == null ? null : timeline.getLimitsAt(atMillis);
+	}
+
+	/**
+	 * Gets the successive limits of the application within the time range, which has to be within
+	 * the horizon before or after now.
+	 *
+	 * @param appId
+	 * @param fromMillis
+	 * @param toMillis
+	 * @return - the limits in time order, or null if the application has no schedules
+	 */
+	public List<EffectiveLimits> getEffectiveLimits(String appId, long fromMillis, long toMillis) {
+		EffectiveLimitsTimeline timeline = getTimeline(appId, fromMillis, toMillis);
+		return timeline == null ? null : timeline.getLimitsBetween(fromMillis, toMillis);
+	}
+
+	/**
+	 * Passes the effective limits timeline of each application with schedules, together with the
+	 * time zone of its policy, to the consumer. The timelines are built on demand one application
+	 * after the other and have to cover the time range, which has to be within the horizon before or
+	 * after now.
+	 */
+	void forEachTimeline(long fromMillis, long toMillis, BiConsumer<String, EffectiveLimitsTimeline> consumer) {
+		for (String appId : schedulesByAppId.keySet()) {
+			List<IndexedSchedule> indexedSchedules = schedulesByAppId.get(appId);
+			if (indexedSchedules == null) {
+				continue;
+			}
+			String timeZone;
+			EffectiveLimitsTimeline timeline;
+			synchronized (indexedSchedules) {
+				timeline = getTimeline(appId, fromMillis, toMillis);
+				if (timeline == null) {
+					continue;
+				}
+				timeZone = indexedSchedules.get(0).timeZone;
+			}
+			consumer.accept(timeZone, timeline);
+		}
+	}
+
+	/**
+	 * Adds the boundaries of newly created schedules.
+	 */
+	public void addSchedules(List<SpecificDateScheduleEntity> specificDateSchedules,
+			List<RecurringScheduleEntity> recurringSchedules) {
+		long now = System.currentTimeMillis();
+		long until = now + getHorizonMillis();
+		if (specificDateSchedules != null) {
+			for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateSchedules) {
+				addSchedule(new IndexedSchedule(specificDateScheduleEntity), now, until);
+			}
+		}
+		if (recurringSchedules != null) {
+			for (RecurringScheduleEntity recurringScheduleEntity : recurringSchedules) {
+				try {
+					addSchedule(new IndexedSchedule(recurringScheduleEntity), now, until);
+				} catch (ParseException pe) {
+					logger.error("Recurring schedule " + recurringScheduleEntity.getId() + " of application "
+							+ recurringScheduleEntity.getAppId() + " not indexed", pe);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the boundaries of all the schedules of the application.
+	 */
+	public void removeSchedules(String appId) {
+		List<IndexedSchedule> indexedSchedules = schedulesByAppId.remove(appId);
+		if (indexedSchedules != null) {
+			synchronized (indexedSchedules) {
+				for (IndexedSchedule indexedSchedule : indexedSchedules) {
+					indexedSchedule.clear();
+				}
+				timelinesByAppId.remove(appId);
+			}
+		}
+	}
+
+	/**
+	 * Drops the boundaries of the schedule up to now and extends it up to the horizon, called when
+	 * the start job of the schedule fires.
+	 */
+	public void scheduleFired(String appId, long scheduleId) {
+		List<IndexedSchedule> indexedSchedules = schedulesByAppId.get(appId);
+		if (indexedSchedules == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		synchronized (indexedSchedules) {
+			for (IndexedSchedule indexedSchedule : indexedSchedules) {
+				if (indexedSchedule.scheduleId == scheduleId) {
+					indexedSchedule.refresh(now, now + getHorizonMillis());
+				}
+			}
+		}
+	}
+
+	void refresh() {
+		long now = System.currentTimeMillis();
+		long until = now + getHorizonMillis();
+		try {
+			for (List<IndexedSchedule> indexedSchedules : schedulesByAppId.values()) {
+				synchronized (indexedSchedules) {
+					for (IndexedSchedule indexedSchedule : indexedSchedules) {
+						indexedSchedule.refresh(now, until);
+					}
+				}
+			}
+		} catch (RuntimeException re) {
+			logger.error("Refresh of the upcoming event index failed", re);
+		}
+	}
+
+	private void addSchedule(IndexedSchedule indexedSchedule, long now, long until) {
+		while (true) {
+			List<IndexedSchedule> indexedSchedules = schedulesByAppId.computeIfAbsent(indexedSchedule.appId,
+					key -> new ArrayList<>());
+			synchronized (indexedSchedules) {
+				// The schedules of the application could have been removed in the meantime
+				if (schedulesByAppId.get(indexedSchedule.appId) == indexedSchedules) {
+					indexedSchedules.add(indexedSchedule);
+					indexedSchedule.refresh(now, until);
+					timelinesByAppId.remove(indexedSchedule.appId);
+					return;
+				}
+			}
+		}
+	}
+
+	private EffectiveLimitsTimeline getTimeline(String appId, long fromMillis, long toMillis) {
+		List<IndexedSchedule> indexedSchedules = schedulesByAppId.get(appId);
+		if (indexedSchedules == null) {
+			return null;
+		}
+		synchronized (indexedSchedules) {
+			if (indexedSchedules.isEmpty() || schedulesByAppId.get(appId) != indexedSchedules) {
+				return null;
+			}
+			EffectiveLimitsTimeline timeline = timelinesByAppId.get(appId);
+			if (timeline == null || !timeline.covers(fromMillis) || !timeline.covers(toMillis)) {
+				timeline = buildTimeline(indexedSchedules, System.currentTimeMillis());
+				timelinesByAppId.put(appId, timeline);
+			}
+			return timeline;
+		}
+	}
+
+	/**
+	 * Replays the boundaries of the schedules the way the jobs maintain the active schedule: a start
+	 * replaces the active schedule and an end only removes the active schedule it has started.
+	 */
+	private EffectiveLimitsTimeline buildTimeline(List<IndexedSchedule> indexedSchedules, long now) {
+		long validFromMillis = now - getHorizonMillis();
+		long validUntilMillis = now + getHorizonMillis();
+
+		// Replay from the start of the specific date schedules still running at the start of the period,
+		// as a recurring schedule starting in the meantime replaces them
+		long replayFromMillis = validFromMillis - MILLIS_PER_DAY;
+		for (IndexedSchedule indexedSchedule : indexedSchedules) {
+			if (indexedSchedule.scheduleType == ScheduleTypeEnum.SPECIFIC_DATE
+					&& indexedSchedule.endMillis > replayFromMillis) {
+				replayFromMillis = Math.min(replayFromMillis, indexedSchedule.startMillis);
+			}
+		}
+
+		List<Boundary> boundaries = new ArrayList<>();
+		for (IndexedSchedule indexedSchedule : indexedSchedules) {
+			indexedSchedule.collectBoundaries(replayFromMillis, validUntilMillis, boundaries);
+		}
+		boundaries.sort(null);
+
+		IndexedSchedule firstSchedule = indexedSchedules.get(0);
+		EffectiveLimitsTimeline.Builder builder = new EffectiveLimitsTimeline.Builder(validFromMillis,
+				validUntilMillis, firstSchedule.defaultInstanceMinCount, firstSchedule.defaultInstanceMaxCount);
+		Boundary activeStart = null;
+		for (Boundary boundary : boundaries) {
+			IndexedSchedule indexedSchedule = boundary.indexedSchedule;
+			if (boundary.action == JobActionEnum.START) {
+				activeStart = boundary;
+				builder.setScheduleLimits(boundary.timeMillis, indexedSchedule.instanceMinCount,
+						indexedSchedule.instanceMaxCount, indexedSchedule.initialMinInstanceCount,
+						indexedSchedule.scheduleId, indexedSchedule.scheduleType);
+			} else if (activeStart != null && activeStart.indexedSchedule == indexedSchedule
+					&& activeStart.startMillis == boundary.startMillis) {
+				activeStart = null;
+				builder.setDefaultLimits(boundary.timeMillis);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * A boundary of a schedule in the index, ordered by application id, time, schedule id and action.
+	 */
+	private static final class EventKey implements Comparable<EventKey> {
+		private final String appId;
+		private final long timeMillis;
+		private final long scheduleId;
+		private final JobActionEnum action;
+
+		EventKey(String appId, long timeMillis, long scheduleId, JobActionEnum action) {
+			this.appId = appId;
+			this.timeMillis = timeMillis;
+			this.scheduleId = scheduleId;
+			this.action = action;
+		}
+
+		@Override
+		public int compareTo(EventKey other) {
+			int result = appId.compareTo(other.appId);
+			if (result == 0) {
+				result = Long.compare(timeMillis, other.timeMillis);
+			}
+			if (result == 0) {
+				result = Long.compare(scheduleId, other.scheduleId);
+			}
+			if (result == 0) {
+				result = action.compareTo(other.action);
+			}
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof EventKey && compareTo((EventKey) obj) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return (appId.hashCode() * 31 + Long.hashCode(timeMillis)) * 31 + Long.hashCode(scheduleId);
+		}
+	}
+
+	/**
+	 * A boundary of an occurrence of a schedule, ordered by time with the ends first, as a schedule
+	 * starting when another one ends is the one which stays active.
+	 */
+	private static final class Boundary implements Comparable<Boundary> {
+		private final long timeMillis;
+		private final JobActionEnum action;
+		private final IndexedSchedule indexedSchedule;
+		// The start of the occurrence, which identifies the occurrence an end belongs to
+		private final long startMillis;
+
+		Boundary(long timeMillis, JobActionEnum action, IndexedSchedule indexedSchedule, long startMillis) {
+			this.timeMillis = timeMillis;
+			this.action = action;
+			this.indexedSchedule = indexedSchedule;
+			this.startMillis = startMillis;
+		}
+
+		@Override
+		public int compareTo(Boundary other) {
+			int result = Long.compare(timeMillis, other.timeMillis);
+			if (result == 0) {
+				result = other.action.compareTo(action);
+			}
+			if (result == 0) {
+				result = Long.compare(indexedSchedule.scheduleId, other.indexedSchedule.scheduleId);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A schedule with its boundaries in the index, from the oldest to the latest. The boundaries of
+	 * a recurring schedule are extended from the last indexed start boundary.
+	 */
+	private final class IndexedSchedule {
+		private final String appId;
+		private final long scheduleId;
+		private final ScheduleTypeEnum scheduleType;
+		private final String timeZone;
+		private final Integer instanceMinCount;
+		private final Integer instanceMaxCount;
+		private final Integer initialMinInstanceCount;
+		private final Integer defaultInstanceMinCount;
+		private final Integer defaultInstanceMaxCount;
+
+		// Specific date schedules
+		private final long startMillis;
+		private final long endMillis;
+
+		// Recurring schedules, the boundaries are bounded by the start and end date as the triggers
+		private final CompiledCronExpression startCronExpression;
+		private final CompiledCronExpression endCronExpression;
+		private final long firstStartMillis;
+		private final long lastStartMillis;
+
+		private final ArrayDeque<EventKey> eventKeys = new ArrayDeque<>();
+		private long indexedUntilMillis = Long.MIN_VALUE;
+		private boolean removed = false;
+
+		IndexedSchedule(SpecificDateScheduleEntity specificDateScheduleEntity) {
+			this(specificDateScheduleEntity, ScheduleTypeEnum.SPECIFIC_DATE,
+					DateHelper.getDateWithZoneOffset(specificDateScheduleEntity.getStartDateTime(),
+							specificDateScheduleEntity.getTimeZone()).getTime(),
+					DateHelper.getDateWithZoneOffset(specificDateScheduleEntity.getEndDateTime(),
+							specificDateScheduleEntity.getTimeZone()).getTime(),
+					null, null, Long.MIN_VALUE, Long.MAX_VALUE);
+		}
+
+		IndexedSchedule(RecurringScheduleEntity recurringScheduleEntity) throws ParseException {
+			this(recurringScheduleEntity, ScheduleTypeEnum.RECURRING, 0, 0,
+					CompiledCronExpression.getInstance(ScheduleJobHelper.convertRecurringScheduleToCronExpression(
+							recurringScheduleEntity.getStartTime(), recurringScheduleEntity),
+							recurringScheduleEntity.getTimeZone()),
+					CompiledCronExpression.getInstance(ScheduleJobHelper.convertRecurringScheduleToCronExpression(
+							recurringScheduleEntity.getEndTime(), recurringScheduleEntity),
+							recurringScheduleEntity.getTimeZone()),
+					recurringScheduleEntity.getStartDate() != null ? recurringScheduleEntity.getStartDate().getTime()
+							: Long.MIN_VALUE,
+					recurringScheduleEntity.getEndDate() != null ? recurringScheduleEntity.getEndDate().getTime()
+							: Long.MAX_VALUE);
+		}
+
+		private IndexedSchedule(ScheduleEntity scheduleEntity, ScheduleTypeEnum scheduleType, long startMillis,
+				long endMillis, CompiledCronExpression startCronExpression, CompiledCronExpression endCronExpression,
+				long firstStartMillis, long lastStartMillis) {
+			this.appId = scheduleEntity.getAppId();
+			this.scheduleId = scheduleEntity.getId();
+			this.scheduleType = scheduleType;
+			this.timeZone = scheduleEntity.getTimeZone();
+			this.instanceMinCount = scheduleEntity.getInstanceMinCount();
+			this.instanceMaxCount = scheduleEntity.getInstanceMaxCount();
+			this.initialMinInstanceCount = scheduleEntity.getInitialMinInstanceCount();
+			this.defaultInstanceMinCount = scheduleEntity.getDefaultInstanceMinCount();
+			this.defaultInstanceMaxCount = scheduleEntity.getDefaultInstanceMaxCount();
+			this.startMillis = startMillis;
+			this.endMillis = endMillis;
+			this.startCronExpression = startCronExpression;
+			this.endCronExpression = endCronExpression;
+			this.firstStartMillis = firstStartMillis;
+			this.lastStartMillis = lastStartMillis;
+		}
+
+		/**
+		 * Drops the boundaries before now and indexes the boundaries up to the specified time.
+		 */
+		void refresh(long now, long untilMillis) {
+			if (removed) {
+				return;
+			}
+			while (!eventKeys.isEmpty() && eventKeys.peekFirst().timeMillis < now) {
+				events.remove(eventKeys.pollFirst());
+			}
+
+			if (scheduleType == ScheduleTypeEnum.SPECIFIC_DATE) {
+				if (indexedUntilMillis == Long.MIN_VALUE) {
+					indexedUntilMillis = endMillis;
+					addEvent(startMillis, JobActionEnum.START, now);
+					addEvent(endMillis, JobActionEnum.END, now);
+				}
+				return;
+			}
+
+			long afterMillis = indexedUntilMillis;
+			if (afterMillis == Long.MIN_VALUE) {
+				afterMillis = Math.max(now - MILLIS_PER_DAY,
+						firstStartMillis == Long.MIN_VALUE ? Long.MIN_VALUE : firstStartMillis - TRIGGER_START_OFFSET_MILLIS);
+			}
+			long nextStartMillis = startCronExpression.nextFireAfter(afterMillis);
+			while (nextStartMillis >= 0 && nextStartMillis <= untilMillis && nextStartMillis <= lastStartMillis) {
+				addEvent(nextStartMillis, JobActionEnum.START, now);
+				long nextEndMillis = endCronExpression.nextFireAfter(nextStartMillis);
+				if (nextEndMillis >= 0) {
+					addEvent(nextEndMillis, JobActionEnum.END, now);
+				}
+				indexedUntilMillis = nextStartMillis;
+				nextStartMillis = startCronExpression.nextFireAfter(nextStartMillis);
+			}
+		}
+
+		/**
+		 * Collects the boundaries of the occurrences of the schedule starting within the time range,
+		 * without indexing them.
+		 */
+		void collectBoundaries(long fromMillis, long toMillis, List<Boundary> boundaries) {
+			if (scheduleType == ScheduleTypeEnum.SPECIFIC_DATE) {
+				if (startMillis >= fromMillis && startMillis <= toMillis) {
+					boundaries.add(new Boundary(startMillis, JobActionEnum.START, this, startMillis));
+					boundaries.add(new Boundary(endMillis, JobActionEnum.END, this, startMillis));
+				}
+				return;
+			}
+
+			long afterMillis = fromMillis - 1;
+			if (firstStartMillis != Long.MIN_VALUE) {
+				afterMillis = Math.max(afterMillis, firstStartMillis - TRIGGER_START_OFFSET_MILLIS);
+			}
+			long nextStartMillis = startCronExpression.nextFireAfter(afterMillis);
+			while (nextStartMillis >= 0 && nextStartMillis <= toMillis && nextStartMillis <= lastStartMillis) {
+				boundaries.add(new Boundary(nextStartMillis, JobActionEnum.START, this, nextStartMillis));
+				long nextEndMillis = endCronExpression.nextFireAfter(nextStartMillis);
+				if (nextEndMillis >= 0) {
+					boundaries.add(new Boundary(nextEndMillis, JobActionEnum.END, this, nextStartMillis));
+				}
+				nextStartMillis = startCronExpression.nextFireAfter(nextStartMillis);
+			}
+		}
+
+		void clear() {
+			removed = true;
+			for (EventKey eventKey : eventKeys) {
+				events.remove(eventKey);
+			}
+			eventKeys.clear();
+		}
+
+		private void addEvent(long timeMillis, JobActionEnum action, long now) {
+			if (timeMillis < now) {
+				return;
+			}
+			EventKey eventKey = new EventKey(appId, timeMillis, scheduleId, action);
+			eventKeys.addLast(eventKey);
+			events.put(eventKey, this);
+		}
+
+		UpcomingScheduleEvent toEvent(EventKey eventKey) {
+			String type = scheduleType == ScheduleTypeEnum.SPECIFIC_DATE ? "specific_date" : "recurring_schedule";
+			String time = Instant.ofEpochMilli(eventKey.timeMillis).toString();
+			if (eventKey.action == JobActionEnum.START) {
+				return new UpcomingScheduleEvent(time, "start", scheduleId, type, instanceMinCount, instanceMaxCount,
+						initialMinInstanceCount);
+			}
+			// The default limits of the policy apply again at the end of the schedule
+			return new UpcomingScheduleEvent(time, "end", scheduleId, type, defaultInstanceMinCount,
+					defaultInstanceMaxCount, null);
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.quartz.CronExpression;
+
+/**
+ * Immutable, compiled form of the cron expressions of the recurring schedules, which only use a
+ * fixed minute and hour with either a day of month or a day of week list, for example
+ * <code>00 10 22 ? * TUE,THU,SAT *</code>.
+ *
+ * The next fire time is calculated with primitive arithmetic and without allocation. On the days
+ * around a daylight saving time transition of the time zone, and for any expression outside of
+ * the recurring schedule subset, the calculation is delegated to the Quartz
+ * {@link CronExpression}, so the results are always identical to the Quartz cron triggers.
+ *
+ * Compiled expressions are cached by expression and time zone.
+ *
+ */
+public final class CompiledCronExpression {
+
+	private static final int MAX_CACHE_SIZE = 4096;
+
+	private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+
+	private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+
+	// Far more than the longest gap between two matching days, which is 61 days for day of month 31
+	private static final int MAX_SEARCH_DAYS = 400;
+
+	private static final String[] QUARTZ_DAYS_OF_WEEK = { "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT" };
+
+	private static final Map<String, CompiledCronExpression> cache = Collections
+			.synchronizedMap(new LinkedHashMap<String, CompiledCronExpression>(256, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, CompiledCronExpression> eldest) {
+					return size() > MAX_CACHE_SIZE;
+				}
+			});
+
+	private final String cronExpression;
+	private final TimeZone timeZone;
+	private final CronExpression quartzCronExpression;
+
+	// False when the expression is outside of the recurring schedule subset
+	private final boolean compiled;
+	private final long fireMillisOfDay;
+	// Bits 1 to 31, zero when the day of month is not specified
+	private final long daysOfMonthMask;
+	// Bits 1 (SUN) to 7 (SAT) as in Quartz, zero when the day of week is not specified
+	private final int daysOfWeekMask;
+
+	private CompiledCronExpression(String cronExpression, TimeZone timeZone) throws ParseException {
+		this.cronExpression = cronExpression;
+		this.timeZone = (TimeZone) timeZone.clone();
+		this.quartzCronExpression = new CronExpression(cronExpression);
+		this.quartzCronExpression.setTimeZone(this.timeZone);
+
+		String[] fields = cronExpression.trim().split("\\s+");
+		long minute = -1;
+		long hour = -1;
+		long dayOfMonthBits = 0;
+		int dayOfWeekBits = 0;
+		boolean subset = (fields.length == 6 || (fields.length == 7 && fields[6].equals("*")))
+				&& parseNumber(fields[0]) == 0 && fields[4].equals("*");
+		if (subset) {
+			minute = parseNumber(fields[1]);
+			hour = parseNumber(fields[2]);
+			dayOfMonthBits = fields[3].equals("?") ? 0 : parseDaysOfMonth(fields[3]);
+			dayOfWeekBits = fields[5].equals("?") ? 0 : parseDaysOfWeek(fields[5]);
+			subset = minute >= 0 && minute < 60 && hour >= 0 && hour < 24 && dayOfMonthBits >= 0
+					&& dayOfWeekBits >= 0 && (dayOfMonthBits == 0) != (dayOfWeekBits == 0);
+		}
+
+		this.compiled = subset;
+		this.fireMillisOfDay = subset ? (hour * 60 + minute) * MILLIS_PER_MINUTE : 0;
+		this.daysOfMonthMask = subset ? dayOfMonthBits : 0;
+		this.daysOfWeekMask = subset ? dayOfWeekBits : 0;
+	}
+
+	/**
+	 * Returns the compiled expression for the cron expression in the time zone.
+	 *
+	 * @throws ParseException - if Quartz can not parse the expression
+	 */
+	public static CompiledCronExpression getInstance(String cronExpression, TimeZone timeZone)
+			throws ParseException {
+		String key = timeZone.getID() + '|' + cronExpression;
+		CompiledCronExpression compiledCronExpression = cache.get(key);
+		if (compiledCronExpression == null) {
+			compiledCronExpression = new CompiledCronExpression(cronExpression, timeZone);
+			cache.put(key, compiledCronExpression);
+		}
+		return compiledCronExpression;
+	}
+
+	public static CompiledCronExpression getInstance(String cronExpression, String timeZone) throws ParseException {
+		return getInstance(cronExpression, DateHelper.getTimeZone(timeZone));
+	}
+
+	public String getCronExpression() {
+		return cronExpression;
+	}
+
+	public TimeZone getTimeZone() {
+		return (TimeZone) timeZone.clone();
+	}
+
+	/**
+	 * Returns the first fire time strictly after the specified time, the same as
+	 * {@link CronExpression#getNextValidTimeAfter(Date)}.
+	 *
+	 * @return - the fire time in epoch milliseconds, or -1 if the expression never fires again
+	 */
+	public long nextFireAfter(long epochMillis) {
+		if (!compiled) {
+			return quartzNextFireAfter(epochMillis);
+		}
+
+		int offset = timeZone.getOffset(epochMillis);
+		long localMillis = epochMillis + offset;
+		long day = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+		if (localMillis - day * MILLIS_PER_DAY >= fireMillisOfDay) {
+			day++;
+		}
+
+		for (int i = 0; i < MAX_SEARCH_DAYS; i++, day++) {
+			// A transition on the way changes the local time to UTC mapping, leave it to Quartz
+			if (timeZone.getOffset(day * MILLIS_PER_DAY - offset) != offset) {
+				return quartzNextFireAfter(epochMillis);
+			}
+			if (matchesDay(day)) {
+				if (timeZone.getOffset((day + 1) * MILLIS_PER_DAY - offset) != offset) {
+					return quartzNextFireAfter(epochMillis);
+				}
+				return day * MILLIS_PER_DAY + fireMillisOfDay - offset;
+			}
+		}
+		return quartzNextFireAfter(epochMillis);
+	}
+
+	public Date getNextValidTimeAfter(Date date) {
+		long nextFireTime = nextFireAfter(date.getTime());
+		return nextFireTime < 0 ? null : new Date(nextFireTime);
+	}
+
+	/**
+	 * Checks if the expression fires on the date in the time zone of the expression.
+	 *
+	 * @param date
+	 * @return
+	 */
+	public boolean firesOn(LocalDate date) {
+		if (compiled) {
+			return matchesDay(date.toEpochDay());
+		}
+
+		ZoneId zoneId = timeZone.toZoneId();
+		long startOfDay = date.atStartOfDay(zoneId).toInstant().toEpochMilli();
+		long startOfNextDay = date.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+		long nextFireTime = quartzNextFireAfter(startOfDay - 1);
+		return nextFireTime >= 0 && nextFireTime < startOfNextDay;
+	}
+
+	private boolean matchesDay(long epochDay) {
+		if (daysOfWeekMask != 0) {
+			// 1970-01-01 was a Thursday, which is 5 in Quartz
+			int dayOfWeek = (int) Math.floorMod(epochDay + 4, 7L) + 1;
+			return (daysOfWeekMask & (1 << dayOfWeek)) != 0;
+		}
+		return (daysOfMonthMask & (1L << dayOfMonth(epochDay))) != 0;
+	}
+
+	private long quartzNextFireAfter(long epochMillis) {
+		Date nextFireTime = quartzCronExpression.getNextValidTimeAfter(new Date(epochMillis));
+		return nextFireTime == null ? -1 : nextFireTime.getTime();
+	}
+
+	// Day of month of the proleptic Gregorian calendar for a day since the epoch
+	static int dayOfMonth(long epochDay) {
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097L);
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthIndex = (5 * dayOfYear + 2) / 153;
+		return (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+	}
+
+	private static long parseNumber(String field) {
+		if (field.isEmpty() || field.length() > 2) {
+			return -1;
+		}
+		long value = 0;
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static long parseDaysOfMonth(String field) {
+		long bits = 0;
+		for (String day : field.split(",")) {
+			long dayOfMonth = parseNumber(day);
+			if (dayOfMonth < 1 || dayOfMonth > 31) {
+				return -1;
+			}
+			bits |= 1L << dayOfMonth;
+		}
+		return bits;
+	}
+
+	private static int parseDaysOfWeek(String field) {
+		int bits = 0;
+		for (String day : field.split(",")) {
+			int dayOfWeek = -1;
+			for (int i = 0; i < QUARTZ_DAYS_OF_WEEK.length; i++) {
+				if (QUARTZ_DAYS_OF_WEEK[i].equalsIgnoreCase(day)) {
+					dayOfWeek = i + 1;
+				}
+			}
+			if (dayOfWeek < 0) {
+				long number = parseNumber(day);
+				if (number < 1 || number > 7) {
+					return -1;
+				}
+				dayOfWeek = (int) number;
+			}
+			bits |= 1 << dayOfWeek;
+		}
+		return bits;
+	}
+}
@@ -1,14 +1,17 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TimeZone;
 
 /**
  * Helper class for validating the data
@@ -52,37 +55,31 @@ public class DataValidationHelper {
 	 * @return
 	 */
 	public static boolean isValidTimeZone(String timeZoneId) {
-		if (isNotNull(timeZoneId)) {
-			List<String> supportedTimeZones = Arrays.asList(DateHelper.supportedTimezones);
-			return (supportedTimeZones.contains(timeZoneId));
-		}
-		return false;
+		return TimeZoneRegistry.isSupported(timeZoneId);
 	}
 
 	/**
-	 * Checks if the specified date time is after now (current time).
+	 * Checks if the specified date time in the policy time zone is after now (current time).
 	 *
 	 * @param dateTime
-	 * @param timeZone
+	 * @param timeZoneId
 	 * @return
 	 */
-	public static boolean isDateTimeAfterNow(Date dateTime, TimeZone timeZone) {
-		Calendar calToCompare = DateHelper.getCalendarDate(dateTime, timeZone);
-		Calendar calNow = Calendar.getInstance(timeZone);
-		return calToCompare.after(calNow);
+	public static boolean isDateTimeAfterNow(Date dateTime, String timeZoneId) {
+		ZoneId zoneId = DateHelper.getZoneId(timeZoneId);
+		return DateHelper.getTimeInMillisWithZoneOffset(dateTime.getTime(), zoneId) > System.currentTimeMillis();
 	}
 
-	public static boolean isDateAfterOrEqualsNow(Date date, TimeZone policyTimeZone) {
-		Date compareTo = DateHelper.getDateWithZoneOffset(date, policyTimeZone);
-
-		Calendar calNow = Calendar.getInstance();
-		calNow.set(Calendar.HOUR_OF_DAY, 0);
-		calNow.set(Calendar.MINUTE, 0);
-		calNow.set(Calendar.SECOND, 0);
-		calNow.set(Calendar.MILLISECOND, 0);
-		Date now = DateHelper.getDateWithZoneOffset(calNow.getTime(), policyTimeZone);
-
-		return (compareTo.compareTo(now) >= 0);
+	/**
+	 * Checks if the specified date is on or after the current date in the policy time zone.
+	 *
+	 * @param date
+	 * @param timeZoneId
+	 * @return
+	 */
+	public static boolean isDateAfterOrEqualsNow(Date date, String timeZoneId) {
+		LocalDate today = LocalDate.now(DateHelper.getZoneId(timeZoneId));
+		return !DateHelper.getLocalDate(date).isBefore(today);
 	}
 
 	/**
@@ -109,6 +106,23 @@ public class DataValidationHelper {
 	}
 
 	public static boolean isElementUnique(int[] array) {
+		// Days of week and month fit in a bit mask, no need to box them into a set
+		long seen = 0L;
+		for (int element : array) {
+			if (element < 0 || element >= Long.SIZE) {
+				return isElementUniqueInSet(array);
+			}
+			long bit = 1L << element;
+			if ((seen & bit) != 0) { // Duplicate value found.
+				return false;
+			}
+			seen |= bit;
+		}
+
+		return true;
+	}
+
+	private static boolean isElementUniqueInSet(int[] array) {
 		boolean isValid = true;
 		Set<Integer> set = new HashSet<>();
 		for (int element : array) {
@@ -272,4 +286,93 @@ public class DataValidationHelper {
 		return overlapDateTimeValidationErrorMsgList;
 	}
 
+	/**
+	 * This method is given the collections of SpecificDateScheduleDateTime and RecurringScheduleTime.
+	 * It checks if a recurring schedule runs during a specific date schedule. The recurring schedules
+	 * are expanded with their compiled recurrence over the days of each specific date schedule only,
+	 * so the cost depends on the number of days of the specific date schedules. If there is an
+	 * overlap then an error message is added to a collection and collection of messages is returned.
+	 *
+	 * @param scheduleStartEndTimeList
+	 * @param scheduleTimes
+	 * @return - List of date time overlap validation messages
+	 */
+	public static List<String[]> isNotOverlapSpecificDateAndRecurringSchedules(
+			List<SpecificDateScheduleDateTime> scheduleStartEndTimeList, List<RecurringScheduleTime> scheduleTimes) {
+		List<String[]> overlapDateTimeValidationErrorMsgList = new ArrayList<>();
+		if (scheduleStartEndTimeList == null || scheduleStartEndTimeList.isEmpty() || scheduleTimes == null
+				|| scheduleTimes.isEmpty()) {
+			return overlapDateTimeValidationErrorMsgList;
+		}
+
+		for (SpecificDateScheduleDateTime specificDateScheduleDateTime : scheduleStartEndTimeList) {
+			LocalDateTime startDateTime = DateHelper.getLocalDateTime(specificDateScheduleDateTime.getStartDateTime());
+			LocalDateTime endDateTime = DateHelper.getLocalDateTime(specificDateScheduleDateTime.getEndDateTime());
+
+			for (RecurringScheduleTime scheduleTime : scheduleTimes) {
+				String[] overlapDateTimeValidationErrorMsg = validateRecurrenceOverlapping(
+						specificDateScheduleDateTime, startDateTime, endDateTime, scheduleTime);
+				if (overlapDateTimeValidationErrorMsg != null) {
+					overlapDateTimeValidationErrorMsgList.add(overlapDateTimeValidationErrorMsg);
+				}
+			}
+		}
+		return overlapDateTimeValidationErrorMsgList;
+	}
+
+	private static String[] validateRecurrenceOverlapping(SpecificDateScheduleDateTime specificDateScheduleDateTime,
+			LocalDateTime startDateTime, LocalDateTime endDateTime, RecurringScheduleTime scheduleTime) {
+		CompiledCronExpression recurrence;
+		try {
+			recurrence = scheduleTime.getRecurrence();
+		} catch (ParseException pe) {
+			// Not a valid recurring schedule, which is reported by the other validations
+			return null;
+		}
+
+		LocalTime startTime = DateHelper.getLocalTime(scheduleTime.getStartTime());
+		LocalTime endTime = DateHelper.getLocalTime(scheduleTime.getEndTime());
+
+		// The recurring schedules end on the day they start, so only the recurrences on the days of
+		// the specific date schedule can overlap it
+		LocalDate firstDay = startDateTime.toLocalDate();
+		LocalDate lastDay = endDateTime.toLocalDate();
+		if (scheduleTime.getStartDate() != null) {
+			LocalDate startDate = DateHelper.getLocalDate(scheduleTime.getStartDate());
+			if (startDate.isAfter(firstDay)) {
+				firstDay = startDate;
+			}
+		}
+		if (scheduleTime.getEndDate() != null) {
+			LocalDate endDate = DateHelper.getLocalDate(scheduleTime.getEndDate());
+			if (endDate.isBefore(lastDay)) {
+				lastDay = endDate;
+			}
+		}
+
+		for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+			if (!recurrence.firesOn(day)) {
+				continue;
+			}
+
+			LocalDateTime recurrenceStartDateTime = day.atTime(startTime);
+			LocalDateTime recurrenceEndDateTime = day.atTime(endTime);
+			if (recurrenceStartDateTime.isAfter(endDateTime) || recurrenceEndDateTime.isBefore(startDateTime)) {
+				continue;
+			}
+
+			if (recurrenceStartDateTime.isEqual(startDateTime)) {
+				return new String[] { specificDateScheduleDateTime.getScheduleIdentifier(), "start_date_time",
+						scheduleTime.getScheduleIdentifier(), "start_time" };
+			} else if (recurrenceStartDateTime.isAfter(startDateTime)) {
+				return new String[] { specificDateScheduleDateTime.getScheduleIdentifier(), "end_date_time",
+						scheduleTime.getScheduleIdentifier(), "start_time" };
+			} else {
+				return new String[] { scheduleTime.getScheduleIdentifier(), "end_time",
+						specificDateScheduleDateTime.getScheduleIdentifier(), "start_date_time" };
+			}
+		}
+		return null;
+	}
+
 }
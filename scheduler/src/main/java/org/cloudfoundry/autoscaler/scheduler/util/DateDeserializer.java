@@ -1,8 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 import com.fasterxml.jackson.core.JsonParser;
@@ -13,10 +12,9 @@ public class DateDeserializer extends JsonDeserializer<Date> {
 
 	@Override
 	public Date deserialize(JsonParser parser, DeserializationContext ctxt) throws IOException {
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(DateHelper.DATE_FORMAT);
 		try {
-			return simpleDateFormat.parse(parser.getValueAsString());
-		} catch (ParseException e) {
+			return DateHelper.parseDate(parser.getValueAsString());
+		} catch (DateTimeParseException e) {
 			throw new IOException("Invalid Date can not parse: " + e.getMessage());
 		}
 	}
@@ -1,9 +1,23 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.Date;
+import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -20,6 +34,24 @@ public class DateHelper {
 	public static final int DAY_OF_MONTH_MINIMUM = 1;
 	public static final int DAY_OF_MONTH_MAXIMUM = 31;
 
+	private static final long MILLIS_PER_SECOND = 1000L;
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * MILLIS_PER_SECOND;
+	private static final int NANOS_PER_MILLI = 1000000;
+
+	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm",
+			Locale.ROOT);
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd", Locale.ROOT);
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm", Locale.ROOT);
+
+	private static final DateTimeFormatter DATE_TIME_PARSER = DateTimeFormatter
+			.ofPattern("uuuu-M-d'T'H:m", Locale.ROOT).withResolverStyle(ResolverStyle.STRICT);
+	private static final DateTimeFormatter DATE_PARSER = DateTimeFormatter.ofPattern("uuuu-M-d", Locale.ROOT)
+			.withResolverStyle(ResolverStyle.STRICT);
+	private static final DateTimeFormatter TIME_PARSER = DateTimeFormatter.ofPattern("H:m", Locale.ROOT)
+			.withResolverStyle(ResolverStyle.STRICT);
+
+	private static final ConcurrentMap<String, ZoneId> zoneIds = new ConcurrentHashMap<>();
+
 	public static final String[] supportedTimezones = new String[] {
 	           "Etc/GMT+12",
 	           "Etc/GMT+11",
@@ -604,43 +636,160 @@ public class DateHelper {
 	           "Etc/GMT-14",
 	           "Pacific/Kiritimati"};
 
+	/**
+	 * Returns the ZoneId for the time zone id of a policy, from the {@link TimeZoneRegistry} for the
+	 * supported time zones. Other ids are resolved once and cached, unknown ids fall back to GMT.
+	 *
+	 * @param timeZoneId
+	 * @return
+	 */
+	public static ZoneId getZoneId(String timeZoneId) {
+		TimeZoneRegistry.Entry entry = TimeZoneRegistry.get(timeZoneId);
+		if (entry != null) {
+			return entry.getZoneId();
+		}
+		ZoneId zoneId = zoneIds.get(timeZoneId);
+		if (zoneId == null) {
+			zoneId = zoneIds.computeIfAbsent(timeZoneId, TimeZoneRegistry::resolveZoneId);
+		}
+		return zoneId;
+	}
+
+	/**
+	 * Returns the TimeZone for the time zone id of a policy. The TimeZone of a supported time zone
+	 * is shared and must not be modified.
+	 *
+	 * @param timeZoneId
+	 * @return
+	 */
+	public static TimeZone getTimeZone(String timeZoneId) {
+		TimeZoneRegistry.Entry entry = TimeZoneRegistry.get(timeZoneId);
+		if (entry != null) {
+			return entry.getTimeZone();
+		}
+		return TimeZone.getTimeZone(getZoneId(timeZoneId));
+	}
+
+	/**
+	 * Converts a policy date time, which is parsed as a wall clock time in the default time zone,
+	 * to the instant of the same wall clock time in the policy time zone.
+	 *
+	 * A wall clock time in a daylight saving time gap is moved forward by the length of the gap,
+	 * and a wall clock time in an overlap gets the earlier of the two instants.
+	 *
+	 * @param policyDateTimeInMillis
+	 * @param policyZoneId
+	 * @return
+	 */
+	public static long getTimeInMillisWithZoneOffset(long policyDateTimeInMillis, ZoneId policyZoneId) {
+		long wallClockMillis = policyDateTimeInMillis + TimeZone.getDefault().getOffset(policyDateTimeInMillis);
+
+		ZoneRules zoneRules = policyZoneId.getRules();
+		// Without a transition within a day either side, the offset at the wall clock time applies.
+		ZoneOffsetTransition transition = zoneRules
+				.nextTransition(Instant.ofEpochMilli(wallClockMillis - MILLIS_PER_DAY));
+		if (transition == null || transition.toEpochSecond() * MILLIS_PER_SECOND > wallClockMillis + MILLIS_PER_DAY) {
+			ZoneOffset offset = zoneRules.getOffset(Instant.ofEpochMilli(wallClockMillis));
+			return wallClockMillis - offset.getTotalSeconds() * MILLIS_PER_SECOND;
+		}
+
+		LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(Math.floorDiv(wallClockMillis, MILLIS_PER_SECOND),
+				(int) Math.floorMod(wallClockMillis, MILLIS_PER_SECOND) * NANOS_PER_MILLI, ZoneOffset.UTC);
+		return ZonedDateTime.ofLocal(localDateTime, policyZoneId, null).toInstant().toEpochMilli();
+	}
+
+	public static Date getDateWithZoneOffset(Date policyDateTime, String policyTimeZoneId) {
+		return new Date(getTimeInMillisWithZoneOffset(policyDateTime.getTime(), getZoneId(policyTimeZoneId)));
+	}
+
 	public static Date getDateWithZoneOffset(Date policyDateTime, TimeZone policyTimeZone) {
-		long policyDateTimeInMillis = getTimeInMillis(policyDateTime, policyTimeZone);
+		return getDateWithZoneOffset(policyDateTime, policyTimeZone.getID());
+	}
 
-		TimeZone currentTimeZone = TimeZone.getDefault();
+	/**
+	 * Returns the date of a policy date, which is parsed as a wall clock time in the default time
+	 * zone.
+	 *
+	 * @param policyDate
+	 * @return
+	 */
+	public static LocalDate getLocalDate(Date policyDate) {
+		return Instant.ofEpochMilli(policyDate.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
 
-		Date date = new Date(policyDateTimeInMillis - policyTimeZone.getRawOffset() + currentTimeZone.getRawOffset());
+	/**
+	 * Returns the date time of a policy date time, which is parsed as a wall clock time in the
+	 * default time zone.
+	 *
+	 * @param policyDateTime
+	 * @return
+	 */
+	public static LocalDateTime getLocalDateTime(Date policyDateTime) {
+		return toLocalDateTime(policyDateTime);
+	}
 
-		return date;
+	/**
+	 * Returns the time of day of a policy time, which is parsed as a wall clock time in the default
+	 * time zone.
+	 *
+	 * @param policyTime
+	 * @return
+	 */
+	public static LocalTime getLocalTime(Date policyTime) {
+		return toLocalDateTime(policyTime).toLocalTime();
 	}
 
 	public static String convertDateToString(Date date) {
-		SimpleDateFormat sdf = new SimpleDateFormat(DATE_FORMAT);
-
-		return sdf.format(date);
+		return DATE_FORMATTER.format(toLocalDateTime(date));
 	}
 
 	public static String convertTimeToString(Date date) {
-		SimpleDateFormat sdf = new SimpleDateFormat(TIME_FORMAT);
-
-		return sdf.format(date);
+		return TIME_FORMATTER.format(toLocalDateTime(date));
 	}
 
 	public static String convertDateTimeToString(Date date) {
-		SimpleDateFormat sdf = new SimpleDateFormat(DATE_TIME_FORMAT);
-		return sdf.format(date);
+		return DATE_TIME_FORMATTER.format(toLocalDateTime(date));
+	}
+
+	/**
+	 * Parses a date in the default time zone. Month and day may have one or two digits.
+	 *
+	 * @param date
+	 * @return
+	 * @throws DateTimeParseException - if the text is not a valid date
+	 */
+	public static Date parseDate(String date) {
+		LocalDate localDate = LocalDate.parse(date, DATE_PARSER);
+		return new Date(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+	}
+
+	/**
+	 * Parses a time. Hour and minute may have one or two digits.
+	 *
+	 * @param time
+	 * @return
+	 * @throws DateTimeParseException - if the text is not a valid time
+	 */
+	public static Time parseTime(String time) {
+		return Time.valueOf(LocalTime.parse(time, TIME_PARSER));
 	}
 
-	public static Long getTimeInMillis(Date dateTime, TimeZone timeZone) {
-		Calendar targetTime = Calendar.getInstance(timeZone);
-		targetTime.setTimeInMillis(dateTime.getTime());
-		return targetTime.getTimeInMillis();
+	/**
+	 * Parses a date time in the default time zone. Month, day, hour and minute may have one or two
+	 * digits.
+	 *
+	 * @param dateTime
+	 * @return
+	 * @throws DateTimeParseException - if the text is not a valid date time
+	 */
+	public static Date parseDateTime(String dateTime) {
+		LocalDateTime localDateTime = LocalDateTime.parse(dateTime, DATE_TIME_PARSER);
+		return new Date(localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
 	}
 
-	public static Calendar getCalendarDate(Date dateTime, TimeZone timeZone) {
-		Calendar calendar = Calendar.getInstance(timeZone);
-		calendar.setTime(dateTime);
-		return calendar;
+	private static LocalDateTime toLocalDateTime(Date date) {
+		// java.sql.Date and java.sql.Time do not support toInstant()
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(date.getTime()), ZoneId.systemDefault());
 	}
 
 	public static String convertIntToDayOfWeek(int day) {
@@ -1,7 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -13,9 +12,7 @@ public class DateSerializer extends JsonSerializer<Date> {
 	@Override
 	public void serialize(Date value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
 
-		SimpleDateFormat dateFormat = new SimpleDateFormat(DateHelper.DATE_FORMAT);
-		String formattedDate = dateFormat.format(value);
-		gen.writeString(formattedDate);
+		gen.writeString(DateHelper.convertDateToString(value));
 
 	}
 
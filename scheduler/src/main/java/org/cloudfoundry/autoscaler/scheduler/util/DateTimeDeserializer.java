@@ -1,8 +1,7 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 import com.fasterxml.jackson.core.JsonParser;
@@ -15,10 +14,9 @@ public class DateTimeDeserializer extends JsonDeserializer<Date> {
 	@Override
 	public Date deserialize(JsonParser parser, DeserializationContext ctxt)
 			throws IOException, JsonProcessingException {
-		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(DateHelper.DATE_TIME_FORMAT);
 		try {
-			return simpleDateFormat.parse(parser.getValueAsString());
-		} catch (ParseException e) {
+			return DateHelper.parseDateTime(parser.getValueAsString());
+		} catch (DateTimeParseException e) {
 			throw new IOException("Invalid DateTime can not parse: " + e.getMessage());
 		}
 
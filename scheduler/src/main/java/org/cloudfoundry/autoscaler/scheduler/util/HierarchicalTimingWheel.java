@@ -0,0 +1,150 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel keyed by an absolute expiration time in milliseconds. Each level has
+ * <code>wheelSize</code> buckets of one tick, the buckets of the next level are as long as the
+ * whole lower level. Entries in an overflow level are cascaded down once they come within the
+ * span of the lower level, so adding and expiring an entry costs constant time per level.
+ *
+ * Entries are never released before their expiration time, and at most one tick after it.
+ *
+ * This class is not thread safe.
+ *
+ * @param <T>
+ */
+public class HierarchicalTimingWheel<T> {
+
+	private final long tickMillis;
+	private final int wheelSize;
+	private final long intervalMillis;
+	private final List<Entry<T>>[] buckets;
+
+	// Start of the current tick, all entries expiring at or before it have been released
+	private long currentTime;
+	private HierarchicalTimingWheel<T> overflowWheel;
+	private int size = 0;
+
+	@SuppressWarnings("unchecked")
+	public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+		if (tickMillis < 1 || wheelSize < 2) {
+			throw new IllegalArgumentException(
+					"Invalid timing wheel tick " + tickMillis + " or wheel size " + wheelSize);
+		}
+		this.tickMillis = tickMillis;
+		this.wheelSize = wheelSize;
+		this.intervalMillis = tickMillis * wheelSize;
+		this.buckets = new List[wheelSize];
+		this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+	}
+
+	public long getCurrentTime() {
+		return currentTime;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds an entry expiring at the specified time.
+	 *
+	 * @return - false if the entry is already due, it is not added then
+	 */
+	public boolean add(long expirationMillis, T item) {
+		if (addEntry(new Entry<>(expirationMillis, item))) {
+			size++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the clock forward to the specified time.
+	 *
+	 * @return - the entries which have expired, ordered by expiration time
+	 */
+	public List<T> advanceClock(long nowMillis) {
+		List<T> expiredItems = new ArrayList<>();
+		if (size == 0) {
+			// Nothing to cascade, jump straight to the current tick
+			if (nowMillis - currentTime >= tickMillis) {
+				currentTime = nowMillis - Math.floorMod(nowMillis, tickMillis);
+				overflowWheel = null;
+			}
+			return expiredItems;
+		}
+
+		List<Entry<T>> expiredEntries = new ArrayList<>();
+		advance(nowMillis, expiredEntries);
+		expiredEntries.sort((entry1, entry2) -> Long.compare(entry1.expirationMillis, entry2.expirationMillis));
+		for (Entry<T> entry : expiredEntries) {
+			expiredItems.add(entry.item);
+		}
+		size -= expiredEntries.size();
+		return expiredItems;
+	}
+
+	private boolean addEntry(Entry<T> entry) {
+		if (entry.expirationMillis <= currentTime) {
+			return false;
+		}
+
+		// The bucket of a tick holds the entries expiring in (tickEnd - tickMillis, tickEnd]
+		long tickEnd = ceil(entry.expirationMillis, tickMillis);
+		if (tickEnd - currentTime <= intervalMillis) {
+			int bucketIndex = (int) Math.floorMod(tickEnd / tickMillis, (long) wheelSize);
+			if (buckets[bucketIndex] == null) {
+				buckets[bucketIndex] = new ArrayList<>();
+			}
+			buckets[bucketIndex].add(entry);
+		} else {
+			// The overflow clock runs one interval ahead of this level, so it never reports the entry as due
+			if (overflowWheel == null) {
+				overflowWheel = new HierarchicalTimingWheel<>(intervalMillis, wheelSize, currentTime + intervalMillis);
+			}
+			overflowWheel.addEntry(entry);
+		}
+		return true;
+	}
+
+	private void advance(long clockMillis, List<Entry<T>> expiredEntries) {
+		while (clockMillis - currentTime >= tickMillis) {
+			currentTime += tickMillis;
+
+			int bucketIndex = (int) Math.floorMod(currentTime / tickMillis, (long) wheelSize);
+			List<Entry<T>> bucket = buckets[bucketIndex];
+			if (bucket != null) {
+				buckets[bucketIndex] = null;
+				expiredEntries.addAll(bucket);
+			}
+
+			// Cascade the overflow entries which now fall within the span of this level
+			if (overflowWheel != null) {
+				List<Entry<T>> cascadedEntries = new ArrayList<>();
+				overflowWheel.advance(currentTime + intervalMillis, cascadedEntries);
+				for (Entry<T> entry : cascadedEntries) {
+					if (!addEntry(entry)) {
+						expiredEntries.add(entry);
+					}
+				}
+			}
+		}
+	}
+
+	private static long ceil(long value, long unit) {
+		return value - Math.floorMod(value, unit) + (Math.floorMod(value, unit) == 0 ? 0 : unit);
+	}
+
+	private static class Entry<T> {
+		private final long expirationMillis;
+		private final T item;
+
+		Entry(long expirationMillis, T item) {
+			this.expirationMillis = expirationMillis;
+			this.item = item;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
+import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -17,8 +18,11 @@ public class RecurringScheduleTime implements Comparable<RecurringScheduleTime>
 	private List<Integer> dayOfWeek = null;
 	private List<Integer> dayOfMonth = null;
 
+	private RecurringScheduleEntity recurringScheduleEntity;
+
 	public RecurringScheduleTime(String scheduleIdentifier, RecurringScheduleEntity recurringScheduleEntity) {
 		this.scheduleIdentifier = scheduleIdentifier;
+		this.recurringScheduleEntity = recurringScheduleEntity;
 		this.startDate = recurringScheduleEntity.getStartDate();
 		this.endDate = recurringScheduleEntity.getEndDate();
 		this.startTime = recurringScheduleEntity.getStartTime();
@@ -54,6 +58,18 @@ public class RecurringScheduleTime implements Comparable<RecurringScheduleTime>
 		return this.dayOfMonth;
 	}
 
+	/**
+	 * Compiles the cron expression of the start job of the schedule.
+	 *
+	 * @return
+	 * @throws ParseException
+	 */
+	CompiledCronExpression getRecurrence() throws ParseException {
+		return CompiledCronExpression.getInstance(
+				ScheduleJobHelper.convertRecurringScheduleToCronExpression(startTime, recurringScheduleEntity),
+				recurringScheduleEntity.getTimeZone());
+	}
+
 	Date getStartDate() {
 		return startDate;
 	}
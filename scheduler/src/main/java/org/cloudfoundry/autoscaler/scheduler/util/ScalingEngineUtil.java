@@ -6,4 +6,9 @@ public class ScalingEngineUtil {
 
 		return scalingEngineUrl + "/v1/apps/" + appId + "/active_schedules/" + scheduleId;
 	}
+
+	public static String getScalingEngineActiveScheduleBatchPath(String scalingEngineUrl) {
+
+		return scalingEngineUrl + "/v1/active_schedules/batch";
+	}
 }
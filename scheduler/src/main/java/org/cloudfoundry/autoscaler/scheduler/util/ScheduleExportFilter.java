@@ -0,0 +1,36 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import java.util.Date;
+
+/**
+ * A convenience bean to hold the optional filters of an export, a null filter matches everything.
+ */
+public class ScheduleExportFilter {
+	private String appIdPrefix;
+	private String timeZone;
+	private Date updatedSince;
+
+	public ScheduleExportFilter(String appIdPrefix, String timeZone, Date updatedSince) {
+		this.appIdPrefix = appIdPrefix;
+		this.timeZone = timeZone;
+		this.updatedSince = updatedSince;
+	}
+
+	public String getAppIdPrefix() {
+		return appIdPrefix;
+	}
+
+	public String getTimeZone() {
+		return timeZone;
+	}
+
+	public Date getUpdatedSince() {
+		return updatedSince;
+	}
+
+	@Override
+	public String toString() {
+		return "ScheduleExportFilter [appIdPrefix=" + appIdPrefix + ", timeZone=" + timeZone + ", updatedSince="
+				+ updatedSince + "]";
+	}
+}
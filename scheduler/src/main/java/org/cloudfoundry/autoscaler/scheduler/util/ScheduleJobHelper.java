@@ -1,10 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.util;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.List;
 import java.util.TimeZone;
 
 import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
@@ -43,6 +39,10 @@ public class ScheduleJobHelper {
 	public static final String END_JOB_CRON_EXPRESSION = "endJobCronExpression";
 	public static final String ACTIVE_SCHEDULE_TABLE_TASK_DONE = "activeScheduleTableTask";
 	public static final String CREATE_END_JOB_TASK_DONE = "endJobScheduleTask";
+	public static final String RETRY_TRIGGER_SUFFIX = "_retry_";
+
+	private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+	private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
 
 	public static JobDetail buildJob(JobKey jobKey, Class<? extends Job> classType) {
 
@@ -51,8 +51,12 @@ public class ScheduleJobHelper {
 	}
 
 	public static Trigger buildTrigger(TriggerKey triggerKey, JobKey jobKey, Date triggerDate) {
+		return buildTrigger(triggerKey, jobKey, triggerDate, Trigger.DEFAULT_PRIORITY);
+	}
+
+	public static Trigger buildTrigger(TriggerKey triggerKey, JobKey jobKey, Date triggerDate, int priority) {
 
-		TriggerBuilder<Trigger> trigger = TriggerBuilder.newTrigger().withIdentity(triggerKey);
+		TriggerBuilder<Trigger> trigger = TriggerBuilder.newTrigger().withIdentity(triggerKey).withPriority(priority);
 
 		trigger.withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
 				.startAt(triggerDate);
@@ -64,10 +68,27 @@ public class ScheduleJobHelper {
 		return trigger.build();
 	}
 
+	/**
+	 * Builds the key of a retry trigger of the trigger, unique for the retry time.
+	 */
+	public static TriggerKey buildRetryTriggerKey(TriggerKey triggerKey, long retryTime) {
+		String name = triggerKey.getName();
+		int retrySuffixIndex = name.indexOf(RETRY_TRIGGER_SUFFIX);
+		if (retrySuffixIndex >= 0) {
+			name = name.substring(0, retrySuffixIndex);
+		}
+		return new TriggerKey(name + RETRY_TRIGGER_SUFFIX + retryTime, triggerKey.getGroup());
+	}
+
 	public static Trigger buildCronTrigger(TriggerKey triggerKey, JobKey jobKey, RecurringScheduleEntity scheduleEntity,
 			Date scheduleTime) {
-		TriggerBuilder<Trigger> trigger = TriggerBuilder.newTrigger().withIdentity(triggerKey);
-		TimeZone timeZone = TimeZone.getTimeZone(scheduleEntity.getTimeZone());
+		return buildCronTrigger(triggerKey, jobKey, scheduleEntity, scheduleTime, Trigger.DEFAULT_PRIORITY);
+	}
+
+	public static Trigger buildCronTrigger(TriggerKey triggerKey, JobKey jobKey, RecurringScheduleEntity scheduleEntity,
+			Date scheduleTime, int priority) {
+		TriggerBuilder<Trigger> trigger = TriggerBuilder.newTrigger().withIdentity(triggerKey).withPriority(priority);
+		TimeZone timeZone = DateHelper.getTimeZone(scheduleEntity.getTimeZone());
 
 		trigger.withSchedule(
 				CronScheduleBuilder.cronSchedule(convertRecurringScheduleToCronExpression(scheduleTime, scheduleEntity))
@@ -90,42 +111,69 @@ public class ScheduleJobHelper {
 
 	public static String convertRecurringScheduleToCronExpression(Date scheduleTime,
 			RecurringScheduleEntity recurringScheduleEntity) {
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(scheduleTime);
-
-		int min = calendar.get(Calendar.MINUTE);
-		int hour = calendar.get(Calendar.HOUR_OF_DAY);
-
-		String dayOfWeek = convertArrayToDayOfWeekString(recurringScheduleEntity.getDaysOfWeek());
-		String dayOfMonth = convertArrayToDayOfMonthString(recurringScheduleEntity.getDaysOfMonth());
-
-		return String.format("00 %02d %02d %s * %s *", min, hour, dayOfMonth, dayOfWeek);
+		// Minute of the day of the schedule time in the default time zone, as the time is stored
+		long scheduleTimeMillis = scheduleTime.getTime();
+		long localTimeMillis = scheduleTimeMillis + TimeZone.getDefault().getOffset(scheduleTimeMillis);
+		int minuteOfDay = (int) (Math.floorMod(localTimeMillis, MILLIS_PER_DAY) / MILLIS_PER_MINUTE);
+
+		StringBuilder cronExpression = new StringBuilder(32).append("00 ");
+		appendTwoDigits(cronExpression, minuteOfDay % 60).append(' ');
+		appendTwoDigits(cronExpression, minuteOfDay / 60).append(' ');
+		appendDaysOfMonth(cronExpression, recurringScheduleEntity.getDaysOfMonth()).append(" * ");
+		appendDaysOfWeek(cronExpression, recurringScheduleEntity.getDaysOfWeek()).append(" *");
+		return cronExpression.toString();
 	}
 
-	private static String convertArrayToDayOfWeekString(int[] dayOfWeek) {
-		String cronExpression = "?";
-		if (dayOfWeek != null) {
-			cronExpression = String.join(",", convertDayOfWeekToQuartzDayOfWeek(dayOfWeek));
+	private static StringBuilder appendTwoDigits(StringBuilder cronExpression, int value) {
+		if (value < 10) {
+			cronExpression.append('0');
 		}
+		return cronExpression.append(value);
+	}
 
+	private static StringBuilder appendDaysOfWeek(StringBuilder cronExpression, int[] dayOfWeek) {
+		if (dayOfWeek == null) {
+			return cronExpression.append('?');
+		}
+		for (int i = 0; i < dayOfWeek.length; i++) {
+			if (i > 0) {
+				cronExpression.append(',');
+			}
+			cronExpression.append(DateHelper.convertIntToDayOfWeek(dayOfWeek[i]));
+		}
 		return cronExpression;
 	}
 
-	private static List<String> convertDayOfWeekToQuartzDayOfWeek(int[] dayOfWeek) {
-		List<String> quartzDayOfWeek = new ArrayList<>();
-
-		for (int day : dayOfWeek) {
-			quartzDayOfWeek.add(DateHelper.convertIntToDayOfWeek(day));
+	private static StringBuilder appendDaysOfMonth(StringBuilder cronExpression, int[] dayOfMonth) {
+		if (dayOfMonth == null) {
+			return cronExpression.append('?');
+		}
+		for (int i = 0; i < dayOfMonth.length; i++) {
+			if (i > 0) {
+				cronExpression.append(',');
+			}
+			cronExpression.append(dayOfMonth[i]);
 		}
-		return quartzDayOfWeek;
+		return cronExpression;
 	}
 
-	private static String convertArrayToDayOfMonthString(int[] dayOfMonth) {
-		String cronExpression = "?";
-		if (dayOfMonth != null) {
-			cronExpression = Arrays.toString(dayOfMonth).replaceAll("[\\[\\]\\s]", "");
+	/**
+	 * Returns the execution lane for a job. End jobs always run in the end lane, start jobs
+	 * which have already been rescheduled at least once run in the retry lane.
+	 */
+	public static ScheduleJobLaneEnum getJobLane(JobActionEnum jobAction, JobDataMap jobDataMap) {
+		if (jobAction == JobActionEnum.END) {
+			return ScheduleJobLaneEnum.END;
 		}
-		return cronExpression;
+
+		for (RescheduleCount rescheduleCount : RescheduleCount.values()) {
+			String counterKey = rescheduleCount.name();
+			if (jobDataMap.containsKey(counterKey) && jobDataMap.getInt(counterKey) > 1) {
+				return ScheduleJobLaneEnum.RETRY;
+			}
+		}
+
+		return ScheduleJobLaneEnum.START;
 	}
 
 	public static ActiveScheduleEntity setupActiveSchedule(JobDataMap jobDataMap) {
@@ -0,0 +1,27 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+/**
+ * Execution lanes for the scheduling jobs. Each lane has its own worker pool and trigger
+ * priority, so that end jobs never queue behind start or retry work.
+ *
+ */
+public enum ScheduleJobLaneEnum {
+	START("start", "Start Job Lane"), END("end", "End Job Lane"), RETRY("retry", "Retry Job Lane");
+
+	private String laneName;
+	private String description;
+
+	ScheduleJobLaneEnum(String laneName, String description) {
+		this.laneName = laneName;
+		this.description = description;
+	}
+
+	public String getLaneName() {
+		return laneName;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+public enum ScheduleOperationStatusEnum {
+	QUEUED("queued", false), DELETING("deleting", false), CREATING("creating", false),
+	SUCCEEDED("succeeded", true), FAILED("failed", true), SUPERSEDED("superseded", true);
+
+	private String status;
+	private boolean finished;
+
+	ScheduleOperationStatusEnum(String status, boolean finished) {
+		this.status = status;
+		this.finished = finished;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public boolean isFinished() {
+		return finished;
+	}
+
+}
@@ -2,6 +2,7 @@ package org.cloudfoundry.autoscaler.scheduler.util;
 
 import java.io.IOException;
 import java.sql.Time;
+import java.time.format.DateTimeParseException;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -11,6 +12,10 @@ public class SqlTimeDeserializer extends JsonDeserializer<Time> {
 
     @Override
     public Time deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
-        return Time.valueOf(jp.getValueAsString() + ":00");
+        try {
+            return DateHelper.parseTime(jp.getValueAsString());
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid Time can not parse: " + e.getMessage());
+        }
     }
 }
@@ -2,7 +2,6 @@ package org.cloudfoundry.autoscaler.scheduler.util;
 
 import java.io.IOException;
 import java.sql.Time;
-import java.text.SimpleDateFormat;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -14,9 +13,7 @@ public class SqlTimeSerializer extends JsonSerializer<Time> {
 	@Override
 	public void serialize(Time value, JsonGenerator gen, SerializerProvider serializers)
 			throws IOException, JsonProcessingException {
-		SimpleDateFormat dateFormat = new SimpleDateFormat(DateHelper.TIME_FORMAT);
-		String formattedDate = dateFormat.format(value);
-		gen.writeString(formattedDate);
+		gen.writeString(DateHelper.convertTimeToString(value));
 	}
 
 }
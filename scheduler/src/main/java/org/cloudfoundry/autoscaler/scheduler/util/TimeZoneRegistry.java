@@ -0,0 +1,100 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Registry of the time zones in {@link DateHelper#supportedTimezones}, built once when the class is
+ * loaded. Each supported time zone id maps to its resolved {@link ZoneId}, {@link TimeZone} and zone
+ * rules, so the lookups while validating policies and firing jobs are a hash map get.
+ *
+ * The {@link TimeZone} instances are shared and must not be modified.
+ *
+ */
+public final class TimeZoneRegistry {
+
+	private static final Map<String, Entry> entries;
+
+	static {
+		Map<String, Entry> map = new HashMap<>(DateHelper.supportedTimezones.length * 2);
+		for (String timeZoneId : DateHelper.supportedTimezones) {
+			map.put(timeZoneId, new Entry(timeZoneId, resolveZoneId(timeZoneId)));
+		}
+		entries = Collections.unmodifiableMap(map);
+	}
+
+	private TimeZoneRegistry() {
+	}
+
+	/**
+	 * Checks if the time zone id is one of the supported time zones.
+	 *
+	 * @param timeZoneId
+	 * @return
+	 */
+	public static boolean isSupported(String timeZoneId) {
+		return timeZoneId != null && entries.containsKey(timeZoneId);
+	}
+
+	/**
+	 * Returns the entry of a supported time zone id.
+	 *
+	 * @param timeZoneId
+	 * @return - the entry, or null if the time zone id is not supported
+	 */
+	public static Entry get(String timeZoneId) {
+		return timeZoneId == null ? null : entries.get(timeZoneId);
+	}
+
+	/**
+	 * Resolves a time zone id to a ZoneId. Ids are trimmed, since some of the supported time zone
+	 * ids have a trailing space. Legacy ids unknown to java.time are resolved the same as
+	 * {@link TimeZone#getTimeZone(String)}, which falls back to GMT.
+	 *
+	 * @param timeZoneId
+	 * @return
+	 */
+	static ZoneId resolveZoneId(String timeZoneId) {
+		String trimmedTimeZoneId = timeZoneId.trim();
+		try {
+			return ZoneId.of(trimmedTimeZoneId, ZoneId.SHORT_IDS);
+		} catch (DateTimeException de) {
+			return TimeZone.getTimeZone(trimmedTimeZoneId).toZoneId();
+		}
+	}
+
+	public static final class Entry {
+		private final String timeZoneId;
+		private final ZoneId zoneId;
+		private final ZoneRules zoneRules;
+		private final TimeZone timeZone;
+
+		private Entry(String timeZoneId, ZoneId zoneId) {
+			this.timeZoneId = timeZoneId;
+			this.zoneId = zoneId;
+			this.zoneRules = zoneId.getRules();
+			this.timeZone = TimeZone.getTimeZone(zoneId);
+		}
+
+		public String getTimeZoneId() {
+			return timeZoneId;
+		}
+
+		public ZoneId getZoneId() {
+			return zoneId;
+		}
+
+		public ZoneRules getZoneRules() {
+			return zoneRules;
+		}
+
+		public TimeZone getTimeZone() {
+			return timeZone;
+		}
+	}
+}
@@ -4,6 +4,8 @@ public class InvalidDataException extends RuntimeException {
 
 	private static final long serialVersionUID = 1L;
 
+	private transient ValidationErrorResult validationErrorResult;
+
 	public InvalidDataException() {
 		super();
 	}
@@ -25,4 +27,21 @@ public class InvalidDataException extends RuntimeException {
 		super(cause);
 	}
 
+	public InvalidDataException(String message, ValidationErrorResult validationErrorResult) {
+		super(message);
+		this.validationErrorResult = validationErrorResult;
+	}
+
+	public InvalidDataException(String message, Throwable cause, ValidationErrorResult validationErrorResult) {
+		super(message, cause);
+		this.validationErrorResult = validationErrorResult;
+	}
+
+	/**
+	 * @return - the validation errors of the failed call, or null if there are none
+	 */
+	public ValidationErrorResult getValidationErrorResult() {
+		return validationErrorResult;
+	}
+
 }
@@ -1,7 +1,14 @@
 package org.cloudfoundry.autoscaler.scheduler.util.error;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.logging.log4j.message.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.MessageSource;
@@ -11,7 +18,11 @@ import org.springframework.stereotype.Component;
 /**
  * Helper class for looking up message bundle resources
  * It can be used to lookup strings from messages.properties
- * 
+ *
+ * The message patterns are resolved once per locale and cached as parsed MessageFormat. Messages
+ * that are only logged can be created with {@link #logMessage(String, Object...)}, which renders
+ * them only when the logger actually emits them.
+ *
  */
 @Component
 public class MessageBundleResourceHelper {
@@ -20,20 +31,51 @@ public class MessageBundleResourceHelper {
 	@Qualifier("messageSource")
 	private MessageSource messageSource;
 
+	private final ConcurrentMap<Locale, ConcurrentMap<String, MessagePattern>> messagePatterns =
+			new ConcurrentHashMap<>();
+
 	/**
 	 * Lookup a message resource for the specified key
-	 * 
+	 *
 	 * @param key - the key
 	 * @param defaultMessage - a default to return if the key is not found
 	 * @param arguments - any arguments needed by the message resource
-	 * 
+	 *
 	 * @return - the located message or defaultMessage if none is found
 	 */
 	private String lookupMessageWithDefault(String key, String defaultMessage, Object... arguments) {
 
 		Locale locale = LocaleContextHolder.getLocale();
 
-		return messageSource.getMessage(key, arguments, defaultMessage, locale);
+		MessagePattern messagePattern = getMessagePattern(key, locale);
+		if (messagePattern == null) {
+			return defaultMessage;
+		}
+		if (arguments == null || arguments.length == 0) {
+			// The same as the message source, the pattern is returned as is without arguments
+			return messagePattern.pattern;
+		}
+
+		// MessageFormat is not thread safe, format with a copy of the cached one
+		return ((MessageFormat) messagePattern.messageFormat.clone()).format(arguments);
+	}
+
+	private MessagePattern getMessagePattern(String key, Locale locale) {
+		ConcurrentMap<String, MessagePattern> localeMessagePatterns = messagePatterns.get(locale);
+		if (localeMessagePatterns == null) {
+			localeMessagePatterns = messagePatterns.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+		}
+
+		MessagePattern messagePattern = localeMessagePatterns.get(key);
+		if (messagePattern == null) {
+			String pattern = messageSource.getMessage(key, null, null, locale);
+			if (pattern == null) {
+				return null;
+			}
+			messagePattern = new MessagePattern(pattern, new MessageFormat(pattern, locale));
+			localeMessagePatterns.putIfAbsent(key, messagePattern);
+		}
+		return messagePattern;
 	}
 
 	/**
@@ -43,4 +85,72 @@ public class MessageBundleResourceHelper {
 		return lookupMessageWithDefault(key, "[" + key + "]", arguments);
 	}
 
+	/**
+	 * Creates a log message for the message resource of the specified key, which is looked up only
+	 * when the message is formatted by an enabled logger.
+	 */
+	public Message logMessage(String key, Object... arguments) {
+		return new ResourceMessage(this, key, arguments);
+	}
+
+	private static class MessagePattern {
+		private final String pattern;
+		private final MessageFormat messageFormat;
+
+		MessagePattern(String pattern, MessageFormat messageFormat) {
+			this.pattern = pattern;
+			this.messageFormat = messageFormat;
+		}
+	}
+
+	private static class ResourceMessage implements Message {
+		private static final long serialVersionUID = 1L;
+
+		private final transient MessageBundleResourceHelper messageBundleResourceHelper;
+		private final String key;
+		private final transient Object[] arguments;
+		private String formattedMessage;
+
+		ResourceMessage(MessageBundleResourceHelper messageBundleResourceHelper, String key, Object[] arguments) {
+			this.messageBundleResourceHelper = messageBundleResourceHelper;
+			this.key = key;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public String getFormattedMessage() {
+			if (formattedMessage == null) {
+				formattedMessage = messageBundleResourceHelper == null ? "[" + key + "]"
+						: messageBundleResourceHelper.lookupMessage(key, arguments);
+			}
+			return formattedMessage;
+		}
+
+		@Override
+		public String getFormat() {
+			return key;
+		}
+
+		@Override
+		public Object[] getParameters() {
+			return arguments;
+		}
+
+		@Override
+		public Throwable getThrowable() {
+			return null;
+		}
+
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			// The arguments need not be serializable, send the formatted message instead
+			getFormattedMessage();
+			out.defaultWriteObject();
+		}
+
+		@Override
+		public String toString() {
+			return "ResourceMessage [key=" + key + ", arguments=" + Arrays.toString(arguments) + "]";
+		}
+	}
+
 }
@@ -0,0 +1,47 @@
+package org.cloudfoundry.autoscaler.scheduler.util.error;
+
+public class PayloadTooLargeException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private transient ValidationErrorResult validationErrorResult;
+
+	public PayloadTooLargeException() {
+		super();
+	}
+
+	public PayloadTooLargeException(String message, Throwable cause, boolean enableSuppression,
+			boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+	}
+
+	public PayloadTooLargeException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	public PayloadTooLargeException(String message) {
+		super(message);
+	}
+
+	public PayloadTooLargeException(Throwable cause) {
+		super(cause);
+	}
+
+	public PayloadTooLargeException(String message, ValidationErrorResult validationErrorResult) {
+		super(message);
+		this.validationErrorResult = validationErrorResult;
+	}
+
+	public PayloadTooLargeException(String message, Throwable cause, ValidationErrorResult validationErrorResult) {
+		super(message, cause);
+		this.validationErrorResult = validationErrorResult;
+	}
+
+	/**
+	 * @return - the validation errors of the failed call, or null if there are none
+	 */
+	public ValidationErrorResult getValidationErrorResult() {
+		return validationErrorResult;
+	}
+
+}
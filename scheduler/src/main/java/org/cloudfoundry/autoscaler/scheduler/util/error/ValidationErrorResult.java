@@ -4,28 +4,34 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.quartz.SchedulerException;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Configurable;
-import org.springframework.stereotype.Component;
-import org.springframework.web.context.annotation.RequestScope;
 
 /**
- * Request scoped object for tracking results of validation (business rules validation mostly).
+ * Tracks the results of validation (business rules validation mostly) for a single call. The
+ * errors are kept as message codes and arguments, and the messages are only looked up when
+ * they are rendered for a response or a log.
+ *
+ * The number of errors kept can be limited, further errors are dropped and the messages end with
+ * a note that errors were dropped.
  *
  */
-
-@Component
-@Configurable
-@RequestScope
 public class ValidationErrorResult {
 
-	@Autowired
-	MessageBundleResourceHelper messageBundleResourceHelper;
 	private List<ValidationError> errorList; // NOTE:Leave error list null until, have actual errors
 
+	private int maxErrorCount; // 0 for no limit
+
+	private boolean errorDropped;
+
 	public ValidationErrorResult() {
 	}
 
+	/**
+	 * @param maxErrorCount - the number of errors to keep, 0 for no limit
+	 */
+	public ValidationErrorResult(int maxErrorCount) {
+		this.maxErrorCount = maxErrorCount;
+	}
+
 	public void addFieldError(Object object, String messageCode, Object... arguments) {
 
 		internalAddError(new ValidationError(object, arguments, messageCode));
@@ -42,7 +48,23 @@ public class ValidationErrorResult {
 
 	}
 
+	/**
+	 * Adds the errors of another result after the errors of this result, in their order.
+	 * @param validationErrorResult
+	 */
+	public void addAll(ValidationErrorResult validationErrorResult) {
+		if (validationErrorResult.errorList != null) {
+			for (ValidationError error : validationErrorResult.errorList) {
+				internalAddError(error);
+			}
+		}
+	}
+
 	private void internalAddError(ValidationError error) {
+		if (isErrorLimitReached()) {
+			errorDropped = true;
+			return;
+		}
 		if (errorList == null) {
 			errorList = new ArrayList<ValidationError>();
 		}
@@ -51,9 +73,10 @@ public class ValidationErrorResult {
 
 	/**
 	 * A list of error messages corresponding to the errors contained in this instance
+	 * @param messageBundleResourceHelper - the helper to look up the messages with
 	 * @return a List<String> containing the error messages.
 	 */
-	public List<String> getAllErrorMessages() {
+	public List<String> getAllErrorMessages(MessageBundleResourceHelper messageBundleResourceHelper) {
 
 		if (errorList == null || errorList.size() == 0) {
 			return new ArrayList<String>();
@@ -72,9 +95,28 @@ public class ValidationErrorResult {
 			errorMessages.add(errorMessage);
 		}
 
+		if (errorDropped) {
+			errorMessages.add(messageBundleResourceHelper.lookupMessage("data.errors.limit.reached", maxErrorCount));
+		}
+
 		return errorMessages;
 	}
 
+	/**
+	 * @return - true if no more errors are kept, callers can stop validating
+	 */
+	public boolean isErrorLimitReached() {
+		return maxErrorCount > 0 && errorList != null && errorList.size() >= maxErrorCount;
+	}
+
+	/**
+	 * @return - true if an error was dropped because of the limit, further errors can not change the
+	 *         result
+	 */
+	public boolean isErrorDropped() {
+		return errorDropped;
+	}
+
 	/**
 	 * @return - true if this instance contains any errors
 	 */
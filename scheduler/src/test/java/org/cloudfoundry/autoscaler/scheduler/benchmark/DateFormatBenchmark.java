@@ -0,0 +1,101 @@
+package org.cloudfoundry.autoscaler.scheduler.benchmark;
+
+import java.sql.Time;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.util.DateHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the shared DateTimeFormatter based parsing and formatting of DateHelper, which is used
+ * by the date and time (de)serializers, with a SimpleDateFormat created per call as the
+ * (de)serializers did before.
+ *
+ * Not a unit test, run it with the test classpath:
+ *
+ * <pre>
+ * java ... DateFormatBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DateFormatBenchmark {
+
+	private String dateTimeString = "2100-07-20T08:00";
+	private String dateString = "2100-07-20";
+	private String timeString = "08:00";
+	private Date dateTime = new Date(4118889600000L);
+	private Time time = Time.valueOf("08:00:00");
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(DateFormatBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	@Benchmark
+	public Date parseDateTime_simpleDateFormat() throws ParseException {
+		return new SimpleDateFormat(DateHelper.DATE_TIME_FORMAT).parse(dateTimeString);
+	}
+
+	@Benchmark
+	public Date parseDateTime_dateTimeFormatter() {
+		return DateHelper.parseDateTime(dateTimeString);
+	}
+
+	@Benchmark
+	public Date parseDate_simpleDateFormat() throws ParseException {
+		return new SimpleDateFormat(DateHelper.DATE_FORMAT).parse(dateString);
+	}
+
+	@Benchmark
+	public Date parseDate_dateTimeFormatter() {
+		return DateHelper.parseDate(dateString);
+	}
+
+	@Benchmark
+	public Time parseTime_valueOf() {
+		return Time.valueOf(timeString + ":00");
+	}
+
+	@Benchmark
+	public Time parseTime_dateTimeFormatter() {
+		return DateHelper.parseTime(timeString);
+	}
+
+	@Benchmark
+	public String formatDateTime_simpleDateFormat() {
+		return new SimpleDateFormat(DateHelper.DATE_TIME_FORMAT).format(dateTime);
+	}
+
+	@Benchmark
+	public String formatDateTime_dateTimeFormatter() {
+		return DateHelper.convertDateTimeToString(dateTime);
+	}
+
+	@Benchmark
+	public String formatTime_simpleDateFormat() {
+		return new SimpleDateFormat(DateHelper.TIME_FORMAT).format(time);
+	}
+
+	@Benchmark
+	public String formatTime_dateTimeFormatter() {
+		return DateHelper.convertTimeToString(time);
+	}
+}
@@ -0,0 +1,228 @@
+package org.cloudfoundry.autoscaler.scheduler.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.util.HierarchicalTimingWheel;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * Compares the firing lag and the database load of the Quartz JDBC job store with the timing wheel
+ * schedule engine, for a number of one-off start events spread over a time window.
+ *
+ * The Quartz path stores a job and a trigger per event and fires them from the qrtz_ tables, the
+ * timing wheel path keeps the events in memory and only saves a watermark periodically. The database
+ * load is the number of transactions committed in the database while the events fire, taken from
+ * pg_stat_database.
+ *
+ * Not a unit test, run it against a scheduler database created with tables_postgres.sql:
+ *
+ * <pre>
+ * java ... ScheduleFiringBenchmark jdbc:postgresql://127.0.0.1/autoscaler postgres postgres [events] [window seconds]
+ * </pre>
+ */
+public class ScheduleFiringBenchmark {
+
+	private static final String SCHEDULER_NAME = "firingBenchmarkScheduler";
+
+	private static final String WATERMARK_SQL = "UPDATE app_scaling_timing_wheel_watermark SET watermark=? "
+			+ "WHERE engine_name=?";
+
+	private static final String COMMITTED_TRANSACTIONS_SQL = "SELECT xact_commit FROM pg_stat_database "
+			+ "WHERE datname = current_database()";
+
+	// Fire time lags of the events fired so far, by benchmark run
+	static final ConcurrentHashMap<String, ConcurrentLinkedQueue<Long>> firingLags = new ConcurrentHashMap<>();
+
+	static volatile CountDownLatch firedLatch;
+
+	public static void main(String[] args) throws Exception {
+		String url = args[0];
+		String user = args[1];
+		String password = args[2];
+		int eventCount = args.length > 3 ? Integer.parseInt(args[3]) : 10000;
+		int windowSeconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+
+		long[] fireTimes = createFireTimes(eventCount, windowSeconds);
+		Result quartzResult = runQuartz(url, user, password, fireTimes);
+		Result timingWheelResult = runTimingWheel(url, user, password, fireTimes);
+
+		System.out.println("events: " + eventCount + ", window: " + windowSeconds + "s");
+		System.out.println(quartzResult);
+		System.out.println(timingWheelResult);
+	}
+
+	private static long[] createFireTimes(int eventCount, int windowSeconds) {
+		Random random = new Random(eventCount);
+		long start = System.currentTimeMillis() + 10000;
+		long[] fireTimes = new long[eventCount];
+		for (int i = 0; i < eventCount; i++) {
+			// Schedules tend to start on full minutes
+			long offset = random.nextInt(windowSeconds) * 1000L;
+			fireTimes[i] = start + (random.nextBoolean() ? offset - offset % 60000 : offset);
+		}
+		Arrays.sort(fireTimes);
+		return fireTimes;
+	}
+
+	private static Result runQuartz(String url, String user, String password, long[] fireTimes) throws Exception {
+		Properties properties = new Properties();
+		properties.put("org.quartz.scheduler.instanceName", SCHEDULER_NAME);
+		properties.put("org.quartz.threadPool.threadCount", "10");
+		properties.put("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+		properties.put("org.quartz.jobStore.driverDelegateClass", "org.quartz.impl.jdbcjobstore.PostgreSQLDelegate");
+		properties.put("org.quartz.jobStore.misfireThreshold", "120000");
+		properties.put("org.quartz.jobStore.dataSource", "benchmark");
+		properties.put("org.quartz.dataSource.benchmark.driver", "org.postgresql.Driver");
+		properties.put("org.quartz.dataSource.benchmark.URL", url);
+		properties.put("org.quartz.dataSource.benchmark.user", user);
+		properties.put("org.quartz.dataSource.benchmark.password", password);
+		properties.put("org.quartz.dataSource.benchmark.maxConnections", "12");
+
+		Scheduler scheduler = new StdSchedulerFactory(properties).getScheduler();
+		scheduler.clear();
+
+		String run = "quartz";
+		firingLags.put(run, new ConcurrentLinkedQueue<>());
+		firedLatch = new CountDownLatch(fireTimes.length);
+
+		for (int i = 0; i < fireTimes.length; i++) {
+			JobDetail jobDetail = JobBuilder.newJob(LagRecordingJob.class).withIdentity(i + "_start", "benchmark")
+					.usingJobData("run", run).build();
+			Trigger trigger = TriggerBuilder.newTrigger().withIdentity(i + "_start", "benchmark")
+					.withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+					.startAt(new Date(fireTimes[i])).build();
+			scheduler.scheduleJob(jobDetail, trigger);
+		}
+
+		long committedTransactions = getCommittedTransactions(url, user, password);
+		scheduler.start();
+		firedLatch.await();
+		committedTransactions = getCommittedTransactions(url, user, password) - committedTransactions;
+
+		scheduler.clear();
+		scheduler.shutdown(true);
+		return new Result(run, firingLags.get(run), committedTransactions);
+	}
+
+	private static Result runTimingWheel(String url, String user, String password, long[] fireTimes)
+			throws Exception {
+		String run = "timingwheel";
+		ConcurrentLinkedQueue<Long> lags = new ConcurrentLinkedQueue<>();
+		firedLatch = new CountDownLatch(fireTimes.length);
+
+		HierarchicalTimingWheel<Long> timingWheel = new HierarchicalTimingWheel<>(100, 512,
+				System.currentTimeMillis());
+		for (long fireTime : fireTimes) {
+			timingWheel.add(fireTime, fireTime);
+		}
+
+		ScheduledExecutorService tickExecutor = Executors.newSingleThreadScheduledExecutor();
+		ScheduledExecutorService workerExecutor = Executors.newScheduledThreadPool(10);
+		try (Connection connection = DriverManager.getConnection(url, user, password)) {
+			long committedTransactions = getCommittedTransactions(url, user, password);
+
+			tickExecutor.scheduleAtFixedRate(() -> {
+				List<Long> expiredFireTimes;
+				synchronized (timingWheel) {
+					expiredFireTimes = timingWheel.advanceClock(System.currentTimeMillis());
+				}
+				for (Long fireTime : expiredFireTimes) {
+					workerExecutor.execute(() -> {
+						lags.add(System.currentTimeMillis() - fireTime);
+						firedLatch.countDown();
+					});
+				}
+			}, 100, 100, TimeUnit.MILLISECONDS);
+			tickExecutor.scheduleWithFixedDelay(() -> {
+				try (PreparedStatement statement = connection.prepareStatement(WATERMARK_SQL)) {
+					synchronized (timingWheel) {
+						statement.setLong(1, timingWheel.getCurrentTime());
+					}
+					statement.setString(2, run);
+					statement.executeUpdate();
+				} catch (SQLException se) {
+					throw new IllegalStateException(se);
+				}
+			}, 5000, 5000, TimeUnit.MILLISECONDS);
+
+			firedLatch.await();
+			committedTransactions = getCommittedTransactions(url, user, password) - committedTransactions;
+			return new Result(run, lags, committedTransactions);
+		} finally {
+			tickExecutor.shutdown();
+			workerExecutor.shutdown();
+		}
+	}
+
+	private static long getCommittedTransactions(String url, String user, String password) throws SQLException {
+		// pg_stat_database is updated with a delay, give the statistics collector time to catch up
+		try {
+			Thread.sleep(1000);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		try (Connection connection = DriverManager.getConnection(url, user, password);
+				Statement statement = connection.createStatement()) {
+			statement.execute("SELECT pg_stat_clear_snapshot()");
+			try (ResultSet resultSet = statement.executeQuery(COMMITTED_TRANSACTIONS_SQL)) {
+				resultSet.next();
+				return resultSet.getLong(1);
+			}
+		}
+	}
+
+	public static class LagRecordingJob implements Job {
+		@Override
+		public void execute(JobExecutionContext context) {
+			long lag = context.getFireTime().getTime() - context.getScheduledFireTime().getTime();
+			firingLags.get(context.getMergedJobDataMap().getString("run")).add(lag);
+			firedLatch.countDown();
+		}
+	}
+
+	private static class Result {
+		private final String run;
+		private final long[] lags;
+		private final long committedTransactions;
+
+		Result(String run, ConcurrentLinkedQueue<Long> lagQueue, long committedTransactions) {
+			this.run = run;
+			this.lags = lagQueue.stream().mapToLong(Long::longValue).sorted().toArray();
+			this.committedTransactions = committedTransactions;
+		}
+
+		private long percentile(double percentile) {
+			return lags[(int) Math.min(lags.length - 1, Math.floor(lags.length * percentile))];
+		}
+
+		@Override
+		public String toString() {
+			return run + ": fired " + lags.length + ", lag ms p50 " + percentile(0.5) + " p99 " + percentile(0.99)
+					+ " max " + lags[lags.length - 1] + ", committed transactions " + committedTransactions;
+		}
+	}
+}
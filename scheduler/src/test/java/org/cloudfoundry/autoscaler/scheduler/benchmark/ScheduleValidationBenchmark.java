@@ -0,0 +1,79 @@
+package org.cloudfoundry.autoscaler.scheduler.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the in memory work of the dry run validation endpoint (POST /v2/schedules/{app_id}/validate),
+ * setting up and validating a policy without the database or Quartz. The sample time mode reports the
+ * p99 latency, which is expected to stay below a millisecond for the typical policy sizes. Run it with
+ * the gc profiler to see the allocation per validation as well.
+ *
+ * Not a unit test, run it with the test classpath:
+ *
+ * <pre>
+ * java ... ScheduleValidationBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Threads(4)
+@Fork(1)
+public class ScheduleValidationBenchmark {
+
+	@Param({ "1", "5" })
+	private int noOfSpecificDateSchedules;
+
+	@Param({ "2", "5" })
+	private int noOfRecurringSchedules;
+
+	private ScheduleManager scheduleManager;
+	private ApplicationSchedules applicationPolicy;
+	private String appId;
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ScheduleValidationBenchmark.class.getSimpleName())
+				.addProfiler("gc").build()).run();
+	}
+
+	@Setup
+	public void setUp() {
+		// The validation does not use any of the autowired dependencies
+		scheduleManager = new ScheduleManager();
+		appId = TestDataSetupHelper.generateAppIds(1)[0];
+		applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(noOfSpecificDateSchedules,
+				noOfRecurringSchedules);
+	}
+
+	@Benchmark
+	public ValidationErrorResult validateSchedules() {
+		scheduleManager.setUpSchedules(appId, applicationPolicy);
+		ValidationErrorResult validationErrorResult = scheduleManager.validateSchedules(appId, applicationPolicy);
+		if (validationErrorResult.hasErrors()) {
+			throw new IllegalStateException("The generated policy should be valid");
+		}
+		return validationErrorResult;
+	}
+}
@@ -0,0 +1,82 @@
+package org.cloudfoundry.autoscaler.scheduler.dao;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.transaction.Transactional;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChangeEvent;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class ActiveScheduleChangeDaoImplTest extends TestConfiguration {
+
+	@Autowired
+	private ActiveScheduleChangeDao activeScheduleChangeDao;
+
+	@Test
+	public void testCreateAndFindActiveScheduleChanges() {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		ActiveScheduleEntity activeScheduleEntity = TestDataSetupHelper.generateActiveScheduleEntity(appId, 1L,
+				JobActionEnum.START);
+
+		ActiveScheduleChangeEvent started = activeScheduleChangeDao.create(activeScheduleEntity, "start");
+		ActiveScheduleChangeEvent ended = activeScheduleChangeDao.create(activeScheduleEntity, "end");
+
+		assertThat("The sequence should increase", ended.getSequence(), greaterThan(started.getSequence()));
+		assertThat(started.getAppId(), is(appId));
+		assertThat(started.getAction(), is("start"));
+		assertThat(started.getInstanceMinCount(), is(activeScheduleEntity.getInstanceMinCount()));
+		assertThat(started.getInstanceMaxCount(), is(activeScheduleEntity.getInstanceMaxCount()));
+		assertThat(activeScheduleChangeDao.findMaxSequence(), is(ended.getSequence()));
+
+		List<ActiveScheduleChangeEvent> events = activeScheduleChangeDao.findAfter(started.getSequence() - 1, 10);
+		assertThat(getSequences(events), contains(started.getSequence(), ended.getSequence()));
+
+		events = activeScheduleChangeDao.findAfter(started.getSequence() - 1, 1);
+		assertThat(getSequences(events), contains(started.getSequence()));
+	}
+
+	@Test
+	public void testDeleteActiveScheduleChangesCreatedBefore() {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		ActiveScheduleEntity activeScheduleEntity = TestDataSetupHelper.generateActiveScheduleEntity(appId, 1L,
+				JobActionEnum.START);
+		ActiveScheduleChangeEvent started = activeScheduleChangeDao.create(activeScheduleEntity, "start");
+
+		Long deletedSequence = activeScheduleChangeDao
+				.deleteCreatedBefore(new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1)));
+		assertThat("Nothing should be deleted", deletedSequence, nullValue());
+
+		deletedSequence = activeScheduleChangeDao
+				.deleteCreatedBefore(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)));
+		assertThat(deletedSequence, is(started.getSequence()));
+		assertThat(activeScheduleChangeDao.findMinSequence(), nullValue());
+	}
+
+	private List<Long> getSequences(List<ActiveScheduleChangeEvent> events) {
+		List<Long> sequences = new ArrayList<>();
+		for (ActiveScheduleChangeEvent event : events) {
+			sequences.add(event.getSequence());
+		}
+		return sequences;
+	}
+}
@@ -1,5 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.dao;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
@@ -20,6 +21,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RunWith(SpringRunner.class)
@@ -150,6 +152,14 @@ public class ActiveScheduleDaoImplTest extends TestConfiguration {
 		assertThat("It should have no active schedule", activeScheduleEntities.size(), is(0));
 	}
 
+	@Test
+	public void testFindAllActiveSchedules_streamed() {
+		List<ActiveScheduleEntity> activeScheduleEntities = new ArrayList<>();
+		activeScheduleDao.findAll(1, activeScheduleEntities::add);
+		assertThat("It should have two active schedules", activeScheduleEntities.size(), is(2));
+		assertThat(activeScheduleEntities, containsInAnyOrder(activeScheduleDao.findAll().toArray()));
+	}
+
 	private void insertActiveSchedule(String appId, Long scheduleId, int instanceMinCount, int instanceMaxCount,
 			int initialMinInstanceCount, Long startJobIdentifier) {
 		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
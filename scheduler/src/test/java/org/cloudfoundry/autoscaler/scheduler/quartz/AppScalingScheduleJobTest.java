@@ -94,6 +94,9 @@ public class AppScalingScheduleJobTest extends TestConfiguration {
 	@Value("${autoscaler.scalingengine.url}")
 	private String scalingEngineUrl;
 
+	@Value("${scheduler.lane.end.priority}")
+	private int endLanePriority;
+
 	private static EmbeddedTomcatUtil embeddedTomcatUtil;
 
 	@BeforeClass
@@ -917,6 +920,7 @@ public class AppScalingScheduleJobTest extends TestConfiguration {
 		assertThat(trigger.getKey(), is(endTriggerKey));
 		assertThat(trigger.getStartTime(), is(expectedEndJobStartTime));
 		assertThat(trigger.getMisfireInstruction(), is(SimpleTrigger.MISFIRE_INSTRUCTION_FIRE_NOW));
+		assertThat(trigger.getPriority(), is(endLanePriority));
 	}
 
 	private void assertNotifyScalingEngineForStartJob(ActiveScheduleEntity activeScheduleEntity,
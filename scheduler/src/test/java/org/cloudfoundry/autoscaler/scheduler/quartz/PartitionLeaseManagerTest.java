@@ -0,0 +1,188 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.PartitionLeaseDao;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Runs two scheduler nodes in the same JVM against one database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PartitionLeaseManagerTest extends TestConfiguration {
+
+	private static final int PARTITION_COUNT = 4;
+
+	private static final long LEASE_TTL_MILLIS = 2000;
+
+	private static final long TAKEOVER_GRACE_MILLIS = 500;
+
+	@Autowired
+	private PartitionLeaseDao partitionLeaseDao;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	private RecordingPartitionListener listenerA = new RecordingPartitionListener();
+
+	private RecordingPartitionListener listenerB = new RecordingPartitionListener();
+
+	private PartitionLeaseManager nodeA;
+
+	private PartitionLeaseManager nodeB;
+
+	@Before
+	public void before() {
+		testDataCleanupHelper.cleanupPartitionLeases();
+
+		nodeA = new PartitionLeaseManager(partitionLeaseDao, "node_a", PARTITION_COUNT, LEASE_TTL_MILLIS,
+				TAKEOVER_GRACE_MILLIS, listenerA);
+		nodeB = new PartitionLeaseManager(partitionLeaseDao, "node_b", PARTITION_COUNT, LEASE_TTL_MILLIS,
+				TAKEOVER_GRACE_MILLIS, listenerB);
+	}
+
+	@After
+	public void after() {
+		testDataCleanupHelper.cleanupPartitionLeases();
+	}
+
+	@Test
+	public void testSingleNode_owns_all_partitions() {
+		nodeA.heartbeat();
+
+		assertThat(nodeA.getOwnedPartitions(), is(allPartitions()));
+		assertThat(listenerA.firingPartitions, is(allPartitions()));
+	}
+
+	@Test
+	public void testTwoNodes_share_partitions() {
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+		// Node A hands over the partitions above its fair share, node B picks them up
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+
+		assertPartitionsSplit(2, 2);
+	}
+
+	@Test
+	public void testFailover_picks_up_partitions_of_dead_node() throws InterruptedException {
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+		assertPartitionsSplit(2, 2);
+
+		Set<Integer> partitionsA = nodeA.getOwnedPartitions();
+
+		// Node A dies without releasing its leases
+		long deathTime = System.currentTimeMillis();
+		while (nodeB.getOwnedPartitions().size() < PARTITION_COUNT) {
+			Thread.sleep(200);
+			nodeB.heartbeat();
+			assertThat(System.currentTimeMillis() - deathTime, lessThan(LEASE_TTL_MILLIS * 3));
+		}
+		assertThat("The partitions should only be taken over after the grace period",
+				System.currentTimeMillis() - deathTime,
+				greaterThanOrEqualTo(LEASE_TTL_MILLIS + TAKEOVER_GRACE_MILLIS / 2));
+
+		assertThat(nodeB.getOwnedPartitions(), is(allPartitions()));
+		assertThat(listenerB.firingPartitions, is(allPartitions()));
+		for (Integer partitionId : partitionsA) {
+			assertThat(listenerB.previousOwners.get(partitionId), is("node_a"));
+		}
+	}
+
+	@Test
+	public void testLeaseDeadline_stops_firing_without_renewal() throws InterruptedException {
+		nodeA.heartbeat();
+		nodeA.checkLeaseDeadline();
+		assertThat(listenerA.firingPartitions, is(allPartitions()));
+
+		// The heartbeat hangs past the lease deadline
+		Thread.sleep(LEASE_TTL_MILLIS);
+		nodeA.checkLeaseDeadline();
+		assertThat(listenerA.firingPartitions, is(empty()));
+		assertThat(nodeA.getFiringPartitions(), is(empty()));
+
+		// Nobody took the partitions over, the next renewal resumes them
+		nodeA.heartbeat();
+		assertThat(nodeA.getOwnedPartitions(), is(allPartitions()));
+		assertThat(nodeA.getFiringPartitions(), is(allPartitions()));
+		assertThat(listenerA.firingPartitions, is(allPartitions()));
+	}
+
+	@Test
+	public void testStop_hands_over_partitions_immediately() {
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+
+		nodeA.stop();
+		assertThat(listenerA.firingPartitions, is(empty()));
+
+		nodeB.heartbeat();
+		assertThat(nodeB.getOwnedPartitions(), is(allPartitions()));
+	}
+
+	private void assertPartitionsSplit(int expectedCountA, int expectedCountB) {
+		Set<Integer> partitionsA = nodeA.getOwnedPartitions();
+		Set<Integer> partitionsB = nodeB.getOwnedPartitions();
+
+		assertThat(partitionsA.size(), is(expectedCountA));
+		assertThat(partitionsB.size(), is(expectedCountB));
+		assertThat(Collections.disjoint(partitionsA, partitionsB), is(true));
+
+		Set<Integer> allOwned = new TreeSet<>(partitionsA);
+		allOwned.addAll(partitionsB);
+		assertThat(allOwned, is(allPartitions()));
+
+		assertThat(listenerA.firingPartitions, is(partitionsA));
+		assertThat(listenerB.firingPartitions, is(partitionsB));
+	}
+
+	private Set<Integer> allPartitions() {
+		Set<Integer> partitions = new TreeSet<>();
+		for (int partitionId = 0; partitionId < PARTITION_COUNT; partitionId++) {
+			partitions.add(partitionId);
+		}
+		return partitions;
+	}
+
+	private static class RecordingPartitionListener implements PartitionLeaseManager.PartitionListener {
+		private Set<Integer> firingPartitions = Collections.synchronizedSet(new TreeSet<>());
+
+		private Map<Integer, String> previousOwners = new HashMap<>();
+
+		@Override
+		public void partitionAcquired(int partitionId, String previousOwnerNodeId) {
+			firingPartitions.add(partitionId);
+			previousOwners.put(partitionId, previousOwnerNodeId);
+		}
+
+		@Override
+		public void partitionReleased(int partitionId) {
+			firingPartitions.remove(partitionId);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import java.sql.Connection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.TriggerKey;
+import org.quartz.impl.jdbcjobstore.Constants;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PostgreSQLSkipLockedDelegateTest extends TestConfiguration {
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	private PostgreSQLSkipLockedDelegate delegate;
+
+	private long fireTime;
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		CascadingClassLoadHelper classLoadHelper = new CascadingClassLoadHelper();
+		classLoadHelper.initialize();
+		delegate = new PostgreSQLSkipLockedDelegate();
+		delegate.initialize(LoggerFactory.getLogger(getClass()), Constants.DEFAULT_TABLE_PREFIX,
+				scheduler.getSchedulerName(), scheduler.getSchedulerInstanceId(), classLoadHelper, false, null);
+
+		// Far enough in the future not to be acquired by the scheduler itself
+		fireTime = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365);
+		scheduleJob("first", fireTime);
+		scheduleJob("second", fireTime + 1000);
+	}
+
+	@After
+	public void after() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+	}
+
+	@Test
+	public void testSelectTriggerToAcquire_in_fire_time_order() throws Exception {
+		try (Connection conn = dataSource.getConnection()) {
+			List<TriggerKey> triggerKeys = delegate.selectTriggerToAcquire(conn, fireTime + 1000, 0, 10);
+			assertThat(triggerKeys, contains(triggerKey("first"), triggerKey("second")));
+
+			assertThat("The triggers due later should not be selected",
+					delegate.selectTriggerToAcquire(conn, fireTime, 0, 10), contains(triggerKey("first")));
+		}
+	}
+
+	@Test
+	public void testSelectTriggerToAcquire_skips_locked_triggers() throws Exception {
+		try (Connection firstConn = dataSource.getConnection(); Connection secondConn = dataSource.getConnection()) {
+			firstConn.setAutoCommit(false);
+			secondConn.setAutoCommit(false);
+			try {
+				assertThat(delegate.selectTriggerToAcquire(firstConn, fireTime + 1000, 0, 1),
+						contains(triggerKey("first")));
+
+				// The trigger locked by the first transaction is skipped instead of waited for
+				assertThat(delegate.selectTriggerToAcquire(secondConn, fireTime + 1000, 0, 10),
+						contains(triggerKey("second")));
+			} finally {
+				firstConn.rollback();
+				secondConn.rollback();
+			}
+		}
+	}
+
+	private void scheduleJob(String name, long startTime) throws Exception {
+		JobKey jobKey = new JobKey(name, ScheduleTypeEnum.SPECIFIC_DATE.getScheduleIdentifier());
+		JobDetail jobDetail = ScheduleJobHelper.buildJob(jobKey, AppScalingSpecificDateScheduleStartJob.class);
+		scheduler.scheduleJob(jobDetail, ScheduleJobHelper.buildTrigger(triggerKey(name), jobKey, new Date(startTime)));
+	}
+
+	private TriggerKey triggerKey(String name) {
+		return new TriggerKey(name, ScheduleTypeEnum.SPECIFIC_DATE.getScheduleIdentifier());
+	}
+}
@@ -0,0 +1,131 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.EmbeddedTomcatUtil;
+import org.cloudfoundry.autoscaler.scheduler.util.EmbeddedTomcatUtil.ScalingEngineStub;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.client.HttpClientErrorException;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scalingengine.notification.batch.enabled=true",
+		"scalingengine.notification.batch.linger.millisecond=200",
+		"scalingengine.notification.batch.fallback.retry.interval.seconds=0" })
+public class ScalingEngineBatchNotifierTest extends TestConfiguration {
+
+	private static final int NOTIFICATION_COUNT = 50;
+
+	@Autowired
+	private ScalingEngineBatchNotifier scalingEngineBatchNotifier;
+
+	private static EmbeddedTomcatUtil embeddedTomcatUtil;
+
+	private ScalingEngineStub scalingEngineStub;
+
+	private ExecutorService executorService;
+
+	@BeforeClass
+	public static void beforeClass() {
+		embeddedTomcatUtil = new EmbeddedTomcatUtil();
+		embeddedTomcatUtil.start();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		embeddedTomcatUtil.stop();
+	}
+
+	@Before
+	public void before() {
+		scalingEngineStub = embeddedTomcatUtil.setupScalingEngineStub();
+		executorService = Executors.newFixedThreadPool(NOTIFICATION_COUNT);
+	}
+
+	@After
+	public void after() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void testNotify_in_batches() throws Exception {
+		notifyConcurrently(TestDataSetupHelper.generateAppIds(NOTIFICATION_COUNT));
+
+		assertThat(scalingEngineStub.getNotificationCount(), is(NOTIFICATION_COUNT));
+		assertThat(scalingEngineStub.getSingleRequestCount(), is(0));
+		assertThat("The notifications should share requests", scalingEngineStub.getBatchRequestCount(),
+				lessThan(NOTIFICATION_COUNT));
+	}
+
+	@Test
+	public void testNotify_with_rejected_entry() throws Exception {
+		String[] appIds = TestDataSetupHelper.generateAppIds(2);
+		scalingEngineStub.setStatus(appIds[1], HttpStatus.BAD_REQUEST.value());
+
+		scalingEngineBatchNotifier.notify(createActiveSchedule(appIds[0]), JobActionEnum.START);
+		try {
+			scalingEngineBatchNotifier.notify(createActiveSchedule(appIds[1]), JobActionEnum.END);
+			fail("The rejected entry should raise a client error");
+		} catch (HttpClientErrorException hcee) {
+			assertThat(hcee.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+			assertThat(hcee.getResponseBodyAsString(), is("stub status"));
+		}
+	}
+
+	@Test
+	public void testNotify_falls_back_without_batch_endpoint() throws Exception {
+		scalingEngineStub.setBatchSupported(false);
+
+		notifyConcurrently(TestDataSetupHelper.generateAppIds(NOTIFICATION_COUNT));
+
+		assertThat(scalingEngineStub.getSingleRequestCount(), is(NOTIFICATION_COUNT));
+		assertThat(scalingEngineStub.getBatchRequestCount(), is(0));
+		assertThat(scalingEngineStub.getNotificationCount(), is(NOTIFICATION_COUNT));
+	}
+
+	private void notifyConcurrently(String[] appIds) throws Exception {
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < appIds.length; i++) {
+			ActiveScheduleEntity activeScheduleEntity = createActiveSchedule(appIds[i]);
+			JobActionEnum scalingAction = i % 2 == 0 ? JobActionEnum.START : JobActionEnum.END;
+			futures.add(executorService
+					.submit(() -> scalingEngineBatchNotifier.notify(activeScheduleEntity, scalingAction)));
+		}
+		for (Future<?> future : futures) {
+			future.get(1, TimeUnit.MINUTES);
+		}
+	}
+
+	private ActiveScheduleEntity createActiveSchedule(String appId) {
+		ActiveScheduleEntity activeScheduleEntity = new ActiveScheduleEntity();
+		activeScheduleEntity.setAppId(appId);
+		activeScheduleEntity.setId(1L);
+		activeScheduleEntity.setInstanceMinCount(1);
+		activeScheduleEntity.setInstanceMaxCount(5);
+		return activeScheduleEntity;
+	}
+}
@@ -0,0 +1,224 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.dao.PendingNotificationDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.quartz.ScalingEngineCircuitBreaker.Permit;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.EmbeddedTomcatUtil;
+import org.cloudfoundry.autoscaler.scheduler.util.EmbeddedTomcatUtil.ScalingEngineStub;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scalingengine.circuitbreaker.enabled=true",
+		"scalingengine.circuitbreaker.failure.threshold=2",
+		"scalingengine.circuitbreaker.open.interval.millisecond=2000", "scalingengine.bulkhead.maxconcurrent=2",
+		"scalingengine.bulkhead.wait.millisecond=0", "scalingengine.pending.replay.interval.millisecond=100" })
+public class ScalingEngineCircuitBreakerTest extends TestConfiguration {
+
+	@Autowired
+	private ScalingEngineCircuitBreaker scalingEngineCircuitBreaker;
+
+	@Autowired
+	private PendingNotificationDao pendingNotificationDao;
+
+	@Autowired
+	private ActiveScheduleDao activeScheduleDao;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	private static EmbeddedTomcatUtil embeddedTomcatUtil;
+
+	private ScalingEngineStub scalingEngineStub;
+
+	@BeforeClass
+	public static void beforeClass() {
+		embeddedTomcatUtil = new EmbeddedTomcatUtil();
+		embeddedTomcatUtil.start();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		embeddedTomcatUtil.stop();
+	}
+
+	@Before
+	public void before() {
+		testDataCleanupHelper.cleanupData();
+		testDataCleanupHelper.cleanupPendingNotifications();
+		scalingEngineStub = embeddedTomcatUtil.setupScalingEngineStub();
+	}
+
+	@Test
+	public void testDeferredNotificationsReplayedAfterProbe() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+
+		// Consecutive failures open the circuit
+		openCircuit();
+		assertThat("No call should go through while the circuit is open", scalingEngineCircuitBreaker.tryAcquire(),
+				nullValue());
+
+		scalingEngineCircuitBreaker.defer(createActiveSchedule(appId), JobActionEnum.START);
+		assertThat(scalingEngineCircuitBreaker.hasPendingNotifications(), is(true));
+		assertThat(getMetric("scheduler.scalingengine.breaker.state"), is(2L));
+		assertThat(getMetric("scheduler.scalingengine.pending"), is(1L));
+
+		// Once the open interval has passed the replay probes the scaling engine and closes the circuit
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+		while (scalingEngineCircuitBreaker.hasPendingNotifications() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertThat(scalingEngineCircuitBreaker.hasPendingNotifications(), is(false));
+		assertThat(scalingEngineCircuitBreaker.getState(), is(ScalingEngineCircuitBreaker.State.CLOSED));
+		assertThat(scalingEngineStub.getSingleRequestCount(), is(1));
+		assertThat(getMetric("scheduler.scalingengine.breaker.state"), is(0L));
+	}
+
+	@Test
+	public void testStaleReleaseDoesNotCloseOpenCircuit() throws Exception {
+		Permit stalePermit = scalingEngineCircuitBreaker.tryAcquire();
+		assertThat(stalePermit, notNullValue());
+
+		// The circuit opens while the call of the stale permit is in flight
+		Permit permit = scalingEngineCircuitBreaker.tryAcquire();
+		scalingEngineCircuitBreaker.release(permit, false);
+		permit = scalingEngineCircuitBreaker.tryAcquire();
+		scalingEngineCircuitBreaker.release(permit, false);
+		assertThat(scalingEngineCircuitBreaker.isOpen(), is(true));
+
+		scalingEngineCircuitBreaker.release(stalePermit, true);
+		assertThat("The success of a call started before the circuit opened should be ignored",
+				scalingEngineCircuitBreaker.isOpen(), is(true));
+		assertThat(getMetric("scheduler.scalingengine.bulkhead.available"), is(2L));
+
+		// The probe taken once the open interval has passed closes it
+		Thread.sleep(2100);
+		permit = scalingEngineCircuitBreaker.tryAcquire();
+		assertThat(permit, notNullValue());
+		scalingEngineCircuitBreaker.release(permit, true);
+		assertThat(scalingEngineCircuitBreaker.getState(), is(ScalingEngineCircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	public void testPendingCountFollowsTable() throws Exception {
+		openCircuit();
+		// Deferred by another instance of the cluster
+		pendingNotificationDao.create(createActiveSchedule(TestDataSetupHelper.generateAppIds(1)[0]),
+				JobActionEnum.START);
+
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+		while (!scalingEngineCircuitBreaker.hasPendingNotifications() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertThat(scalingEngineCircuitBreaker.hasPendingNotifications(), is(true));
+
+		// The replay sends it once the circuit closes again
+		deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+		while (scalingEngineCircuitBreaker.hasPendingNotifications() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertThat(pendingNotificationDao.count(), is(0L));
+		assertThat(scalingEngineCircuitBreaker.getState(), is(ScalingEngineCircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	public void testDeleteSchedules_defers_removal_behind_pending_notifications() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		ActiveScheduleEntity activeScheduleEntity = createActiveSchedule(appId);
+		activeScheduleDao.create(activeScheduleEntity);
+
+		openCircuit();
+		scalingEngineCircuitBreaker.defer(activeScheduleEntity, JobActionEnum.START);
+
+		scheduleManager.deleteSchedules(appId);
+
+		// The removal supersedes the deferred start, unless a replay had claimed it, and is queued after it
+		List<String> pendingActions = new JdbcTemplate(dataSource).queryForList(
+				"SELECT action FROM app_scaling_pending_notification WHERE app_id=? ORDER BY id", String.class,
+				appId);
+		assertThat(pendingActions.isEmpty(), is(false));
+		assertThat(pendingActions.get(pendingActions.size() - 1), is(JobActionEnum.END.name()));
+		assertThat(pendingActions.size(), lessThanOrEqualTo(2));
+		assertThat("Nothing should be sent while the circuit is open", scalingEngineStub.getSingleRequestCount(),
+				is(0));
+		assertThat(activeScheduleDao.findByAppId(appId).isEmpty(), is(true));
+	}
+
+	@Test
+	public void testBulkheadLimitsConcurrentCalls() throws Exception {
+		Permit firstPermit = scalingEngineCircuitBreaker.tryAcquire();
+		Permit secondPermit = scalingEngineCircuitBreaker.tryAcquire();
+		assertThat(firstPermit, notNullValue());
+		assertThat(secondPermit, notNullValue());
+		assertThat("The bulkhead should be full", scalingEngineCircuitBreaker.tryAcquire(), nullValue());
+		assertThat(getMetric("scheduler.scalingengine.bulkhead.available"), is(0L));
+
+		scalingEngineCircuitBreaker.release(firstPermit, true);
+		Permit thirdPermit = scalingEngineCircuitBreaker.tryAcquire();
+		assertThat(thirdPermit, notNullValue());
+		scalingEngineCircuitBreaker.release(secondPermit, true);
+		scalingEngineCircuitBreaker.release(thirdPermit, true);
+		assertThat(getMetric("scheduler.scalingengine.bulkhead.available"), is(2L));
+	}
+
+	private void openCircuit() {
+		for (int i = 0; i < 2; i++) {
+			Permit permit = scalingEngineCircuitBreaker.tryAcquire();
+			assertThat(permit, notNullValue());
+			scalingEngineCircuitBreaker.release(permit, false);
+		}
+		assertThat(scalingEngineCircuitBreaker.isOpen(), is(true));
+	}
+
+	private Long getMetric(String name) {
+		for (Metric<?> metric : scalingEngineCircuitBreaker.metrics()) {
+			if (metric.getName().equals(name)) {
+				return metric.getValue().longValue();
+			}
+		}
+		return null;
+	}
+
+	private ActiveScheduleEntity createActiveSchedule(String appId) {
+		ActiveScheduleEntity activeScheduleEntity = new ActiveScheduleEntity();
+		activeScheduleEntity.setAppId(appId);
+		activeScheduleEntity.setId(1L);
+		activeScheduleEntity.setStartJobIdentifier(System.currentTimeMillis());
+		activeScheduleEntity.setInstanceMinCount(1);
+		activeScheduleEntity.setInstanceMaxCount(5);
+		return activeScheduleEntity;
+	}
+}
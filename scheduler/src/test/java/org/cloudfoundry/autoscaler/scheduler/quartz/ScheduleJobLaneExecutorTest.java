@@ -0,0 +1,186 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.eq;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.util.EmbeddedTomcatUtil;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobLaneEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper.JobInformation;
+import org.cloudfoundry.autoscaler.scheduler.util.TestJobListener;
+import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.quartz.JobDataMap;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.StdSchedulerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.lane.enabled=true", "scheduler.lane.start.poolsize=1",
+		"scheduler.lane.end.poolsize=1", "scheduler.lane.retry.poolsize=1", "scheduler.lane.queue.capacity=1" })
+public class ScheduleJobLaneExecutorTest extends TestConfiguration {
+
+	@Autowired
+	private ScheduleJobLaneExecutor scheduleJobLaneExecutor;
+
+	@MockBean
+	private Scheduler scheduler;
+
+	@MockBean
+	private ActiveScheduleDao activeScheduleDao;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	private Scheduler memScheduler;
+
+	private static EmbeddedTomcatUtil embeddedTomcatUtil;
+
+	@BeforeClass
+	public static void beforeClass() {
+		embeddedTomcatUtil = new EmbeddedTomcatUtil();
+		embeddedTomcatUtil.start();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		embeddedTomcatUtil.stop();
+	}
+
+	@Before
+	public void before() throws SchedulerException {
+		memScheduler = StdSchedulerFactory.getDefaultScheduler();
+		QuartzJobFactory jobFactory = new QuartzJobFactory();
+		jobFactory.setApplicationContext(applicationContext);
+		memScheduler.setJobFactory(jobFactory);
+		memScheduler.start();
+		testDataCleanupHelper.cleanupData(memScheduler);
+
+		Mockito.reset(activeScheduleDao);
+	}
+
+	@Test
+	public void testExecute_on_lane() throws Exception {
+		AtomicReference<String> threadName = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(1);
+
+		scheduleJobLaneExecutor.execute(ScheduleJobLaneEnum.END, () -> {
+			threadName.set(Thread.currentThread().getName());
+			done.countDown();
+		});
+
+		assertTrue("The task should run", done.await(10, TimeUnit.SECONDS));
+		assertThat(threadName.get(), startsWith("scheduler-lane-end-"));
+	}
+
+	@Test
+	public void testExecute_on_caller_when_lane_saturated() throws Exception {
+		long saturatedCount = getMetricValue("scheduler.lane.start.saturated").longValue();
+
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			// Keeps the only worker busy
+			scheduleJobLaneExecutor.execute(ScheduleJobLaneEnum.START, () -> {
+				running.countDown();
+				awaitQuietly(release);
+			});
+			assertTrue("The worker should be busy", running.await(10, TimeUnit.SECONDS));
+			// Fills the queue
+			scheduleJobLaneExecutor.execute(ScheduleJobLaneEnum.START, () -> {
+			});
+
+			assertThat(getMetricValue("scheduler.lane.start.poolsize").intValue(), is(1));
+			assertThat(getMetricValue("scheduler.lane.start.active").intValue(), is(1));
+			assertThat(getMetricValue("scheduler.lane.start.queued").intValue(), is(1));
+			assertThat(getMetricValue("scheduler.lane.start.queue.remaining").intValue(), is(0));
+
+			AtomicReference<String> threadName = new AtomicReference<>();
+			scheduleJobLaneExecutor.execute(ScheduleJobLaneEnum.START,
+					() -> threadName.set(Thread.currentThread().getName()));
+
+			assertThat("The task should run on the caller", threadName.get(), is(Thread.currentThread().getName()));
+			assertThat(getMetricValue("scheduler.lane.start.saturated").longValue(), is(saturatedCount + 1));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void testRescheduleJob_on_lane() throws Exception {
+		int expectedNumOfTimesJobRescheduled = 5;
+
+		JobInformation jobInformation = new JobInformation<>(AppScalingScheduleEndJob.class);
+		Date endJobStartTime = new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1));
+
+		long startJobIdentifier = 10L;
+		JobDataMap jobDataMap = TestDataSetupHelper.setupJobDataMap(jobInformation.getJobDetail());
+		jobDataMap.put(ScheduleJobHelper.END_JOB_START_TIME, endJobStartTime.getTime());
+		jobDataMap.put(ScheduleJobHelper.START_JOB_IDENTIFIER, startJobIdentifier);
+
+		ActiveScheduleEntity activeScheduleEntity = ScheduleJobHelper.setupActiveSchedule(jobDataMap);
+		Long scheduleId = activeScheduleEntity.getId();
+
+		embeddedTomcatUtil.setup(activeScheduleEntity.getAppId(), scheduleId, 204, null);
+
+		Mockito.doThrow(new DatabaseValidationException("test exception")).when(activeScheduleDao)
+				.delete(eq(scheduleId), eq(startJobIdentifier));
+
+		TestJobListener testJobListener = new TestJobListener(expectedNumOfTimesJobRescheduled);
+		memScheduler.getListenerManager().addJobListener(testJobListener);
+
+		memScheduler.scheduleJob(jobInformation.getJobDetail(), jobInformation.getTrigger());
+
+		testJobListener.waitForJobToFinish(TimeUnit.MINUTES.toMillis(1));
+
+		// The fired triggers are gone by the time the lane fails, the retries still have to happen
+		Mockito.verify(activeScheduleDao, Mockito.timeout(TimeUnit.SECONDS.toMillis(10))
+				.times(expectedNumOfTimesJobRescheduled)).delete(scheduleId, startJobIdentifier);
+	}
+
+	private Number getMetricValue(String name) {
+		for (Metric<?> metric : scheduleJobLaneExecutor.metrics()) {
+			if (metric.getName().equals(name)) {
+				return metric.getValue();
+			}
+		}
+		throw new AssertionError("Metric " + name + " not found");
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(1, TimeUnit.MINUTES);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,317 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.PartitionLeaseDao;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Runs two scheduler nodes, each with its own coordinator and shard schedulers, in the same JVM
+ * against one database and checks that every occurrence of a job is fired by one node only.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class SchedulerPartitionCoordinatorTest extends TestConfiguration {
+
+	private static final String SCHEDULER_NAME_PREFIX = "clusterTestShard";
+
+	private static final int PARTITION_COUNT = 2;
+
+	private static final long LEASE_TTL_MILLIS = 2000;
+
+	private static final long TAKEOVER_GRACE_MILLIS = 500;
+
+	private static final long REPEAT_INTERVAL_MILLIS = 400;
+
+	private static final long JOB_DURATION_MILLIS = 300;
+
+	private static final List<JobExecution> jobExecutions = Collections.synchronizedList(new ArrayList<>());
+
+	private static volatile String hangingNodeId;
+
+	private static volatile CountDownLatch hangingJobLatch;
+
+	@Autowired
+	private PartitionLeaseDao partitionLeaseDao;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("quartzProperties")
+	private Properties quartzProperties;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	private List<SchedulerFactoryBean> schedulerFactoryBeans = new ArrayList<>();
+
+	private List<Scheduler> shardsA;
+
+	private List<Scheduler> shardsB;
+
+	private PartitionLeaseManager nodeA;
+
+	private PartitionLeaseManager nodeB;
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupPartitionLeases();
+		jobExecutions.clear();
+		hangingNodeId = null;
+		hangingJobLatch = new CountDownLatch(1);
+
+		shardsA = createShards("node_a");
+		shardsB = createShards("node_b");
+		for (Scheduler scheduler : shardsA) {
+			scheduler.clear();
+		}
+
+		nodeA = createNode("node_a", shardsA);
+		nodeB = createNode("node_b", shardsB);
+	}
+
+	@After
+	public void after() throws Exception {
+		hangingJobLatch.countDown();
+		for (Scheduler scheduler : shardsA) {
+			scheduler.clear();
+		}
+		for (SchedulerFactoryBean schedulerFactoryBean : schedulerFactoryBeans) {
+			schedulerFactoryBean.destroy();
+		}
+		testDataCleanupHelper.cleanupPartitionLeases();
+	}
+
+	@Test
+	public void testGracefulHandOver_fires_each_occurrence_once() throws Exception {
+		nodeA.heartbeat();
+		assertThat(nodeA.getOwnedPartitions().size(), is(PARTITION_COUNT));
+
+		scheduleRepeatingJob(shardsA.get(1), "handOverJob");
+		waitForRunningExecution("handOverJob", "node_a");
+
+		// Node B joins while the job runs on node A, node A hands over partition 1 to node B
+		nodeB.heartbeat();
+		nodeA.heartbeat();
+		nodeB.heartbeat();
+		assertThat(nodeB.getOwnedPartitions(), is(Collections.singleton(1)));
+
+		waitForExecutionCount("handOverJob", "node_b", 2);
+
+		List<JobExecution> executions = getExecutions("handOverJob");
+		assertFiredOnce(executions);
+		for (int i = 0; i < executions.size(); i++) {
+			for (int j = i + 1; j < executions.size(); j++) {
+				assertThat("The executions of a job must not overlap across nodes",
+						executions.get(i).overlaps(executions.get(j)), is(false));
+			}
+		}
+	}
+
+	@Test
+	public void testTakeover_fires_each_occurrence_once() throws Exception {
+		hangingNodeId = "node_a";
+		nodeA.heartbeat();
+		assertThat(nodeA.getOwnedPartitions().size(), is(PARTITION_COUNT));
+
+		scheduleRepeatingJob(shardsA.get(0), "takeoverJob");
+		waitForRunningExecution("takeoverJob", "node_a");
+
+		// Node A stops heart beating with the job still running, its watchdog stands its shards by
+		long deathTime = System.currentTimeMillis();
+		Thread.sleep(LEASE_TTL_MILLIS);
+		nodeA.checkLeaseDeadline();
+		assertThat(nodeA.getFiringPartitions().isEmpty(), is(true));
+
+		nodeB.heartbeat();
+		while (nodeB.getOwnedPartitions().size() < PARTITION_COUNT) {
+			Thread.sleep(200);
+			nodeB.heartbeat();
+			assertThat(System.currentTimeMillis() - deathTime, lessThan(LEASE_TTL_MILLIS * 3));
+		}
+
+		waitForExecutionCount("takeoverJob", "node_b", 2);
+
+		List<JobExecution> executions = getExecutions("takeoverJob");
+		assertFiredOnce(executions);
+		assertThat(countExecutions(executions, "node_a"), is(1));
+	}
+
+	private List<Scheduler> createShards(String nodeId) throws Exception {
+		List<Scheduler> shards = new ArrayList<>();
+		for (int shardIndex = 0; shardIndex < PARTITION_COUNT; shardIndex++) {
+			Properties shardQuartzProperties = new Properties();
+			shardQuartzProperties.putAll(quartzProperties);
+			shardQuartzProperties.put("org.quartz.scheduler.instanceId", nodeId);
+			shardQuartzProperties.put("org.quartz.scheduler.idleWaitTime", "1000");
+			shardQuartzProperties.put(ShardSchedulerFactory.PROP_CLUSTER_ENABLED, "true");
+
+			SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
+			schedulerFactoryBean.setSchedulerName(SCHEDULER_NAME_PREFIX + shardIndex);
+			schedulerFactoryBean.setSchedulerFactoryClass(ShardSchedulerFactory.class);
+			schedulerFactoryBean.setDataSource(dataSource);
+			schedulerFactoryBean.setTransactionManager(transactionManager);
+			schedulerFactoryBean.setQuartzProperties(shardQuartzProperties);
+			schedulerFactoryBean.setAutoStartup(false);
+			schedulerFactoryBean.afterPropertiesSet();
+			schedulerFactoryBeans.add(schedulerFactoryBean);
+			shards.add(schedulerFactoryBean.getScheduler());
+		}
+		return shards;
+	}
+
+	private PartitionLeaseManager createNode(String nodeId, List<Scheduler> shards) {
+		SchedulerPartitionCoordinator coordinator = new SchedulerPartitionCoordinator(
+				new SchedulerShardManager(shards), partitionLeaseDao, messageBundleResourceHelper, nodeId);
+		return new PartitionLeaseManager(partitionLeaseDao, nodeId, PARTITION_COUNT, LEASE_TTL_MILLIS,
+				TAKEOVER_GRACE_MILLIS, coordinator);
+	}
+
+	private void scheduleRepeatingJob(Scheduler scheduler, String jobName) throws SchedulerException {
+		JobDetail jobDetail = JobBuilder.newJob(RecordingJob.class).withIdentity(jobName).build();
+		Trigger trigger = TriggerBuilder.newTrigger().withIdentity(jobName).startNow()
+				.withSchedule(SimpleScheduleBuilder.simpleSchedule()
+						.withIntervalInMilliseconds(REPEAT_INTERVAL_MILLIS).repeatForever())
+				.build();
+		scheduler.scheduleJob(jobDetail, trigger);
+	}
+
+	private void waitForRunningExecution(String jobName, String nodeId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (true) {
+			for (JobExecution execution : getExecutions(jobName)) {
+				if (execution.nodeId.equals(nodeId) && execution.endTime == 0) {
+					return;
+				}
+			}
+			assertThat("Waiting for job " + jobName + " to run on " + nodeId, System.currentTimeMillis(),
+					lessThan(deadline));
+			Thread.sleep(20);
+		}
+	}
+
+	private void waitForExecutionCount(String jobName, String nodeId, int expectedCount)
+			throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (countExecutions(getExecutions(jobName), nodeId) < expectedCount) {
+			assertThat("Waiting for job " + jobName + " to run on " + nodeId, System.currentTimeMillis(),
+					lessThan(deadline));
+			Thread.sleep(50);
+		}
+	}
+
+	private void assertFiredOnce(List<JobExecution> executions) {
+		Set<Long> scheduledFireTimes = new HashSet<>();
+		for (JobExecution execution : executions) {
+			assertThat("Occurrence " + execution.scheduledFireTime + " fired more than once",
+					scheduledFireTimes.add(execution.scheduledFireTime), is(true));
+		}
+		assertThat(scheduledFireTimes.size(), greaterThanOrEqualTo(2));
+	}
+
+	private static List<JobExecution> getExecutions(String jobName) {
+		List<JobExecution> executions = new ArrayList<>();
+		synchronized (jobExecutions) {
+			for (JobExecution execution : jobExecutions) {
+				if (execution.jobName.equals(jobName)) {
+					executions.add(execution);
+				}
+			}
+		}
+		return executions;
+	}
+
+	private static int countExecutions(List<JobExecution> executions, String nodeId) {
+		int count = 0;
+		for (JobExecution execution : executions) {
+			if (execution.nodeId.equals(nodeId)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@DisallowConcurrentExecution
+	public static class RecordingJob implements Job {
+		@Override
+		public void execute(JobExecutionContext context) throws JobExecutionException {
+			try {
+				JobExecution execution = new JobExecution(context.getJobDetail().getKey().getName(),
+						context.getScheduledFireTime().getTime(), context.getScheduler().getSchedulerInstanceId());
+				jobExecutions.add(execution);
+				if (execution.nodeId.equals(hangingNodeId)) {
+					hangingJobLatch.await(30, TimeUnit.SECONDS);
+				} else {
+					Thread.sleep(JOB_DURATION_MILLIS);
+				}
+				execution.endTime = System.currentTimeMillis();
+			} catch (SchedulerException | InterruptedException e) {
+				throw new JobExecutionException(e);
+			}
+		}
+	}
+
+	private static class JobExecution {
+		private final String jobName;
+		private final long scheduledFireTime;
+		private final String nodeId;
+		private final long startTime = System.currentTimeMillis();
+		private volatile long endTime = 0;
+
+		private JobExecution(String jobName, long scheduledFireTime, String nodeId) {
+			this.jobName = jobName;
+			this.scheduledFireTime = scheduledFireTime;
+			this.nodeId = nodeId;
+		}
+
+		private boolean overlaps(JobExecution other) {
+			long end = endTime == 0 ? Long.MAX_VALUE : endTime;
+			long otherEnd = other.endTime == 0 ? Long.MAX_VALUE : other.endTime;
+			return startTime < otherEnd && other.startTime < end;
+		}
+	}
+}
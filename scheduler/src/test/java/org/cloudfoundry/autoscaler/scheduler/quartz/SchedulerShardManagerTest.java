@@ -0,0 +1,55 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class SchedulerShardManagerTest {
+
+	@Test
+	public void testGetShardIndex_single_shard() {
+		for (int i = 0; i < 100; i++) {
+			String appId = UUID.randomUUID().toString();
+			assertThat(SchedulerShardManager.getShardIndex(appId, 1), is(0));
+		}
+	}
+
+	@Test
+	public void testGetShardIndex_is_stable_and_in_range() {
+		int shardCount = 4;
+		int[] appCountPerShard = new int[shardCount];
+		for (int i = 0; i < 4000; i++) {
+			String appId = UUID.randomUUID().toString();
+			int shardIndex = SchedulerShardManager.getShardIndex(appId, shardCount);
+			assertThat(SchedulerShardManager.getShardIndex(appId, shardCount), is(shardIndex));
+			appCountPerShard[shardIndex]++;
+		}
+
+		for (int appCount : appCountPerShard) {
+			assertThat(appCount, greaterThan(800));
+			assertThat(appCount, lessThan(1200));
+		}
+	}
+
+	@Test
+	public void testGetShardIndex_adding_shard_only_moves_apps_to_new_shard() {
+		int movedAppCount = 0;
+		for (int i = 0; i < 4000; i++) {
+			String appId = UUID.randomUUID().toString();
+			int oldShardIndex = SchedulerShardManager.getShardIndex(appId, 4);
+			int newShardIndex = SchedulerShardManager.getShardIndex(appId, 5);
+			if (oldShardIndex != newShardIndex) {
+				assertThat(newShardIndex, is(4));
+				movedAppCount++;
+			}
+		}
+
+		assertThat(movedAppCount, greaterThan(600));
+		assertThat(movedAppCount, lessThan(1000));
+	}
+}
@@ -0,0 +1,49 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Properties;
+
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.Scheduler;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.RAMJobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.quartz.skiplocked.enabled=true" })
+public class SkipLockedSchedulerFactoryTest extends TestConfiguration {
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Test
+	public void testSkipLockedJobStore_wired_when_enabled() throws Exception {
+		assertThat(scheduler.getMetaData().getJobStoreClass(), equalTo((Class) SkipLockedJobStore.class));
+	}
+
+	@Test
+	public void testOtherJobStore_kept_when_enabled() throws Exception {
+		Properties properties = new Properties();
+		properties.put(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "SkipLockedSchedulerFactoryTest");
+		properties.put(StdSchedulerFactory.PROP_JOB_STORE_CLASS, RAMJobStore.class.getName());
+		properties.put("org.quartz.threadPool.threadCount", "1");
+		properties.put(SkipLockedSchedulerFactory.PROP_SKIP_LOCKED_ENABLED, "true");
+
+		SkipLockedSchedulerFactory schedulerFactory = new SkipLockedSchedulerFactory();
+		schedulerFactory.initialize(properties);
+		Scheduler ramScheduler = schedulerFactory.getScheduler();
+		try {
+			assertThat(ramScheduler.getMetaData().getJobStoreClass(), equalTo((Class) RAMJobStore.class));
+		} finally {
+			ramScheduler.shutdown();
+		}
+	}
+}
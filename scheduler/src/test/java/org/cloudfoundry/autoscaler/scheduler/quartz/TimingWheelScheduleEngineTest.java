@@ -0,0 +1,193 @@
+package org.cloudfoundry.autoscaler.scheduler.quartz;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.dao.TimingWheelWatermarkDao;
+import org.cloudfoundry.autoscaler.scheduler.util.EmbeddedTomcatUtil;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleJobHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.engine=timingwheel", "scheduler.timingwheel.tick.millisecond=10",
+		"scheduler.timingwheel.watermark.interval.millisecond=3600000" })
+public class TimingWheelScheduleEngineTest extends TestConfiguration {
+
+	private static final AtomicLong scheduleIds = new AtomicLong(1000);
+
+	@Autowired
+	private TimingWheelScheduleEngine timingWheelScheduleEngine;
+
+	@Autowired
+	private TimingWheelWatermarkDao timingWheelWatermarkDao;
+
+	@MockBean
+	private ActiveScheduleDao activeScheduleDao;
+
+	private static EmbeddedTomcatUtil embeddedTomcatUtil;
+
+	private String appId;
+
+	private Long scheduleId;
+
+	@BeforeClass
+	public static void beforeClass() {
+		embeddedTomcatUtil = new EmbeddedTomcatUtil();
+		embeddedTomcatUtil.start();
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		embeddedTomcatUtil.stop();
+	}
+
+	@Before
+	public void before() {
+		Mockito.reset(activeScheduleDao);
+
+		appId = TestDataSetupHelper.generateAppIds(1)[0];
+		scheduleId = scheduleIds.incrementAndGet();
+		embeddedTomcatUtil.setup(appId, scheduleId, 200, null);
+	}
+
+	@Test
+	public void testFireStartAndEndEvents() throws Exception {
+		long startTime = System.currentTimeMillis() + 200;
+		long endTime = startTime + 300;
+		JobDetail jobDetail = buildStartJob(endTime);
+
+		timingWheelScheduleEngine.scheduleJob(jobDetail, buildTrigger(jobDetail, startTime));
+
+		Mockito.verify(activeScheduleDao, Mockito.timeout(5000).times(1)).create(anyObject());
+		Mockito.verify(activeScheduleDao, Mockito.timeout(5000).times(1)).delete(eq(scheduleId), Mockito.anyLong());
+	}
+
+	@Test
+	public void testDeleteJob_before_start() throws Exception {
+		long startTime = System.currentTimeMillis() + 300;
+		JobDetail jobDetail = buildStartJob(startTime + 300);
+
+		timingWheelScheduleEngine.scheduleJob(jobDetail, buildTrigger(jobDetail, startTime));
+		timingWheelScheduleEngine.deleteJob(jobDetail.getKey());
+
+		Thread.sleep(1000);
+		Mockito.verify(activeScheduleDao, Mockito.never()).create(anyObject());
+		Mockito.verify(activeScheduleDao, Mockito.never()).delete(eq(scheduleId), Mockito.anyLong());
+	}
+
+	@Test
+	public void testDeleteJob_keeps_end_of_active_schedule() throws Exception {
+		long startTime = System.currentTimeMillis() + 100;
+		long endTime = startTime + 1000;
+		JobDetail jobDetail = buildStartJob(endTime);
+
+		timingWheelScheduleEngine.scheduleJob(jobDetail, buildTrigger(jobDetail, startTime));
+		Mockito.verify(activeScheduleDao, Mockito.timeout(5000).times(1)).create(anyObject());
+
+		// The schedule is removed while active, its end still fires
+		timingWheelScheduleEngine.deleteJob(jobDetail.getKey());
+
+		Mockito.verify(activeScheduleDao, Mockito.timeout(5000).times(1)).delete(eq(scheduleId), Mockito.anyLong());
+	}
+
+	@Test
+	public void testWatermark_recovers_unfinished_event() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.doAnswer(invocation -> {
+			started.countDown();
+			release.await(1, TimeUnit.MINUTES);
+			return null;
+		}).when(activeScheduleDao).create(anyObject());
+
+		long startTime = System.currentTimeMillis() + 100;
+		JobDetail jobDetail = buildStartJob(startTime + TimeUnit.MINUTES.toMillis(10));
+		Trigger trigger = buildTrigger(jobDetail, startTime);
+		timingWheelScheduleEngine.scheduleJob(jobDetail, trigger);
+
+		long watermark;
+		try {
+			assertTrue("The start job should fire", started.await(5, TimeUnit.SECONDS));
+
+			// The watermark stays below the event still firing, even though the wheel has moved past it
+			Thread.sleep(100);
+			timingWheelScheduleEngine.saveWatermark();
+			watermark = timingWheelWatermarkDao.findWatermark(TimingWheelScheduleEngine.ENGINE_NAME);
+			assertThat(watermark, lessThan(startTime));
+		} finally {
+			release.countDown();
+		}
+		Mockito.verify(activeScheduleDao, Mockito.timeout(5000).times(1)).create(anyObject());
+		assertThat(waitForWatermark(startTime), greaterThanOrEqualTo(startTime));
+
+		// Restarting from the watermark saved while the event was firing fires it again
+		Mockito.doNothing().when(activeScheduleDao).create(anyObject());
+		timingWheelWatermarkDao.saveWatermark(TimingWheelScheduleEngine.ENGINE_NAME, watermark);
+		timingWheelScheduleEngine.beginRestore();
+		timingWheelScheduleEngine.scheduleJob(buildStartJob(startTime + TimeUnit.MINUTES.toMillis(10)), trigger);
+		timingWheelScheduleEngine.start();
+
+		Mockito.verify(activeScheduleDao, Mockito.timeout(5000).times(2)).create(anyObject());
+		timingWheelScheduleEngine.deleteJob(jobDetail.getKey());
+	}
+
+	private long waitForWatermark(long minWatermark) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+		long watermark;
+		do {
+			timingWheelScheduleEngine.saveWatermark();
+			watermark = timingWheelWatermarkDao.findWatermark(TimingWheelScheduleEngine.ENGINE_NAME);
+			if (watermark >= minWatermark) {
+				break;
+			}
+			Thread.sleep(50);
+		} while (System.currentTimeMillis() < deadline);
+		return watermark;
+	}
+
+	private JobDetail buildStartJob(long endTime) {
+		JobKey jobKey = new JobKey(scheduleId + JobActionEnum.START.getJobIdSuffix(),
+				ScheduleTypeEnum.SPECIFIC_DATE.getScheduleIdentifier());
+		JobDetail jobDetail = ScheduleJobHelper.buildJob(jobKey, AppScalingSpecificDateScheduleStartJob.class);
+		JobDataMap jobDataMap = TestDataSetupHelper.setupJobDataMap(jobDetail);
+		jobDataMap.put(ScheduleJobHelper.APP_ID, appId);
+		jobDataMap.put(ScheduleJobHelper.SCHEDULE_ID, scheduleId);
+		jobDataMap.put(ScheduleJobHelper.END_JOB_START_TIME, endTime);
+		return jobDetail;
+	}
+
+	private Trigger buildTrigger(JobDetail jobDetail, long startTime) {
+		TriggerKey triggerKey = new TriggerKey(jobDetail.getKey().getName(), jobDetail.getKey().getGroup());
+		return ScheduleJobHelper.buildTrigger(triggerKey, jobDetail.getKey(), new Date(startTime));
+	}
+}
@@ -0,0 +1,102 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleChangeDao;
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChangeEvent;
+import org.cloudfoundry.autoscaler.scheduler.service.ActiveScheduleChangeFeed;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.changefeed.enabled=true" })
+public class ActiveScheduleChangeFeedRestControllerTest extends TestConfiguration {
+
+	@Autowired
+	private ActiveScheduleChangeFeed activeScheduleChangeFeed;
+
+	@Autowired
+	private ActiveScheduleChangeDao activeScheduleChangeDao;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	@Before
+	public void before() throws Exception {
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+	}
+
+	@Test
+	public void testGetActiveScheduleChanges_with_invalid_sequence() throws Exception {
+		mockMvc.perform(get("/v2/active_schedule_changes").param("after_sequence", "abc"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$").value(Matchers.contains(
+						messageBundleResourceHelper.lookupMessage("data.query.invalid", "after_sequence", "abc"))));
+
+		mockMvc.perform(get("/v2/active_schedule_changes").header("Last-Event-ID", "-1"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$").value(Matchers
+						.contains(messageBundleResourceHelper.lookupMessage("data.query.invalid", "Last-Event-ID", "-1"))));
+	}
+
+	@Test
+	public void testGetActiveScheduleChanges_after_last_event_id() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		ActiveScheduleEntity activeScheduleEntity = TestDataSetupHelper.generateActiveScheduleEntity(appId, 1L,
+				JobActionEnum.START);
+		activeScheduleChangeFeed.publish(activeScheduleEntity, JobActionEnum.START);
+		long lastEventId = activeScheduleChangeDao.findMaxSequence();
+		activeScheduleChangeFeed.publish(activeScheduleEntity, JobActionEnum.END);
+		ActiveScheduleChangeEvent endEvent = activeScheduleChangeDao.findAfter(lastEventId, 1).get(0);
+
+		MockHttpServletResponse response = mockMvc
+				.perform(get("/v2/active_schedule_changes").accept(MediaType.TEXT_EVENT_STREAM)
+						.header("Last-Event-ID", String.valueOf(lastEventId)))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+
+		String content = waitForContent(response, "id:" + endEvent.getSequence());
+		assertThat(content, containsString("event:end"));
+		assertThat(content, containsString("\"app_id\":\"" + appId + "\""));
+		assertThat("The event of the last event id should not be resent", content,
+				Matchers.not(containsString("id:" + lastEventId + "\n")));
+	}
+
+	private String waitForContent(MockHttpServletResponse response, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+		String content;
+		do {
+			content = response.getContentAsString();
+			if (content.contains(expected)) {
+				return content;
+			}
+			Thread.sleep(50);
+		} while (System.currentTimeMillis() < deadline);
+		throw new AssertionError("Expected " + expected + " in " + content);
+	}
+}
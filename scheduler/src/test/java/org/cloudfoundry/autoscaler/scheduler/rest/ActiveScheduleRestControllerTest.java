@@ -0,0 +1,150 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChanges;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleState;
+import org.cloudfoundry.autoscaler.scheduler.service.ActiveScheduleView;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.activeschedule.view.maxcount=3",
+		"scheduler.activeschedule.view.resync.interval.seconds=0" })
+public class ActiveScheduleRestControllerTest extends TestConfiguration {
+
+	@Autowired
+	private ActiveScheduleView activeScheduleView;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private String[] appIds;
+
+	@Before
+	public void before() throws Exception {
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+
+		appIds = TestDataSetupHelper.generateAppIds(2);
+	}
+
+	@Test
+	public void testGetActiveSchedule() throws Exception {
+		activeScheduleView.activeScheduleStarted(createActiveSchedule(appIds[0], 1L, 100L));
+
+		String content = mockMvc.perform(get("/v2/active_schedules/" + appIds[0])).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		ActiveScheduleState activeSchedule = mapper.readValue(content, ActiveScheduleState.class);
+		assertThat(activeSchedule.getAppId(), is(appIds[0]));
+		assertThat(activeSchedule.getScheduleId(), is(1L));
+		assertThat(activeSchedule.getInstanceMinCount(), is(2));
+		assertThat(activeSchedule.getInstanceMaxCount(), is(4));
+
+		String eTag = "\"" + activeSchedule.getVersion() + "\"";
+		mockMvc.perform(get("/v2/active_schedules/" + appIds[0]).header("If-None-Match", eTag))
+				.andExpect(status().isNotModified());
+
+		// A new start replaces the active schedule with a new version
+		activeScheduleView.activeScheduleStarted(createActiveSchedule(appIds[0], 2L, 200L));
+		mockMvc.perform(get("/v2/active_schedules/" + appIds[0]).header("If-None-Match", eTag))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.schedule_id").value(2))
+				.andExpect(header().string("ETag", Matchers.not(eTag)));
+
+		mockMvc.perform(get("/v2/active_schedules/" + appIds[1])).andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void testGetActiveSchedules() throws Exception {
+		activeScheduleView.activeScheduleStarted(createActiveSchedule(appIds[0], 1L, 100L));
+
+		ActiveScheduleChanges changes = callGetActiveSchedules(
+				get("/v2/active_schedules").param("app_ids", appIds[0] + "," + appIds[1]));
+		assertThat(getAppIds(changes.getActiveSchedules()), contains(appIds[0]));
+
+		mockMvc.perform(get("/v2/active_schedules").param("app_ids", "a,b,c,d")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers.contains(
+						messageBundleResourceHelper.lookupMessage("data.appids.limit.exceeded", 4, 3))));
+	}
+
+	@Test
+	public void testGetActiveScheduleChanges() throws Exception {
+		long version = activeScheduleView.getVersion();
+		activeScheduleView.activeScheduleStarted(createActiveSchedule(appIds[0], 1L, 100L));
+		activeScheduleView.activeScheduleStarted(createActiveSchedule(appIds[1], 2L, 200L));
+
+		ActiveScheduleChanges changes = callGetActiveSchedules(
+				get("/v2/active_schedules").param("since_version", String.valueOf(version)));
+		assertThat(changes.isFull(), is(false));
+		assertThat(changes.getVersion(), greaterThan(version));
+		assertThat(getAppIds(changes.getActiveSchedules()), contains(appIds[0], appIds[1]));
+		assertThat(changes.getRemovedAppIds(), is(empty()));
+
+		// The end of another occurrence of the schedule leaves the active schedule
+		version = changes.getVersion();
+		activeScheduleView.activeScheduleEnded(appIds[0], 1L, 50L);
+		activeScheduleView.activeScheduleEnded(appIds[1], 2L, 200L);
+		changes = callGetActiveSchedules(get("/v2/active_schedules").param("since_version", String.valueOf(version)));
+		assertThat(changes.getActiveSchedules(), is(empty()));
+		assertThat(changes.getRemovedAppIds(), contains(appIds[1]));
+
+		mockMvc.perform(get("/v2/active_schedules/" + appIds[1])).andExpect(status().isNotFound());
+	}
+
+	private ActiveScheduleChanges callGetActiveSchedules(MockHttpServletRequestBuilder request) throws Exception {
+		String content = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+		return mapper.readValue(content, ActiveScheduleChanges.class);
+	}
+
+	private List<String> getAppIds(List<ActiveScheduleState> activeSchedules) {
+		List<String> appIds = new ArrayList<>();
+		for (ActiveScheduleState activeSchedule : activeSchedules) {
+			appIds.add(activeSchedule.getAppId());
+		}
+		return appIds;
+	}
+
+	private ActiveScheduleEntity createActiveSchedule(String appId, Long scheduleId, Long startJobIdentifier) {
+		ActiveScheduleEntity activeScheduleEntity = new ActiveScheduleEntity();
+		activeScheduleEntity.setAppId(appId);
+		activeScheduleEntity.setId(scheduleId);
+		activeScheduleEntity.setStartJobIdentifier(startJobIdentifier);
+		activeScheduleEntity.setInstanceMinCount(2);
+		activeScheduleEntity.setInstanceMaxCount(4);
+		return activeScheduleEntity;
+	}
+}
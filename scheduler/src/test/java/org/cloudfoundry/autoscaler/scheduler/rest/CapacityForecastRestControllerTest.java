@@ -0,0 +1,171 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.CapacityForecast;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.CapacityForecastStep;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleBuilder;
+import org.cloudfoundry.autoscaler.scheduler.util.SpecificDateScheduleEntitiesBuilder;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.Scheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.upcoming.horizon.hours=96", "scheduler.capacity.forecast.max.steps=48" })
+public class CapacityForecastRestControllerTest extends TestConfiguration {
+
+	private static final String UTC = "UTC";
+
+	private static final String KOLKATA = "Asia/Kolkata";
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+	}
+
+	@Test
+	public void testGetCapacityForecast() throws Exception {
+		long start = (System.currentTimeMillis() / TimeUnit.MINUTES.toMillis(1) + 120) * TimeUnit.MINUTES.toMillis(1);
+		long from = start - TimeUnit.HOURS.toMillis(1);
+		long to = start + TimeUnit.HOURS.toMillis(3);
+
+		// The applications of the other tests sharing the context stay in the index, only the demand
+		// added by the schedules of this test is checked
+		CapacityForecast baseline = callGetCapacityForecast(from, to);
+
+		String[] appIds = TestDataSetupHelper.generateAppIds(2);
+		createSpecificDateSchedule(appIds[0], UTC, start, start + TimeUnit.HOURS.toMillis(1), 2);
+		createSpecificDateSchedule(appIds[1], KOLKATA, start + TimeUnit.MINUTES.toMillis(30),
+				start + TimeUnit.HOURS.toMillis(2), 3);
+
+		CapacityForecast forecast = callGetCapacityForecast(from, to);
+		assertThat(forecast.getAppCount() - baseline.getAppCount(), is(2));
+		assertThat(forecast.getSteps().size(), is(4));
+		assertThat(forecast.getSteps().get(1).getTime(), is(Instant.ofEpochMilli(start).toString()));
+
+		// Both applications start with their default minimum instance count of 1, the schedules overlap
+		// in the second step
+		assertDemand(baseline.getSteps(), forecast.getSteps(), new long[][] { { 2, 2 }, { 3, 5 }, { 4, 4 }, { 2, 2 } });
+		assertDemand(baseline.getTimeZones().get(UTC), forecast.getTimeZones().get(UTC),
+				new long[][] { { 1, 1 }, { 2, 2 }, { 1, 1 }, { 1, 1 } });
+		assertDemand(baseline.getTimeZones().get(KOLKATA), forecast.getTimeZones().get(KOLKATA),
+				new long[][] { { 1, 1 }, { 1, 3 }, { 3, 3 }, { 1, 1 } });
+	}
+
+	@Test
+	public void testGetCapacityForecast_with_invalid_query() throws Exception {
+		mockMvc.perform(get("/v2/capacity_forecast").param("step", "1h")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers
+						.contains(messageBundleResourceHelper.lookupMessage("data.query.invalid", "step", "1h"))));
+
+		mockMvc.perform(get("/v2/capacity_forecast").param("group_by", "org")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers
+						.contains(messageBundleResourceHelper.lookupMessage("data.query.invalid", "group_by", "org"))));
+
+		// Beyond the horizon
+		Instant from = Instant.ofEpochMilli(System.currentTimeMillis() / 1000 * 1000);
+		Instant to = from.plusSeconds(TimeUnit.HOURS.toSeconds(100));
+		mockMvc.perform(get("/v2/capacity_forecast").param("from", from.toString()).param("to", to.toString()))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers.contains(messageBundleResourceHelper
+						.lookupMessage("data.capacity.forecast.window.invalid", from, to, 96L))));
+
+		// Too short, and too many steps
+		to = from.plusSeconds(TimeUnit.HOURS.toSeconds(72));
+		mockMvc.perform(get("/v2/capacity_forecast").param("from", from.toString()).param("to", to.toString())
+				.param("step", "PT30S")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers.contains(messageBundleResourceHelper
+						.lookupMessage("data.capacity.forecast.step.invalid", Duration.ofSeconds(30), 48))));
+		mockMvc.perform(get("/v2/capacity_forecast").param("from", from.toString()).param("to", to.toString()))
+				.andExpect(status().isBadRequest());
+	}
+
+	private void assertDemand(List<CapacityForecastStep> baselineSteps, List<CapacityForecastStep> steps,
+			long[][] expectedDemands) {
+		assertThat(steps.size(), is(expectedDemands.length));
+		for (int i = 0; i < expectedDemands.length; i++) {
+			long baselineStart = baselineSteps == null ? 0 : baselineSteps.get(i).getInstanceMinCount();
+			long baselinePeak = baselineSteps == null ? 0 : baselineSteps.get(i).getPeakInstanceMinCount();
+			assertThat(steps.get(i).getInstanceMinCount() - baselineStart, is(expectedDemands[i][0]));
+			assertThat(steps.get(i).getPeakInstanceMinCount() - baselinePeak, is(expectedDemands[i][1]));
+		}
+	}
+
+	private CapacityForecast callGetCapacityForecast(long from, long to) throws Exception {
+		String content = mockMvc
+				.perform(get("/v2/capacity_forecast").param("from", Instant.ofEpochMilli(from).toString())
+						.param("to", Instant.ofEpochMilli(to).toString()).param("step", "PT1H")
+						.param("group_by", "timezone"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return mapper.readValue(content, CapacityForecast.class);
+	}
+
+	private void createSpecificDateSchedule(String appId, String timeZone, long start, long end,
+			int instanceMinCount) {
+		List<SpecificDateScheduleEntity> specificDateSchedules = new SpecificDateScheduleEntitiesBuilder(1)
+				.setAppid(appId).setTimeZone(timeZone).setDefaultInstanceMinCount(1).setDefaultInstanceMaxCount(5)
+				.setInstanceMinCount(0, instanceMinCount).setInstanceMaxCount(0, 5)
+				.setStartDateTime(0, toPolicyDateTime(start, timeZone))
+				.setEndDateTime(0, toPolicyDateTime(end, timeZone)).build();
+		Schedules schedules = new ScheduleBuilder().setTimeZone(timeZone).setSpecificDate(specificDateSchedules)
+				.build();
+		scheduleManager.createSchedules(schedules);
+	}
+
+	// The date times of the policies are the local date times in the time zone of the policy
+	private static Date toPolicyDateTime(long epochMillis, String timeZone) {
+		LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.of(timeZone));
+		return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
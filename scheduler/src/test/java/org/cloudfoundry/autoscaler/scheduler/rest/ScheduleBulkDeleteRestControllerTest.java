@@ -0,0 +1,144 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.Scheduler;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.delete.chunk.size=2", "scheduler.delete.maxcount=5" })
+public class ScheduleBulkDeleteRestControllerTest extends TestConfiguration {
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private ActiveScheduleDao activeScheduleDao;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private String[] appIds;
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+
+		appIds = TestDataSetupHelper.generateAppIds(4);
+		for (int i = 0; i < appIds.length; i++) {
+			Schedules schedules = TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appIds[i], 1, 1, 1);
+			scheduleManager.createSchedules(schedules);
+			activeScheduleDao.create(
+					TestDataSetupHelper.generateActiveScheduleEntity(appIds[i], (long) i + 1, JobActionEnum.START));
+		}
+	}
+
+	@Test
+	public void testDeleteSchedules() throws Exception {
+		String unknownAppId = TestDataSetupHelper.generateAppIds(1)[0];
+
+		// The three applications are deleted in two chunks, the repeated application id is ignored
+		ResultActions resultActions = callDeleteSchedules(appIds[0], appIds[1], unknownAppId, appIds[0], appIds[2]);
+
+		resultActions.andExpect(status().isOk());
+		resultActions.andExpect(jsonPath("$").value(Matchers.contains(appIds[0], appIds[1], appIds[2])));
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(scheduleManager.getAllSchedules(appIds[i]).getSchedules().hasSchedules(), is(false));
+			assertThat(activeScheduleDao.findByAppId(appIds[i]), is(empty()));
+		}
+
+		// The schedules of the last application are kept
+		Schedules schedules = scheduleManager.getAllSchedules(appIds[3]).getSchedules();
+		assertThat(schedules.getSpecificDate().size(), is(1));
+		assertThat(schedules.getRecurringSchedule().size(), is(2));
+		assertThat(activeScheduleDao.findByAppId(appIds[3]).size(), is(1));
+		// A start and an end job for each of its schedules
+		assertThat(scheduler.getJobKeys(GroupMatcher.anyJobGroup()).size(), is(6));
+	}
+
+	@Test
+	public void testDeleteSchedules_without_app_ids() throws Exception {
+		ResultActions resultActions = callDeleteSchedules();
+
+		resultActions.andExpect(status().isBadRequest());
+		resultActions.andExpect(jsonPath("$").value(
+				Matchers.contains(messageBundleResourceHelper.lookupMessage("data.value.not.specified", "app_ids"))));
+	}
+
+	@Test
+	public void testDeleteSchedules_exceeding_limit() throws Exception {
+		String[] otherAppIds = TestDataSetupHelper.generateAppIds(2);
+		ResultActions resultActions = callDeleteSchedules(appIds[0], appIds[1], appIds[2], appIds[3], otherAppIds[0],
+				otherAppIds[1]);
+
+		resultActions.andExpect(status().isBadRequest());
+		resultActions.andExpect(jsonPath("$").value(
+				Matchers.contains(messageBundleResourceHelper.lookupMessage("data.appids.limit.exceeded", 6, 5))));
+
+		// Nothing is deleted
+		for (String appId : appIds) {
+			assertThat(scheduleManager.getAllSchedules(appId).getSchedules().hasSchedules(), is(true));
+		}
+		assertThat(activeScheduleDao.findAll().size(), is(appIds.length));
+		assertThat(scheduler.getJobKeys(GroupMatcher.anyJobGroup()).size(), is(appIds.length * 6));
+	}
+
+	@Test
+	public void testDeleteSchedules_of_unknown_apps() throws Exception {
+		ResultActions resultActions = callDeleteSchedules(TestDataSetupHelper.generateAppIds(2));
+
+		resultActions.andExpect(status().isOk());
+		resultActions.andExpect(jsonPath("$").value(is(empty())));
+		assertThat(scheduler.getJobKeys(GroupMatcher.anyJobGroup()).size(), is(appIds.length * 6));
+		assertThat(activeScheduleDao.findAll().size(), is(appIds.length));
+	}
+
+	private ResultActions callDeleteSchedules(String... appIdsToDelete) throws Exception {
+		return mockMvc.perform(post("/v2/schedules/delete").contentType(MediaType.APPLICATION_JSON)
+				.content(mapper.writeValueAsString(appIdsToDelete)));
+	}
+}
@@ -0,0 +1,176 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleDao;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.Scheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.export.page.size=2" })
+public class ScheduleExportRestControllerTest extends TestConfiguration {
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private ActiveScheduleDao activeScheduleDao;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private String[] appIds;
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+
+		appIds = TestDataSetupHelper.generateAppIds(3);
+		Arrays.sort(appIds);
+		for (String appId : appIds) {
+			Schedules schedules = TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 1, 1, 1);
+			scheduleManager.createSchedules(schedules);
+		}
+	}
+
+	@Test
+	public void testExportSchedules() throws Exception {
+		List<JsonNode> records = callExport(get("/v2/schedules"));
+
+		// The records span two pages, in application id order
+		assertThat(getAppIds(records), contains(appIds));
+		for (JsonNode record : records) {
+			assertThat(record.get("policy").get("schedules").get("specific_date").size(), is(1));
+			assertThat(record.get("policy").get("schedules").get("recurring_schedule").size(), is(2));
+		}
+	}
+
+	@Test
+	public void testExportSchedules_and_import_again() throws Exception {
+		String content = mockMvc.perform(get("/v2/schedules")).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+		List<ApplicationSchedules> exportedSchedules = new ArrayList<>();
+		for (String appId : appIds) {
+			exportedSchedules.add(scheduleManager.getAllSchedules(appId));
+		}
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		mockMvc.perform(put("/v2/schedules").contentType(ScheduleImportRestController.NDJSON_CONTENT_TYPE)
+				.content(content)).andExpect(status().isOk());
+
+		for (int i = 0; i < appIds.length; i++) {
+			Schedules schedules = scheduleManager.getAllSchedules(appIds[i]).getSchedules();
+			assertThat(schedules.getSpecificDate().size(),
+					is(exportedSchedules.get(i).getSchedules().getSpecificDate().size()));
+			assertThat(schedules.getRecurringSchedule().size(),
+					is(exportedSchedules.get(i).getSchedules().getRecurringSchedule().size()));
+		}
+	}
+
+	@Test
+	public void testExportSchedules_with_filters() throws Exception {
+		List<JsonNode> records = callExport(get("/v2/schedules").param("app_id_prefix", appIds[1]));
+		assertThat(getAppIds(records), contains(appIds[1]));
+
+		String timeZone = scheduleManager.getAllSchedules(appIds[0]).getSchedules().getTimeZone();
+		records = callExport(get("/v2/schedules").param("timezone", timeZone));
+		assertThat(records.size(), is(3));
+
+		records = callExport(get("/v2/schedules").param("timezone", "Etc/Unknown"));
+		assertThat(records, is(empty()));
+
+		records = callExport(get("/v2/schedules").param("updated_since", "2100-01-01T00:00:00Z"));
+		assertThat(records, is(empty()));
+	}
+
+	@Test
+	public void testExportSchedules_with_invalid_updated_since() throws Exception {
+		mockMvc.perform(get("/v2/schedules?updated_since=yesterday")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers.contains(
+						messageBundleResourceHelper.lookupMessage("data.query.invalid", "updated_since", "yesterday"))));
+	}
+
+	@Test
+	public void testExportActiveSchedules() throws Exception {
+		for (int i = 0; i < appIds.length; i++) {
+			activeScheduleDao.create(
+					TestDataSetupHelper.generateActiveScheduleEntity(appIds[i], (long) i + 1, JobActionEnum.START));
+		}
+
+		List<JsonNode> records = callExport(get("/v2/active_schedules"));
+		assertThat(getAppIds(records), contains(appIds));
+		assertThat(records.get(2).get("schedule_id").asLong(), is(3L));
+
+		records = callExport(get("/v2/active_schedules").param("app_id_prefix", appIds[2]));
+		assertThat(getAppIds(records), contains(appIds[2]));
+	}
+
+	private List<JsonNode> callExport(MockHttpServletRequestBuilder request) throws Exception {
+		String content = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+
+		List<JsonNode> records = new ArrayList<>();
+		for (String line : content.split("\n")) {
+			if (!line.isEmpty()) {
+				records.add(mapper.readTree(line));
+			}
+		}
+		return records;
+	}
+
+	private List<String> getAppIds(List<JsonNode> records) {
+		List<String> exportedAppIds = new ArrayList<>();
+		for (JsonNode record : records) {
+			exportedAppIds.add(record.get("app_id").asText());
+		}
+		return exportedAppIds;
+	}
+}
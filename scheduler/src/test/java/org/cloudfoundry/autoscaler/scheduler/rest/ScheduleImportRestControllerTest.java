@@ -0,0 +1,156 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleImportResult;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.Scheduler;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.import.chunk.size=2" })
+public class ScheduleImportRestControllerTest extends TestConfiguration {
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+	}
+
+	@Test
+	public void testImportSchedules() throws Exception {
+		String[] appIds = TestDataSetupHelper.generateAppIds(4);
+		ApplicationSchedules invalidPolicy = TestDataSetupHelper.generateApplicationPolicy(1, 0);
+		invalidPolicy.getSchedules().setTimeZone(null);
+
+		// The first application is imported twice, the second record updates the schedules
+		StringBuilder content = new StringBuilder();
+		content.append(record(appIds[0], TestDataSetupHelper.generateApplicationPolicy(1, 1)));
+		content.append(record(appIds[1], TestDataSetupHelper.generateApplicationPolicy(2, 0)));
+		content.append(record(appIds[2], invalidPolicy));
+		content.append(record(appIds[3], TestDataSetupHelper.generateApplicationPolicy(0, 2)));
+		content.append(record(appIds[0], TestDataSetupHelper.generateApplicationPolicy(0, 1)));
+
+		List<ScheduleImportResult> results = callImportSchedules(content.toString());
+
+		assertThat(results.size(), is(5));
+		assertResult(results, 0, appIds[0], 200);
+		assertResult(results, 1, appIds[1], 200);
+		assertResult(results, 2, appIds[2], 400);
+		assertResult(results, 3, appIds[3], 200);
+		assertResult(results, 4, appIds[0], 204);
+
+		assertSchedules(appIds[0], 0, 1);
+		assertSchedules(appIds[1], 2, 0);
+		assertThat(scheduleManager.getAllSchedules(appIds[2]).getSchedules().hasSchedules(), is(false));
+		assertSchedules(appIds[3], 0, 2);
+		assertThat(scheduler.getJobKeys(GroupMatcher.anyJobGroup()).size(), is(5));
+	}
+
+	@Test
+	public void testImportSchedules_with_malformed_record() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		String content = record(appId, TestDataSetupHelper.generateApplicationPolicy(1, 0))
+				+ "{\"app_id\": \"other\", \"policy\": {\"schedules\": [";
+
+		List<ScheduleImportResult> results = callImportSchedules(content);
+
+		// The records read before the malformed one are still imported
+		assertThat(results.size(), is(2));
+		assertThat(results.get(0).getRecord(), is(1));
+		assertThat(results.get(0).getStatus(), is(400));
+		assertResult(results, 1, appId, 200);
+		assertSchedules(appId, 1, 0);
+	}
+
+	@Test
+	public void testImportSchedules_without_policy() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+
+		List<ScheduleImportResult> results = callImportSchedules("{\"app_id\": \"" + appId + "\"}");
+
+		assertThat(results.size(), is(1));
+		assertThat(results.get(0).getStatus(), is(400));
+		assertThat(results.get(0).getErrors(),
+				contains(messageBundleResourceHelper.lookupMessage("data.value.not.specified", "policy")));
+	}
+
+	private String record(String appId, ApplicationSchedules applicationPolicy) throws Exception {
+		return "{\"app_id\": \"" + appId + "\", \"policy\": " + mapper.writeValueAsString(applicationPolicy) + "}\n";
+	}
+
+	private List<ScheduleImportResult> callImportSchedules(String content) throws Exception {
+		MvcResult mvcResult = mockMvc.perform(put("/v2/schedules")
+				.contentType(ScheduleImportRestController.NDJSON_CONTENT_TYPE).content(content))
+				.andExpect(status().isOk()).andReturn();
+
+		List<ScheduleImportResult> results = new ArrayList<>();
+		for (String line : mvcResult.getResponse().getContentAsString().split("\n")) {
+			results.add(mapper.readValue(line, ScheduleImportResult.class));
+		}
+		return results;
+	}
+
+	private void assertResult(List<ScheduleImportResult> results, int record, String appId, int status) {
+		ScheduleImportResult result = results.stream().filter(r -> r.getRecord() == record).findFirst().get();
+		assertThat(result.getAppId(), is(appId));
+		assertThat(result.getStatus(), is(status));
+		if (status != 400) {
+			assertThat(result.getErrors(), is(nullValue()));
+		}
+	}
+
+	private void assertSchedules(String appId, int specificDateScheduleCount, int recurringScheduleCount) {
+		ApplicationSchedules applicationSchedules = scheduleManager.getAllSchedules(appId);
+		List<?> specificDateSchedules = applicationSchedules.getSchedules().getSpecificDate();
+		List<?> recurringSchedules = applicationSchedules.getSchedules().getRecurringSchedule();
+		assertThat(specificDateSchedules == null ? 0 : specificDateSchedules.size(), is(specificDateScheduleCount));
+		assertThat(recurringSchedules == null ? 0 : recurringSchedules.size(), is(recurringScheduleCount));
+	}
+}
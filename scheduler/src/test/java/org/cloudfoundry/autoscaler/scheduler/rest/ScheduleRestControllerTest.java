@@ -3,6 +3,7 @@ package org.cloudfoundry.autoscaler.scheduler.rest;
 import static org.junit.Assert.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
@@ -317,6 +318,43 @@ public class ScheduleRestControllerTest extends TestConfiguration {
 		testCreateSchedule_defaultInstanceMinCount_greater_than_defaultInstanceMaxCount();
 	}
 
+	@Test
+	public void testValidateSchedules() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		String content = TestDataSetupHelper.generateJsonSchedule(appId, 2, 2);
+
+		ResultActions resultActions = mockMvc.perform(post(getValidateSchedulePath(appId))
+				.contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON).content(content));
+		assertCreateScheduleAPI(resultActions, status().isOk());
+
+		// Nothing is created by the dry run
+		resultActions = callGetAllSchedulesByAppId(appId);
+		assertNoSchedulesFound(resultActions);
+	}
+
+	@Test
+	public void testValidateSchedules_with_validation_errors() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(1, 0);
+
+		applicationPolicy.setInstanceMinCount(null);
+		applicationPolicy.getSchedules().setTimeZone(null);
+
+		String content = mapper.writeValueAsString(applicationPolicy);
+
+		ResultActions resultActions = mockMvc.perform(
+				post(getValidateSchedulePath(appId)).contentType(MediaType.APPLICATION_JSON).content(content));
+
+		resultActions.andExpect(status().isBadRequest());
+		resultActions.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		resultActions.andExpect(jsonPath("$").value(Matchers.containsInAnyOrder(
+				messageBundleResourceHelper.lookupMessage("data.default.value.not.specified", "instance_min_count"),
+				messageBundleResourceHelper.lookupMessage("data.value.not.specified.timezone", "timeZone"))));
+
+		resultActions = callGetAllSchedulesByAppId(appId);
+		assertNoSchedulesFound(resultActions);
+	}
+
 	@Test
 	public void testDeleteSchedules() throws Exception {
 
@@ -353,6 +391,10 @@ public class ScheduleRestControllerTest extends TestConfiguration {
 		return String.format("/v2/schedules/%s", appId);
 	}
 
+	private String getValidateSchedulePath(String appId) {
+		return String.format("/v2/schedules/%s/validate", appId);
+	}
+
 	private ResultActions callCreateSchedules(String appId, int noOfSpecificDateSchedulesToSetUp,
 			int noOfRecurringSchedulesToSetUp) throws Exception {
 		String content = TestDataSetupHelper.generateJsonSchedule(appId, noOfSpecificDateSchedulesToSetUp,
@@ -0,0 +1,116 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.request.body.maxsize=4096",
+		"scheduler.validation.specificdate.maxcount=2", "scheduler.validation.recurring.maxcount=2" })
+public class ScheduleRestController_RequestLimitTest extends TestConfiguration {
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private String appId = TestDataSetupHelper.generateAppIds(1)[0];
+
+	@Before
+	public void before() throws Exception {
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+	}
+
+	@Test
+	public void testValidateSchedules_within_limits() throws Exception {
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(2, 2);
+
+		callValidateSchedules(mapper.writeValueAsString(applicationPolicy)).andExpect(status().isOk());
+	}
+
+	@Test
+	public void testCreateSchedules_with_too_many_schedules() throws Exception {
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(3, 0);
+
+		String errorMessage = messageBundleResourceHelper.lookupMessage("data.schedules.limit.exceeded",
+				ScheduleTypeEnum.SPECIFIC_DATE.getDescription(), 3, 2);
+		assertErrorMessage(callCreateSchedules(mapper.writeValueAsString(applicationPolicy)), errorMessage);
+	}
+
+	@Test
+	public void testCreateSchedules_with_too_many_days() throws Exception {
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(0, 2);
+		applicationPolicy.getSchedules().getRecurringSchedule().get(1).setDaysOfWeek(null);
+		int[] daysOfMonth = new int[32];
+		for (int i = 0; i < daysOfMonth.length; i++) {
+			daysOfMonth[i] = i % 31 + 1;
+		}
+		applicationPolicy.getSchedules().getRecurringSchedule().get(1).setDaysOfMonth(daysOfMonth);
+
+		String errorMessage = messageBundleResourceHelper.lookupMessage("schedule.data.days.limit.exceeded",
+				ScheduleTypeEnum.RECURRING.getDescription() + " 1", "days_of_month", 31);
+		assertErrorMessage(callCreateSchedules(mapper.writeValueAsString(applicationPolicy)), errorMessage);
+	}
+
+	@Test
+	public void testCreateSchedules_with_too_large_body() throws Exception {
+		StringBuilder padding = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			padding.append(' ');
+		}
+		String content = mapper.writeValueAsString(TestDataSetupHelper.generateApplicationPolicy(1, 0)) + padding;
+
+		ResultActions resultActions = callCreateSchedules(content);
+
+		resultActions.andExpect(status().isPayloadTooLarge());
+		resultActions.andExpect(jsonPath("$").value(
+				Matchers.contains(messageBundleResourceHelper.lookupMessage("data.request.too.large", 4096L))));
+	}
+
+	@Test
+	public void testCreateSchedules_with_malformed_body() throws Exception {
+		callCreateSchedules("{\"schedules\": {\"specific_date\": [").andExpect(status().isBadRequest());
+	}
+
+	private ResultActions callCreateSchedules(String content) throws Exception {
+		return mockMvc.perform(
+				put(String.format("/v2/schedules/%s", appId)).contentType(MediaType.APPLICATION_JSON).content(content));
+	}
+
+	private ResultActions callValidateSchedules(String content) throws Exception {
+		return mockMvc.perform(post(String.format("/v2/schedules/%s/validate", appId))
+				.contentType(MediaType.APPLICATION_JSON).content(content));
+	}
+
+	private void assertErrorMessage(ResultActions resultActions, String errorMessage) throws Exception {
+		resultActions.andExpect(status().isBadRequest());
+		resultActions.andExpect(jsonPath("$").value(Matchers.contains(errorMessage)));
+	}
+}
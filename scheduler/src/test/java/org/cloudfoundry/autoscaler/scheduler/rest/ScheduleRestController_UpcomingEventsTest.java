@@ -0,0 +1,243 @@
+package org.cloudfoundry.autoscaler.scheduler.rest;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.EffectiveLimits;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.UpcomingScheduleEvent;
+import org.cloudfoundry.autoscaler.scheduler.service.ScheduleManager;
+import org.cloudfoundry.autoscaler.scheduler.util.RecurringScheduleEntitiesBuilder;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleBuilder;
+import org.cloudfoundry.autoscaler.scheduler.util.SpecificDateScheduleEntitiesBuilder;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataCleanupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.hamcrest.Matchers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.quartz.Scheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.upcoming.horizon.hours=96" })
+public class ScheduleRestController_UpcomingEventsTest extends TestConfiguration {
+
+	private static final String TIMEZONE = "UTC";
+
+	@Autowired
+	private Scheduler scheduler;
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Autowired
+	private TestDataCleanupHelper testDataCleanupHelper;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private String appId;
+
+	private long specificDateStartMillis;
+
+	@Before
+	public void before() throws Exception {
+		testDataCleanupHelper.cleanupData(scheduler);
+
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+
+		appId = TestDataSetupHelper.generateAppIds(1)[0];
+
+		// A specific date schedule in two hours for an hour, and a daily recurring schedule six hours
+		// after the specific date schedule
+		specificDateStartMillis = (System.currentTimeMillis() / TimeUnit.MINUTES.toMillis(1) + 120)
+				* TimeUnit.MINUTES.toMillis(1);
+		List<SpecificDateScheduleEntity> specificDateSchedules = new SpecificDateScheduleEntitiesBuilder(1)
+				.setAppid(appId).setTimeZone(TIMEZONE).setDefaultInstanceMinCount(1).setDefaultInstanceMaxCount(5)
+				.setInstanceMinCount(0, 2).setInstanceMaxCount(0, 4)
+				.setStartDateTime(0, toPolicyDateTime(specificDateStartMillis))
+				.setEndDateTime(0, toPolicyDateTime(specificDateStartMillis + TimeUnit.HOURS.toMillis(1))).build();
+
+		List<RecurringScheduleEntity> recurringSchedules = new RecurringScheduleEntitiesBuilder(0, 1).setAppId(appId)
+				.setTimeZone(TIMEZONE).setDefaultInstanceMinCount(1).setDefaultInstanceMaxCount(5)
+				.setDayOfWeek(0, new int[] { 1, 2, 3, 4, 5, 6, 7 })
+				.setStartTime(0, toPolicyTime(specificDateStartMillis + TimeUnit.HOURS.toMillis(6)))
+				.setEndTime(0, toPolicyTime(specificDateStartMillis + TimeUnit.HOURS.toMillis(7)))
+				.setStartDate(0, null).setEndDate(0, null).build();
+
+		Schedules schedules = new ScheduleBuilder().setTimeZone(TIMEZONE).setSpecificDate(specificDateSchedules)
+				.setRecurringSchedule(recurringSchedules).build();
+		scheduleManager.createSchedules(schedules);
+	}
+
+	@Test
+	public void testGetUpcomingEvents() throws Exception {
+		long from = System.currentTimeMillis();
+		long to = from + TimeUnit.HOURS.toMillis(72);
+		List<UpcomingScheduleEvent> events = callGetUpcomingEvents(get("/v2/schedules/" + appId + "/upcoming")
+				.param("from", Instant.ofEpochMilli(from).toString()).param("to", Instant.ofEpochMilli(to).toString()));
+
+		List<UpcomingScheduleEvent> specificDateEvents = new ArrayList<>();
+		int recurringStartCount = 0;
+		long previousTime = from;
+		for (UpcomingScheduleEvent event : events) {
+			long time = Instant.parse(event.getTime()).toEpochMilli();
+			assertThat(time, greaterThanOrEqualTo(previousTime));
+			previousTime = time;
+
+			if (event.getScheduleType().equals("specific_date")) {
+				specificDateEvents.add(event);
+			} else if (event.getAction().equals("start")) {
+				recurringStartCount++;
+			}
+		}
+
+		// The daily recurring schedule starts once a day
+		assertThat(recurringStartCount, is(3));
+
+		assertThat(specificDateEvents.size(), is(2));
+		assertEvent(specificDateEvents.get(0), specificDateStartMillis, "start", 2, 4);
+		assertEvent(specificDateEvents.get(1), specificDateStartMillis + TimeUnit.HOURS.toMillis(1), "end", 1, 5);
+	}
+
+	@Test
+	public void testGetUpcomingEvents_within_default_window() throws Exception {
+		List<UpcomingScheduleEvent> events = callGetUpcomingEvents(get("/v2/schedules/" + appId + "/upcoming"));
+
+		assertThat(events.size(), greaterThanOrEqualTo(3));
+	}
+
+	@Test
+	public void testGetUpcomingEvents_after_delete() throws Exception {
+		scheduleManager.deleteSchedules(appId);
+
+		mockMvc.perform(get("/v2/schedules/" + appId + "/upcoming")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	public void testGetUpcomingEvents_with_invalid_window() throws Exception {
+		mockMvc.perform(get("/v2/schedules/" + appId + "/upcoming").param("from", "tomorrow"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$").value(Matchers.contains(
+						messageBundleResourceHelper.lookupMessage("data.query.invalid", "from", "tomorrow"))));
+
+		// Beyond the horizon
+		Instant from = Instant.ofEpochMilli(System.currentTimeMillis() / 1000 * 1000);
+		Instant to = from.plusSeconds(TimeUnit.HOURS.toSeconds(100));
+		mockMvc.perform(get("/v2/schedules/" + appId + "/upcoming").param("from", from.toString()).param("to",
+				to.toString())).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$").value(Matchers.contains(messageBundleResourceHelper
+						.lookupMessage("data.upcoming.window.invalid", from, to, 96L))));
+
+		// Ends before it starts
+		mockMvc.perform(get("/v2/schedules/" + appId + "/upcoming").param("from", to.toString()).param("to",
+				from.toString())).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void testGetEffectiveLimits() throws Exception {
+		long at = specificDateStartMillis + TimeUnit.MINUTES.toMillis(30);
+		EffectiveLimits limits = callGetEffectiveLimits(at);
+		assertThat(limits.getFrom(), is(Instant.ofEpochMilli(specificDateStartMillis).toString()));
+		assertThat(limits.getUntil(),
+				is(Instant.ofEpochMilli(specificDateStartMillis + TimeUnit.HOURS.toMillis(1)).toString()));
+		assertThat(limits.getInstanceMinCount(), is(2));
+		assertThat(limits.getInstanceMaxCount(), is(4));
+		assertThat(limits.getScheduleType(), is("specific_date"));
+
+		// The default limits apply again once the specific date schedule ends
+		limits = callGetEffectiveLimits(at + TimeUnit.HOURS.toMillis(1));
+		assertThat(limits.getFrom(),
+				is(Instant.ofEpochMilli(specificDateStartMillis + TimeUnit.HOURS.toMillis(1)).toString()));
+		assertThat(limits.getInstanceMinCount(), is(1));
+		assertThat(limits.getInstanceMaxCount(), is(5));
+		assertThat(limits.getScheduleId(), is(nullValue()));
+
+		limits = callGetEffectiveLimits(specificDateStartMillis + TimeUnit.HOURS.toMillis(6));
+		assertThat(limits.getScheduleType(), is("recurring_schedule"));
+	}
+
+	@Test
+	public void testGetEffectiveLimits_with_invalid_time() throws Exception {
+		Instant at = Instant.ofEpochMilli(System.currentTimeMillis() / 1000 * 1000)
+				.plusSeconds(TimeUnit.HOURS.toSeconds(100));
+		mockMvc.perform(get("/v2/schedules/" + appId + "/effective").param("at", at.toString()))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$").value(Matchers.contains(
+						messageBundleResourceHelper.lookupMessage("data.effective.time.invalid", at, 96L))));
+
+		scheduleManager.deleteSchedules(appId);
+		mockMvc.perform(get("/v2/schedules/" + appId + "/effective")).andExpect(status().isNotFound());
+	}
+
+	private EffectiveLimits callGetEffectiveLimits(long at) throws Exception {
+		String content = mockMvc
+				.perform(get("/v2/schedules/" + appId + "/effective").param("at", Instant.ofEpochMilli(at).toString()))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return mapper.readValue(content, EffectiveLimits.class);
+	}
+
+	private void assertEvent(UpcomingScheduleEvent event, long time, String action, int instanceMinCount,
+			int instanceMaxCount) {
+		assertThat(event.getTime(), is(Instant.ofEpochMilli(time).toString()));
+		assertThat(event.getAction(), is(action));
+		assertThat(event.getInstanceMinCount(), is(instanceMinCount));
+		assertThat(event.getInstanceMaxCount(), is(instanceMaxCount));
+		if (action.equals("end")) {
+			assertThat(event.getInitialMinInstanceCount(), is(nullValue()));
+		}
+	}
+
+	private List<UpcomingScheduleEvent> callGetUpcomingEvents(MockHttpServletRequestBuilder request)
+			throws Exception {
+		String content = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse()
+				.getContentAsString();
+		return mapper.readValue(content,
+				mapper.getTypeFactory().constructCollectionType(List.class, UpcomingScheduleEvent.class));
+	}
+
+	private static Time toPolicyTime(long epochMillis) {
+		LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+		return Time.valueOf(localDateTime.toLocalTime());
+	}
+
+	// The date times of the policies are the local date times in the time zone of the policy
+	private static Date toPolicyDateTime(long epochMillis) {
+		LocalDateTime localDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+		return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -0,0 +1,147 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.cloudfoundry.autoscaler.scheduler.dao.ActiveScheduleChangeDao;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ActiveScheduleChangeEvent;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.changefeed.enabled=true", "scheduler.changefeed.buffer.size=3",
+		"scheduler.changefeed.page.size=2", "scheduler.changefeed.retention.hours=0" })
+public class ActiveScheduleChangeFeedTest extends TestConfiguration {
+
+	private static final Pattern EVENT_PATTERN = Pattern.compile("^id:(\\d+)\\s+event:(\\w+)$", Pattern.MULTILINE);
+
+	@Autowired
+	private ActiveScheduleChangeFeed activeScheduleChangeFeed;
+
+	@Autowired
+	private ActiveScheduleChangeDao activeScheduleChangeDao;
+
+	@Autowired
+	private WebApplicationContext wac;
+	private MockMvc mockMvc;
+
+	private String appId;
+
+	@Before
+	public void before() throws Exception {
+		mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+
+		appId = TestDataSetupHelper.generateAppIds(1)[0];
+	}
+
+	@Test
+	public void testSubscribe_resume_after_sequence() throws Exception {
+		long firstSequence = publish(1).get(0);
+		List<Long> sequences = publish(2);
+
+		MockHttpServletResponse response = subscribe(firstSequence);
+		assertThat(waitForEvents(response, 2), contains(sequences.get(0) + ":end", sequences.get(1) + ":start"));
+
+		// The events published afterwards follow on the same connection
+		List<Long> nextSequences = publish(1);
+		assertThat(waitForEvents(response, 3).get(2), is(nextSequences.get(0) + ":end"));
+	}
+
+	@Test
+	public void testSubscribe_resume_after_ring_buffer_wraparound() throws Exception {
+		long firstSequence = publish(1).get(0);
+		// More events than the ring buffer holds, the older ones are read from the change log
+		List<Long> sequences = publish(7);
+
+		MockHttpServletResponse response = subscribe(firstSequence);
+		List<String> events = waitForEvents(response, 7);
+
+		List<String> expectedEvents = new ArrayList<>();
+		for (int i = 0; i < sequences.size(); i++) {
+			expectedEvents.add(sequences.get(i) + (i % 2 == 0 ? ":end" : ":start"));
+		}
+		assertThat(events, is(expectedEvents));
+	}
+
+	@Test
+	public void testSubscribe_reset_when_sequence_pruned() throws Exception {
+		long firstSequence = publish(1).get(0);
+		publish(2);
+		Thread.sleep(10);
+		activeScheduleChangeFeed.deleteExpiredChanges();
+		assertThat("The change log should be pruned", activeScheduleChangeDao.findMaxSequence(), nullValue());
+
+		MockHttpServletResponse response = subscribe(firstSequence);
+		List<String> events = waitForEvents(response, 1);
+		assertThat(events.get(0).endsWith(":" + ActiveScheduleChangeFeed.RESET_EVENT_NAME), is(true));
+
+		// The changes after the reset follow
+		List<Long> sequences = publish(1);
+		assertThat(waitForEvents(response, 2).get(1), is(sequences.get(0) + ":end"));
+	}
+
+	private MockHttpServletResponse subscribe(long afterSequence) throws Exception {
+		return mockMvc.perform(get("/v2/active_schedule_changes").param("after_sequence", String.valueOf(afterSequence)))
+				.andExpect(request().asyncStarted()).andReturn().getResponse();
+	}
+
+	/**
+	 * Publishes the events alternating between end and start, and returns their sequences.
+	 */
+	private List<Long> publish(int count) {
+		Long maxSequence = activeScheduleChangeDao.findMaxSequence();
+		long afterSequence = maxSequence == null ? 0 : maxSequence;
+		for (int i = 0; i < count; i++) {
+			JobActionEnum action = i % 2 == 0 ? JobActionEnum.END : JobActionEnum.START;
+			activeScheduleChangeFeed.publish(TestDataSetupHelper.generateActiveScheduleEntity(appId, (long) i, action),
+					action);
+		}
+
+		List<Long> sequences = new ArrayList<>();
+		for (ActiveScheduleChangeEvent event : activeScheduleChangeDao.findAfter(afterSequence, count)) {
+			sequences.add(event.getSequence());
+		}
+		assertThat(sequences.size(), is(count));
+		return sequences;
+	}
+
+	private List<String> waitForEvents(MockHttpServletResponse response, int expectedCount) throws Exception {
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+		List<String> events;
+		do {
+			events = new ArrayList<>();
+			Matcher matcher = EVENT_PATTERN.matcher(response.getContentAsString());
+			while (matcher.find()) {
+				events.add(matcher.group(1) + ":" + matcher.group(2));
+			}
+			if (events.size() >= expectedCount) {
+				return events;
+			}
+			Thread.sleep(50);
+		} while (System.currentTimeMillis() < deadline);
+		throw new AssertionError("Expected " + expectedCount + " events, received " + events);
+	}
+}
@@ -0,0 +1,102 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.EffectiveLimits;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
+import org.junit.Test;
+
+public class EffectiveLimitsTimelineTest {
+
+	private static final long VALID_FROM = 1_000_000L;
+
+	private static final long VALID_UNTIL = 2_000_000L;
+
+	@Test
+	public void testGetLimitsAt_without_changes() {
+		EffectiveLimitsTimeline timeline = new EffectiveLimitsTimeline.Builder(VALID_FROM, VALID_UNTIL, 1, 5).build();
+
+		assertThat(timeline.size(), is(1));
+		assertLimits(timeline.getLimitsAt(VALID_FROM), VALID_FROM, null, 1, 5, null);
+		assertLimits(timeline.getLimitsAt(VALID_UNTIL), VALID_FROM, null, 1, 5, null);
+	}
+
+	@Test
+	public void testGetLimitsAt() {
+		EffectiveLimitsTimeline timeline = new EffectiveLimitsTimeline.Builder(VALID_FROM, VALID_UNTIL, 1, 5)
+				.setScheduleLimits(1_100_000L, 2, 6, null, 11, ScheduleTypeEnum.RECURRING)
+				.setDefaultLimits(1_200_000L)
+				.setScheduleLimits(1_500_000L, 3, 7, 4, 12, ScheduleTypeEnum.SPECIFIC_DATE).build();
+
+		assertThat(timeline.size(), is(4));
+		assertLimits(timeline.getLimitsAt(1_099_999L), VALID_FROM, 1_100_000L, 1, 5, null);
+		assertLimits(timeline.getLimitsAt(1_100_000L), 1_100_000L, 1_200_000L, 2, 6, 11L);
+		assertLimits(timeline.getLimitsAt(1_199_999L), 1_100_000L, 1_200_000L, 2, 6, 11L);
+		assertLimits(timeline.getLimitsAt(1_300_000L), 1_200_000L, 1_500_000L, 1, 5, null);
+		assertLimits(timeline.getLimitsAt(1_900_000L), 1_500_000L, null, 3, 7, 12L);
+		assertThat(timeline.getLimitsAt(1_900_000L).getInitialMinInstanceCount(), is(4));
+		assertThat(timeline.getLimitsAt(1_900_000L).getScheduleType(), is("specific_date"));
+	}
+
+	@Test
+	public void testBuild_with_changes_before_the_period() {
+		// The schedule started before the period is in effect when the period starts
+		EffectiveLimitsTimeline timeline = new EffectiveLimitsTimeline.Builder(VALID_FROM, VALID_UNTIL, 1, 5)
+				.setScheduleLimits(500_000L, 2, 6, null, 11, ScheduleTypeEnum.RECURRING)
+				.setDefaultLimits(600_000L)
+				.setScheduleLimits(900_000L, 3, 7, null, 12, ScheduleTypeEnum.SPECIFIC_DATE)
+				.setDefaultLimits(1_100_000L).build();
+
+		assertThat(timeline.size(), is(2));
+		assertLimits(timeline.getLimitsAt(VALID_FROM), VALID_FROM, 1_100_000L, 3, 7, 12L);
+		assertLimits(timeline.getLimitsAt(1_100_000L), 1_100_000L, null, 1, 5, null);
+	}
+
+	@Test
+	public void testBuild_with_end_and_start_at_the_same_time() {
+		EffectiveLimitsTimeline timeline = new EffectiveLimitsTimeline.Builder(VALID_FROM, VALID_UNTIL, 1, 5)
+				.setScheduleLimits(1_100_000L, 2, 6, null, 11, ScheduleTypeEnum.RECURRING)
+				.setDefaultLimits(1_200_000L)
+				.setScheduleLimits(1_200_000L, 3, 7, null, 12, ScheduleTypeEnum.RECURRING)
+				.setScheduleLimits(2_500_000L, 4, 8, null, 13, ScheduleTypeEnum.RECURRING).build();
+
+		assertThat(timeline.size(), is(3));
+		assertLimits(timeline.getLimitsAt(1_200_000L), 1_200_000L, null, 3, 7, 12L);
+	}
+
+	@Test
+	public void testGetLimitsBetween() {
+		EffectiveLimitsTimeline timeline = new EffectiveLimitsTimeline.Builder(VALID_FROM, VALID_UNTIL, 1, 5)
+				.setScheduleLimits(1_100_000L, 2, 6, null, 11, ScheduleTypeEnum.RECURRING)
+				.setDefaultLimits(1_200_000L)
+				.setScheduleLimits(1_500_000L, 3, 7, null, 12, ScheduleTypeEnum.RECURRING).build();
+
+		List<EffectiveLimits> limits = timeline.getLimitsBetween(1_150_000L, 1_500_000L);
+		assertThat(limits.size(), is(3));
+		assertLimits(limits.get(0), 1_100_000L, 1_200_000L, 2, 6, 11L);
+		assertLimits(limits.get(1), 1_200_000L, 1_500_000L, 1, 5, null);
+		assertLimits(limits.get(2), 1_500_000L, null, 3, 7, 12L);
+
+		assertThat(timeline.getLimitsBetween(1_300_000L, 1_400_000L).size(), is(1));
+		assertThat(timeline.covers(VALID_FROM - 1), is(false));
+		assertThat(timeline.covers(VALID_UNTIL + 1), is(false));
+	}
+
+	private void assertLimits(EffectiveLimits limits, long from, Long until, int instanceMinCount,
+			int instanceMaxCount, Long scheduleId) {
+		assertThat(limits.getFrom(), is(Instant.ofEpochMilli(from).toString()));
+		if (until == null) {
+			assertThat(limits.getUntil(), is(nullValue()));
+		} else {
+			assertThat(limits.getUntil(), is(Instant.ofEpochMilli(until).toString()));
+		}
+		assertThat(limits.getInstanceMinCount(), is(instanceMinCount));
+		assertThat(limits.getInstanceMaxCount(), is(instanceMaxCount));
+		assertThat(limits.getScheduleId(), is(scheduleId));
+	}
+}
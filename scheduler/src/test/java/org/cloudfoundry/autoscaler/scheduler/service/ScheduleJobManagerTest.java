@@ -53,6 +53,7 @@ import org.quartz.SimpleTrigger;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -67,7 +68,6 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 	@Autowired
 	private ScheduleJobManager scheduleJobManager;
 
-	@Autowired
 	private ValidationErrorResult validationErrorResult;
 
 	@Autowired
@@ -76,11 +76,16 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 	@Autowired
 	private TestDataCleanupHelper testDataCleanupHelper;
 
+	@Value("${scheduler.lane.start.priority}")
+	private int startLanePriority;
+
 	@Before
 	public void before() throws SchedulerException {
 		testDataCleanupHelper.cleanupData();
 
 		Mockito.reset(scheduler);
+
+		validationErrorResult = new ValidationErrorResult();
 	}
 
 	@Test
@@ -98,7 +103,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 				.setEndDateTime(0, endDateTime).setDefaultInstanceMinCount(1).setDefaultInstanceMaxCount(5).build()
 				.get(0);
 
-		scheduleJobManager.createSimpleJob(specificDateScheduleEntity);
+		scheduleJobManager.createSimpleJob(specificDateScheduleEntity, validationErrorResult);
 
 		Long scheduleId = specificDateScheduleEntity.getId();
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.SPECIFIC_DATE;
@@ -131,7 +136,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		RecurringScheduleEntity recurringScheduleEntity = createRecurringScheduleWithDaysOfWeek(timeZone, startTime,
 				endTime, dayOfWeek);
 
-		scheduleJobManager.createCronJob(recurringScheduleEntity);
+		scheduleJobManager.createCronJob(recurringScheduleEntity, validationErrorResult);
 
 		Long scheduleId = recurringScheduleEntity.getId();
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.RECURRING;
@@ -166,7 +171,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		RecurringScheduleEntity recurringScheduleEntity = createRecurringScheduleWithDaysOfWeek(timeZone, startTime,
 				endTime, dayOfWeek);
 
-		scheduleJobManager.createCronJob(recurringScheduleEntity);
+		scheduleJobManager.createCronJob(recurringScheduleEntity, validationErrorResult);
 
 		Long scheduleId = recurringScheduleEntity.getId();
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.RECURRING;
@@ -201,7 +206,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		RecurringScheduleEntity recurringScheduleEntity = createRecurringScheduleWithDaysOfMonth(timeZone, startTime,
 				endTime, daysOfMonth);
 
-		scheduleJobManager.createCronJob(recurringScheduleEntity);
+		scheduleJobManager.createCronJob(recurringScheduleEntity, validationErrorResult);
 
 		Long scheduleId = recurringScheduleEntity.getId();
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.RECURRING;
@@ -237,7 +242,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		RecurringScheduleEntity recurringScheduleEntity = createRecurringScheduleWithDaysOfMonth(timeZone, startTime,
 				endTime, daysOfMonth);
 
-		scheduleJobManager.createCronJob(recurringScheduleEntity);
+		scheduleJobManager.createCronJob(recurringScheduleEntity, validationErrorResult);
 
 		Long scheduleId = recurringScheduleEntity.getId();
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.RECURRING;
@@ -267,7 +272,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		Long scheduleId = 1L;
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.SPECIFIC_DATE;
 
-		scheduleJobManager.deleteJob(appId, scheduleId, scheduleType);
+		scheduleJobManager.deleteJob(appId, scheduleId, scheduleType, validationErrorResult);
 
 		JobKey startJobKey = new JobKey(scheduleId + JobActionEnum.START.getJobIdSuffix(),
 				scheduleType.getScheduleIdentifier());
@@ -284,7 +289,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		Long scheduleId = 1L;
 		ScheduleTypeEnum scheduleType = ScheduleTypeEnum.RECURRING;
 
-		scheduleJobManager.deleteJob(appId, scheduleId, scheduleType);
+		scheduleJobManager.deleteJob(appId, scheduleId, scheduleType, validationErrorResult);
 
 		JobKey startJobKey = new JobKey(scheduleId + JobActionEnum.START.getJobIdSuffix(),
 				scheduleType.getScheduleIdentifier());
@@ -308,11 +313,11 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		Mockito.doThrow(new SchedulerException("test exception")).when(scheduler).scheduleJob(Mockito.anyObject(),
 				Mockito.anyObject());
 
-		scheduleJobManager.createSimpleJob(specificDateScheduleEntity);
+		scheduleJobManager.createSimpleJob(specificDateScheduleEntity, validationErrorResult);
 
 		assertTrue("This test should have an Error.", validationErrorResult.hasErrors());
 
-		List<String> errors = validationErrorResult.getAllErrorMessages();
+		List<String> errors = validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
 		assertEquals(1, errors.size());
 
 		String errorMessage = messageBundleResourceHelper.lookupMessage("scheduler.error.create.failed",
@@ -333,10 +338,10 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		Mockito.doThrow(new SchedulerException("test exception")).when(scheduler).scheduleJob(Mockito.anyObject(),
 				Mockito.anyObject());
 
-		scheduleJobManager.createCronJob(recurringScheduleEntity);
+		scheduleJobManager.createCronJob(recurringScheduleEntity, validationErrorResult);
 
 		assertTrue("This test should have an Error.", validationErrorResult.hasErrors());
-		List<String> errors = validationErrorResult.getAllErrorMessages();
+		List<String> errors = validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
 		assertEquals(1, errors.size());
 
 		String errorMessage = messageBundleResourceHelper.lookupMessage("scheduler.error.create.failed",
@@ -352,11 +357,11 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 
 		Mockito.doThrow(new SchedulerException("test exception")).when(scheduler).deleteJob(Mockito.anyObject());
 
-		scheduleJobManager.deleteJob(appId, scheduleId, type);
+		scheduleJobManager.deleteJob(appId, scheduleId, type, validationErrorResult);
 
 		assertTrue("This test should have an Error.", validationErrorResult.hasErrors());
 
-		List<String> errors = validationErrorResult.getAllErrorMessages();
+		List<String> errors = validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
 		assertEquals(1, errors.size());
 
 		String errorMessage = messageBundleResourceHelper.lookupMessage("scheduler.error.delete.failed",
@@ -372,10 +377,10 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 
 		Mockito.doThrow(new SchedulerException("test exception")).when(scheduler).deleteJob(Mockito.anyObject());
 
-		scheduleJobManager.deleteJob(appId, scheduleId, type);
+		scheduleJobManager.deleteJob(appId, scheduleId, type, validationErrorResult);
 
 		assertTrue("This test should have an Error.", validationErrorResult.hasErrors());
-		List<String> errors = validationErrorResult.getAllErrorMessages();
+		List<String> errors = validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
 		assertEquals(1, errors.size());
 
 		String errorMessage = messageBundleResourceHelper.lookupMessage("scheduler.error.delete.failed",
@@ -423,6 +428,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		assertThat(trigger.getKey(), is(expectedStartTriggerKey));
 		assertThat(trigger.getStartTime(), is(expectedStartDateTime));
 		assertThat(trigger.getMisfireInstruction(), is(SimpleTrigger.MISFIRE_INSTRUCTION_FIRE_NOW));
+		assertThat(trigger.getPriority(), is(startLanePriority));
 	}
 
 	private void assertCronTrigger(Trigger trigger, String expectedCronExpressionForStartJob,
@@ -434,6 +440,7 @@ public class ScheduleJobManagerTest extends TestConfiguration {
 		assertThat(cronTrigger.getCronExpression(), is(expectedCronExpressionForStartJob));
 		assertThat(cronTrigger.getTimeZone(), is(TimeZone.getTimeZone(recurringScheduleEntity.getTimeZone())));
 		assertThat(cronTrigger.getMisfireInstruction(), is(CronTrigger.MISFIRE_INSTRUCTION_FIRE_ONCE_NOW));
+		assertThat(cronTrigger.getPriority(), is(startLanePriority));
 
 		if (recurringScheduleEntity.getStartDate() != null) {
 			assertThat(cronTrigger.getStartTime(), is(recurringScheduleEntity.getStartDate()));
@@ -1,5 +1,6 @@
 package org.cloudfoundry.autoscaler.scheduler.service;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -12,7 +13,10 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -28,6 +32,7 @@ import org.cloudfoundry.autoscaler.scheduler.entity.ActiveScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
 import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.util.JobActionEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.RecurringScheduleEntitiesBuilder;
 import org.cloudfoundry.autoscaler.scheduler.util.ScheduleTypeEnum;
 import org.cloudfoundry.autoscaler.scheduler.util.SpecificDateScheduleEntitiesBuilder;
@@ -37,7 +42,6 @@ import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
 import org.cloudfoundry.autoscaler.scheduler.util.error.DatabaseValidationException;
 import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
 import org.cloudfoundry.autoscaler.scheduler.util.error.SchedulerInternalException;
-import org.cloudfoundry.autoscaler.scheduler.util.error.ValidationErrorResult;
 import org.hamcrest.core.Is;
 import org.junit.Before;
 import org.junit.Test;
@@ -77,11 +81,11 @@ public class ScheduleManagerTest extends TestConfiguration {
 	@MockBean
 	private ScheduleJobManager scheduleJobManager;
 
-	@Autowired
-	private MessageBundleResourceHelper messageBundleResourceHelper;
+	@MockBean
+	private ActiveScheduleChangeFeed activeScheduleChangeFeed;
 
 	@Autowired
-	private ValidationErrorResult validationErrorResult;
+	private MessageBundleResourceHelper messageBundleResourceHelper;
 
 	@Autowired
 	private TestDataCleanupHelper testDataCleanupHelper;
@@ -107,6 +111,7 @@ public class ScheduleManagerTest extends TestConfiguration {
 		Mockito.reset(specificDateScheduleDao);
 		Mockito.reset(recurringScheduleDao);
 		Mockito.reset(activeScheduleDao);
+		Mockito.reset(activeScheduleChangeFeed);
 		Mockito.reset(mockAppender);
 		mockServer = MockRestServiceServer.createServer(restTemplate);
 
@@ -247,12 +252,13 @@ public class ScheduleManagerTest extends TestConfiguration {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.create.failed",
 					"app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : e.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 		}
 
-		Mockito.verify(scheduleJobManager, Mockito.never()).createSimpleJob(Mockito.anyObject());
+		Mockito.verify(scheduleJobManager, Mockito.never()).createSimpleJob(Mockito.anyObject(), Mockito.anyObject());
 	}
 
 	@Test
@@ -270,12 +276,13 @@ public class ScheduleManagerTest extends TestConfiguration {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.create.failed",
 					"app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : e.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 		}
 
-		Mockito.verify(scheduleJobManager, Mockito.never()).createCronJob(Mockito.anyObject());
+		Mockito.verify(scheduleJobManager, Mockito.never()).createCronJob(Mockito.anyObject(), Mockito.anyObject());
 	}
 
 	@Test
@@ -289,7 +296,8 @@ public class ScheduleManagerTest extends TestConfiguration {
 		} catch (SchedulerInternalException sie) {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.get.failed", "app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : sie.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 		}
@@ -306,7 +314,8 @@ public class ScheduleManagerTest extends TestConfiguration {
 		} catch (SchedulerInternalException sie) {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.get.failed", "app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : sie.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 		}
@@ -344,15 +353,16 @@ public class ScheduleManagerTest extends TestConfiguration {
 
 		for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateScheduleEntities) {
 			Mockito.verify(specificDateScheduleDao, Mockito.times(1)).delete(specificDateScheduleEntity);
-			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(specificDateScheduleEntity.getAppId(),
-					specificDateScheduleEntity.getId(), ScheduleTypeEnum.SPECIFIC_DATE);
+			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(eq(specificDateScheduleEntity.getAppId()),
+					eq(specificDateScheduleEntity.getId()), eq(ScheduleTypeEnum.SPECIFIC_DATE), Mockito.anyObject());
 		}
 		for (RecurringScheduleEntity recurringScheduleEntity : recurringScheduleEntities) {
 			Mockito.verify(recurringScheduleDao, Mockito.times(1)).delete(recurringScheduleEntity);
-			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(recurringScheduleEntity.getAppId(),
-					recurringScheduleEntity.getId(), ScheduleTypeEnum.RECURRING);
+			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(eq(recurringScheduleEntity.getAppId()),
+					eq(recurringScheduleEntity.getId()), eq(ScheduleTypeEnum.RECURRING), Mockito.anyObject());
 		}
 		Mockito.verify(activeScheduleDao, Mockito.times(1)).deleteActiveSchedulesByAppId(appId);
+		Mockito.verify(activeScheduleChangeFeed, Mockito.times(1)).publish(activeScheduleEntity, JobActionEnum.END);
 
 		mockServer.verify();
 	}
@@ -392,13 +402,13 @@ public class ScheduleManagerTest extends TestConfiguration {
 
 		for (SpecificDateScheduleEntity specificDateScheduleEntity : specificDateScheduleEntities) {
 			Mockito.verify(specificDateScheduleDao, Mockito.times(1)).delete(specificDateScheduleEntity);
-			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(specificDateScheduleEntity.getAppId(),
-					specificDateScheduleEntity.getId(), ScheduleTypeEnum.SPECIFIC_DATE);
+			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(eq(specificDateScheduleEntity.getAppId()),
+					eq(specificDateScheduleEntity.getId()), eq(ScheduleTypeEnum.SPECIFIC_DATE), Mockito.anyObject());
 		}
 		for (RecurringScheduleEntity recurringScheduleEntity : recurringScheduleEntities) {
 			Mockito.verify(recurringScheduleDao, Mockito.times(1)).delete(recurringScheduleEntity);
-			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(recurringScheduleEntity.getAppId(),
-					recurringScheduleEntity.getId(), ScheduleTypeEnum.RECURRING);
+			Mockito.verify(scheduleJobManager, Mockito.times(1)).deleteJob(eq(recurringScheduleEntity.getAppId()),
+					eq(recurringScheduleEntity.getId()), eq(ScheduleTypeEnum.RECURRING), Mockito.anyObject());
 		}
 		Mockito.verify(activeScheduleDao, Mockito.times(1)).deleteActiveSchedulesByAppId(appId);
 
@@ -428,11 +438,11 @@ public class ScheduleManagerTest extends TestConfiguration {
 
 		Mockito.verify(specificDateScheduleDao, Mockito.never()).delete(Mockito.anyObject());
 		Mockito.verify(scheduleJobManager, Mockito.never()).deleteJob(Mockito.anyString(), Mockito.anyLong(),
-				Mockito.anyObject());
+				Mockito.anyObject(), Mockito.anyObject());
 
 		Mockito.verify(recurringScheduleDao, Mockito.never()).delete(Mockito.anyObject());
 		Mockito.verify(scheduleJobManager, Mockito.never()).deleteJob(Mockito.anyString(), Mockito.anyLong(),
-				Mockito.anyObject());
+				Mockito.anyObject(), Mockito.anyObject());
 
 		Mockito.verify(activeScheduleDao, Mockito.times(1)).deleteActiveSchedulesByAppId(appId);
 	}
@@ -461,14 +471,15 @@ public class ScheduleManagerTest extends TestConfiguration {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.delete.failed",
 					"app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : sie.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 
 		}
 
 		Mockito.verify(scheduleJobManager, Mockito.never()).deleteJob(Mockito.anyString(), Mockito.anyLong(),
-				eq(ScheduleTypeEnum.SPECIFIC_DATE));
+				eq(ScheduleTypeEnum.SPECIFIC_DATE), Mockito.anyObject());
 		Mockito.verify(activeScheduleDao, Mockito.never()).deleteActiveSchedulesByAppId(Mockito.anyString());
 	}
 
@@ -496,14 +507,15 @@ public class ScheduleManagerTest extends TestConfiguration {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.delete.failed",
 					"app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : sie.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 
 		}
 
 		Mockito.verify(scheduleJobManager, Mockito.never()).deleteJob(Mockito.anyString(), Mockito.anyLong(),
-				eq(ScheduleTypeEnum.RECURRING));
+				eq(ScheduleTypeEnum.RECURRING), Mockito.anyObject());
 		Mockito.verify(activeScheduleDao, Mockito.never()).deleteActiveSchedulesByAppId(Mockito.anyString());
 	}
 
@@ -532,13 +544,57 @@ public class ScheduleManagerTest extends TestConfiguration {
 			String message = messageBundleResourceHelper.lookupMessage("database.error.delete.failed",
 					"app_id=" + appId);
 
-			for (String errorMessage : validationErrorResult.getAllErrorMessages()) {
+			for (String errorMessage : e.getValidationErrorResult()
+					.getAllErrorMessages(messageBundleResourceHelper)) {
 				assertEquals(message, errorMessage);
 			}
 		}
 		mockServer.verify();
 	}
 
+	@Test
+	public void testImportSchedules_notifies_removed_active_schedules_after_commit() throws Exception {
+		String appId = TestDataSetupHelper.generateAppIds(1)[0];
+		long scheduleId = 1L;
+
+		ActiveScheduleEntity activeScheduleEntity = new ActiveScheduleEntity();
+		activeScheduleEntity.setAppId(appId);
+		activeScheduleEntity.setId(scheduleId);
+		List<ActiveScheduleEntity> activeScheduleEntities = new ArrayList<>();
+		activeScheduleEntities.add(activeScheduleEntity);
+
+		Mockito.when(specificDateScheduleDao.findAllSpecificDateSchedulesByAppId(appId))
+				.thenReturn(new SpecificDateScheduleEntitiesBuilder(1).setAppid(appId).setScheduleId().build());
+		Mockito.when(recurringScheduleDao.findAllRecurringSchedulesByAppId(appId)).thenReturn(new ArrayList<>());
+		Mockito.when(activeScheduleDao.findByAppId(appId)).thenReturn(activeScheduleEntities);
+
+		String scalingEnginePathActiveSchedule = scalingEngineUrl + "/v1/apps/" + appId + "/active_schedules/"
+				+ scheduleId;
+		mockServer.expect(ExpectedCount.times(1), requestTo(scalingEnginePathActiveSchedule))
+				.andExpect(method(HttpMethod.DELETE)).andRespond(withNoContent());
+
+		Map<String, Schedules> schedulesByAppId = new HashMap<>();
+		schedulesByAppId.put(appId, new Schedules());
+		assertThat(scheduleManager.importSchedules(schedulesByAppId), contains(appId));
+
+		Mockito.verify(activeScheduleDao, Mockito.times(1)).deleteActiveSchedulesByAppId(appId);
+		Mockito.verify(activeScheduleChangeFeed, Mockito.times(1)).publish(activeScheduleEntity, JobActionEnum.END);
+
+		// The scaling engine is notified in the background
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+		while (true) {
+			try {
+				mockServer.verify();
+				break;
+			} catch (AssertionError ae) {
+				if (System.currentTimeMillis() > deadline) {
+					throw ae;
+				}
+				Thread.sleep(50);
+			}
+		}
+	}
+
 	private void assertCreateSchedules(Schedules schedules, SpecificDateScheduleEntity specificDateScheduleEntity,
 			RecurringScheduleEntity recurringScheduleEntity, int noOfSpecificDateSchedules,
 			int noOfDOMRecurringSchedules, int noOfDOWRecurringSchedules) {
@@ -556,9 +612,9 @@ public class ScheduleManagerTest extends TestConfiguration {
 		}
 
 		Mockito.verify(scheduleJobManager, Mockito.times(noOfSpecificDateSchedules))
-				.createSimpleJob(specificDateScheduleEntity);
+				.createSimpleJob(eq(specificDateScheduleEntity), Mockito.anyObject());
 		Mockito.verify(scheduleJobManager, Mockito.times(noOfDOMRecurringSchedules + noOfDOWRecurringSchedules))
-				.createCronJob(recurringScheduleEntity);
+				.createCronJob(eq(recurringScheduleEntity), Mockito.anyObject());
 	}
 
 	private void setLogLevel(Level level) {
@@ -0,0 +1,84 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.SpecificDateScheduleEntity;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.cloudfoundry.autoscaler.scheduler.util.error.MessageBundleResourceHelper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.validation.specificdate.maxcount=4",
+		"scheduler.validation.recurring.maxcount=4", "scheduler.validation.error.maxcount=2",
+		"scheduler.validation.parallel.enabled=true", "scheduler.validation.parallel.threshold=2" })
+public class ScheduleManager_ValidationLimitTest extends TestConfiguration {
+
+	@Autowired
+	private ScheduleManager scheduleManager;
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	private String appId = TestDataSetupHelper.generateAppIds(1)[0];
+
+	@Test
+	public void testValidateSchedules_exceeding_schedule_count() {
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(5, 2);
+
+		List<String> messages = validateSchedules(applicationPolicy);
+
+		assertThat(messages, contains("5 Specific Date Schedules exceed the limit of 4 per application."));
+	}
+
+	@Test
+	public void testValidateSchedules_stops_at_error_limit() {
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(4, 2);
+		for (SpecificDateScheduleEntity specificDateScheduleEntity : applicationPolicy.getSchedules()
+				.getSpecificDate()) {
+			specificDateScheduleEntity.setInstanceMinCount(5);
+			specificDateScheduleEntity.setInstanceMaxCount(2);
+		}
+
+		List<String> messages = validateSchedules(applicationPolicy);
+
+		// The schedules are validated in parallel, the errors are still in the order of the schedules
+		assertThat(messages,
+				contains("Specific Date Schedule 0 instance_max_count 2 should be greater than instance_min_count 5.",
+						"Specific Date Schedule 1 instance_max_count 2 should be greater than instance_min_count 5.",
+						"Only the first 2 errors are reported."));
+	}
+
+	@Test
+	public void testValidateSchedules_at_error_limit_reports_all_errors() {
+		ApplicationSchedules applicationPolicy = TestDataSetupHelper.generateApplicationPolicy(4, 2);
+		for (SpecificDateScheduleEntity specificDateScheduleEntity : applicationPolicy.getSchedules()
+				.getSpecificDate().subList(2, 4)) {
+			specificDateScheduleEntity.setInstanceMinCount(5);
+			specificDateScheduleEntity.setInstanceMaxCount(2);
+		}
+
+		List<String> messages = validateSchedules(applicationPolicy);
+
+		// No error is dropped, so there is no note about the limit
+		assertThat(messages,
+				contains("Specific Date Schedule 2 instance_max_count 2 should be greater than instance_min_count 5.",
+						"Specific Date Schedule 3 instance_max_count 2 should be greater than instance_min_count 5."));
+	}
+
+	private List<String> validateSchedules(ApplicationSchedules applicationPolicy) {
+		scheduleManager.setUpSchedules(appId, applicationPolicy);
+		return scheduleManager.validateSchedules(appId, applicationPolicy)
+				.getAllErrorMessages(messageBundleResourceHelper);
+	}
+}
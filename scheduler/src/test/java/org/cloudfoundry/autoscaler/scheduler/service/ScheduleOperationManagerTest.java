@@ -0,0 +1,183 @@
+package org.cloudfoundry.autoscaler.scheduler.service;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ApplicationSchedules;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScheduleOperation;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.Schedules;
+import org.cloudfoundry.autoscaler.scheduler.util.ScheduleOperationStatusEnum;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.cloudfoundry.autoscaler.scheduler.util.TestDataSetupHelper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@TestPropertySource(properties = { "scheduler.async.enabled=true", "scheduler.async.poolsize=1",
+		"scheduler.async.queue.capacity=1" })
+public class ScheduleOperationManagerTest extends TestConfiguration {
+
+	@Autowired
+	private ScheduleOperationManager scheduleOperationManager;
+
+	@MockBean
+	private ScheduleManager scheduleManager;
+
+	private String appId = TestDataSetupHelper.generateAppIds(1)[0];
+
+	private String[] otherAppIds = TestDataSetupHelper.generateAppIds(2);
+
+	@Before
+	public void before() {
+		Mockito.reset(scheduleManager);
+		Mockito.when(scheduleManager.getAllSchedules(anyString())).thenReturn(applicationSchedules(false));
+	}
+
+	@Test
+	public void testSubmitOperation() throws Exception {
+		Schedules schedules = TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 1, 1, 0);
+
+		ScheduleOperation operation = scheduleOperationManager.submitOperation(appId, schedules);
+		waitUntilFinished(operation);
+
+		assertThat(operation.getStatus(), is(ScheduleOperationStatusEnum.SUCCEEDED.getStatus()));
+		assertThat(scheduleOperationManager.getOperation(appId, operation.getId()), is(operation));
+		assertThat(scheduleOperationManager.getOperation("other_app", operation.getId()), is(nullValue()));
+		Mockito.verify(scheduleManager, Mockito.never()).deleteSchedules(appId);
+		Mockito.verify(scheduleManager, Mockito.times(1)).createSchedules(schedules);
+	}
+
+	@Test
+	public void testSubmitOperation_supersedes_queued_operation() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(scheduleManager.getAllSchedules(eq(appId))).thenAnswer(invocation -> {
+			running.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return applicationSchedules(true);
+		});
+
+		ScheduleOperation first = scheduleOperationManager.submitOperation(appId,
+				TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 1, 0, 0));
+		running.await(10, TimeUnit.SECONDS);
+
+		// The first operation is running, the second one is queued until the third one supersedes it
+		Schedules secondSchedules = TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 2, 0, 0);
+		ScheduleOperation second = scheduleOperationManager.submitOperation(appId, secondSchedules);
+		assertThat(second.getStatus(), is(ScheduleOperationStatusEnum.QUEUED.getStatus()));
+		Schedules thirdSchedules = TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 3, 0, 0);
+		ScheduleOperation third = scheduleOperationManager.submitOperation(appId, thirdSchedules);
+		release.countDown();
+
+		waitUntilFinished(first);
+		waitUntilFinished(third);
+
+		assertThat(first.getStatus(), is(ScheduleOperationStatusEnum.SUCCEEDED.getStatus()));
+		assertThat(second.getStatus(), is(ScheduleOperationStatusEnum.SUPERSEDED.getStatus()));
+		assertThat(third.getStatus(), is(ScheduleOperationStatusEnum.SUCCEEDED.getStatus()));
+		Mockito.verify(scheduleManager, Mockito.times(2)).deleteSchedules(appId);
+		Mockito.verify(scheduleManager, Mockito.never()).createSchedules(secondSchedules);
+		Mockito.verify(scheduleManager, Mockito.times(1)).createSchedules(thirdSchedules);
+	}
+
+	@Test
+	public void testSupersedeQueuedOperation() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(scheduleManager.getAllSchedules(eq(appId))).thenAnswer(invocation -> {
+			running.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return applicationSchedules(false);
+		});
+
+		ScheduleOperation first = scheduleOperationManager.submitOperation(appId,
+				TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 1, 0, 0));
+		running.await(10, TimeUnit.SECONDS);
+		ScheduleOperation second = scheduleOperationManager.submitOperation(appId,
+				TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 2, 0, 0));
+
+		// A delete supersedes the queued operation and waits for the running one
+		AtomicBoolean superseded = new AtomicBoolean();
+		Thread deleteThread = new Thread(() -> {
+			scheduleOperationManager.supersedeQueuedOperation(appId);
+			superseded.set(true);
+		});
+		deleteThread.start();
+
+		Thread.sleep(200);
+		assertThat(second.getStatus(), is(ScheduleOperationStatusEnum.SUPERSEDED.getStatus()));
+		assertThat("The delete should wait for the running operation", superseded.get(), is(false));
+
+		release.countDown();
+		deleteThread.join(TimeUnit.SECONDS.toMillis(10));
+		assertThat(superseded.get(), is(true));
+		assertThat(first.isFinished(), is(true));
+	}
+
+	@Test
+	public void testSubmitOperation_rejected_when_executor_saturated() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Mockito.when(scheduleManager.getAllSchedules(eq(appId))).thenAnswer(invocation -> {
+			running.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return applicationSchedules(false);
+		});
+
+		// The only executor thread runs the first operation and the queue holds the task of another
+		// application
+		ScheduleOperation first = scheduleOperationManager.submitOperation(appId,
+				TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 1, 0, 0));
+		running.await(10, TimeUnit.SECONDS);
+		ScheduleOperation other = scheduleOperationManager.submitOperation(otherAppIds[0],
+				TestDataSetupHelper.generateSchedulesWithEntitiesOnly(otherAppIds[0], 1, 0, 0));
+
+		ScheduleOperation rejected = scheduleOperationManager.submitOperation(otherAppIds[1],
+				TestDataSetupHelper.generateSchedulesWithEntitiesOnly(otherAppIds[1], 1, 0, 0));
+		assertThat(rejected.getStatus(), is(ScheduleOperationStatusEnum.FAILED.getStatus()));
+		assertThat(other.getStatus(), is(ScheduleOperationStatusEnum.QUEUED.getStatus()));
+
+		// The application with a task needs no further one, its operation is queued
+		Schedules secondSchedules = TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 2, 0, 0);
+		ScheduleOperation second = scheduleOperationManager.submitOperation(appId, secondSchedules);
+		assertThat(second.getStatus(), is(ScheduleOperationStatusEnum.QUEUED.getStatus()));
+
+		release.countDown();
+		waitUntilFinished(first);
+		waitUntilFinished(second);
+		waitUntilFinished(other);
+
+		assertThat(second.getStatus(), is(ScheduleOperationStatusEnum.SUCCEEDED.getStatus()));
+		assertThat(other.getStatus(), is(ScheduleOperationStatusEnum.SUCCEEDED.getStatus()));
+		Mockito.verify(scheduleManager, Mockito.times(1)).createSchedules(secondSchedules);
+	}
+
+	private ApplicationSchedules applicationSchedules(boolean hasSchedules) {
+		ApplicationSchedules applicationSchedules = new ApplicationSchedules();
+		applicationSchedules.setSchedules(hasSchedules
+				? TestDataSetupHelper.generateSchedulesWithEntitiesOnly(appId, 1, 0, 0) : new Schedules());
+		return applicationSchedules;
+	}
+
+	private void waitUntilFinished(ScheduleOperation operation) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (!operation.isFinished() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import org.quartz.CronExpression;
+
+public class CompiledCronExpressionTest {
+
+	private static final String[] TIME_ZONES = { "UTC", "Asia/Kolkata", "America/Chicago", "America/Los_Angeles",
+			"Europe/London", "Australia/Sydney", "America/St_Johns", "Pacific/Chatham", "Australia/Lord_Howe" };
+
+	private static final String[] DAYS_OF_WEEK = { "MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN" };
+
+	// 2017-01-01T00:00:00Z
+	private static final long START_TIME = 1483228800000L;
+
+	@Test
+	public void testNextFireAfter_same_as_quartz() throws ParseException {
+		Random random = new Random(31);
+		for (String timeZone : TIME_ZONES) {
+			for (int i = 0; i < 200; i++) {
+				String expression = randomCronExpression(random);
+				assertSameFireTimes(expression, timeZone, random);
+			}
+		}
+	}
+
+	@Test
+	public void testNextFireAfter_daylight_saving_time_transitions_same_as_quartz() throws ParseException {
+		Random random = new Random(17);
+		// Times in and around the spring forward gap and the fall back overlap
+		String[] expressions = { "00 30 02 ? * SUN *", "00 00 02 ? * MON,TUE,WED,THU,FRI,SAT,SUN *",
+				"00 30 01 ? * SUN *", "00 59 01 1,2,3,4,5,6,7,8,9,10,11,12,13,14 * ? *", "00 00 03 ? * SUN *",
+				"00 00 00 ? * MON,TUE,WED,THU,FRI,SAT,SUN *" };
+		for (String timeZone : TIME_ZONES) {
+			for (String expression : expressions) {
+				assertSameFireTimes(expression, timeZone, random);
+			}
+		}
+	}
+
+	@Test
+	public void testNextFireAfter_expression_outside_of_subset() throws ParseException {
+		String expression = "00 00 00 1 * ? 2099";
+		CompiledCronExpression compiledCronExpression = CompiledCronExpression.getInstance(expression, "UTC");
+		CronExpression cronExpression = new CronExpression(expression);
+		cronExpression.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+		Date now = new Date();
+		assertThat(compiledCronExpression.getNextValidTimeAfter(now), is(cronExpression.getNextValidTimeAfter(now)));
+	}
+
+	@Test
+	public void testFiresOn() throws ParseException {
+		// 2017-01-02 was a Monday
+		CompiledCronExpression daysOfWeek = CompiledCronExpression.getInstance("00 00 10 ? * MON,WED *",
+				"America/Chicago");
+		assertThat(daysOfWeek.firesOn(LocalDate.of(2017, 1, 2)), is(true));
+		assertThat(daysOfWeek.firesOn(LocalDate.of(2017, 1, 3)), is(false));
+		assertThat(daysOfWeek.firesOn(LocalDate.of(2017, 1, 4)), is(true));
+
+		CompiledCronExpression daysOfMonth = CompiledCronExpression.getInstance("00 00 10 31 * ? *", "UTC");
+		assertThat(daysOfMonth.firesOn(LocalDate.of(2017, 1, 31)), is(true));
+		assertThat(daysOfMonth.firesOn(LocalDate.of(2017, 2, 28)), is(false));
+
+		// Outside of the recurring schedule subset
+		CompiledCronExpression year = CompiledCronExpression.getInstance("00 00 10 1 * ? 2099", "Asia/Kolkata");
+		assertThat(year.firesOn(LocalDate.of(2099, 3, 1)), is(true));
+		assertThat(year.firesOn(LocalDate.of(2098, 3, 1)), is(false));
+	}
+
+	@Test
+	public void testGetInstance_cached_by_expression_and_time_zone() throws ParseException {
+		CompiledCronExpression compiledCronExpression = CompiledCronExpression.getInstance("00 10 22 ? * TUE *",
+				"Asia/Kolkata");
+
+		assertThat(CompiledCronExpression.getInstance("00 10 22 ? * TUE *", "Asia/Kolkata"),
+				is(sameInstance(compiledCronExpression)));
+		assertThat(CompiledCronExpression.getInstance("00 10 22 ? * TUE *", "UTC").getTimeZone().getID(), is("UTC"));
+	}
+
+	@Test(expected = ParseException.class)
+	public void testGetInstance_invalid_expression() throws ParseException {
+		CompiledCronExpression.getInstance("00 70 22 ? * TUE *", "UTC");
+	}
+
+	private void assertSameFireTimes(String expression, String timeZone, Random random) throws ParseException {
+		CompiledCronExpression compiledCronExpression = CompiledCronExpression.getInstance(expression, timeZone);
+		CronExpression cronExpression = new CronExpression(expression);
+		cronExpression.setTimeZone(TimeZone.getTimeZone(timeZone));
+
+		long afterTime = START_TIME + (long) (random.nextDouble() * 2 * 365 * 24 * 3600 * 1000L);
+		for (int i = 0; i < 60; i++) {
+			Date expectedFireTime = cronExpression.getNextValidTimeAfter(new Date(afterTime));
+			long fireTime = compiledCronExpression.nextFireAfter(afterTime);
+			assertThat(expression + " in " + timeZone + " after " + afterTime, fireTime,
+					is(expectedFireTime.getTime()));
+
+			// Continue from the fire time itself or from a time close to it
+			afterTime = random.nextBoolean() ? fireTime : fireTime + random.nextInt(7200000) - 3600000;
+		}
+	}
+
+	private String randomCronExpression(Random random) {
+		StringBuilder days = new StringBuilder();
+		boolean dayOfWeek = random.nextBoolean();
+		int dayCount = 1 + random.nextInt(dayOfWeek ? 7 : 31);
+		boolean[] selected = new boolean[32];
+		for (int i = 0; i < dayCount; i++) {
+			selected[dayOfWeek ? 1 + random.nextInt(7) : 1 + random.nextInt(31)] = true;
+		}
+		for (int day = 1; day < selected.length; day++) {
+			if (selected[day]) {
+				if (days.length() > 0) {
+					days.append(',');
+				}
+				days.append(dayOfWeek ? DAYS_OF_WEEK[day - 1] : String.valueOf(day));
+			}
+		}
+		return String.format("00 %02d %02d %s * %s *", random.nextInt(60), random.nextInt(24),
+				dayOfWeek ? "?" : days, dayOfWeek ? days : "?");
+	}
+}
@@ -0,0 +1,104 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudfoundry.autoscaler.scheduler.entity.RecurringScheduleEntity;
+import org.junit.Test;
+
+public class DataValidationHelperTest {
+
+	// A Tuesday
+	private SpecificDateScheduleDateTime specificDateScheduleDateTime = new SpecificDateScheduleDateTime(
+			"specific 0", DateHelper.parseDateTime("2100-07-20T08:00"), DateHelper.parseDateTime("2100-07-20T10:00"));
+
+	@Test
+	public void testIsNotOverlapSpecificDateAndRecurringSchedules_recurring_starts_during_specific_date() {
+		List<String[]> messages = isNotOverlap(recurringScheduleTime("09:00", "11:00", new int[] { 2 }, null));
+
+		assertThat(messages.size(), is(1));
+		assertThat(messages.get(0), arrayContaining("specific 0", "end_date_time", "recurring 0", "start_time"));
+	}
+
+	@Test
+	public void testIsNotOverlapSpecificDateAndRecurringSchedules_recurring_ends_during_specific_date() {
+		List<String[]> messages = isNotOverlap(recurringScheduleTime("07:00", "08:30", new int[] { 2 }, null));
+
+		assertThat(messages.size(), is(1));
+		assertThat(messages.get(0), arrayContaining("recurring 0", "end_time", "specific 0", "start_date_time"));
+	}
+
+	@Test
+	public void testIsNotOverlapSpecificDateAndRecurringSchedules_same_start() {
+		List<String[]> messages = isNotOverlap(recurringScheduleTime("08:00", "09:00", new int[] { 2 }, null));
+
+		assertThat(messages.size(), is(1));
+		assertThat(messages.get(0), arrayContaining("specific 0", "start_date_time", "recurring 0", "start_time"));
+	}
+
+	@Test
+	public void testIsNotOverlapSpecificDateAndRecurringSchedules_no_overlap() {
+		// Other day of week
+		assertThat(isNotOverlap(recurringScheduleTime("09:00", "11:00", new int[] { 1, 3, 4, 5, 6, 7 }, null)),
+				is(empty()));
+		// After the specific date schedule
+		assertThat(isNotOverlap(recurringScheduleTime("10:30", "11:00", new int[] { 2 }, null)), is(empty()));
+		// Other day of month
+		assertThat(isNotOverlap(recurringScheduleTime("09:00", "11:00", null, new int[] { 19, 21 })), is(empty()));
+	}
+
+	@Test
+	public void testIsNotOverlapSpecificDateAndRecurringSchedules_start_end_date() {
+		RecurringScheduleEntity recurringScheduleEntity = recurringScheduleEntity("09:00", "11:00", new int[] { 2 },
+				null);
+		recurringScheduleEntity.setEndDate(DateHelper.parseDate("2100-07-19"));
+		assertThat(isNotOverlap(new RecurringScheduleTime("recurring 0", recurringScheduleEntity)), is(empty()));
+
+		recurringScheduleEntity.setEndDate(null);
+		recurringScheduleEntity.setStartDate(DateHelper.parseDate("2100-07-21"));
+		assertThat(isNotOverlap(new RecurringScheduleTime("recurring 0", recurringScheduleEntity)), is(empty()));
+
+		recurringScheduleEntity.setStartDate(DateHelper.parseDate("2100-07-20"));
+		recurringScheduleEntity.setEndDate(DateHelper.parseDate("2100-07-20"));
+		assertThat(isNotOverlap(new RecurringScheduleTime("recurring 0", recurringScheduleEntity)).size(), is(1));
+	}
+
+	@Test
+	public void testIsNotOverlapSpecificDateAndRecurringSchedules_multiple_days() {
+		SpecificDateScheduleDateTime multipleDays = new SpecificDateScheduleDateTime("specific 1",
+				DateHelper.parseDateTime("2100-07-20T08:00"), DateHelper.parseDateTime("2100-07-22T06:00"));
+		List<String[]> messages = DataValidationHelper.isNotOverlapSpecificDateAndRecurringSchedules(
+				Arrays.asList(multipleDays),
+				Arrays.asList(recurringScheduleTime("12:00", "13:00", null, new int[] { 21 })));
+
+		assertThat(messages.size(), is(1));
+		assertThat(messages.get(0), arrayContaining("specific 1", "end_date_time", "recurring 0", "start_time"));
+	}
+
+	private List<String[]> isNotOverlap(RecurringScheduleTime recurringScheduleTime) {
+		return DataValidationHelper.isNotOverlapSpecificDateAndRecurringSchedules(
+				Arrays.asList(specificDateScheduleDateTime), Arrays.asList(recurringScheduleTime));
+	}
+
+	private RecurringScheduleTime recurringScheduleTime(String startTime, String endTime, int[] daysOfWeek,
+			int[] daysOfMonth) {
+		return new RecurringScheduleTime("recurring 0",
+				recurringScheduleEntity(startTime, endTime, daysOfWeek, daysOfMonth));
+	}
+
+	private RecurringScheduleEntity recurringScheduleEntity(String startTime, String endTime, int[] daysOfWeek,
+			int[] daysOfMonth) {
+		RecurringScheduleEntity recurringScheduleEntity = new RecurringScheduleEntity();
+		recurringScheduleEntity.setTimeZone("America/Chicago");
+		recurringScheduleEntity.setStartTime(DateHelper.parseTime(startTime));
+		recurringScheduleEntity.setEndTime(DateHelper.parseTime(endTime));
+		recurringScheduleEntity.setDaysOfWeek(daysOfWeek);
+		recurringScheduleEntity.setDaysOfMonth(daysOfMonth);
+		return recurringScheduleEntity;
+	}
+}
@@ -0,0 +1,112 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.sql.Time;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DateHelperTest {
+
+	private TimeZone defaultTimeZone;
+
+	@Before
+	public void before() {
+		defaultTimeZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+	}
+
+	@After
+	public void after() {
+		TimeZone.setDefault(defaultTimeZone);
+	}
+
+	@Test
+	public void testGetDateWithZoneOffset_standard_time() throws ParseException {
+		assertDateWithZoneOffset("2017-01-10T10:00", "America/Chicago", "2017-01-10T16:00:00Z");
+		assertDateWithZoneOffset("2017-07-10T10:00", "Asia/Kolkata", "2017-07-10T04:30:00Z");
+	}
+
+	@Test
+	public void testGetDateWithZoneOffset_daylight_saving_time() throws ParseException {
+		assertDateWithZoneOffset("2017-07-10T10:00", "America/Chicago", "2017-07-10T15:00:00Z");
+		assertDateWithZoneOffset("2017-07-10T10:00", "America/Los_Angeles", "2017-07-10T17:00:00Z");
+		assertDateWithZoneOffset("2017-01-10T10:00", "Australia/Sydney", "2017-01-09T23:00:00Z");
+	}
+
+	@Test
+	public void testGetDateWithZoneOffset_daylight_saving_time_gap() throws ParseException {
+		// 02:30 does not exist on the spring forward days, it is moved forward by the gap
+		assertDateWithZoneOffset("2017-03-12T02:30", "America/Chicago", "2017-03-12T08:30:00Z");
+		assertDateWithZoneOffset("2017-03-12T02:30", "America/Los_Angeles", "2017-03-12T10:30:00Z");
+		assertDateWithZoneOffset("2017-10-01T02:30", "Australia/Sydney", "2017-09-30T16:30:00Z");
+	}
+
+	@Test
+	public void testGetDateWithZoneOffset_daylight_saving_time_overlap() throws ParseException {
+		// 01:30 happens twice on the fall back days, the earlier one is taken
+		assertDateWithZoneOffset("2017-11-05T01:30", "America/Chicago", "2017-11-05T06:30:00Z");
+		assertDateWithZoneOffset("2017-11-05T01:30", "America/Los_Angeles", "2017-11-05T08:30:00Z");
+		assertDateWithZoneOffset("2017-04-02T02:30", "Australia/Sydney", "2017-04-01T15:30:00Z");
+	}
+
+	@Test
+	public void testGetZoneId() {
+		ZoneId zoneId = DateHelper.getZoneId("America/Chicago");
+
+		assertThat(DateHelper.getZoneId("America/Chicago"), is(sameInstance(zoneId)));
+		assertThat(DateHelper.getZoneId("America/Iqaluit ").getId(), is("America/Iqaluit"));
+		assertThat(DateHelper.getZoneId("Invalid TimeZone").getId(), is("GMT"));
+	}
+
+	@Test
+	public void testParseAndConvertToString() {
+		assertThat(DateHelper.convertDateTimeToString(DateHelper.parseDateTime("2100-8-10T2:05")),
+				is("2100-08-10T02:05"));
+		assertThat(DateHelper.convertDateToString(DateHelper.parseDate("2100-8-1")), is("2100-08-01"));
+		assertThat(DateHelper.convertTimeToString(DateHelper.parseTime("2:00")), is("02:00"));
+		assertThat(DateHelper.parseTime("23:59"), is(Time.valueOf("23:59:00")));
+	}
+
+	@Test
+	public void testParseDateTime_same_as_simple_date_format() throws ParseException {
+		SimpleDateFormat simpleDateFormat = new SimpleDateFormat(DateHelper.DATE_TIME_FORMAT);
+		for (String dateTime : new String[] { "2017-01-10T10:00", "2017-07-10T23:59", "2100-8-10T00:00" }) {
+			assertThat(DateHelper.parseDateTime(dateTime), is(simpleDateFormat.parse(dateTime)));
+		}
+	}
+
+	@Test(expected = DateTimeParseException.class)
+	public void testParseDate_invalid_day_of_month() {
+		DateHelper.parseDate("2017-02-30");
+	}
+
+	@Test(expected = DateTimeParseException.class)
+	public void testParseDateTime_trailing_text() {
+		DateHelper.parseDateTime("2017-01-10T10:00:00");
+	}
+
+	@Test(expected = DateTimeParseException.class)
+	public void testParseTime_invalid_hour() {
+		DateHelper.parseTime("24:00");
+	}
+
+	private void assertDateWithZoneOffset(String policyDateTime, String timeZone, String expectedInstant)
+			throws ParseException {
+		Date date = new SimpleDateFormat(DateHelper.DATE_TIME_FORMAT).parse(policyDateTime);
+
+		assertThat(policyDateTime + " in " + timeZone, DateHelper.getDateWithZoneOffset(date, timeZone).toInstant(),
+				is(Instant.parse(expectedInstant)));
+	}
+}
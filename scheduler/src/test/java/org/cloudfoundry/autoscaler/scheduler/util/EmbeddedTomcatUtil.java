@@ -2,6 +2,11 @@ package org.cloudfoundry.autoscaler.scheduler.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -12,10 +17,16 @@ import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleException;
 import org.apache.catalina.startup.Tomcat;
 import org.apache.tomcat.util.http.fileupload.FileUtils;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScalingEngineNotification;
+import org.cloudfoundry.autoscaler.scheduler.rest.model.ScalingEngineNotificationResult;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class EmbeddedTomcatUtil {
 	File applicationDir;
 	Context appContext;
+	ScalingEngineStub scalingEngineStub;
 
 	public EmbeddedTomcatUtil() {
 		File baseDir = new File("tomcat");
@@ -65,6 +76,20 @@ public class EmbeddedTomcatUtil {
 
 	}
 
+	/**
+	 * Serves the per application PUT and DELETE requests and the batch requests of any application,
+	 * the mocks of the setup method keep precedence for their applications.
+	 */
+	public ScalingEngineStub setupScalingEngineStub() {
+		if (scalingEngineStub == null) {
+			scalingEngineStub = new ScalingEngineStub();
+			Tomcat.addServlet(appContext, "scalingEngineStub", scalingEngineStub);
+			appContext.addServletMapping("/v1/*", "scalingEngineStub");
+		}
+		scalingEngineStub.reset();
+		return scalingEngineStub;
+	}
+
 	static class ScalingEngineMock extends HttpServlet {
 
 		private int returnStatus;
@@ -97,4 +122,88 @@ public class EmbeddedTomcatUtil {
 
 	}
 
+	public static class ScalingEngineStub extends HttpServlet {
+
+		private ObjectMapper mapper = new ObjectMapper();
+
+		private volatile boolean batchSupported = true;
+		private Map<String, Integer> statusByAppId = new ConcurrentHashMap<>();
+
+		private AtomicInteger batchRequestCount = new AtomicInteger();
+		private AtomicInteger singleRequestCount = new AtomicInteger();
+		private AtomicInteger notificationCount = new AtomicInteger();
+
+		public void reset() {
+			batchSupported = true;
+			statusByAppId.clear();
+			batchRequestCount.set(0);
+			singleRequestCount.set(0);
+			notificationCount.set(0);
+		}
+
+		public void setBatchSupported(boolean batchSupported) {
+			this.batchSupported = batchSupported;
+		}
+
+		public void setStatus(String appId, int status) {
+			statusByAppId.put(appId, status);
+		}
+
+		public int getBatchRequestCount() {
+			return batchRequestCount.get();
+		}
+
+		public int getSingleRequestCount() {
+			return singleRequestCount.get();
+		}
+
+		public int getNotificationCount() {
+			return notificationCount.get();
+		}
+
+		@Override
+		protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			if (!batchSupported || !"/active_schedules/batch".equals(request.getPathInfo())) {
+				response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+				return;
+			}
+			batchRequestCount.incrementAndGet();
+
+			List<ScalingEngineNotification> notifications = mapper.readValue(request.getInputStream(),
+					new TypeReference<List<ScalingEngineNotification>>() {
+					});
+			List<ScalingEngineNotificationResult> results = new ArrayList<>();
+			for (ScalingEngineNotification notification : notifications) {
+				notificationCount.incrementAndGet();
+				int status = statusByAppId.getOrDefault(notification.getAppId(), HttpServletResponse.SC_OK);
+				results.add(new ScalingEngineNotificationResult(notification.getAppId(), notification.getScheduleId(),
+						status, status == HttpServletResponse.SC_OK ? null : "stub status"));
+			}
+			response.setStatus(HttpServletResponse.SC_OK);
+			response.setContentType("application/json");
+			mapper.writeValue(response.getOutputStream(), results);
+		}
+
+		@Override
+		protected void doPut(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			respondSingle(request, response);
+		}
+
+		@Override
+		protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			respondSingle(request, response);
+		}
+
+		// The path info is /apps/{app_id}/active_schedules/{schedule_id}
+		private void respondSingle(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			singleRequestCount.incrementAndGet();
+			notificationCount.incrementAndGet();
+			String[] pathElements = request.getPathInfo().split("/");
+			String appId = pathElements.length > 2 ? pathElements[2] : null;
+			response.setStatus(
+					appId == null ? HttpServletResponse.SC_NOT_FOUND
+							: statusByAppId.getOrDefault(appId, HttpServletResponse.SC_OK));
+		}
+	}
+
 }
@@ -0,0 +1,83 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HierarchicalTimingWheelTest {
+
+	private static final long START_TIME = 1_000_000L;
+
+	@Test
+	public void testAdd_already_due() {
+		HierarchicalTimingWheel<String> timingWheel = new HierarchicalTimingWheel<>(100, 8, START_TIME);
+
+		assertThat(timingWheel.add(START_TIME - 5000, "past"), is(false));
+		assertThat(timingWheel.add(START_TIME, "now"), is(false));
+		assertThat(timingWheel.size(), is(0));
+	}
+
+	@Test
+	public void testAdvanceClock_releases_in_expiration_order_and_not_early() {
+		HierarchicalTimingWheel<String> timingWheel = new HierarchicalTimingWheel<>(100, 8, START_TIME);
+		timingWheel.add(START_TIME + 250, "second");
+		timingWheel.add(START_TIME + 150, "first");
+		timingWheel.add(START_TIME + 5000, "overflow");
+
+		assertThat(timingWheel.advanceClock(START_TIME + 149), is(empty()));
+		assertThat(timingWheel.advanceClock(START_TIME + 300), contains("first", "second"));
+		assertThat(timingWheel.advanceClock(START_TIME + 4999), is(empty()));
+		assertThat(timingWheel.advanceClock(START_TIME + 5000), contains("overflow"));
+		assertThat(timingWheel.size(), is(0));
+	}
+
+	@Test
+	public void testAdvanceClock_cascades_overflow_levels() {
+		long tickMillis = 10;
+		long maxStepMillis = 500;
+		HierarchicalTimingWheel<Long> timingWheel = new HierarchicalTimingWheel<>(tickMillis, 4, START_TIME);
+		Random random = new Random(17);
+
+		List<Long> expirations = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			long expiration = START_TIME + 1 + (long) (random.nextDouble() * random.nextDouble() * 10_000_000L);
+			timingWheel.add(expiration, expiration);
+			expirations.add(expiration);
+		}
+		assertThat(timingWheel.size(), is(expirations.size()));
+
+		long now = START_TIME;
+		int releasedCount = 0;
+		long previousExpiration = Long.MIN_VALUE;
+		while (timingWheel.size() > 0) {
+			now += 1 + random.nextInt((int) maxStepMillis);
+			for (Long expiration : timingWheel.advanceClock(now)) {
+				assertThat(expiration, lessThanOrEqualTo(now));
+				assertThat(now - expiration, lessThanOrEqualTo(maxStepMillis + tickMillis));
+				assertThat(previousExpiration, lessThanOrEqualTo(expiration));
+				previousExpiration = expiration;
+				releasedCount++;
+			}
+		}
+		assertThat(releasedCount, is(expirations.size()));
+	}
+
+	@Test
+	public void testAdvanceClock_empty_wheel_jumps_ahead() {
+		HierarchicalTimingWheel<String> timingWheel = new HierarchicalTimingWheel<>(100, 8, START_TIME);
+
+		assertThat(timingWheel.advanceClock(START_TIME + 1_000_050), is(empty()));
+		assertThat(timingWheel.getCurrentTime(), is(START_TIME + 1_000_000));
+
+		timingWheel.add(START_TIME + 1_000_120, "item");
+		assertThat(timingWheel.advanceClock(START_TIME + 1_000_200), contains("item"));
+	}
+}
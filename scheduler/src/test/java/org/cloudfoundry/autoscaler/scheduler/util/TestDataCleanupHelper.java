@@ -33,6 +33,19 @@ public class TestDataCleanupHelper {
 		cleanScheduler(scheduler);
 	}
 
+	public void cleanupPartitionLeases() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+		jdbcTemplate.update("DELETE FROM app_scaling_partition_lease");
+		jdbcTemplate.update("DELETE FROM app_scaling_scheduler_node");
+	}
+
+	public void cleanupPendingNotifications() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+		jdbcTemplate.update("DELETE FROM app_scaling_pending_notification");
+	}
+
 	public Long getCurrentSequenceSchedulerId(){
 		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
 
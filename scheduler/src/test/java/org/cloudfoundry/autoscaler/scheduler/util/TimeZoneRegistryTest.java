@@ -0,0 +1,41 @@
+package org.cloudfoundry.autoscaler.scheduler.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.time.Instant;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class TimeZoneRegistryTest {
+
+	@Test
+	public void testIsSupported() {
+		for (String timeZoneId : DateHelper.supportedTimezones) {
+			assertThat(timeZoneId, TimeZoneRegistry.isSupported(timeZoneId), is(true));
+		}
+		assertThat(TimeZoneRegistry.isSupported("Invalid TimeZone"), is(false));
+		assertThat(TimeZoneRegistry.isSupported(null), is(false));
+	}
+
+	@Test
+	public void testGet_same_rules_as_time_zone() {
+		long now = System.currentTimeMillis();
+		for (String timeZoneId : DateHelper.supportedTimezones) {
+			TimeZoneRegistry.Entry entry = TimeZoneRegistry.get(timeZoneId);
+			TimeZone timeZone = TimeZone.getTimeZone(timeZoneId.trim());
+			int offsetMillis = entry.getZoneRules().getOffset(Instant.ofEpochMilli(now)).getTotalSeconds() * 1000;
+
+			assertThat(timeZoneId, entry.getTimeZone().getOffset(now), is(timeZone.getOffset(now)));
+			assertThat(timeZoneId, offsetMillis, is(timeZone.getOffset(now)));
+		}
+		assertThat(TimeZoneRegistry.get("Invalid TimeZone"), is(nullValue()));
+	}
+
+	@Test
+	public void testGet_trailing_space() {
+		assertThat(TimeZoneRegistry.get("America/Iqaluit ").getZoneId().getId(), is("America/Iqaluit"));
+	}
+}
@@ -0,0 +1,54 @@
+package org.cloudfoundry.autoscaler.scheduler.util.error;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.apache.logging.log4j.message.Message;
+import org.cloudfoundry.autoscaler.scheduler.util.TestConfiguration;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class MessageBundleResourceHelperTest extends TestConfiguration {
+
+	@Autowired
+	private MessageBundleResourceHelper messageBundleResourceHelper;
+
+	@Test
+	public void testLookupMessage() {
+		assertThat(messageBundleResourceHelper.lookupMessage("scheduler.error.create.failed", "app_id=1", "test"),
+				is("Failed to create scheduler job app_id=1. Error message: test."));
+		// The cached pattern formats other arguments
+		assertThat(messageBundleResourceHelper.lookupMessage("scheduler.error.create.failed", "app_id=2", "test"),
+				is("Failed to create scheduler job app_id=2. Error message: test."));
+		assertThat(messageBundleResourceHelper.lookupMessage("invalid.key"), is("[invalid.key]"));
+	}
+
+	@Test
+	public void testLogMessage() {
+		Message message = messageBundleResourceHelper.logMessage("data.value.not.specified", "app_id");
+
+		assertThat(message.getFormat(), is("data.value.not.specified"));
+		assertThat(message.getFormattedMessage(),
+				is(messageBundleResourceHelper.lookupMessage("data.value.not.specified", "app_id")));
+	}
+
+	@Test
+	public void testGetAllErrorMessages() {
+		ValidationErrorResult validationErrorResult = new ValidationErrorResult();
+		assertThat(validationErrorResult.hasErrors(), is(false));
+
+		validationErrorResult.addFieldError(null, "data.value.not.specified", "app_id");
+		List<String> errors = validationErrorResult.getAllErrorMessages(messageBundleResourceHelper);
+
+		assertThat(validationErrorResult.hasErrors(), is(true));
+		assertThat(errors.size(), is(1));
+		assertThat(errors.get(0), is("app_id is not specified."));
+	}
+}